@@ -0,0 +1,123 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify;
+
+import org.json.JSONException;
+import com.unitvectory.jsonassertify.comparator.JSONComparator;
+
+/**
+ * <p>
+ * A value matcher for JSON that is embedded in string values, such as the
+ * {@code payload} of <code>{"payload": "{\"a\":1}"}</code>. Strings that hold
+ * a JSON object or array are parsed and compared structurally with the
+ * provided comparator, so their failures are reported like any other, with
+ * paths such as {@code payload.a}. Other values are passed to the comparator
+ * unchanged.
+ * </p>
+ *
+ * <pre>{@code
+ * JSONComparator comparator = new DefaultComparator(JSONCompareMode.LENIENT);
+ * Customization customization = new Customization("**.payload",
+ * 		new EmbeddedJSONValueMatcher<Object>(comparator));
+ * JSONAssert.assertEquals(EXPECTED, ACTUAL, new CustomComparator(JSONCompareMode.LENIENT, customization));
+ * }</pre>
+ *
+ * <p>
+ * Each embedded string is parsed only once: the matcher keeps a bounded cache
+ * of the parsed values, so an expected payload that is matched against every
+ * element of an array, or a comparator that is reused across tests, does not
+ * parse the same string again. The matcher is safe to use from several
+ * threads.
+ * </p>
+ *
+ * @param <T> type of JSON value to be compared
+ */
+public class EmbeddedJSONValueMatcher<T> implements LocationAwareValueMatcher<T> {
+
+	private static final int DEFAULT_CACHE_SIZE = 256;
+
+	private final JSONComparator comparator;
+
+	private final ParseCache cache;
+
+	/**
+	 * Create EmbeddedJSONValueMatcher that compares the embedded JSON with the
+	 * provided comparator.
+	 *
+	 * @param comparator
+	 *                   comparator to use to compare the embedded JSON
+	 */
+	public EmbeddedJSONValueMatcher(JSONComparator comparator) {
+		this(comparator, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Create EmbeddedJSONValueMatcher that compares the embedded JSON with the
+	 * provided comparator, keeping at most the provided number of parsed
+	 * strings.
+	 *
+	 * @param comparator
+	 *                   comparator to use to compare the embedded JSON
+	 * @param cacheSize
+	 *                   the maximum number of parsed strings kept
+	 */
+	public EmbeddedJSONValueMatcher(JSONComparator comparator, int cacheSize) {
+		if (comparator == null) {
+			throw new IllegalArgumentException("comparator must not be null");
+		}
+		if (cacheSize < 1) {
+			throw new IllegalArgumentException("cacheSize must be positive");
+		}
+		this.comparator = comparator;
+		this.cache = new ParseCache(cacheSize);
+	}
+
+	@Override
+	public boolean equal(T o1, T o2) {
+		// NOTE: method defined as required by ValueMatcher interface but will never be
+		// called so defined simply to indicate match failure
+		return false;
+	}
+
+	@Override
+	public boolean equal(String prefix, T actual, T expected, JSONCompareResult result) {
+		Object expectedValue = parse(expected, "Expected", expected, actual);
+		Object actualValue = parse(actual, "Actual", expected, actual);
+		comparator.compareValues(prefix, expectedValue, actualValue, result);
+		// any failures have already been passed to result, so return true
+		return true;
+	}
+
+	private Object parse(Object value, String role, Object expected, Object actual) {
+		if (!(value instanceof String) || !isContainer((String) value)) {
+			return value;
+		}
+		try {
+			return cache.parse((String) value, JSONParseOptions.DEFAULT);
+		} catch (JSONException e) {
+			throw new ValueMatcherException(role + " value is not valid embedded JSON: " + e.getMessage(), e,
+					String.valueOf(expected), String.valueOf(actual));
+		}
+	}
+
+	private static boolean isContainer(String s) {
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c > ' ') {
+				return c == '{' || c == '[';
+			}
+		}
+		return false;
+	}
+}
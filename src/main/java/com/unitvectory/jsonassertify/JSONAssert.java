@@ -13,6 +13,10 @@
 */
 package com.unitvectory.jsonassertify;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -177,7 +181,7 @@ public class JSONAssert {
      */
     public static void assertEquals(String message, String expectedStr, JSONObject actual, JSONCompareMode compareMode)
             throws JSONException {
-        Object expected = JSONParser.parseJSON(expectedStr);
+        Object expected = JSONCompare.parseExpected(expectedStr, JSONParseOptions.DEFAULT);
         if (expected instanceof JSONObject) {
             assertEquals(message, (JSONObject) expected, actual, compareMode);
         } else {
@@ -218,7 +222,7 @@ public class JSONAssert {
     public static void assertNotEquals(String message, String expectedStr, JSONObject actual,
             JSONCompareMode compareMode)
             throws JSONException {
-        Object expected = JSONParser.parseJSON(expectedStr);
+        Object expected = JSONCompare.parseExpected(expectedStr, JSONParseOptions.DEFAULT);
         if (expected instanceof JSONObject) {
             assertNotEquals(message, (JSONObject) expected, actual, compareMode);
         } else {
@@ -316,7 +320,7 @@ public class JSONAssert {
      */
     public static void assertEquals(String message, String expectedStr, JSONArray actual, JSONCompareMode compareMode)
             throws JSONException {
-        Object expected = JSONParser.parseJSON(expectedStr);
+        Object expected = JSONCompare.parseExpected(expectedStr, JSONParseOptions.DEFAULT);
         if (expected instanceof JSONArray) {
             assertEquals(message, (JSONArray) expected, actual, compareMode);
         } else {
@@ -336,7 +340,7 @@ public class JSONAssert {
      */
     public static void assertNotEquals(String expectedStr, JSONArray actual, JSONCompareMode compareMode)
             throws JSONException {
-        Object expected = JSONParser.parseJSON(expectedStr);
+        Object expected = JSONCompare.parseExpected(expectedStr, JSONParseOptions.DEFAULT);
         if (expected instanceof JSONArray) {
             assertNotEquals((JSONArray) expected, actual, compareMode);
         } else {
@@ -358,7 +362,7 @@ public class JSONAssert {
     public static void assertNotEquals(String message, String expectedStr, JSONArray actual,
             JSONCompareMode compareMode)
             throws JSONException {
-        Object expected = JSONParser.parseJSON(expectedStr);
+        Object expected = JSONCompare.parseExpected(expectedStr, JSONParseOptions.DEFAULT);
         if (expected instanceof JSONArray) {
             assertNotEquals(message, (JSONArray) expected, actual, compareMode);
         } else {
@@ -469,6 +473,50 @@ public class JSONAssert {
         }
     }
 
+    /**
+     * Asserts that the value a JSON Pointer refers to in the actual JSON string
+     * matches the expected JSON. Only the part of the actual string up to the
+     * referenced value is scanned, and only the referenced value is parsed. If
+     * it doesn't match, or there is no such value, it throws an
+     * {@link AssertionError}.
+     *
+     * @param expectedStr Expected JSON of the referenced value
+     * @param actualStr   String to compare
+     * @param pointer     RFC 6901 JSON Pointer into the actual string, such as
+     *                    {@code /data/items/3/price}
+     * @param compareMode Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error, or an invalid pointer
+     */
+    public static void assertEqualsAt(String expectedStr, String actualStr, String pointer,
+            JSONCompareMode compareMode) throws JSONException {
+        assertEqualsAt("", expectedStr, actualStr, pointer, compareMode);
+    }
+
+    /**
+     * Asserts that the value a JSON Pointer refers to in the actual JSON string
+     * matches the expected JSON. If it doesn't match, or there is no such value,
+     * it throws an {@link AssertionError}.
+     *
+     * @param message     Error message to be displayed in case of assertion failure
+     * @param expectedStr Expected JSON of the referenced value
+     * @param actualStr   String to compare
+     * @param pointer     RFC 6901 JSON Pointer into the actual string
+     * @param compareMode Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error, or an invalid pointer
+     */
+    public static void assertEqualsAt(String message, String expectedStr, String actualStr, String pointer,
+            JSONCompareMode compareMode) throws JSONException {
+        if (expectedStr == null) {
+            throw new AssertionError("Expected string is null.");
+        } else if (actualStr == null) {
+            throw new AssertionError("Actual string is null.");
+        }
+        JSONCompareResult result = JSONCompare.compareJSONAt(expectedStr, actualStr, pointer, compareMode);
+        if (result.failed()) {
+            throw new AssertionError(getCombinedMessage(message, result.getMessage()));
+        }
+    }
+
     /**
      * Asserts that the JSONArray provided does not match the expected string. If it
      * is it throws an
@@ -573,6 +621,562 @@ public class JSONAssert {
         }
     }
 
+    /**
+     * Asserts that the JSON bytes provided matches the expected JSON bytes.
+     * If it isn't it throws an {@link AssertionError}.
+     *
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param strict      Enables strict checking
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertEquals(byte[] expected, byte[] actual, boolean strict) throws JSONException {
+        assertEquals(expected, actual, strict ? JSONCompareMode.STRICT : JSONCompareMode.LENIENT);
+    }
+
+    /**
+     * Asserts that the JSON bytes provided matches the expected JSON bytes.
+     * If it isn't it throws an {@link AssertionError}.
+     *
+     * @param message     Error message to be displayed in case of assertion failure
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param strict      Enables strict checking
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertEquals(String message, byte[] expected, byte[] actual, boolean strict)
+            throws JSONException {
+        assertEquals(message, expected, actual, strict ? JSONCompareMode.STRICT : JSONCompareMode.LENIENT);
+    }
+
+    /**
+     * Asserts that the JSON bytes provided does not match the expected JSON bytes.
+     * If it is it throws an {@link AssertionError}.
+     *
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param strict      Enables strict checking
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertNotEquals(byte[] expected, byte[] actual, boolean strict) throws JSONException {
+        assertNotEquals(expected, actual, strict ? JSONCompareMode.STRICT : JSONCompareMode.LENIENT);
+    }
+
+    /**
+     * Asserts that the JSON bytes provided does not match the expected JSON bytes.
+     * If it is it throws an {@link AssertionError}.
+     *
+     * @param message     Error message to be displayed in case of assertion failure
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param strict      Enables strict checking
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertNotEquals(String message, byte[] expected, byte[] actual, boolean strict)
+            throws JSONException {
+        assertNotEquals(message, expected, actual, strict ? JSONCompareMode.STRICT : JSONCompareMode.LENIENT);
+    }
+
+    /**
+     * Asserts that the JSON bytes provided matches the expected JSON bytes.
+     * If it isn't it throws an {@link AssertionError}.
+     *
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param compareMode Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertEquals(byte[] expected, byte[] actual, JSONCompareMode compareMode)
+            throws JSONException {
+        assertEquals("", expected, actual, compareMode);
+    }
+
+    /**
+     * Asserts that the JSON bytes provided matches the expected JSON bytes.
+     * If it isn't it throws an {@link AssertionError}.
+     *
+     * @param message     Error message to be displayed in case of assertion failure
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param compareMode Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertEquals(String message, byte[] expected, byte[] actual, JSONCompareMode compareMode)
+            throws JSONException {
+        if (expected == actual)
+            return;
+        if (expected == null) {
+            throw new AssertionError("Expected JSON is null.");
+        } else if (actual == null) {
+            throw new AssertionError("Actual JSON is null.");
+        }
+        JSONCompareResult result = JSONCompare.compareJSON(expected, actual, compareMode);
+        if (result.failed()) {
+            throw new AssertionError(getCombinedMessage(message, result.getMessage()));
+        }
+    }
+
+    /**
+     * Asserts that the JSON bytes provided does not match the expected JSON bytes.
+     * If it is it throws an {@link AssertionError}.
+     *
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param compareMode Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertNotEquals(byte[] expected, byte[] actual, JSONCompareMode compareMode)
+            throws JSONException {
+        assertNotEquals("", expected, actual, compareMode);
+    }
+
+    /**
+     * Asserts that the JSON bytes provided does not match the expected JSON bytes.
+     * If it is it throws an {@link AssertionError}.
+     *
+     * @param message     Error message to be displayed in case of assertion failure
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param compareMode Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertNotEquals(String message, byte[] expected, byte[] actual, JSONCompareMode compareMode)
+            throws JSONException {
+        JSONCompareResult result = JSONCompare.compareJSON(expected, actual, compareMode);
+        if (result.passed()) {
+            throw new AssertionError(getCombinedMessage(message, result.getMessage()));
+        }
+    }
+
+    /**
+     * Asserts that the JSON bytes provided matches the expected JSON bytes.
+     * If it isn't it throws an {@link AssertionError}.
+     *
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param comparator  Comparator
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertEquals(byte[] expected, byte[] actual, JSONComparator comparator)
+            throws JSONException {
+        assertEquals("", expected, actual, comparator);
+    }
+
+    /**
+     * Asserts that the JSON bytes provided matches the expected JSON bytes.
+     * If it isn't it throws an {@link AssertionError}.
+     *
+     * @param message     Error message to be displayed in case of assertion failure
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param comparator  Comparator
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertEquals(String message, byte[] expected, byte[] actual, JSONComparator comparator)
+            throws JSONException {
+        JSONCompareResult result = JSONCompare.compareJSON(expected, actual, comparator);
+        if (result.failed()) {
+            throw new AssertionError(getCombinedMessage(message, result.getMessage()));
+        }
+    }
+
+    /**
+     * Asserts that the JSON bytes provided does not match the expected JSON bytes.
+     * If it is it throws an {@link AssertionError}.
+     *
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param comparator  Comparator
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertNotEquals(byte[] expected, byte[] actual, JSONComparator comparator)
+            throws JSONException {
+        assertNotEquals("", expected, actual, comparator);
+    }
+
+    /**
+     * Asserts that the JSON bytes provided does not match the expected JSON bytes.
+     * If it is it throws an {@link AssertionError}.
+     *
+     * @param message     Error message to be displayed in case of assertion failure
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param comparator  Comparator
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertNotEquals(String message, byte[] expected, byte[] actual, JSONComparator comparator)
+            throws JSONException {
+        JSONCompareResult result = JSONCompare.compareJSON(expected, actual, comparator);
+        if (result.passed()) {
+            throw new AssertionError(getCombinedMessage(message, result.getMessage()));
+        }
+    }
+
+    /**
+     * Asserts that the JSON buffer provided matches the expected JSON buffer.
+     * If it isn't it throws an {@link AssertionError}.
+     *
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param strict      Enables strict checking
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertEquals(ByteBuffer expected, ByteBuffer actual, boolean strict) throws JSONException {
+        assertEquals(expected, actual, strict ? JSONCompareMode.STRICT : JSONCompareMode.LENIENT);
+    }
+
+    /**
+     * Asserts that the JSON buffer provided matches the expected JSON buffer.
+     * If it isn't it throws an {@link AssertionError}.
+     *
+     * @param message     Error message to be displayed in case of assertion failure
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param strict      Enables strict checking
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertEquals(String message, ByteBuffer expected, ByteBuffer actual, boolean strict)
+            throws JSONException {
+        assertEquals(message, expected, actual, strict ? JSONCompareMode.STRICT : JSONCompareMode.LENIENT);
+    }
+
+    /**
+     * Asserts that the JSON buffer provided does not match the expected JSON buffer.
+     * If it is it throws an {@link AssertionError}.
+     *
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param strict      Enables strict checking
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertNotEquals(ByteBuffer expected, ByteBuffer actual, boolean strict) throws JSONException {
+        assertNotEquals(expected, actual, strict ? JSONCompareMode.STRICT : JSONCompareMode.LENIENT);
+    }
+
+    /**
+     * Asserts that the JSON buffer provided does not match the expected JSON buffer.
+     * If it is it throws an {@link AssertionError}.
+     *
+     * @param message     Error message to be displayed in case of assertion failure
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param strict      Enables strict checking
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertNotEquals(String message, ByteBuffer expected, ByteBuffer actual, boolean strict)
+            throws JSONException {
+        assertNotEquals(message, expected, actual, strict ? JSONCompareMode.STRICT : JSONCompareMode.LENIENT);
+    }
+
+    /**
+     * Asserts that the JSON buffer provided matches the expected JSON buffer.
+     * If it isn't it throws an {@link AssertionError}.
+     *
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param compareMode Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertEquals(ByteBuffer expected, ByteBuffer actual, JSONCompareMode compareMode)
+            throws JSONException {
+        assertEquals("", expected, actual, compareMode);
+    }
+
+    /**
+     * Asserts that the JSON buffer provided matches the expected JSON buffer.
+     * If it isn't it throws an {@link AssertionError}.
+     *
+     * @param message     Error message to be displayed in case of assertion failure
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param compareMode Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertEquals(String message, ByteBuffer expected, ByteBuffer actual, JSONCompareMode compareMode)
+            throws JSONException {
+        if (expected == actual)
+            return;
+        if (expected == null) {
+            throw new AssertionError("Expected JSON is null.");
+        } else if (actual == null) {
+            throw new AssertionError("Actual JSON is null.");
+        }
+        JSONCompareResult result = JSONCompare.compareJSON(expected, actual, compareMode);
+        if (result.failed()) {
+            throw new AssertionError(getCombinedMessage(message, result.getMessage()));
+        }
+    }
+
+    /**
+     * Asserts that the JSON buffer provided does not match the expected JSON buffer.
+     * If it is it throws an {@link AssertionError}.
+     *
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param compareMode Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertNotEquals(ByteBuffer expected, ByteBuffer actual, JSONCompareMode compareMode)
+            throws JSONException {
+        assertNotEquals("", expected, actual, compareMode);
+    }
+
+    /**
+     * Asserts that the JSON buffer provided does not match the expected JSON buffer.
+     * If it is it throws an {@link AssertionError}.
+     *
+     * @param message     Error message to be displayed in case of assertion failure
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param compareMode Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertNotEquals(String message, ByteBuffer expected, ByteBuffer actual,
+            JSONCompareMode compareMode)
+            throws JSONException {
+        JSONCompareResult result = JSONCompare.compareJSON(expected, actual, compareMode);
+        if (result.passed()) {
+            throw new AssertionError(getCombinedMessage(message, result.getMessage()));
+        }
+    }
+
+    /**
+     * Asserts that the JSON buffer provided matches the expected JSON buffer.
+     * If it isn't it throws an {@link AssertionError}.
+     *
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param comparator  Comparator
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertEquals(ByteBuffer expected, ByteBuffer actual, JSONComparator comparator)
+            throws JSONException {
+        assertEquals("", expected, actual, comparator);
+    }
+
+    /**
+     * Asserts that the JSON buffer provided matches the expected JSON buffer.
+     * If it isn't it throws an {@link AssertionError}.
+     *
+     * @param message     Error message to be displayed in case of assertion failure
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param comparator  Comparator
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertEquals(String message, ByteBuffer expected, ByteBuffer actual, JSONComparator comparator)
+            throws JSONException {
+        JSONCompareResult result = JSONCompare.compareJSON(expected, actual, comparator);
+        if (result.failed()) {
+            throw new AssertionError(getCombinedMessage(message, result.getMessage()));
+        }
+    }
+
+    /**
+     * Asserts that the JSON buffer provided does not match the expected JSON buffer.
+     * If it is it throws an {@link AssertionError}.
+     *
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param comparator  Comparator
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertNotEquals(ByteBuffer expected, ByteBuffer actual, JSONComparator comparator)
+            throws JSONException {
+        assertNotEquals("", expected, actual, comparator);
+    }
+
+    /**
+     * Asserts that the JSON buffer provided does not match the expected JSON buffer.
+     * If it is it throws an {@link AssertionError}.
+     *
+     * @param message     Error message to be displayed in case of assertion failure
+     * @param expected    Expected JSON, UTF-8 encoded
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param comparator  Comparator
+     * @throws JSONException JSON parsing error
+     */
+    public static void assertNotEquals(String message, ByteBuffer expected, ByteBuffer actual,
+            JSONComparator comparator)
+            throws JSONException {
+        JSONCompareResult result = JSONCompare.compareJSON(expected, actual, comparator);
+        if (result.passed()) {
+            throw new AssertionError(getCombinedMessage(message, result.getMessage()));
+        }
+    }
+
+    /**
+     * Asserts that the compressed JSON read from the stream matches the
+     * expected JSON string. If it isn't it throws an {@link AssertionError}. The
+     * stream is inflated as it is parsed and is not closed.
+     *
+     * @param expectedStr     Expected JSON string
+     * @param actual          Stream of the JSON to compare, UTF-8 encoded before
+     *                        it was compressed
+     * @param contentEncoding Codings applied to the stream, like the HTTP
+     *                        {@code Content-Encoding} header, null for none
+     * @param compareMode     Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the stream cannot be read or inflated
+     */
+    public static void assertEquals(String expectedStr, InputStream actual, String contentEncoding,
+            JSONCompareMode compareMode) throws JSONException, IOException {
+        assertEquals("", expectedStr, actual, contentEncoding, compareMode);
+    }
+
+    /**
+     * Asserts that the compressed JSON read from the stream matches the
+     * expected JSON string. If it isn't it throws an {@link AssertionError}. The
+     * stream is inflated as it is parsed and is not closed.
+     *
+     * @param message         Error message to be displayed in case of assertion
+     *                        failure
+     * @param expectedStr     Expected JSON string
+     * @param actual          Stream of the JSON to compare, UTF-8 encoded before
+     *                        it was compressed
+     * @param contentEncoding Codings applied to the stream, like the HTTP
+     *                        {@code Content-Encoding} header, null for none
+     * @param compareMode     Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the stream cannot be read or inflated
+     */
+    public static void assertEquals(String message, String expectedStr, InputStream actual,
+            String contentEncoding, JSONCompareMode compareMode) throws JSONException, IOException {
+        JSONCompareResult result = JSONCompare.compareJSON(expectedStr, actual, contentEncoding, compareMode);
+        if (result.failed()) {
+            throw new AssertionError(getCombinedMessage(message, result.getMessage()));
+        }
+    }
+
+    /**
+     * Asserts that the compressed JSON read from the stream does not match the
+     * expected JSON string. If it is it throws an {@link AssertionError}. The
+     * stream is inflated as it is parsed and is not closed.
+     *
+     * @param expectedStr     Expected JSON string
+     * @param actual          Stream of the JSON to compare, UTF-8 encoded before
+     *                        it was compressed
+     * @param contentEncoding Codings applied to the stream, like the HTTP
+     *                        {@code Content-Encoding} header, null for none
+     * @param compareMode     Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the stream cannot be read or inflated
+     */
+    public static void assertNotEquals(String expectedStr, InputStream actual, String contentEncoding,
+            JSONCompareMode compareMode) throws JSONException, IOException {
+        assertNotEquals("", expectedStr, actual, contentEncoding, compareMode);
+    }
+
+    /**
+     * Asserts that the compressed JSON read from the stream does not match the
+     * expected JSON string. If it is it throws an {@link AssertionError}. The
+     * stream is inflated as it is parsed and is not closed.
+     *
+     * @param message         Error message to be displayed in case of assertion
+     *                        failure
+     * @param expectedStr     Expected JSON string
+     * @param actual          Stream of the JSON to compare, UTF-8 encoded before
+     *                        it was compressed
+     * @param contentEncoding Codings applied to the stream, like the HTTP
+     *                        {@code Content-Encoding} header, null for none
+     * @param compareMode     Specifies which comparison mode to use
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the stream cannot be read or inflated
+     */
+    public static void assertNotEquals(String message, String expectedStr, InputStream actual,
+            String contentEncoding, JSONCompareMode compareMode) throws JSONException, IOException {
+        JSONCompareResult result = JSONCompare.compareJSON(expectedStr, actual, contentEncoding, compareMode);
+        if (result.passed()) {
+            throw new AssertionError(getCombinedMessage(message, result.getMessage()));
+        }
+    }
+
+    /**
+     * Asserts that the compressed JSON read from the stream matches the
+     * expected JSON string. If it isn't it throws an {@link AssertionError}. The
+     * stream is inflated as it is parsed and is not closed.
+     *
+     * @param expectedStr     Expected JSON string
+     * @param actual          Stream of the JSON to compare, UTF-8 encoded before
+     *                        it was compressed
+     * @param contentEncoding Codings applied to the stream, like the HTTP
+     *                        {@code Content-Encoding} header, null for none
+     * @param comparator      Comparator
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the stream cannot be read or inflated
+     */
+    public static void assertEquals(String expectedStr, InputStream actual, String contentEncoding,
+            JSONComparator comparator) throws JSONException, IOException {
+        assertEquals("", expectedStr, actual, contentEncoding, comparator);
+    }
+
+    /**
+     * Asserts that the compressed JSON read from the stream matches the
+     * expected JSON string. If it isn't it throws an {@link AssertionError}. The
+     * stream is inflated as it is parsed and is not closed.
+     *
+     * @param message         Error message to be displayed in case of assertion
+     *                        failure
+     * @param expectedStr     Expected JSON string
+     * @param actual          Stream of the JSON to compare, UTF-8 encoded before
+     *                        it was compressed
+     * @param contentEncoding Codings applied to the stream, like the HTTP
+     *                        {@code Content-Encoding} header, null for none
+     * @param comparator      Comparator
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the stream cannot be read or inflated
+     */
+    public static void assertEquals(String message, String expectedStr, InputStream actual,
+            String contentEncoding, JSONComparator comparator) throws JSONException, IOException {
+        JSONCompareResult result = JSONCompare.compareJSON(expectedStr, actual, contentEncoding, comparator);
+        if (result.failed()) {
+            throw new AssertionError(getCombinedMessage(message, result.getMessage()));
+        }
+    }
+
+    /**
+     * Asserts that the compressed JSON read from the stream does not match the
+     * expected JSON string. If it is it throws an {@link AssertionError}. The
+     * stream is inflated as it is parsed and is not closed.
+     *
+     * @param expectedStr     Expected JSON string
+     * @param actual          Stream of the JSON to compare, UTF-8 encoded before
+     *                        it was compressed
+     * @param contentEncoding Codings applied to the stream, like the HTTP
+     *                        {@code Content-Encoding} header, null for none
+     * @param comparator      Comparator
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the stream cannot be read or inflated
+     */
+    public static void assertNotEquals(String expectedStr, InputStream actual, String contentEncoding,
+            JSONComparator comparator) throws JSONException, IOException {
+        assertNotEquals("", expectedStr, actual, contentEncoding, comparator);
+    }
+
+    /**
+     * Asserts that the compressed JSON read from the stream does not match the
+     * expected JSON string. If it is it throws an {@link AssertionError}. The
+     * stream is inflated as it is parsed and is not closed.
+     *
+     * @param message         Error message to be displayed in case of assertion
+     *                        failure
+     * @param expectedStr     Expected JSON string
+     * @param actual          Stream of the JSON to compare, UTF-8 encoded before
+     *                        it was compressed
+     * @param contentEncoding Codings applied to the stream, like the HTTP
+     *                        {@code Content-Encoding} header, null for none
+     * @param comparator      Comparator
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the stream cannot be read or inflated
+     */
+    public static void assertNotEquals(String message, String expectedStr, InputStream actual,
+            String contentEncoding, JSONComparator comparator) throws JSONException, IOException {
+        JSONCompareResult result = JSONCompare.compareJSON(expectedStr, actual, contentEncoding, comparator);
+        if (result.passed()) {
+            throw new AssertionError(getCombinedMessage(message, result.getMessage()));
+        }
+    }
+
     /**
      * Asserts that the JSONObject provided matches the expected JSONObject. If it
      * isn't it throws an
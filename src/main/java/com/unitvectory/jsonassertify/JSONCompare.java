@@ -13,12 +13,39 @@
 */
 package com.unitvectory.jsonassertify;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONString;
 import com.unitvectory.jsonassertify.comparator.DefaultComparator;
+import com.unitvectory.jsonassertify.comparator.IncrementalComparator;
 import com.unitvectory.jsonassertify.comparator.JSONComparator;
+import com.unitvectory.jsonassertify.comparator.StreamingComparator;
+import com.unitvectory.jsonassertify.parser.CBORParser;
+import com.unitvectory.jsonassertify.parser.ContentEncoding;
+import com.unitvectory.jsonassertify.parser.JSONDocument;
+import com.unitvectory.jsonassertify.parser.JSONInput;
+import com.unitvectory.jsonassertify.parser.JSONInterner;
+import com.unitvectory.jsonassertify.parser.MessagePackParser;
+import com.unitvectory.jsonassertify.parser.JSONPointerLocator;
+import com.unitvectory.jsonassertify.parser.JSONProjection;
+import com.unitvectory.jsonassertify.parser.StructuralIndex;
+import com.unitvectory.jsonassertify.parser.JSONTokenizer;
+import com.unitvectory.jsonassertify.parser.JSONTreeBuilder;
 
 /**
  * Provides API to compare two JSON entities. This is the backend to
@@ -32,6 +59,22 @@ import com.unitvectory.jsonassertify.comparator.JSONComparator;
  */
 public final class JSONCompare {
 
+    /**
+     * The estimated heap taken by the parsed tree of each character of JSON,
+     * used to check inputs against the memory budget.
+     */
+    private static final int TREE_BYTES_PER_CHAR = 8;
+
+    /**
+     * The maximum number of failures kept by comparisons that run within the
+     * memory budget.
+     */
+    private static final int BUDGET_MAX_FAILURES = 1000;
+
+    private static volatile ParseCache expectedCache;
+
+    private static volatile long memoryBudget;
+
     /**
      * Private constructor to prevent instantiation.
      */
@@ -42,6 +85,133 @@ public final class JSONCompare {
         return new DefaultComparator(mode);
     }
 
+    /**
+     * Enables or disables the cache of parsed expected JSON strings. When
+     * enabled, comparisons that take the expected JSON as a string reuse the
+     * value it was parsed into before, which helps tests that compare against
+     * the same expected JSON many times. The cache keeps at most the provided
+     * number of strings, evicting the least recently used one, and lets the
+     * garbage collector reclaim the parsed values under memory pressure. It is
+     * disabled by default, and is safe to use from tests that run concurrently.
+     *
+     * @param maxEntries the maximum number of parsed strings kept, or 0 to
+     *                   disable the cache and drop its entries
+     */
+    public static void setExpectedCacheSize(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries must not be negative");
+        }
+        expectedCache = maxEntries == 0 ? null : new ParseCache(maxEntries);
+    }
+
+    /**
+     * Sets the memory budget of a comparison. JSON text, bytes and files whose
+     * parsed trees are estimated to take more than the budget, at about
+     * 8 bytes per character, are no longer parsed
+     * into full {@link JSONObject} trees. Comparisons in a
+     * {@link JSONCompareMode} stream both documents through a
+     * {@link StreamingComparator} instead, and keep the details of at most
+     * 1000 failures. Comparisons with a custom
+     * comparator parse both documents into compact
+     * {@link JSONDocument} tables. Comparisons that are given parse options
+     * other than {@link JSONParseOptions#DEFAULT}, with or without a structural
+     * index, are not changed. Bytes that are streamed with a structural index
+     * skip the members and elements only one document has without reading them.
+     * There is no budget by default.
+     *
+     * @param bytes the memory budget in bytes, or 0 to remove the budget
+     */
+    public static void setMemoryBudget(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("bytes must not be negative");
+        }
+        memoryBudget = bytes;
+    }
+
+    /**
+     * Checks if the trees of JSON with the provided lengths would exceed the
+     * memory budget.
+     */
+    private static boolean exceedsBudget(long expectedLength, long actualLength, JSONParseOptions options) {
+        long budget = memoryBudget;
+        return budget > 0 && options.withStructuralIndex(false).equals(JSONParseOptions.DEFAULT)
+                && expectedLength + actualLength > budget / TREE_BYTES_PER_CHAR;
+    }
+
+    /**
+     * Gets the options to parse JSON with the provided lengths with, which hold
+     * the trees as compact documents if they would exceed the memory budget.
+     */
+    private static JSONParseOptions withinBudget(long expectedLength, long actualLength,
+            JSONParseOptions options) {
+        if (exceedsBudget(expectedLength, actualLength, options)) {
+            return options.withCompactDocument(true);
+        }
+        return options;
+    }
+
+    /**
+     * Compares two objects or arrays by streaming them, keeping a bounded number
+     * of failures. Returns null if either input holds a top level string or
+     * number, which is small enough to be compared as usual. The inputs are
+     * only read if they are compared.
+     */
+    private static JSONCompareResult compareWithinBudget(JSONInput expected, JSONInput actual,
+            JSONCompareMode mode) throws JSONException {
+        return compareWithinBudget(expected, null, actual, null, mode);
+    }
+
+    /**
+     * Compares two buffers by streaming them, skipping the members and elements
+     * that only one of them has with a {@link StructuralIndex} if the options
+     * ask for one.
+     */
+    private static JSONCompareResult compareWithinBudget(ByteBuffer expected, ByteBuffer actual,
+            JSONCompareMode mode, JSONParseOptions options) throws JSONException {
+        JSONInput expectedInput = JSONInput.of(expected);
+        JSONInput actualInput = JSONInput.of(actual);
+        if (!options.isStructuralIndex() || !startsWithContainer(expectedInput) || !startsWithContainer(actualInput)) {
+            return compareWithinBudget(expectedInput, actualInput, mode);
+        }
+        return compareWithinBudget(expectedInput, StructuralIndex.of(expected), actualInput,
+                StructuralIndex.of(actual), mode);
+    }
+
+    private static JSONCompareResult compareWithinBudget(JSONInput expected, StructuralIndex expectedIndex,
+            JSONInput actual, StructuralIndex actualIndex, JSONCompareMode mode) throws JSONException {
+        if (!startsWithContainer(expected) || !startsWithContainer(actual)) {
+            return null;
+        }
+        return new StreamingComparator(mode, BUDGET_MAX_FAILURES).compareJSON(
+                new JSONTokenizer(expected, 0, expectedIndex), new JSONTokenizer(actual, 0, actualIndex));
+    }
+
+    private static boolean startsWithContainer(JSONInput input) {
+        JSONInput peek = input.reopen(0);
+        for (int c = peek.read(); c >= 0; c = peek.read()) {
+            if (c > ' ') {
+                return c == '{' || c == '[';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses an expected JSON string, through the cache when it is enabled. The
+     * value is not interned, see {@link #parseOnly(JSONParseOptions)}, and is
+     * then not cached either, as interning changes it in place.
+     */
+    static Object parseExpected(CharSequence expectedStr, JSONParseOptions options) throws JSONException {
+        ParseCache cache = expectedCache;
+        if (options.isHashConsing()) {
+            return JSONParser.parseJSON(expectedStr, parseOnly(options));
+        } else if (cache == null || !(expectedStr instanceof String)) {
+            // Other sequences may change, so they cannot be used as keys
+            return JSONParser.parseJSON(expectedStr, options);
+        }
+        return cache.parse((String) expectedStr, options);
+    }
+
     /**
      * Compares JSON string provided to the expected JSON string using provided
      * comparator, and returns the results of
@@ -57,8 +227,50 @@ public final class JSONCompare {
      */
     public static JSONCompareResult compareJSON(String expectedStr, String actualStr, JSONComparator comparator)
             throws JSONException {
-        Object expected = JSONParser.parseJSON(expectedStr);
-        Object actual = JSONParser.parseJSON(actualStr);
+        return compareJSON(expectedStr, actualStr, comparator, JSONParseOptions.DEFAULT);
+    }
+
+    /**
+     * Compares JSON string provided to the expected JSON string using provided
+     * comparator, after parsing both according to the provided options, and
+     * returns the results of the comparison.
+     * 
+     * @param expectedStr Expected JSON string
+     * @param actualStr   JSON string to compare
+     * @param comparator  Comparator to use
+     * @param options     Defines how both JSON strings are parsed
+     * @return result of the comparison
+     * @throws JSONException            JSON parsing error
+     * @throws IllegalArgumentException when type of expectedStr doesn't match the
+     *                                  type of actualStr
+     */
+    public static JSONCompareResult compareJSON(String expectedStr, String actualStr, JSONComparator comparator,
+            JSONParseOptions options) throws JSONException {
+        return compareJSON((CharSequence) expectedStr, (CharSequence) actualStr, comparator, options);
+    }
+
+    /**
+     * Gets the options to parse a document that is compared with the provided
+     * options. Hash-consing is left out, as {@link #compareParsed(Object, Object,
+     * JSONComparator, JSONParseOptions)} interns both documents at once.
+     */
+    private static JSONParseOptions parseOnly(JSONParseOptions options) {
+        return options.isHashConsing() ? options.withHashConsing(false) : options;
+    }
+
+    private static JSONCompareResult compareParsed(Object expected, Object actual, JSONComparator comparator,
+            JSONParseOptions options) throws JSONException {
+        if (options.isHashConsing()) {
+            // Share identical subtrees across both documents, not just within them
+            JSONInterner interner = new JSONInterner();
+            expected = interner.intern(expected);
+            actual = interner.intern(actual);
+        }
+        return compareParsed(expected, actual, comparator);
+    }
+
+    private static JSONCompareResult compareParsed(Object expected, Object actual, JSONComparator comparator)
+            throws JSONException {
         if ((expected instanceof JSONObject) && (actual instanceof JSONObject)) {
             return compareJSON((JSONObject) expected, (JSONObject) actual, comparator);
         } else if ((expected instanceof JSONArray) && (actual instanceof JSONArray)) {
@@ -135,7 +347,791 @@ public final class JSONCompare {
      */
     public static JSONCompareResult compareJSON(String expectedStr, String actualStr, JSONCompareMode mode)
             throws JSONException {
-        return compareJSON(expectedStr, actualStr, getComparatorForMode(mode));
+        return compareJSON(expectedStr, actualStr, mode, JSONParseOptions.DEFAULT);
+    }
+
+    /**
+     * Compares JSON string provided to the expected JSON string, after parsing
+     * both according to the provided options, and returns the results of the
+     * comparison.
+     *
+     * @param expectedStr Expected JSON string
+     * @param actualStr   JSON string to compare
+     * @param mode        Defines comparison behavior
+     * @param options     Defines how both JSON strings are parsed
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(String expectedStr, String actualStr, JSONCompareMode mode,
+            JSONParseOptions options) throws JSONException {
+        return compareJSON((CharSequence) expectedStr, (CharSequence) actualStr, mode, options);
+    }
+
+    /**
+     * Compares the JSON text provided to the expected JSON text using provided
+     * comparator, and returns the results of the comparison. The text is parsed
+     * directly from the sequences, such as a {@link StringBuilder} or
+     * {@link java.nio.CharBuffer}, without copying them into strings.
+     *
+     * @param expected   Expected JSON text
+     * @param actual     JSON text to compare
+     * @param comparator Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(CharSequence expected, CharSequence actual,
+            JSONComparator comparator) throws JSONException {
+        return compareJSON(expected, actual, comparator, JSONParseOptions.DEFAULT);
+    }
+
+    /**
+     * Compares the JSON text provided to the expected JSON text using provided
+     * comparator, after parsing both directly from the sequences according to
+     * the provided options, and returns the results of the comparison.
+     *
+     * @param expected   Expected JSON text
+     * @param actual     JSON text to compare
+     * @param comparator Comparator to use
+     * @param options    Defines how both JSON texts are parsed
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(CharSequence expected, CharSequence actual,
+            JSONComparator comparator, JSONParseOptions options) throws JSONException {
+        JSONParseOptions parseOptions = withinBudget(expected.length(), actual.length(), options);
+        return compareParsed(parseExpected(expected, parseOptions),
+                JSONParser.parseJSON(actual, parseOnly(parseOptions)), comparator, parseOptions);
+    }
+
+    /**
+     * Compares the JSON text provided to the expected JSON text, and returns the
+     * results of the comparison. The text is parsed directly from the sequences
+     * without copying them into strings.
+     *
+     * @param expected Expected JSON text
+     * @param actual   JSON text to compare
+     * @param mode     Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(CharSequence expected, CharSequence actual, JSONCompareMode mode)
+            throws JSONException {
+        return compareJSON(expected, actual, mode, JSONParseOptions.DEFAULT);
+    }
+
+    /**
+     * Compares the JSON text provided to the expected JSON text, after parsing
+     * both directly from the sequences according to the provided options, and
+     * returns the results of the comparison.
+     *
+     * @param expected Expected JSON text
+     * @param actual   JSON text to compare
+     * @param mode     Defines comparison behavior
+     * @param options  Defines how both JSON texts are parsed
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(CharSequence expected, CharSequence actual, JSONCompareMode mode,
+            JSONParseOptions options) throws JSONException {
+        if (exceedsBudget(expected.length(), actual.length(), options) && isContainer(expected)
+                && isContainer(actual)) {
+            return new StreamingComparator(mode, BUDGET_MAX_FAILURES).compareJSON(
+                    new JSONTokenizer(JSONInput.of(expected)), new JSONTokenizer(JSONInput.of(actual)));
+        }
+        Object expectedValue = parseExpected(expected, options);
+        Object actualValue = JSONParser.parseJSON(actual, parseOnly(options),
+                getProjection(expectedValue, mode, options));
+        return compareParsed(expectedValue, actualValue, getComparatorForMode(mode), options);
+    }
+
+    /**
+     * Compares the JSON text provided to the expected JSON text, parsing the
+     * actual text on the provided executor while the expected text is parsed on
+     * the calling thread, and returns the results of the comparison.
+     *
+     * @param expected Expected JSON text
+     * @param actual   JSON text to compare
+     * @param mode     Defines comparison behavior
+     * @param executor Executor that parses the actual JSON text
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(CharSequence expected, CharSequence actual, JSONCompareMode mode,
+            Executor executor) throws JSONException {
+        return compareJSON(expected, actual, mode, JSONParseOptions.DEFAULT, executor);
+    }
+
+    /**
+     * Compares the JSON text provided to the expected JSON text, after parsing
+     * both according to the provided options, and returns the results of the
+     * comparison. The actual text is parsed on the provided executor while the
+     * expected text is parsed on the calling thread, so on a machine with
+     * several cores the two parses of large documents overlap. When
+     * projection is enabled the actual text depends on the parsed expected text,
+     * and when the texts exceed the memory budget they are streamed, so in both
+     * cases the texts are compared on the calling thread alone.
+     *
+     * @param expected Expected JSON text
+     * @param actual   JSON text to compare
+     * @param mode     Defines comparison behavior
+     * @param options  Defines how both JSON texts are parsed
+     * @param executor Executor that parses the actual JSON text
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @see #setMemoryBudget(long)
+     */
+    public static JSONCompareResult compareJSON(CharSequence expected, CharSequence actual, JSONCompareMode mode,
+            JSONParseOptions options, Executor executor) throws JSONException {
+        if ((options.isProjection() && mode.isExtensible())
+                || exceedsBudget(expected.length(), actual.length(), options)) {
+            return compareJSON(expected, actual, mode, options);
+        }
+        return compareConcurrently(expected, actual, getComparatorForMode(mode), options, executor);
+    }
+
+    /**
+     * Compares the JSON text provided to the expected JSON text using provided
+     * comparator, after parsing both according to the provided options, and
+     * returns the results of the comparison. The actual text is parsed on the
+     * provided executor while the expected text is parsed on the calling
+     * thread.
+     *
+     * @param expected   Expected JSON text
+     * @param actual     JSON text to compare
+     * @param comparator Comparator to use
+     * @param options    Defines how both JSON texts are parsed
+     * @param executor   Executor that parses the actual JSON text
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(CharSequence expected, CharSequence actual,
+            JSONComparator comparator, JSONParseOptions options, Executor executor) throws JSONException {
+        return compareConcurrently(expected, actual, comparator,
+                withinBudget(expected.length(), actual.length(), options), executor);
+    }
+
+    private static JSONCompareResult compareConcurrently(CharSequence expected, final CharSequence actual,
+            JSONComparator comparator, final JSONParseOptions options, Executor executor) throws JSONException {
+        CompletableFuture<Object> actualValue = CompletableFuture.supplyAsync(
+                () -> JSONParser.parseJSON(actual, parseOnly(options)), executor);
+        Object expectedValue;
+        try {
+            expectedValue = parseExpected(expected, options);
+        } catch (RuntimeException | Error e) {
+            actualValue.cancel(false);
+            throw e;
+        }
+        return compareParsed(expectedValue, join(actualValue), comparator, options);
+    }
+
+    /**
+     * Waits for a parse, rethrowing the exception of the parse itself.
+     */
+    private static Object join(CompletableFuture<Object> parse) {
+        try {
+            return parse.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the projection to parse the actual JSON with, which only skips
+     * anything when projection is enabled and the mode ignores extra members.
+     */
+    private static JSONProjection getProjection(Object expected, JSONCompareMode mode, JSONParseOptions options) {
+        if (options.isProjection() && mode.isExtensible()) {
+            return JSONProjection.of(expected);
+        }
+        return JSONProjection.ALL;
+    }
+
+    /**
+     * Compares the UTF-8 encoded JSON provided to the expected UTF-8 encoded JSON
+     * using provided comparator, and returns the results of the comparison.
+     * Objects and arrays are parsed directly from the bytes.
+     *
+     * @param expected   Expected JSON, UTF-8 encoded
+     * @param actual     JSON to compare, UTF-8 encoded
+     * @param comparator Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(byte[] expected, byte[] actual, JSONComparator comparator)
+            throws JSONException {
+        return compareJSON(ByteBuffer.wrap(expected), ByteBuffer.wrap(actual), comparator);
+    }
+
+    /**
+     * Compares the UTF-8 encoded JSON provided to the expected UTF-8 encoded
+     * JSON, and returns the results of the comparison. Objects and arrays are
+     * parsed directly from the bytes.
+     *
+     * @param expected Expected JSON, UTF-8 encoded
+     * @param actual   JSON to compare, UTF-8 encoded
+     * @param mode     Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(byte[] expected, byte[] actual, JSONCompareMode mode)
+            throws JSONException {
+        return compareJSON(ByteBuffer.wrap(expected), ByteBuffer.wrap(actual), mode);
+    }
+
+    /**
+     * Compares the remaining UTF-8 encoded bytes of the actual buffer to those of
+     * the expected buffer using provided comparator, and returns the results of
+     * the comparison. The positions of the buffers are not changed.
+     *
+     * @param expected   Expected JSON, UTF-8 encoded
+     * @param actual     JSON to compare, UTF-8 encoded
+     * @param comparator Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(ByteBuffer expected, ByteBuffer actual, JSONComparator comparator)
+            throws JSONException {
+        return compareJSON(expected, actual, comparator, JSONParseOptions.DEFAULT);
+    }
+
+    /**
+     * Compares the remaining UTF-8 encoded bytes of the actual buffer to those of
+     * the expected buffer using provided comparator, after parsing both according
+     * to the provided options, and returns the results of the comparison. The
+     * positions of the buffers are not changed.
+     *
+     * @param expected   Expected JSON, UTF-8 encoded
+     * @param actual     JSON to compare, UTF-8 encoded
+     * @param comparator Comparator to use
+     * @param options    Defines how both documents are parsed
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(ByteBuffer expected, ByteBuffer actual, JSONComparator comparator,
+            JSONParseOptions options) throws JSONException {
+        JSONParseOptions parseOptions = withinBudget(expected.remaining(), actual.remaining(), options);
+        JSONParseOptions documentOptions = parseOnly(parseOptions);
+        return compareParsed(JSONParser.parseJSON(expected, documentOptions),
+                JSONParser.parseJSON(actual, documentOptions), comparator, parseOptions);
+    }
+
+    /**
+     * Compares the remaining UTF-8 encoded bytes of the actual buffer to those of
+     * the expected buffer, and returns the results of the comparison. The
+     * positions of the buffers are not changed.
+     *
+     * @param expected Expected JSON, UTF-8 encoded
+     * @param actual   JSON to compare, UTF-8 encoded
+     * @param mode     Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(ByteBuffer expected, ByteBuffer actual, JSONCompareMode mode)
+            throws JSONException {
+        return compareJSON(expected, actual, mode, JSONParseOptions.DEFAULT);
+    }
+
+    /**
+     * Compares the remaining UTF-8 encoded bytes of the actual buffer to those of
+     * the expected buffer, after parsing both according to the provided options,
+     * and returns the results of the comparison. The positions of the buffers
+     * are not changed.
+     *
+     * @param expected Expected JSON, UTF-8 encoded
+     * @param actual   JSON to compare, UTF-8 encoded
+     * @param mode     Defines comparison behavior
+     * @param options  Defines how both documents are parsed
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(ByteBuffer expected, ByteBuffer actual, JSONCompareMode mode,
+            JSONParseOptions options) throws JSONException {
+        if (exceedsBudget(expected.remaining(), actual.remaining(), options)) {
+            JSONCompareResult result = compareWithinBudget(expected, actual, mode, options);
+            if (result != null) {
+                return result;
+            }
+        }
+        Object expectedJSON = JSONParser.parseJSON(expected, parseOnly(options));
+        Object actualJSON = JSONParser.parseJSON(actual, parseOnly(options),
+                getProjection(expectedJSON, mode, options));
+        return compareParsed(expectedJSON, actualJSON, getComparatorForMode(mode), options);
+    }
+
+    /**
+     * Compares the JSON files using provided comparator, and returns the results
+     * of the comparison. Large files are mapped into memory rather than read
+     * onto the heap.
+     *
+     * @param expected   Expected JSON file, UTF-8 encoded
+     * @param actual     JSON file to compare, UTF-8 encoded
+     * @param comparator Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if a file cannot be read
+     */
+    public static JSONCompareResult compareJSON(Path expected, Path actual, JSONComparator comparator)
+            throws JSONException, IOException {
+        return compareJSON(expected, actual, comparator, JSONParseOptions.DEFAULT);
+    }
+
+    /**
+     * Compares the JSON files using provided comparator, after parsing both
+     * according to the provided options, and returns the results of the
+     * comparison. Large files are mapped into memory rather than read onto the
+     * heap.
+     *
+     * @param expected   Expected JSON file, UTF-8 encoded
+     * @param actual     JSON file to compare, UTF-8 encoded
+     * @param comparator Comparator to use
+     * @param options    Defines how both documents are parsed
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if a file cannot be read
+     */
+    public static JSONCompareResult compareJSON(Path expected, Path actual, JSONComparator comparator,
+            JSONParseOptions options) throws JSONException, IOException {
+        return compareInputs(JSONInput.of(expected), JSONInput.of(actual), comparator,
+                withinBudget(Files.size(expected), Files.size(actual), options));
+    }
+
+    /**
+     * Compares the JSON files, and returns the results of the comparison. Large
+     * files are mapped into memory rather than read onto the heap.
+     *
+     * @param expected Expected JSON file, UTF-8 encoded
+     * @param actual   JSON file to compare, UTF-8 encoded
+     * @param mode     Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if a file cannot be read
+     */
+    public static JSONCompareResult compareJSON(Path expected, Path actual, JSONCompareMode mode)
+            throws JSONException, IOException {
+        return compareJSON(expected, actual, mode, JSONParseOptions.DEFAULT);
+    }
+
+    /**
+     * Compares the JSON files, after parsing both according to the provided
+     * options, and returns the results of the comparison. Large files are mapped
+     * into memory rather than read onto the heap.
+     *
+     * @param expected Expected JSON file, UTF-8 encoded
+     * @param actual   JSON file to compare, UTF-8 encoded
+     * @param mode     Defines comparison behavior
+     * @param options  Defines how both documents are parsed
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if a file cannot be read
+     */
+    public static JSONCompareResult compareJSON(Path expected, Path actual, JSONCompareMode mode,
+            JSONParseOptions options) throws JSONException, IOException {
+        JSONInput expectedInput = JSONInput.of(expected);
+        JSONInput actualInput = JSONInput.of(actual);
+        if (exceedsBudget(Files.size(expected), Files.size(actual), options)) {
+            try {
+                JSONCompareResult result = compareWithinBudget(expectedInput, actualInput, mode);
+                if (result != null) {
+                    return result;
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        Object expectedJSON = JSONParser.parseJSON(expectedInput, parseOnly(options));
+        Object actualJSON = JSONParser.parseJSON(actualInput, parseOnly(options),
+                getProjection(expectedJSON, mode, options));
+        return compareParsed(expectedJSON, actualJSON, getComparatorForMode(mode), options);
+    }
+
+    /**
+     * Compares the JSON Lines (NDJSON) files using provided comparator, and
+     * returns the results of the comparison. The record on each line of the
+     * actual file is compared to the record on the same line of the expected
+     * file, and failures are prefixed with the line number, like
+     * {@code line 3.id}. The files are mapped into memory and the records are
+     * compared on the common {@link ForkJoinPool}, so the comparator must be safe
+     * to use from several threads at once.
+     *
+     * @param expected   Expected JSON Lines file, UTF-8 encoded
+     * @param actual     JSON Lines file to compare, UTF-8 encoded
+     * @param comparator Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if a file cannot be read
+     */
+    public static JSONCompareResult compareJSONLines(Path expected, Path actual, JSONComparator comparator)
+            throws JSONException, IOException {
+        return compareJSONLines(expected, actual, comparator, JSONParseOptions.DEFAULT);
+    }
+
+    /**
+     * Compares the JSON Lines (NDJSON) files using provided comparator, after
+     * parsing each record according to the provided options, and returns the
+     * results of the comparison. See
+     * {@link #compareJSONLines(Path, Path, JSONComparator)}.
+     *
+     * @param expected   Expected JSON Lines file, UTF-8 encoded
+     * @param actual     JSON Lines file to compare, UTF-8 encoded
+     * @param comparator Comparator to use
+     * @param options    Defines how each record is parsed
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if a file cannot be read
+     */
+    public static JSONCompareResult compareJSONLines(Path expected, Path actual, JSONComparator comparator,
+            JSONParseOptions options) throws JSONException, IOException {
+        return new JSONLinesComparison(ForkJoinPool.commonPool(), comparator, options).compare(expected, actual);
+    }
+
+    /**
+     * Compares the JSON Lines (NDJSON) files, and returns the results of the
+     * comparison. See {@link #compareJSONLines(Path, Path, JSONComparator)}.
+     *
+     * @param expected Expected JSON Lines file, UTF-8 encoded
+     * @param actual   JSON Lines file to compare, UTF-8 encoded
+     * @param mode     Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if a file cannot be read
+     */
+    public static JSONCompareResult compareJSONLines(Path expected, Path actual, JSONCompareMode mode)
+            throws JSONException, IOException {
+        return compareJSONLines(expected, actual, getComparatorForMode(mode));
+    }
+
+    /**
+     * Compares the JSON read from the readers using provided comparator, and
+     * returns the results of the comparison. The readers are not closed.
+     *
+     * @param expected   Reader for the expected JSON
+     * @param actual     Reader for the JSON to compare
+     * @param comparator Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the reader cannot be read
+     */
+    public static JSONCompareResult compareJSON(Reader expected, Reader actual, JSONComparator comparator)
+            throws JSONException, IOException {
+        return compareJSON(expected, actual, comparator, JSONParseOptions.DEFAULT);
+    }
+
+    /**
+     * Compares the JSON read from the readers using provided comparator, after
+     * parsing both according to the provided options, and returns the results of
+     * the comparison. The readers are not closed.
+     *
+     * @param expected   Reader for the expected JSON
+     * @param actual     Reader for the JSON to compare
+     * @param comparator Comparator to use
+     * @param options    Defines how both documents are parsed
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the reader cannot be read
+     */
+    public static JSONCompareResult compareJSON(Reader expected, Reader actual, JSONComparator comparator,
+            JSONParseOptions options) throws JSONException, IOException {
+        return compareInputs(JSONInput.of(expected), JSONInput.of(actual), comparator, options);
+    }
+
+    /**
+     * Compares the JSON read from the readers, and returns the results of the
+     * comparison. The readers are not closed.
+     *
+     * @param expected Reader for the expected JSON
+     * @param actual   Reader for the JSON to compare
+     * @param mode     Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the reader cannot be read
+     */
+    public static JSONCompareResult compareJSON(Reader expected, Reader actual, JSONCompareMode mode)
+            throws JSONException, IOException {
+        return compareJSON(expected, actual, getComparatorForMode(mode));
+    }
+
+    /**
+     * Compares the UTF-8 encoded JSON read from the streams using provided
+     * comparator, and returns the results of the comparison. The streams are not
+     * closed.
+     *
+     * @param expected   Stream of the expected JSON, UTF-8 encoded
+     * @param actual     Stream of the JSON to compare, UTF-8 encoded
+     * @param comparator Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if a stream cannot be read
+     */
+    public static JSONCompareResult compareJSON(InputStream expected, InputStream actual, JSONComparator comparator)
+            throws JSONException, IOException {
+        return compareJSON(expected, actual, comparator, JSONParseOptions.DEFAULT);
+    }
+
+    /**
+     * Compares the UTF-8 encoded JSON read from the streams using provided
+     * comparator, after parsing both according to the provided options, and
+     * returns the results of the comparison. The streams are not closed.
+     *
+     * @param expected   Stream of the expected JSON, UTF-8 encoded
+     * @param actual     Stream of the JSON to compare, UTF-8 encoded
+     * @param comparator Comparator to use
+     * @param options    Defines how both documents are parsed
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if a stream cannot be read
+     */
+    public static JSONCompareResult compareJSON(InputStream expected, InputStream actual, JSONComparator comparator,
+            JSONParseOptions options) throws JSONException, IOException {
+        return compareInputs(JSONInput.of(expected), JSONInput.of(actual), comparator, options);
+    }
+
+    /**
+     * Compares the UTF-8 encoded JSON read from the streams, and returns the
+     * results of the comparison. The streams are not closed.
+     *
+     * @param expected Stream of the expected JSON, UTF-8 encoded
+     * @param actual   Stream of the JSON to compare, UTF-8 encoded
+     * @param mode     Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if a stream cannot be read
+     */
+    public static JSONCompareResult compareJSON(InputStream expected, InputStream actual, JSONCompareMode mode)
+            throws JSONException, IOException {
+        return compareJSON(expected, actual, getComparatorForMode(mode));
+    }
+
+    /**
+     * Compares the compressed JSON read from the stream to the expected JSON
+     * string using provided comparator, and returns the results of the
+     * comparison. The stream is inflated as it is parsed, see
+     * {@link ContentEncoding}. The stream is not closed.
+     *
+     * @param expectedStr     Expected JSON string
+     * @param actual          Stream of the JSON to compare, UTF-8 encoded before
+     *                        it was compressed
+     * @param contentEncoding Codings applied to the stream, like the HTTP
+     *                        {@code Content-Encoding} header, null for none
+     * @param comparator      Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the stream cannot be read or inflated
+     */
+    public static JSONCompareResult compareJSON(String expectedStr, InputStream actual, String contentEncoding,
+            JSONComparator comparator) throws JSONException, IOException {
+        return compareJSON(expectedStr, actual, contentEncoding, comparator, JSONParseOptions.DEFAULT);
+    }
+
+    /**
+     * Compares the compressed JSON read from the stream to the expected JSON
+     * string using provided comparator, after parsing both according to the
+     * provided options, and returns the results of the comparison. The stream is
+     * inflated as it is parsed, see {@link ContentEncoding}. The stream is not
+     * closed.
+     *
+     * @param expectedStr     Expected JSON string
+     * @param actual          Stream of the JSON to compare, UTF-8 encoded before
+     *                        it was compressed
+     * @param contentEncoding Codings applied to the stream, like the HTTP
+     *                        {@code Content-Encoding} header, null for none
+     * @param comparator      Comparator to use
+     * @param options         Defines how both documents are parsed
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the stream cannot be read or inflated
+     */
+    public static JSONCompareResult compareJSON(String expectedStr, InputStream actual, String contentEncoding,
+            JSONComparator comparator, JSONParseOptions options) throws JSONException, IOException {
+        Object expected = parseExpected(expectedStr, options);
+        try (InputStream decoded = ContentEncoding.decode(actual, contentEncoding)) {
+            return compareParsed(expected, JSONParser.parseJSON(JSONInput.of(decoded), parseOnly(options)), comparator,
+                    options);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Compares the compressed JSON read from the stream to the expected JSON
+     * string, and returns the results of the comparison. The stream is inflated
+     * as it is parsed, see {@link ContentEncoding}. The stream is not closed.
+     *
+     * @param expectedStr     Expected JSON string
+     * @param actual          Stream of the JSON to compare, UTF-8 encoded before
+     *                        it was compressed
+     * @param contentEncoding Codings applied to the stream, like the HTTP
+     *                        {@code Content-Encoding} header, null for none
+     * @param mode            Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the stream cannot be read or inflated
+     */
+    public static JSONCompareResult compareJSON(String expectedStr, InputStream actual, String contentEncoding,
+            JSONCompareMode mode) throws JSONException, IOException {
+        return compareJSON(expectedStr, actual, contentEncoding, getComparatorForMode(mode));
+    }
+
+    private static JSONCompareResult compareInputs(JSONInput expected, JSONInput actual, JSONComparator comparator,
+            JSONParseOptions options) throws JSONException, IOException {
+        try {
+            return compareParsed(JSONParser.parseJSON(expected, parseOnly(options)),
+                    JSONParser.parseJSON(actual, parseOnly(options)), comparator, options);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Compares JSON string provided to the expected document using provided
+     * comparator, and returns the results of the comparison. The expected
+     * document is read as it is, see {@link JSONDocument#map(Path)}.
+     *
+     * @param expected   Expected document
+     * @param actualStr  JSON string to compare
+     * @param comparator Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(JSONDocument expected, String actualStr, JSONComparator comparator)
+            throws JSONException {
+        return compareParsed(decoded(expected.root()), JSONParser.parseJSON(actualStr), comparator);
+    }
+
+    /**
+     * Compares JSON string provided to the expected document, and returns the
+     * results of the comparison. The expected document is read as it is, see
+     * {@link JSONDocument#map(Path)}.
+     *
+     * @param expected  Expected document
+     * @param actualStr JSON string to compare
+     * @param mode      Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(JSONDocument expected, String actualStr, JSONCompareMode mode)
+            throws JSONException {
+        return compareJSON(expected, actualStr, getComparatorForMode(mode));
+    }
+
+    /**
+     * Compares the CBOR encoded value provided to the expected JSON string using
+     * provided comparator, and returns the results of the comparison. The CBOR
+     * is decoded directly into the values that are compared, see
+     * {@link CBORParser}. The position of the buffer is not changed.
+     *
+     * @param expectedStr Expected JSON string
+     * @param actual      Value to compare, CBOR encoded
+     * @param comparator  Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing or CBOR decoding error
+     */
+    public static JSONCompareResult compareCBOR(String expectedStr, ByteBuffer actual, JSONComparator comparator)
+            throws JSONException {
+        return compareParsed(parseExpected(expectedStr, JSONParseOptions.DEFAULT), decoded(CBORParser.parse(actual)),
+                comparator);
+    }
+
+    /**
+     * Compares the CBOR encoded value provided to the expected JSON string, and
+     * returns the results of the comparison. The position of the buffer is not
+     * changed.
+     *
+     * @param expectedStr Expected JSON string
+     * @param actual      Value to compare, CBOR encoded
+     * @param mode        Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing or CBOR decoding error
+     */
+    public static JSONCompareResult compareCBOR(String expectedStr, ByteBuffer actual, JSONCompareMode mode)
+            throws JSONException {
+        return compareCBOR(expectedStr, actual, getComparatorForMode(mode));
+    }
+
+    /**
+     * Compares the CBOR encoded value provided to the expected JSON string, and
+     * returns the results of the comparison.
+     *
+     * @param expectedStr Expected JSON string
+     * @param actual      Value to compare, CBOR encoded
+     * @param mode        Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing or CBOR decoding error
+     */
+    public static JSONCompareResult compareCBOR(String expectedStr, byte[] actual, JSONCompareMode mode)
+            throws JSONException {
+        return compareCBOR(expectedStr, ByteBuffer.wrap(actual), mode);
+    }
+
+    /**
+     * Compares the MessagePack encoded value provided to the expected JSON string
+     * using provided comparator, and returns the results of the comparison. The
+     * MessagePack is decoded directly into the values that are compared, see
+     * {@link MessagePackParser}. The position of the buffer is not changed.
+     *
+     * @param expectedStr Expected JSON string
+     * @param actual      Value to compare, MessagePack encoded
+     * @param comparator  Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing or MessagePack decoding error
+     */
+    public static JSONCompareResult compareMessagePack(String expectedStr, ByteBuffer actual,
+            JSONComparator comparator) throws JSONException {
+        return compareParsed(parseExpected(expectedStr, JSONParseOptions.DEFAULT),
+                decoded(MessagePackParser.parse(actual)), comparator);
+    }
+
+    /**
+     * Compares the MessagePack encoded value provided to the expected JSON
+     * string, and returns the results of the comparison. The position of the
+     * buffer is not changed.
+     *
+     * @param expectedStr Expected JSON string
+     * @param actual      Value to compare, MessagePack encoded
+     * @param mode        Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing or MessagePack decoding error
+     */
+    public static JSONCompareResult compareMessagePack(String expectedStr, ByteBuffer actual, JSONCompareMode mode)
+            throws JSONException {
+        return compareMessagePack(expectedStr, actual, getComparatorForMode(mode));
+    }
+
+    /**
+     * Compares the MessagePack encoded value provided to the expected JSON
+     * string, and returns the results of the comparison.
+     *
+     * @param expectedStr Expected JSON string
+     * @param actual      Value to compare, MessagePack encoded
+     * @param mode        Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing or MessagePack decoding error
+     */
+    public static JSONCompareResult compareMessagePack(String expectedStr, byte[] actual, JSONCompareMode mode)
+            throws JSONException {
+        return compareMessagePack(expectedStr, ByteBuffer.wrap(actual), mode);
+    }
+
+    /**
+     * Gets a decoded top level value the way {@link JSONParser} returns it, where
+     * strings and numbers are compared as their JSON text.
+     */
+    private static Object decoded(Object value) {
+        if (value instanceof JSONObject || value instanceof JSONArray) {
+            return value;
+        }
+        final String text = JSONObject.valueToString(value);
+        return new JSONString() {
+            @Override
+            public String toJSONString() {
+                return text;
+            }
+        };
     }
 
     /**
@@ -168,4 +1164,244 @@ public final class JSONCompare {
         return compareJSON(expected, actual, getComparatorForMode(mode));
     }
 
+    /**
+     * Compares JSON string provided to the expected JSON string without building
+     * either document as a tree, and returns the results of the comparison. The
+     * result is the same as for {@link #compareJSON(String, String, JSONCompareMode)}
+     * but only out-of-order object members and unordered arrays are held in
+     * memory.
+     *
+     * @param expectedStr Expected JSON string
+     * @param actualStr   JSON string to compare
+     * @param mode        Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @see StreamingComparator
+     */
+    public static JSONCompareResult compareJSONStreaming(String expectedStr, String actualStr, JSONCompareMode mode)
+            throws JSONException {
+        if (!isContainer(expectedStr) || !isContainer(actualStr)) {
+            // Top level strings and numbers are compared by their text
+            return compareJSON(expectedStr, actualStr, mode);
+        }
+        return new StreamingComparator(mode).compareJSON(new JSONTokenizer(JSONInput.of(expectedStr)),
+                new JSONTokenizer(JSONInput.of(actualStr)));
+    }
+
+    /**
+     * Compares the UTF-8 encoded JSON read from the channel to the expected JSON
+     * string as it arrives, and stops reading as soon as the comparison can no
+     * longer pass. The result of a comparison that was stopped early only holds
+     * the failures found up to that point. The channel must be in blocking mode
+     * and is not closed.
+     *
+     * @param expectedStr Expected JSON string
+     * @param actual      Channel of the JSON to compare, UTF-8 encoded
+     * @param mode        Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the channel cannot be read
+     * @see IncrementalComparator
+     */
+    public static JSONCompareResult compareJSONFailFast(String expectedStr, ReadableByteChannel actual,
+            JSONCompareMode mode) throws JSONException, IOException {
+        IncrementalComparator comparator = new IncrementalComparator(
+                parseExpected(expectedStr, JSONParseOptions.DEFAULT), mode);
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (!comparator.isDone() && actual.read(buffer) >= 0) {
+            buffer.flip();
+            comparator.feed(buffer);
+            buffer.clear();
+            if (comparator.isFailed()) {
+                return comparator.abort();
+            }
+        }
+        return comparator.finish();
+    }
+
+    /**
+     * Compares the UTF-8 encoded JSON read from the stream to the expected JSON
+     * string as it arrives, and stops reading as soon as the comparison can no
+     * longer pass. The result of a comparison that was stopped early only holds
+     * the failures found up to that point. The stream is not closed.
+     *
+     * @param expectedStr Expected JSON string
+     * @param actual      Stream of the JSON to compare, UTF-8 encoded
+     * @param mode        Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IOException   if the stream cannot be read
+     * @see IncrementalComparator
+     */
+    public static JSONCompareResult compareJSONFailFast(String expectedStr, InputStream actual,
+            JSONCompareMode mode) throws JSONException, IOException {
+        return compareJSONFailFast(expectedStr, Channels.newChannel(actual), mode);
+    }
+
+    /**
+     * Compares the value that a JSON Pointer refers to in the actual JSON text to
+     * the expected JSON using provided comparator, and returns the results of
+     * the comparison. The actual text is skip-scanned up to the referenced value
+     * without building anything before it, and is not read after it. Failures
+     * are reported with the path of the value in the whole document, such as
+     * {@code data.items[3].price}.
+     *
+     * @param expectedStr Expected JSON of the referenced value, which may be a
+     *                    string, number, boolean or null
+     * @param actual      JSON text to compare
+     * @param pointer     RFC 6901 JSON Pointer into the actual JSON, such as
+     *                    {@code /data/items/3/price}
+     * @param comparator  Comparator to use
+     * @return result of the comparison, which fails if the actual JSON has no
+     *         value at the pointer
+     * @throws JSONException JSON parsing error, or an invalid pointer
+     */
+    public static JSONCompareResult compareJSONAt(String expectedStr, CharSequence actual, String pointer,
+            JSONComparator comparator) throws JSONException {
+        return compareAt(expectedStr, new JSONTokenizer(JSONInput.of(actual)), JSONPointerLocator.parse(pointer),
+                comparator);
+    }
+
+    /**
+     * Compares the value that a JSON Pointer refers to in the actual JSON text to
+     * the expected JSON, and returns the results of the comparison. The actual
+     * text is skip-scanned up to the referenced value without building anything
+     * before it, and is not read after it.
+     *
+     * @param expectedStr Expected JSON of the referenced value
+     * @param actual      JSON text to compare
+     * @param pointer     RFC 6901 JSON Pointer into the actual JSON
+     * @param mode        Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error, or an invalid pointer
+     * @see #compareJSONAt(String, CharSequence, String, JSONComparator)
+     */
+    public static JSONCompareResult compareJSONAt(String expectedStr, CharSequence actual, String pointer,
+            JSONCompareMode mode) throws JSONException {
+        return compareJSONAt(expectedStr, actual, pointer, getComparatorForMode(mode));
+    }
+
+    /**
+     * Compares the value that a JSON Pointer refers to in the remaining UTF-8
+     * encoded bytes of the actual buffer to the expected JSON using provided
+     * comparator, and returns the results of the comparison. The bytes are
+     * indexed with a {@link StructuralIndex}, so the members and elements
+     * before the referenced value are skipped without reading them, and nothing
+     * before it is decoded or built. The position of the buffer is not changed.
+     *
+     * @param expectedStr Expected JSON of the referenced value
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param pointer     RFC 6901 JSON Pointer into the actual JSON
+     * @param comparator  Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error, or an invalid pointer
+     * @see #compareJSONAt(String, CharSequence, String, JSONComparator)
+     */
+    public static JSONCompareResult compareJSONAt(String expectedStr, ByteBuffer actual, String pointer,
+            JSONComparator comparator) throws JSONException {
+        JSONPointerLocator locator = JSONPointerLocator.parse(pointer);
+        return compareAt(expectedStr, new JSONTokenizer(JSONInput.of(actual), 0, StructuralIndex.of(actual)),
+                locator, comparator);
+    }
+
+    /**
+     * Compares the value that a JSON Pointer refers to in the remaining UTF-8
+     * encoded bytes of the actual buffer to the expected JSON, and returns the
+     * results of the comparison. The position of the buffer is not changed.
+     *
+     * @param expectedStr Expected JSON of the referenced value
+     * @param actual      JSON to compare, UTF-8 encoded
+     * @param pointer     RFC 6901 JSON Pointer into the actual JSON
+     * @param mode        Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error, or an invalid pointer
+     * @see #compareJSONAt(String, CharSequence, String, JSONComparator)
+     */
+    public static JSONCompareResult compareJSONAt(String expectedStr, ByteBuffer actual, String pointer,
+            JSONCompareMode mode) throws JSONException {
+        return compareJSONAt(expectedStr, actual, pointer, getComparatorForMode(mode));
+    }
+
+    /**
+     * Compares the value that a JSON Pointer refers to in the actual JSON file
+     * to the expected JSON using provided comparator, and returns the results of
+     * the comparison. Large files are mapped into memory rather than read onto
+     * the heap, and only the part of the file up to the referenced value is
+     * read.
+     *
+     * @param expectedStr Expected JSON of the referenced value
+     * @param actual      JSON file to compare, UTF-8 encoded
+     * @param pointer     RFC 6901 JSON Pointer into the actual JSON
+     * @param comparator  Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error, or an invalid pointer
+     * @throws IOException   if the file cannot be read
+     * @see #compareJSONAt(String, CharSequence, String, JSONComparator)
+     */
+    public static JSONCompareResult compareJSONAt(String expectedStr, Path actual, String pointer,
+            JSONComparator comparator) throws JSONException, IOException {
+        try {
+            return compareAt(expectedStr, new JSONTokenizer(JSONInput.of(actual)), JSONPointerLocator.parse(pointer),
+                    comparator);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Compares the value that a JSON Pointer refers to in the actual JSON file
+     * to the expected JSON, and returns the results of the comparison.
+     *
+     * @param expectedStr Expected JSON of the referenced value
+     * @param actual      JSON file to compare, UTF-8 encoded
+     * @param pointer     RFC 6901 JSON Pointer into the actual JSON
+     * @param mode        Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error, or an invalid pointer
+     * @throws IOException   if the file cannot be read
+     * @see #compareJSONAt(String, CharSequence, String, JSONComparator)
+     */
+    public static JSONCompareResult compareJSONAt(String expectedStr, Path actual, String pointer,
+            JSONCompareMode mode) throws JSONException, IOException {
+        return compareJSONAt(expectedStr, actual, pointer, getComparatorForMode(mode));
+    }
+
+    private static JSONCompareResult compareAt(String expectedStr, JSONTokenizer tokenizer,
+            JSONPointerLocator locator, JSONComparator comparator) throws JSONException {
+        Object expected = parseExpectedValue(expectedStr);
+        String path = locator.locate(tokenizer);
+        JSONCompareResult result = new JSONCompareResult();
+        if (path == null) {
+            result.fail("Expected a value at " + locator + " but none found");
+        } else {
+            comparator.compareValues(path, expected, new JSONTreeBuilder().build(tokenizer), result);
+        }
+        return result;
+    }
+
+    /**
+     * Parses expected JSON into the value {@code org.json} builds for it, which
+     * unlike {@link JSONParser#parseJSON(String)} keeps a top level string or
+     * number as a value that can be passed to
+     * {@link JSONComparator#compareValues}.
+     */
+    private static Object parseExpectedValue(String expectedStr) throws JSONException {
+        if (isContainer(expectedStr)) {
+            return parseExpected(expectedStr, JSONParseOptions.DEFAULT);
+        }
+        JSONTokenizer tokenizer = new JSONTokenizer(JSONInput.of(expectedStr));
+        tokenizer.next();
+        return new JSONTreeBuilder().build(tokenizer);
+    }
+
+    private static boolean isContainer(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c > ' ') {
+                return c == '{' || c == '[';
+            }
+        }
+        return false;
+    }
+
 }
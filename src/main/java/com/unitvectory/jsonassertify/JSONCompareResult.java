@@ -30,14 +30,21 @@ import org.json.JSONObject;
  */
 public class JSONCompareResult {
 
+    private static final int FAILURE = 0;
+    private static final int MISSING = 1;
+    private static final int UNEXPECTED = 2;
+    private static final int MESSAGE = 3;
+
     private boolean _success;
-    private StringBuilder _message;
+    private final List<Failure> _failures = new ArrayList<Failure>();
     private String _field;
     private Object _expected;
     private Object _actual;
     private final List<FieldComparisonFailure> _fieldFailures = new ArrayList<FieldComparisonFailure>();
     private final List<FieldComparisonFailure> _fieldMissing = new ArrayList<FieldComparisonFailure>();
     private final List<FieldComparisonFailure> _fieldUnexpected = new ArrayList<FieldComparisonFailure>();
+    private final int _maxFailures;
+    private int _failureCount;
 
     /**
      * Constructs a new JSONCompareResult.
@@ -46,6 +53,23 @@ public class JSONCompareResult {
         this(true, null);
     }
 
+    /**
+     * Constructs a new JSONCompareResult that keeps the details of at most the
+     * provided number of failures. Further failures still fail the result and
+     * are counted, but their messages and fields are dropped, so a comparison
+     * of two very different documents does not collect an unbounded number of
+     * failures.
+     *
+     * @param maxFailures the maximum number of failures whose details are kept
+     */
+    public JSONCompareResult(int maxFailures) {
+        if (maxFailures < 1) {
+            throw new IllegalArgumentException("maxFailures must be positive");
+        }
+        _success = true;
+        _maxFailures = maxFailures;
+    }
+
     /**
      * Constructs a new JSONCompareResult.
      * @param success true if the comparison passed
@@ -53,7 +77,10 @@ public class JSONCompareResult {
      */
     private JSONCompareResult(boolean success, String message) {
         _success = success;
-        _message = new StringBuilder(message == null ? "" : message);
+        if (message != null) {
+            _failures.add(new Failure(MESSAGE, null, message));
+        }
+        _maxFailures = Integer.MAX_VALUE;
     }
 
     /**
@@ -80,7 +107,27 @@ public class JSONCompareResult {
      * @return String explaining why if the comparison failed
      */
     public String getMessage() {
-        return _message.toString();
+        StringBuilder message = new StringBuilder();
+        for (Failure failure : _failures) {
+            if (message.length() > 0) {
+                message.append(" ; ");
+            }
+            message.append(failure.message);
+        }
+        if (_failureCount > _failures.size()) {
+            message.append(" ; and ").append(_failureCount - _failures.size()).append(" more failures");
+        }
+        return message.toString();
+    }
+
+    /**
+     * Gets the number of failures, including the failures whose details were
+     * dropped because the result reached its maximum number of failures.
+     *
+     * @return the number of failures
+     */
+    public int getFailureCount() {
+        return _failureCount;
     }
 
     /**
@@ -181,11 +228,33 @@ public class JSONCompareResult {
      * @param message message to add to the result
      */
     public void fail(String message) {
+        if (record()) {
+            add(new Failure(MESSAGE, null, message));
+        }
+    }
+
+    /**
+     * Counts a failure, and checks if its details should be kept.
+     *
+     * @return true if the details of the failure should be kept
+     */
+    private boolean record() {
         _success = false;
-        if (_message.length() == 0) {
-            _message.append(message);
-        } else {
-            _message.append(" ; ").append(message);
+        _failureCount++;
+        return _failures.size() < _maxFailures;
+    }
+
+    private void add(Failure failure) {
+        _failures.add(failure);
+        if (failure.kind == FAILURE) {
+            _fieldFailures.add(failure.field);
+            this._field = failure.field.getField();
+            this._expected = failure.field.getExpected();
+            this._actual = failure.field.getActual();
+        } else if (failure.kind == MISSING) {
+            _fieldMissing.add(failure.field);
+        } else if (failure.kind == UNEXPECTED) {
+            _fieldUnexpected.add(failure.field);
         }
     }
 
@@ -198,11 +267,10 @@ public class JSONCompareResult {
      * @return result of comparision
      */
     public JSONCompareResult fail(String field, Object expected, Object actual) {
-        _fieldFailures.add(new FieldComparisonFailure(field, expected, actual));
-        this._field = field;
-        this._expected = expected;
-        this._actual = actual;
-        fail(formatFailureMessage(field, expected, actual));
+        if (record()) {
+            add(new Failure(FAILURE, new FieldComparisonFailure(field, expected, actual),
+                    formatFailureMessage(field, expected, actual)));
+        }
         return this;
     }
 
@@ -235,8 +303,10 @@ public class JSONCompareResult {
      * @return result of comparison
      */
     public JSONCompareResult missing(String field, Object expected) {
-        _fieldMissing.add(new FieldComparisonFailure(field, expected, null));
-        fail(formatMissing(field, expected));
+        if (record()) {
+            add(new Failure(MISSING, new FieldComparisonFailure(field, expected, null),
+                    formatMissing(field, expected)));
+        }
         return this;
     }
 
@@ -255,8 +325,10 @@ public class JSONCompareResult {
      * @return result of comparison
      */
     public JSONCompareResult unexpected(String field, Object actual) {
-        _fieldUnexpected.add(new FieldComparisonFailure(field, null, actual));
-        fail(formatUnexpected(field, actual));
+        if (record()) {
+            add(new Failure(UNEXPECTED, new FieldComparisonFailure(field, null, actual),
+                    formatUnexpected(field, actual)));
+        }
         return this;
     }
 
@@ -267,6 +339,30 @@ public class JSONCompareResult {
                 + "\n";
     }
 
+    /**
+     * Appends the failures of another result to this result, in the same order
+     * as if they had been reported to this result directly. If this result
+     * keeps a limited number of failures, the details of the other result are
+     * only kept while there is room for them.
+     *
+     * @param other the result to append
+     * @return result of comparison
+     */
+    public JSONCompareResult merge(JSONCompareResult other) {
+        if (other.passed()) {
+            return this;
+        }
+        _success = false;
+        for (Failure failure : other._failures) {
+            if (_failures.size() >= _maxFailures) {
+                break;
+            }
+            add(failure);
+        }
+        _failureCount += other._failureCount;
+        return this;
+    }
+
     private static String describe(Object value) {
         if (value instanceof JSONArray) {
             return "a JSON array";
@@ -279,6 +375,25 @@ public class JSONCompareResult {
 
     @Override
     public String toString() {
-        return _message.toString();
+        return getMessage();
+    }
+
+    /**
+     * A failure whose details are kept, in the order failures are reported in,
+     * so the failures of a merged result can be kept up to the maximum.
+     */
+    private static final class Failure {
+
+        private final int kind;
+
+        private final FieldComparisonFailure field;
+
+        private final String message;
+
+        Failure(int kind, FieldComparisonFailure field, String message) {
+            this.kind = kind;
+            this.field = field;
+            this.message = message;
+        }
     }
 }
@@ -0,0 +1,157 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.json.JSONException;
+
+import com.unitvectory.jsonassertify.comparator.JSONComparator;
+import com.unitvectory.jsonassertify.parser.JSONLines;
+
+/**
+ * <p>
+ * Compares two JSON Lines files record by record on several threads.
+ * </p>
+ *
+ * <p>
+ * The calling thread splits both files into lines, see {@link JSONLines}, and
+ * cuts them into batches of aligned lines. Each batch is parsed and compared by
+ * a task on a {@link ForkJoinPool}, and the results of the batches are merged
+ * in order. Only a fixed number of batches is in flight at once, so the memory
+ * used does not depend on the size of the files. The failures of each record
+ * are prefixed with its line number, like {@code line 3.id}.
+ * </p>
+ */
+final class JSONLinesComparison {
+
+    private static final int BATCH_LINES = 1024;
+
+    private static final long BATCH_SIZE = 1 << 20;
+
+    private final ForkJoinPool pool;
+
+    private final JSONComparator comparator;
+
+    private final JSONParseOptions options;
+
+    /**
+     * Constructs a new JSONLinesComparison.
+     *
+     * @param pool       the pool that compares the batches
+     * @param comparator the comparator, used from several threads at once
+     * @param options    defines how each record is parsed
+     */
+    JSONLinesComparison(ForkJoinPool pool, JSONComparator comparator, JSONParseOptions options) {
+        this.pool = pool;
+        this.comparator = comparator;
+        this.options = options;
+    }
+
+    JSONCompareResult compare(Path expected, Path actual) throws IOException, JSONException {
+        JSONCompareResult result = new JSONCompareResult();
+        Deque<CompletableFuture<JSONCompareResult>> batches =
+                new ArrayDeque<CompletableFuture<JSONCompareResult>>();
+        int window = 2 * pool.getParallelism();
+        try (JSONLines expectedLines = JSONLines.open(expected); JSONLines actualLines = JSONLines.open(actual)) {
+            long line = 1;
+            ByteBuffer expectedLine = expectedLines.next();
+            ByteBuffer actualLine = actualLines.next();
+            while (expectedLine != null && actualLine != null) {
+                final long first = line;
+                final ByteBuffer[] expectedBatch = new ByteBuffer[BATCH_LINES];
+                final ByteBuffer[] actualBatch = new ByteBuffer[BATCH_LINES];
+                int count = 0;
+                long size = 0;
+                while (expectedLine != null && actualLine != null && count < BATCH_LINES && size < BATCH_SIZE) {
+                    expectedBatch[count] = expectedLine;
+                    actualBatch[count] = actualLine;
+                    size += expectedLine.remaining() + actualLine.remaining();
+                    count++;
+                    expectedLine = expectedLines.next();
+                    actualLine = actualLines.next();
+                }
+                line += count;
+                final int n = count;
+                batches.add(
+                        CompletableFuture.supplyAsync(() -> compareBatch(first, expectedBatch, actualBatch, n), pool));
+                while (batches.size() > window) {
+                    result.merge(join(batches.remove()));
+                }
+            }
+            while (!batches.isEmpty()) {
+                result.merge(join(batches.remove()));
+            }
+            if (expectedLine != null || actualLine != null) {
+                long expectedCount = count(expectedLines, expectedLine, line);
+                long actualCount = count(actualLines, actualLine, line);
+                result.fail("Expected " + expectedCount + " lines but got " + actualCount);
+            }
+            return result;
+        } finally {
+            for (CompletableFuture<JSONCompareResult> batch : batches) {
+                batch.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Waits for a batch, rethrowing the exception of the batch itself.
+     */
+    private static JSONCompareResult join(CompletableFuture<JSONCompareResult> batch) {
+        try {
+            return batch.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private JSONCompareResult compareBatch(long first, ByteBuffer[] expected, ByteBuffer[] actual, int count) {
+        JSONCompareResult result = new JSONCompareResult();
+        for (int i = 0; i < count; i++) {
+            long line = first + i;
+            comparator.compareValues("line " + line, parse(expected[i], line), parse(actual[i], line), result);
+        }
+        return result;
+    }
+
+    private Object parse(ByteBuffer record, long line) {
+        try {
+            return JSONParser.parseValue(record, options);
+        } catch (JSONException e) {
+            throw new JSONException("Invalid record on line " + line + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static long count(JSONLines lines, ByteBuffer next, long line) throws IOException {
+        long count = line - 1;
+        for (; next != null; next = lines.next()) {
+            count++;
+        }
+        return count;
+    }
+}
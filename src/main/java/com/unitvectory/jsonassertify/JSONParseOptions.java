@@ -0,0 +1,379 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify;
+
+import java.util.Arrays;
+
+import com.unitvectory.jsonassertify.parser.JSONDocument;
+import com.unitvectory.jsonassertify.parser.JSONInterner;
+import com.unitvectory.jsonassertify.parser.JSONNumber;
+import com.unitvectory.jsonassertify.parser.JSONProjection;
+import com.unitvectory.jsonassertify.parser.JSONRawString;
+import com.unitvectory.jsonassertify.parser.LazyJSON;
+import com.unitvectory.jsonassertify.parser.ParallelArrayParser;
+import com.unitvectory.jsonassertify.parser.StructuralIndex;
+
+/**
+ * <p>
+ * Options that control how {@link JSONParser} turns JSON text into the values
+ * that are compared. Options are immutable; each {@code with} method returns a
+ * copy with one option changed, for example:
+ * </p>
+ *
+ * <code>JSONParseOptions.DEFAULT.withCompactDocument(true)</code>
+ *
+ * <p>
+ * The {@link #DEFAULT} options parse with {@code org.json}.
+ * </p>
+ */
+public final class JSONParseOptions implements Cloneable {
+
+    /**
+     * The default options, parsing with {@code org.json}.
+     */
+    public static final JSONParseOptions DEFAULT = new JSONParseOptions();
+
+    private boolean compactDocument;
+
+    private boolean lazy;
+
+    private boolean projection;
+
+    private boolean structuralIndex;
+
+    private boolean parallel;
+
+    private boolean lazyNumbers;
+
+    private boolean rawStrings;
+
+    private boolean sharedKeys;
+
+    private boolean sharedStrings;
+
+    private boolean hashConsing;
+
+    private JSONParseOptions() {
+    }
+
+    /**
+     * Parses objects and arrays into a {@link JSONDocument}
+     * 
+     * @return True if objects and arrays are parsed into a compact
+     *         {@link JSONDocument}; otherwise false.
+     */
+    public boolean isCompactDocument() {
+        return compactDocument;
+    }
+
+    /**
+     * Get the equivalent {@code JSONParseOptions} with or without the compact
+     * document model.
+     * 
+     * @param compactDocument if true, objects and arrays are parsed into a
+     *                        {@link JSONDocument} instead of {@code org.json}
+     *                        objects
+     * @return the equivalent {@code JSONParseOptions}
+     */
+    public JSONParseOptions withCompactDocument(boolean compactDocument) {
+        JSONParseOptions options = copy();
+        options.compactDocument = compactDocument;
+        return options;
+    }
+
+    /**
+     * Parses objects and arrays lazily, see {@link LazyJSON}
+     * 
+     * @return True if objects and arrays are only parsed when they are first
+     *         accessed; otherwise false.
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Get the equivalent {@code JSONParseOptions} with or without lazy parsing.
+     * Lazy parsing applies to input that can be read more than once, such as
+     * strings and bytes, and is not used together with the compact document
+     * model.
+     * 
+     * @param lazy if true, objects and arrays are parsed into {@link LazyJSON}
+     *             views that parse each nested value when it is first accessed
+     * @return the equivalent {@code JSONParseOptions}
+     */
+    public JSONParseOptions withLazy(boolean lazy) {
+        JSONParseOptions options = copy();
+        options.lazy = lazy;
+        return options;
+    }
+
+    /**
+     * Parses only the parts of the actual JSON that are compared, see
+     * {@link JSONProjection}
+     * 
+     * @return True if the actual JSON is projected onto the expected JSON in
+     *         extensible comparison modes; otherwise false.
+     */
+    public boolean isProjection() {
+        return projection;
+    }
+
+    /**
+     * Get the equivalent {@code JSONParseOptions} with or without projection of
+     * the actual JSON. When a comparison is done in an extensible
+     * {@link JSONCompareMode}, members of the actual JSON that are not in the
+     * expected JSON are never compared, so with projection they are skipped by
+     * the parser instead of being built. Values reported by a failed comparison
+     * may then be missing members that were not compared.
+     * 
+     * @param projection if true, the actual JSON is parsed with the
+     *                   {@link JSONProjection} of the expected JSON in extensible
+     *                   comparison modes
+     * @return the equivalent {@code JSONParseOptions}
+     */
+    public JSONParseOptions withProjection(boolean projection) {
+        JSONParseOptions options = copy();
+        options.projection = projection;
+        return options;
+    }
+
+    /**
+     * Indexes byte input before parsing it, see {@link StructuralIndex}
+     * 
+     * @return True if byte input is indexed so skipped values are jumped over;
+     *         otherwise false.
+     */
+    public boolean isStructuralIndex() {
+        return structuralIndex;
+    }
+
+    /**
+     * Get the equivalent {@code JSONParseOptions} with or without a structural
+     * index. The index costs a fast first pass over the bytes, and pays off when
+     * large parts of the document are skipped by {@link #withLazy(boolean)} or
+     * {@link #withProjection(boolean)}. Skipped values are then only checked for
+     * matching brackets.
+     * 
+     * @param structuralIndex if true, UTF-8 byte input is indexed with a
+     *                        {@link StructuralIndex} before it is parsed
+     * @return the equivalent {@code JSONParseOptions}
+     */
+    public JSONParseOptions withStructuralIndex(boolean structuralIndex) {
+        JSONParseOptions options = copy();
+        options.structuralIndex = structuralIndex;
+        return options;
+    }
+
+    /**
+     * Parses large top level arrays on several threads, see
+     * {@link ParallelArrayParser}
+     * 
+     * @return True if top level arrays are parsed in parallel; otherwise false.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Get the equivalent {@code JSONParseOptions} with or without parallel
+     * parsing. Top level arrays of input that can be read more than once, such as
+     * strings, bytes and files, are cut into chunks that are parsed on the common
+     * {@link java.util.concurrent.ForkJoinPool}. Parallel parsing is not used
+     * together with lazy parsing or the compact document model.
+     * 
+     * @param parallel if true, large top level arrays are parsed in parallel
+     * @return the equivalent {@code JSONParseOptions}
+     */
+    public JSONParseOptions withParallel(boolean parallel) {
+        JSONParseOptions options = copy();
+        options.parallel = parallel;
+        return options;
+    }
+
+    /**
+     * Keeps decimal numbers as their text, see {@link JSONNumber}
+     * 
+     * @return True if decimal numbers are only parsed when their value is needed;
+     *         otherwise false.
+     */
+    public boolean isLazyNumbers() {
+        return lazyNumbers;
+    }
+
+    /**
+     * Get the equivalent {@code JSONParseOptions} with or without lazy numbers.
+     * Numbers with a fraction or exponent are then built as a {@link JSONNumber}
+     * instead of a {@link java.math.BigDecimal}. The comparators only need their
+     * {@code double} value, which is parsed with a fast algorithm, and numbers
+     * written the same way are compared without parsing them at all. A
+     * {@link JSONNumber} equals, hashes and prints like the
+     * {@link java.math.BigDecimal} it replaces, but custom matchers that check for
+     * {@link java.math.BigDecimal} will not see one. Lazy numbers do not apply to
+     * lazy parsing, and the compact document model always parses decimals this
+     * way.
+     * 
+     * @param lazyNumbers if true, decimal numbers are kept as their text until
+     *                    their value is needed
+     * @return the equivalent {@code JSONParseOptions}
+     */
+    public JSONParseOptions withLazyNumbers(boolean lazyNumbers) {
+        JSONParseOptions options = copy();
+        options.lazyNumbers = lazyNumbers;
+        return options;
+    }
+
+    /**
+     * Keeps strings as their UTF-8 bytes, see {@link JSONRawString}
+     * 
+     * @return True if strings without escape sequences are only decoded when
+     *         their characters are needed; otherwise false.
+     */
+    public boolean isRawStrings() {
+        return rawStrings;
+    }
+
+    /**
+     * Get the equivalent {@code JSONParseOptions} with or without raw strings.
+     * Strings of byte input that have no escape sequences are then built as a
+     * {@link JSONRawString} instead of a {@link String}, and two of them are
+     * compared byte by byte without decoding either. A string is still decoded
+     * when it has to be printed in a failure message or is passed to a custom
+     * matcher, but code that reads parsed values directly, such as
+     * {@link org.json.JSONObject#getString(String)}, will not see a
+     * {@link String}. Raw strings do not apply to text input, lazy parsing or the
+     * compact document model.
+     * 
+     * @param rawStrings if true, strings without escape sequences are kept as
+     *                   their bytes until their characters are needed
+     * @return the equivalent {@code JSONParseOptions}
+     */
+    public JSONParseOptions withRawStrings(boolean rawStrings) {
+        JSONParseOptions options = copy();
+        options.rawStrings = rawStrings;
+        return options;
+    }
+
+    /**
+     * Shares the strings of repeated keys between objects
+     * 
+     * @return True if keys with the same text are parsed into the same
+     *         {@link String} instance; otherwise false.
+     */
+    public boolean isSharedKeys() {
+        return sharedKeys;
+    }
+
+    /**
+     * Get the equivalent {@code JSONParseOptions} with or without shared keys.
+     * The parser then looks every key up in a symbol table as it reads it, so
+     * large arrays of records hold a single copy of each of their keys instead of
+     * one per object. The compact document model always shares its keys.
+     * 
+     * @param sharedKeys if true, keys with the same text are parsed into the same
+     *                   {@link String} instance
+     * @return the equivalent {@code JSONParseOptions}
+     */
+    public JSONParseOptions withSharedKeys(boolean sharedKeys) {
+        JSONParseOptions options = copy();
+        options.sharedKeys = sharedKeys;
+        return options;
+    }
+
+    /**
+     * Shares the strings of repeated short values between objects
+     * 
+     * @return True if short string values with the same text are parsed into the
+     *         same {@link String} instance; otherwise false.
+     */
+    public boolean isSharedStrings() {
+        return sharedStrings;
+    }
+
+    /**
+     * Get the equivalent {@code JSONParseOptions} with or without shared
+     * strings. Besides the keys, string values of up to 32 characters are then
+     * looked up in the symbol table as well, which suits values such as enums,
+     * status codes and country codes that repeat in every record. Strings that
+     * are kept as a {@link JSONRawString} are not shared.
+     * 
+     * @param sharedStrings if true, keys and short string values with the same
+     *                      text are parsed into the same {@link String} instance
+     * @return the equivalent {@code JSONParseOptions}
+     */
+    public JSONParseOptions withSharedStrings(boolean sharedStrings) {
+        JSONParseOptions options = copy();
+        options.sharedStrings = sharedStrings;
+        return options;
+    }
+
+    /**
+     * Shares identical objects and arrays, see {@link JSONInterner}
+     * 
+     * @return True if identical subtrees are parsed into the same instance;
+     *         otherwise false.
+     */
+    public boolean isHashConsing() {
+        return hashConsing;
+    }
+
+    /**
+     * Get the equivalent {@code JSONParseOptions} with or without hash-consing.
+     * Identical subtrees of a parsed document, such as repeated address blocks
+     * or default settings, are then replaced by a single shared instance. When
+     * {@link JSONCompare} parses both documents with these options the expected
+     * and actual documents share their identical subtrees as well, so the
+     * comparators settle those by reference without descending into them. The
+     * parsed objects and arrays must not be modified. Hash-consing does not apply
+     * to lazy parsing or the compact document model.
+     * 
+     * @param hashConsing if true, identical objects and arrays are parsed into
+     *                    the same instance
+     * @return the equivalent {@code JSONParseOptions}
+     */
+    public JSONParseOptions withHashConsing(boolean hashConsing) {
+        JSONParseOptions options = copy();
+        options.hashConsing = hashConsing;
+        return options;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (!(obj instanceof JSONParseOptions)) {
+            return false;
+        }
+        JSONParseOptions other = (JSONParseOptions) obj;
+        return compactDocument == other.compactDocument && lazy == other.lazy && projection == other.projection
+                && structuralIndex == other.structuralIndex && parallel == other.parallel
+                && lazyNumbers == other.lazyNumbers && rawStrings == other.rawStrings
+                && sharedKeys == other.sharedKeys && sharedStrings == other.sharedStrings
+                && hashConsing == other.hashConsing;
+    }
+
+    @Override
+    public int hashCode() {
+        boolean[] flags = { compactDocument, lazy, projection, structuralIndex, parallel, lazyNumbers, rawStrings,
+                sharedKeys, sharedStrings, hashConsing };
+        return Arrays.hashCode(flags);
+    }
+
+    private JSONParseOptions copy() {
+        try {
+            return (JSONParseOptions) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
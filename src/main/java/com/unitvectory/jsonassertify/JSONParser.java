@@ -13,10 +13,24 @@
 */
 package com.unitvectory.jsonassertify;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONString;
+import com.unitvectory.jsonassertify.parser.JSONDocument;
+import com.unitvectory.jsonassertify.parser.JSONInput;
+import com.unitvectory.jsonassertify.parser.JSONInterner;
+import com.unitvectory.jsonassertify.parser.JSONProjection;
+import com.unitvectory.jsonassertify.parser.JSONToken;
+import com.unitvectory.jsonassertify.parser.JSONTokenizer;
+import com.unitvectory.jsonassertify.parser.JSONTreeBuilder;
+import com.unitvectory.jsonassertify.parser.LazyJSON;
+import com.unitvectory.jsonassertify.parser.ParallelArrayParser;
+import com.unitvectory.jsonassertify.parser.StructuralIndex;
 
 /**
  * Simple JSON parsing utility.
@@ -32,7 +46,7 @@ public class JSONParser {
   // "A number can be represented as integer, real, or floating point. JSON does
   // not support octal or hex
   // ... [or] NaN or Infinity".
-  private static final String NUMBER_REGEX = "-?(?:0|[1-9]\\d*)(?:\\.\\d+)?(?:[eE][+-]?\\d+)?";
+  private static final Pattern NUMBER_PATTERN = Pattern.compile("-?(?:0|[1-9]\\d*)(?:\\.\\d+)?(?:[eE][+-]?\\d+)?");
 
   /**
    * Private constructor to prevent instantiation.
@@ -50,19 +64,260 @@ public class JSONParser {
    * @throws JSONException JSON parsing error
    */
   public static Object parseJSON(final String s) throws JSONException {
-    if (s.trim().startsWith("{")) {
-      return new JSONObject(s);
-    } else if (s.trim().startsWith("[")) {
-      return new JSONArray(s);
-    } else if (s.trim().startsWith("\"")
-        || s.trim().matches(NUMBER_REGEX)) {
-      return new JSONString() {
-        @Override
-        public String toJSONString() {
-          return s;
-        }
-      };
+    return parseJSON(s, JSONParseOptions.DEFAULT);
+  }
+
+  /**
+   * Takes a JSON string and returns either a {@link org.json.JSONObject} or
+   * {@link org.json.JSONArray}, depending on whether the string represents an
+   * object or an array, parsed according to the provided options.
+   *
+   * @param s       Raw JSON string to be parsed
+   * @param options Defines how objects and arrays are parsed
+   * @return JSONObject or JSONArray
+   * @throws JSONException JSON parsing error
+   */
+  public static Object parseJSON(final String s, JSONParseOptions options) throws JSONException {
+    return parseJSON(s, options, JSONProjection.ALL);
+  }
+
+  /**
+   * Takes a JSON string and returns either a {@link org.json.JSONObject} or
+   * {@link org.json.JSONArray}, depending on whether the string represents an
+   * object or an array, parsed according to the provided options. Only the
+   * parts of objects and arrays within the projection are built.
+   *
+   * @param s          Raw JSON string to be parsed
+   * @param options    Defines how objects and arrays are parsed
+   * @param projection Defines which parts of objects and arrays are built
+   * @return JSONObject or JSONArray
+   * @throws JSONException JSON parsing error
+   */
+  public static Object parseJSON(final String s, JSONParseOptions options, JSONProjection projection)
+      throws JSONException {
+    return parseJSON((CharSequence) s, options, projection);
+  }
+
+  /**
+   * Takes JSON text and returns either a {@link org.json.JSONObject} or
+   * {@link org.json.JSONArray}, depending on whether the text represents an
+   * object or an array, parsed according to the provided options. The text is
+   * read directly from the sequence, so a {@link StringBuilder} or
+   * {@link java.nio.CharBuffer} does not have to be copied into a
+   * {@link String} first. The sequence must not be changed while it is parsed,
+   * or while a lazily parsed result is in use.
+   *
+   * @param s       JSON text to be parsed
+   * @param options Defines how objects and arrays are parsed
+   * @return JSONObject or JSONArray
+   * @throws JSONException JSON parsing error
+   */
+  public static Object parseJSON(final CharSequence s, JSONParseOptions options) throws JSONException {
+    return parseJSON(s, options, JSONProjection.ALL);
+  }
+
+  /**
+   * Takes JSON text and returns either a {@link org.json.JSONObject} or
+   * {@link org.json.JSONArray}, depending on whether the text represents an
+   * object or an array, parsed according to the provided options. Only the
+   * parts of objects and arrays within the projection are built.
+   *
+   * @param s          JSON text to be parsed
+   * @param options    Defines how objects and arrays are parsed
+   * @param projection Defines which parts of objects and arrays are built
+   * @return JSONObject or JSONArray
+   * @throws JSONException JSON parsing error
+   */
+  public static Object parseJSON(final CharSequence s, JSONParseOptions options, JSONProjection projection)
+      throws JSONException {
+    int start = 0;
+    int end = s.length();
+    while (start < end && s.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && s.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    char first = start < end ? s.charAt(start) : 0;
+    if (first == '{' || first == '[') {
+      boolean plain = !options.isCompactDocument() && !options.isLazy() && !options.isParallel()
+          && !options.isLazyNumbers() && !options.isSharedKeys() && !options.isSharedStrings() && projection.isAll();
+      if (plain && s instanceof String) {
+        return intern(first == '{' ? new JSONObject((String) s) : new JSONArray((String) s), options);
+      }
+      return intern(parseContainer(JSONInput.of(s), null, options, projection), options);
+    } else if (first == '"' || NUMBER_PATTERN.matcher(s).region(start, end).matches()) {
+      return jsonString(s.toString());
     }
     throw new JSONException("Unparsable JSON string: " + s);
   }
+
+  /**
+   * Takes the remaining UTF-8 encoded bytes of a buffer and returns either a
+   * {@link org.json.JSONObject} or {@link org.json.JSONArray}, depending on
+   * whether the bytes represent an object or an array, parsed according to the
+   * provided options. Objects and arrays are read directly from the bytes
+   * without decoding them into a {@link String} first. The position of the
+   * buffer is not changed.
+   *
+   * @param buffer  UTF-8 encoded JSON to be parsed
+   * @param options Defines how objects and arrays are parsed
+   * @return JSONObject or JSONArray
+   * @throws JSONException JSON parsing error
+   */
+  public static Object parseJSON(final ByteBuffer buffer, JSONParseOptions options) throws JSONException {
+    return parseJSON(buffer, options, JSONProjection.ALL);
+  }
+
+  /**
+   * Takes the remaining UTF-8 encoded bytes of a buffer and returns either a
+   * {@link org.json.JSONObject} or {@link org.json.JSONArray}, depending on
+   * whether the bytes represent an object or an array, parsed according to the
+   * provided options. Only the parts of objects and arrays within the projection
+   * are built. The position of the buffer is not changed.
+   *
+   * @param buffer     UTF-8 encoded JSON to be parsed
+   * @param options    Defines how objects and arrays are parsed
+   * @param projection Defines which parts of objects and arrays are built
+   * @return JSONObject or JSONArray
+   * @throws JSONException JSON parsing error
+   */
+  public static Object parseJSON(final ByteBuffer buffer, JSONParseOptions options, JSONProjection projection)
+      throws JSONException {
+    int first = firstNonWhitespace(buffer);
+    if (first == '{' || first == '[') {
+      StructuralIndex index = options.isStructuralIndex() ? StructuralIndex.of(buffer) : null;
+      return intern(parseContainer(JSONInput.of(buffer), index, options, projection), options);
+    }
+    // Strings and numbers are compared as text, decoding them is cheap
+    return parseJSON(StandardCharsets.UTF_8.decode(buffer.duplicate()).toString(), options);
+  }
+
+  /**
+   * Reads JSON from the provided input and returns either a
+   * {@link org.json.JSONObject} or {@link org.json.JSONArray}, depending on
+   * whether the input represents an object or an array, parsed according to the
+   * provided options. Since the input is read only once a top level string or
+   * number is returned as its canonical JSON text rather than its original text.
+   *
+   * @param input   JSON input to be parsed
+   * @param options Defines how objects and arrays are parsed
+   * @return JSONObject or JSONArray
+   * @throws JSONException JSON parsing error
+   */
+  public static Object parseJSON(final JSONInput input, JSONParseOptions options) throws JSONException {
+    return parseJSON(input, options, JSONProjection.ALL);
+  }
+
+  /**
+   * Reads JSON from the provided input and returns either a
+   * {@link org.json.JSONObject} or {@link org.json.JSONArray}, depending on
+   * whether the input represents an object or an array, parsed according to the
+   * provided options. Only the parts of objects and arrays within the projection
+   * are built.
+   *
+   * @param input      JSON input to be parsed
+   * @param options    Defines how objects and arrays are parsed
+   * @param projection Defines which parts of objects and arrays are built
+   * @return JSONObject or JSONArray
+   * @throws JSONException JSON parsing error
+   */
+  public static Object parseJSON(final JSONInput input, JSONParseOptions options, JSONProjection projection)
+      throws JSONException {
+    JSONTokenizer tokenizer = new JSONTokenizer(input);
+    switch (tokenizer.next()) {
+      case START_OBJECT:
+      case START_ARRAY:
+        return intern(buildContainer(input, null, tokenizer, options, projection), options);
+      case STRING:
+        return jsonString(JSONObject.quote(tokenizer.getText()));
+      case LITERAL:
+        if (NUMBER_PATTERN.matcher(tokenizer.getText()).matches()) {
+          return jsonString(tokenizer.getText());
+        }
+        throw new JSONException("Unparsable JSON string: " + tokenizer.getText());
+      default:
+        throw new JSONException("Unparsable JSON string: ");
+    }
+  }
+
+  /**
+   * Parses the remaining UTF-8 encoded bytes of a buffer like
+   * {@link #parseJSON(ByteBuffer, JSONParseOptions)}, but returns a top level
+   * string or number as the value {@code org.json} builds for it, so it can be
+   * passed to {@link com.unitvectory.jsonassertify.comparator.JSONComparator#compareValues}.
+   *
+   * @param buffer  UTF-8 encoded JSON to be parsed
+   * @param options Defines how objects and arrays are parsed
+   * @return a JSONObject, JSONArray, String, Boolean, Number or
+   *         {@link JSONObject#NULL}
+   * @throws JSONException JSON parsing error
+   */
+  static Object parseValue(final ByteBuffer buffer, JSONParseOptions options) throws JSONException {
+    int first = firstNonWhitespace(buffer);
+    if (first == '{' || first == '[') {
+      return parseJSON(buffer, options);
+    }
+    JSONTokenizer tokenizer = new JSONTokenizer(JSONInput.of(buffer));
+    tokenizer.next();
+    return treeBuilder(options).build(tokenizer);
+  }
+
+  private static Object parseContainer(JSONInput input, StructuralIndex index, JSONParseOptions options,
+      JSONProjection projection) {
+    if (options.isLazy() && !options.isCompactDocument()) {
+      return LazyJSON.parse(input, index);
+    }
+    JSONTokenizer tokenizer = new JSONTokenizer(input, 0, index);
+    tokenizer.next();
+    return buildContainer(input, index, tokenizer, options, projection);
+  }
+
+  private static Object buildContainer(JSONInput input, StructuralIndex index, JSONTokenizer tokenizer,
+      JSONParseOptions options, JSONProjection projection) {
+    if (options.isCompactDocument()) {
+      return JSONDocument.parse(tokenizer, projection).root();
+    } else if (options.isLazy() && input.isReopenable()) {
+      // Lazy views only parse what is accessed, which covers the projection
+      return LazyJSON.parse(input);
+    } else if (options.isParallel() && input.isReopenable() && tokenizer.current() == JSONToken.START_ARRAY) {
+      return ParallelArrayParser.parse(input, index, tokenizer.position() - 1, projection,
+          treeBuilder(options));
+    }
+    return treeBuilder(options).build(tokenizer, projection);
+  }
+
+  private static JSONTreeBuilder treeBuilder(JSONParseOptions options) {
+    return new JSONTreeBuilder(options.isLazyNumbers(), options.isRawStrings(), options.isSharedKeys(),
+        options.isSharedStrings());
+  }
+
+  private static Object intern(Object value, JSONParseOptions options) {
+    return options.isHashConsing() ? new JSONInterner().intern(value) : value;
+  }
+
+  private static JSONString jsonString(final String s) {
+    return new JSONString() {
+      @Override
+      public String toJSONString() {
+        return s;
+      }
+    };
+  }
+
+  private static int firstNonWhitespace(ByteBuffer buffer) {
+    int index = buffer.position();
+    int limit = buffer.limit();
+    if (limit - index >= 3 && buffer.get(index) == (byte) 0xEF && buffer.get(index + 1) == (byte) 0xBB
+        && buffer.get(index + 2) == (byte) 0xBF) {
+      index += 3;
+    }
+    for (; index < limit; index++) {
+      int b = buffer.get(index) & 0xFF;
+      if (b > ' ') {
+        return b;
+      }
+    }
+    return -1;
+  }
 }
@@ -0,0 +1,151 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.json.JSONException;
+
+/**
+ * <p>
+ * A bounded cache of parsed JSON strings, so the expected JSON of a test that
+ * runs many times is only parsed once.
+ * </p>
+ *
+ * <p>
+ * Entries are keyed by the content of the string and the parse options. At
+ * most the configured number of entries is kept, evicting the least recently
+ * used one, and the parsed values are only softly reachable so the garbage
+ * collector can reclaim them under memory pressure. The cache is safe to use
+ * from several threads; a string that is parsed by two threads at once is
+ * simply parsed twice.
+ * </p>
+ *
+ * <p>
+ * The cached values are shared by every comparison of the same string, which
+ * is safe because comparisons only read the expected JSON. Values that are
+ * changed while they are read, lazily parsed views and hash-consed trees, are
+ * not cached.
+ * </p>
+ */
+final class ParseCache {
+
+    private final int maxEntries;
+
+    private final Map<Key, CachedValue> entries;
+
+    private final ReferenceQueue<Object> cleared = new ReferenceQueue<Object>();
+
+    /**
+     * Constructs a new ParseCache.
+     *
+     * @param maxEntries the maximum number of parsed strings kept
+     */
+    ParseCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, CachedValue>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedValue> eldest) {
+                return size() > ParseCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Parses a JSON string, or gets the value it was parsed into before.
+     *
+     * @param s       the JSON string
+     * @param options defines how the string is parsed
+     * @return the parsed value, see {@link JSONParser#parseJSON(String)}
+     * @throws JSONException JSON parsing error
+     */
+    Object parse(String s, JSONParseOptions options) throws JSONException {
+        if (options.isLazy() || options.isHashConsing()) {
+            return JSONParser.parseJSON(s, options);
+        }
+        Key key = new Key(s, options);
+        synchronized (this) {
+            expunge();
+            CachedValue entry = entries.get(key);
+            Object value = entry == null ? null : entry.get();
+            if (value != null) {
+                return value;
+            }
+        }
+        Object value = JSONParser.parseJSON(s, options);
+        synchronized (this) {
+            entries.put(key, new CachedValue(key, value, cleared));
+        }
+        return value;
+    }
+
+    synchronized int size() {
+        expunge();
+        return entries.size();
+    }
+
+    /**
+     * Removes the entries whose values have been reclaimed.
+     */
+    private void expunge() {
+        for (Object ref = cleared.poll(); ref != null; ref = cleared.poll()) {
+            CachedValue entry = (CachedValue) ref;
+            // The key may have been parsed again since
+            if (entries.get(entry.key) == entry) {
+                entries.remove(entry.key);
+            }
+        }
+    }
+
+    private static final class Key {
+
+        private final String s;
+
+        private final JSONParseOptions options;
+
+        Key(String s, JSONParseOptions options) {
+            this.s = s;
+            this.options = options;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return s.equals(other.s) && options.equals(other.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * s.hashCode() + options.hashCode();
+        }
+    }
+
+    private static final class CachedValue extends SoftReference<Object> {
+
+        private final Key key;
+
+        CachedValue(Key key, Object value, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
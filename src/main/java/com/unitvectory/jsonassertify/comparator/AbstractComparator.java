@@ -17,6 +17,7 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import com.unitvectory.jsonassertify.JSONCompareResult;
+import com.unitvectory.jsonassertify.parser.JSONRawString;
 
 import java.util.*;
 
@@ -209,13 +210,20 @@ public abstract class AbstractComparator implements JSONComparator {
             JSONCompareResult result) throws JSONException {
         // This is expensive (O(n^2) -- yuck), but may be the only resort for some cases
         // with loose array ordering, and no easy way to uniquely identify each element.
+        // Raw strings are decoded, as they are never equal to a String
         Set<Integer> matched = new HashSet<Integer>();
         for (int i = 0; i < expected.length(); ++i) {
-            Object expectedElement = JSONCompareUtil.getObjectOrNull(expected, i);
+            Object expectedElement = JSONRawString.decode(JSONCompareUtil.getObjectOrNull(expected, i));
             boolean matchFound = false;
             for (int j = 0; j < actual.length(); ++j) {
-                Object actualElement = JSONCompareUtil.getObjectOrNull(actual, j);
-                if (expectedElement == actualElement) {
+                Object actualElement = JSONRawString.decode(JSONCompareUtil.getObjectOrNull(actual, j));
+                if (expectedElement == actualElement && expectedElement == null) {
+                    matchFound = true;
+                    break;
+                }
+                if (expectedElement == actualElement && !matched.contains(j)) {
+                    // Shared instances, such as hash-consed subtrees, still match only once
+                    matched.add(j);
                     matchFound = true;
                     break;
                 }
@@ -223,7 +231,7 @@ public abstract class AbstractComparator implements JSONComparator {
                         || (expectedElement != null && actualElement == null)) {
                     continue;
                 }
-                if (matched.contains(j) || !actualElement.getClass().equals(expectedElement.getClass())) {
+                if (matched.contains(j) || !isSameKind(expectedElement, actualElement)) {
                     continue;
                 }
                 if (expectedElement instanceof JSONObject) {
@@ -250,4 +258,13 @@ public abstract class AbstractComparator implements JSONComparator {
             }
         }
     }
+
+    private static boolean isSameKind(Object expectedElement, Object actualElement) {
+        if (expectedElement instanceof JSONObject) {
+            return actualElement instanceof JSONObject;
+        } else if (expectedElement instanceof JSONArray) {
+            return actualElement instanceof JSONArray;
+        }
+        return actualElement.getClass().equals(expectedElement.getClass());
+    }
 }
@@ -18,6 +18,7 @@ import com.unitvectory.jsonassertify.Customization;
 import com.unitvectory.jsonassertify.JSONCompareMode;
 import com.unitvectory.jsonassertify.JSONCompareResult;
 import com.unitvectory.jsonassertify.ValueMatcherException;
+import com.unitvectory.jsonassertify.parser.JSONRawString;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -49,7 +50,9 @@ public class CustomComparator extends DefaultComparator {
         Customization customization = getCustomization(prefix);
         if (customization != null) {
             try {
-                if (!customization.matches(prefix, actualValue, expectedValue, result)) {
+                // Matchers expect the types built by org.json
+                if (!customization.matches(prefix, JSONRawString.decode(actualValue),
+                        JSONRawString.decode(expectedValue), result)) {
                     result.fail(prefix, expectedValue, actualValue);
                 }
             } catch (ValueMatcherException e) {
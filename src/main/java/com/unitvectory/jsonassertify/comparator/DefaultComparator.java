@@ -18,6 +18,8 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import com.unitvectory.jsonassertify.JSONCompareMode;
 import com.unitvectory.jsonassertify.JSONCompareResult;
+import com.unitvectory.jsonassertify.parser.JSONNumber;
+import com.unitvectory.jsonassertify.parser.JSONRawString;
 
 import static com.unitvectory.jsonassertify.comparator.JSONCompareUtil.allJSONObjects;
 import static com.unitvectory.jsonassertify.comparator.JSONCompareUtil.allSimpleValues;
@@ -69,12 +71,17 @@ public class DefaultComparator extends AbstractComparator {
             if (areNotSameDoubles(expectedValue, actualValue)) {
                 result.fail(prefix, expectedValue, actualValue);
             }
+        } else if (expectedValue instanceof JSONArray && actualValue instanceof JSONArray) {
+            compareJSONArray(prefix, (JSONArray) expectedValue, (JSONArray) actualValue, result);
+        } else if (expectedValue instanceof JSONObject && actualValue instanceof JSONObject) {
+            // Either side may be a read-only view such as JSONDocumentObject
+            compareJSON(prefix, (JSONObject) expectedValue, (JSONObject) actualValue, result);
+        } else if (expectedValue instanceof JSONRawString || actualValue instanceof JSONRawString) {
+            if (areNotSameStrings(expectedValue, actualValue)) {
+                result.fail(prefix, expectedValue, actualValue);
+            }
         } else if (expectedValue.getClass().isAssignableFrom(actualValue.getClass())) {
-            if (expectedValue instanceof JSONArray) {
-                compareJSONArray(prefix, (JSONArray) expectedValue, (JSONArray) actualValue, result);
-            } else if (expectedValue instanceof JSONObject) {
-                compareJSON(prefix, (JSONObject) expectedValue, (JSONObject) actualValue, result);
-            } else if (!expectedValue.equals(actualValue)) {
+            if (!expectedValue.equals(actualValue)) {
                 result.fail(prefix, expectedValue, actualValue);
             }
         } else {
@@ -124,6 +131,31 @@ public class DefaultComparator extends AbstractComparator {
      *         otherwise
      */
     protected boolean areNotSameDoubles(Object expectedValue, Object actualValue) {
+        if (expectedValue instanceof JSONNumber && actualValue instanceof JSONNumber
+                && ((JSONNumber) expectedValue).hasSameText((JSONNumber) actualValue)) {
+            // Written the same way, so there is no need to parse either
+            return false;
+        }
         return ((Number) expectedValue).doubleValue() != ((Number) actualValue).doubleValue();
     }
+
+    /**
+     * Checks if the provided objects, at least one of which is a
+     * {@link JSONRawString}, are not the same string. Two raw strings are
+     * compared by their bytes, a raw string and a {@link String} by their
+     * characters.
+     * 
+     * @param expectedValue the expected value
+     * @param actualValue   the actual value
+     * @return true if the objects are not the same string; false otherwise
+     */
+    protected boolean areNotSameStrings(Object expectedValue, Object actualValue) {
+        if (expectedValue instanceof JSONRawString && actualValue instanceof JSONRawString) {
+            return !expectedValue.equals(actualValue);
+        } else if (expectedValue instanceof CharSequence && actualValue instanceof CharSequence
+                && (expectedValue instanceof String || actualValue instanceof String)) {
+            return !expectedValue.toString().equals(actualValue.toString());
+        }
+        return true;
+    }
 }
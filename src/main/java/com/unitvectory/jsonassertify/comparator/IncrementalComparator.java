@@ -0,0 +1,317 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.comparator;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONString;
+
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+import com.unitvectory.jsonassertify.JSONCompareResult;
+import com.unitvectory.jsonassertify.JSONParser;
+import com.unitvectory.jsonassertify.parser.JSONPushHandler;
+import com.unitvectory.jsonassertify.parser.JSONPushParser;
+
+/**
+ * <p>
+ * Compares JSON that arrives in pieces against an expected document that has
+ * already been parsed, for example:
+ * </p>
+ *
+ * <pre>
+ * IncrementalComparator comparator = new IncrementalComparator(JSONParser.parseJSON(expected), mode);
+ * while (channel.read(buffer) &gt;= 0) {
+ *     buffer.flip();
+ *     comparator.feed(buffer);
+ *     buffer.clear();
+ * }
+ * JSONCompareResult result = comparator.finish();
+ * </pre>
+ *
+ * <p>
+ * The pieces are parsed by a {@link JSONPushParser}. When both documents are
+ * objects each member of the actual object is compared as soon as it is
+ * complete and then dropped, and the same is done for the elements of arrays
+ * when the mode has strict ordering. Otherwise the actual document is built
+ * while it arrives and compared at the end. The result is the same as the
+ * result of the {@link DefaultComparator} for the same {@link JSONCompareMode}.
+ * </p>
+ */
+public class IncrementalComparator {
+
+    private final Object expected;
+
+    private final JSONCompareMode mode;
+
+    private final DefaultComparator comparator;
+
+    private final Handler handler = new Handler();
+
+    private final JSONPushParser parser = new JSONPushParser(handler);
+
+    private JSONCompareResult result;
+
+    /**
+     * Constructs a new IncrementalComparator.
+     *
+     * @param expected the expected JSON as returned by
+     *                 {@link JSONParser#parseJSON(String)}
+     * @param mode     the comparison mode
+     */
+    public IncrementalComparator(Object expected, JSONCompareMode mode) {
+        this.expected = expected;
+        this.mode = mode;
+        this.comparator = new DefaultComparator(mode);
+    }
+
+    /**
+     * Parses and compares the remaining bytes of the buffer as the next piece of
+     * the actual JSON. The position of the buffer is moved to its limit.
+     *
+     * @param buffer the next UTF-8 encoded bytes of the actual JSON
+     * @throws JSONException JSON parsing error
+     */
+    public void feed(ByteBuffer buffer) throws JSONException {
+        parser.feed(buffer);
+    }
+
+    /**
+     * Ends the actual JSON and gets the result of the comparison.
+     *
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public JSONCompareResult finish() throws JSONException {
+        parser.finish();
+        if (result == null) {
+            throw new JSONException("Unparsable JSON string: ");
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the comparison has already failed, whatever the rest of the
+     * actual JSON turns out to be. This is only known early when members or
+     * elements are compared as they arrive.
+     *
+     * @return true if the comparison can no longer pass; otherwise false
+     */
+    public boolean isFailed() {
+        return handler.isFailed();
+    }
+
+    /**
+     * Checks if the top level value of the actual JSON is complete, so the rest of
+     * the input does not need to be fed.
+     *
+     * @return true if the actual JSON is complete; otherwise false
+     */
+    public boolean isDone() {
+        return parser.isDone();
+    }
+
+    /**
+     * Stops the comparison before the end of the actual JSON and gets the
+     * failures found so far. Members that are missing and arrays that are too
+     * short can not be known yet and are not reported.
+     *
+     * @return result of the comparison so far
+     */
+    public JSONCompareResult abort() {
+        if (result != null) {
+            return result;
+        }
+        return handler.partial();
+    }
+
+    private JSONCompareResult compareParsed(Object actual) {
+        if (expected instanceof JSONObject && actual instanceof JSONObject) {
+            return comparator.compareJSON((JSONObject) expected, (JSONObject) actual);
+        } else if (expected instanceof JSONArray && actual instanceof JSONArray) {
+            return comparator.compareJSON((JSONArray) expected, (JSONArray) actual);
+        } else if (expected instanceof JSONString && actual instanceof JSONString) {
+            return JSONCompare.compareJson((JSONString) expected, (JSONString) actual);
+        }
+        return new JSONCompareResult().fail("", expected, actual);
+    }
+
+    private class Handler implements JSONPushHandler {
+
+        // Used when the top level values cannot be compared one by one
+        private JSONObject actualObject;
+        private JSONArray actualArray;
+
+        // Outcomes of the members that did not pass, and the expected keys seen
+        private final Map<String, JSONCompareResult> outcomes = new HashMap<String, JSONCompareResult>();
+        private final Set<String> found = new HashSet<String>();
+        private final Set<String> unexpected = new TreeSet<String>();
+
+        // Element failures only count if both arrays turn out to be the same length
+        private final JSONCompareResult elements = new JSONCompareResult();
+        private int length;
+
+        // The DefaultComparator checks the lengths before it compares a null to
+        // another value, so the actual elements from such a pair on are only
+        // compared in end()
+        private List<Object> deferred;
+        private int deferredFrom;
+
+        private JSONCompareResult scratch = new JSONCompareResult();
+
+        @Override
+        public void startObject() {
+            if (!(expected instanceof JSONObject)) {
+                actualObject = new JSONObject();
+            }
+        }
+
+        @Override
+        public void member(String key, Object value) {
+            if (actualObject != null) {
+                actualObject.put(key, value);
+                return;
+            }
+            JSONObject expectedObject = (JSONObject) expected;
+            if (!expectedObject.has(key)) {
+                unexpected.add(key);
+                return;
+            }
+            found.add(key);
+            comparator.compareValues(key, expectedObject.get(key), value, scratch);
+            if (!scratch.passed()) {
+                outcomes.put(key, scratch);
+                scratch = new JSONCompareResult();
+            }
+        }
+
+        @Override
+        public void startArray() {
+            if (!(expected instanceof JSONArray) || !mode.hasStrictOrder()) {
+                actualArray = new JSONArray();
+            }
+        }
+
+        @Override
+        public void element(Object value) {
+            if (actualArray != null) {
+                actualArray.put(value);
+                return;
+            }
+            JSONArray expectedArray = (JSONArray) expected;
+            if (length < expectedArray.length()) {
+                // Matches JSONCompareUtil.getObjectOrNull
+                Object expectedValue = JSONCompareUtil.getObjectOrNull(expectedArray, length);
+                Object actualValue = value == JSONObject.NULL ? null : value;
+                if (deferred == null && (expectedValue == null) != (actualValue == null)) {
+                    deferred = new ArrayList<Object>();
+                    deferredFrom = length;
+                }
+                if (deferred != null) {
+                    deferred.add(actualValue);
+                } else {
+                    comparator.compareValues("[" + length + "]", expectedValue, actualValue, elements);
+                }
+            }
+            length++;
+        }
+
+        @Override
+        public void end() {
+            if (actualObject != null) {
+                result = compareParsed(actualObject);
+            } else if (actualArray != null) {
+                result = compareParsed(actualArray);
+            } else if (expected instanceof JSONObject) {
+                result = new JSONCompareResult();
+                for (String key : JSONCompareUtil.getKeys((JSONObject) expected)) {
+                    if (!found.contains(key)) {
+                        result.missing("", key);
+                    } else if (outcomes.containsKey(key)) {
+                        result.merge(outcomes.get(key));
+                    }
+                }
+                if (!mode.isExtensible()) {
+                    for (String key : unexpected) {
+                        result.unexpected("", key);
+                    }
+                }
+            } else {
+                int expectedLength = ((JSONArray) expected).length();
+                result = new JSONCompareResult();
+                if (expectedLength != length) {
+                    result.fail("[]: Expected " + expectedLength + " values but got " + length);
+                } else {
+                    for (int i = 0; deferred != null && i < deferred.size(); i++) {
+                        int index = deferredFrom + i;
+                        comparator.compareValues("[" + index + "]",
+                                JSONCompareUtil.getObjectOrNull((JSONArray) expected, index), deferred.get(i),
+                                elements);
+                    }
+                    result.merge(elements);
+                }
+            }
+        }
+
+        boolean isFailed() {
+            if (result != null) {
+                return result.failed();
+            } else if (expected instanceof JSONObject && actualObject == null) {
+                return !outcomes.isEmpty() || (!mode.isExtensible() && !unexpected.isEmpty());
+            } else if (expected instanceof JSONArray && actualArray == null) {
+                return elements.failed() || length > ((JSONArray) expected).length();
+            }
+            return false;
+        }
+
+        JSONCompareResult partial() {
+            JSONCompareResult partial = new JSONCompareResult();
+            if (expected instanceof JSONObject && actualObject == null) {
+                for (String key : JSONCompareUtil.getKeys((JSONObject) expected)) {
+                    if (outcomes.containsKey(key)) {
+                        partial.merge(outcomes.get(key));
+                    }
+                }
+                if (!mode.isExtensible()) {
+                    for (String key : unexpected) {
+                        partial.unexpected("", key);
+                    }
+                }
+            } else if (expected instanceof JSONArray && actualArray == null) {
+                int expectedLength = ((JSONArray) expected).length();
+                if (length > expectedLength) {
+                    partial.fail("[]: Expected " + expectedLength + " values but got more than that");
+                } else {
+                    partial.merge(elements);
+                }
+            }
+            return partial;
+        }
+
+        @Override
+        public void value(String json) {
+            result = compareParsed(JSONParser.parseJSON(json));
+        }
+    }
+}
@@ -27,6 +27,9 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import com.unitvectory.jsonassertify.parser.JSONDocumentObject;
+import com.unitvectory.jsonassertify.parser.JSONRawString;
+
 /**
  * Utility class that contains Json manipulation methods.
  * 
@@ -47,7 +50,9 @@ public final class JSONCompareUtil {
     /**
      * Converts the provided {@link JSONArray} to a Map of {@link JSONObject}s where
      * the key of each object
-     * is the value at {@code uniqueKey} in each object.
+     * is the value at {@code uniqueKey} in each object. A
+     * {@link JSONRawString} value is decoded, so it is the same key as an
+     * equal {@link String}.
      *
      * @param array     the JSON array to convert
      * @param uniqueKey the key to map the JSON objects to
@@ -59,7 +64,7 @@ public final class JSONCompareUtil {
         Map<Object, JSONObject> valueMap = new HashMap<Object, JSONObject>();
         for (int i = 0; i < array.length(); ++i) {
             JSONObject jsonObject = (JSONObject) array.get(i);
-            Object id = jsonObject.get(uniqueKey);
+            Object id = JSONRawString.decode(jsonObject.get(uniqueKey));
             valueMap.put(id, jsonObject);
         }
         return valueMap;
@@ -109,7 +114,7 @@ public final class JSONCompareUtil {
             if (item instanceof JSONObject) {
                 JSONObject o = (JSONObject) item;
                 if (o.has(candidate)) {
-                    Object value = o.get(candidate);
+                    Object value = JSONRawString.decode(o.get(candidate));
                     if (isSimpleValue(value) && !seenValues.contains(value)) {
                         seenValues.add(value);
                     } else {
@@ -126,7 +131,8 @@ public final class JSONCompareUtil {
     }
 
     /**
-     * Converts the given {@link JSONArray} to a list of {@link Object}s.
+     * Converts the given {@link JSONArray} to a list of {@link Object}s, with
+     * any {@link JSONRawString} decoded so the elements can be counted.
      *
      * @param expected the JSON array to convert
      * @return the list of objects from the {@code expected} array
@@ -135,7 +141,7 @@ public final class JSONCompareUtil {
     public static List<Object> jsonArrayToList(JSONArray expected) throws JSONException {
         List<Object> jsonObjects = new ArrayList<Object>(expected.length());
         for (int i = 0; i < expected.length(); ++i) {
-            jsonObjects.add(getObjectOrNull(expected, i));
+            jsonObjects.add(JSONRawString.decode(getObjectOrNull(expected, i)));
         }
         return jsonObjects;
     }
@@ -222,6 +228,10 @@ public final class JSONCompareUtil {
      * @return the set of keys
      */
     public static Set<String> getKeys(JSONObject jsonObject) {
+        if (jsonObject instanceof JSONDocumentObject) {
+            // Already sorted, no need to copy
+            return jsonObject.keySet();
+        }
         Set<String> keys = new TreeSet<String>();
         Iterator<?> iter = jsonObject.keys();
         while (iter.hasNext()) {
@@ -0,0 +1,324 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.comparator;
+
+import static com.unitvectory.jsonassertify.comparator.JSONCompareUtil.qualify;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.unitvectory.jsonassertify.JSONCompareMode;
+import com.unitvectory.jsonassertify.JSONCompareResult;
+import com.unitvectory.jsonassertify.parser.JSONToken;
+import com.unitvectory.jsonassertify.parser.JSONTokenizer;
+import com.unitvectory.jsonassertify.parser.JSONTreeBuilder;
+
+/**
+ * <p>
+ * Compares two JSON documents by walking their token streams together instead
+ * of parsing both into {@link JSONObject} trees first. The result is the same
+ * as the result of the {@link DefaultComparator} for the same
+ * {@link JSONCompareMode}.
+ * </p>
+ *
+ * <p>
+ * Object members are compared as soon as both sides have produced them. When
+ * the members of an object arrive in a different order only the out-of-order
+ * members are buffered. Arrays are streamed when the mode has strict ordering;
+ * otherwise the elements have to be matched against each other so both arrays
+ * are materialized and compared by the {@link DefaultComparator}.
+ * </p>
+ */
+public class StreamingComparator {
+
+    private static final JSONCompareResult MISSING = new JSONCompareResult();
+
+    private final JSONCompareMode mode;
+
+    private final DefaultComparator comparator;
+
+    private final JSONTreeBuilder builder = new JSONTreeBuilder();
+
+    private final int maxFailures;
+
+    /**
+     * Constructs a new StreamingComparator with the provided
+     * {@link JSONCompareMode}.
+     *
+     * @param mode the comparison mode
+     */
+    public StreamingComparator(JSONCompareMode mode) {
+        this(mode, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a new StreamingComparator with the provided
+     * {@link JSONCompareMode}, that keeps the details of at most the provided
+     * number of failures.
+     *
+     * @param mode        the comparison mode
+     * @param maxFailures the maximum number of failures whose details are kept
+     * @see JSONCompareResult#JSONCompareResult(int)
+     */
+    public StreamingComparator(JSONCompareMode mode, int maxFailures) {
+        if (maxFailures < 1) {
+            throw new IllegalArgumentException("maxFailures must be positive");
+        }
+        this.mode = mode;
+        this.comparator = new DefaultComparator(mode);
+        this.maxFailures = maxFailures;
+    }
+
+    /**
+     * Compares the document read by the actual tokenizer to the document read by
+     * the expected tokenizer.
+     *
+     * @param expected tokenizer for the expected JSON
+     * @param actual   tokenizer for the actual JSON
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public JSONCompareResult compareJSON(JSONTokenizer expected, JSONTokenizer actual) throws JSONException {
+        JSONCompareResult result = newResult();
+        expected.next();
+        actual.next();
+        compareValues("", expected, actual, false, result);
+        return result;
+    }
+
+    /**
+     * Compares the values at the current tokens of both tokenizers. On return
+     * both tokenizers are positioned on the last token of their value.
+     *
+     * @param prefix   the path of the value
+     * @param expected tokenizer for the expected JSON
+     * @param actual   tokenizer for the actual JSON
+     * @param inArray  true if the values are array elements
+     * @param result   result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    protected void compareValues(String prefix, JSONTokenizer expected, JSONTokenizer actual, boolean inArray,
+            JSONCompareResult result) throws JSONException {
+        JSONToken expectedToken = expected.current();
+        JSONToken actualToken = actual.current();
+        if (expectedToken == JSONToken.START_OBJECT && actualToken == JSONToken.START_OBJECT) {
+            compareJSON(prefix, expected, actual, result);
+        } else if (expectedToken == JSONToken.START_ARRAY && actualToken == JSONToken.START_ARRAY
+                && mode.hasStrictOrder()) {
+            compareJSONArrayWithStrictOrder(prefix, expected, actual, result);
+        } else {
+            comparator.compareValues(prefix, build(expected, inArray), build(actual, inArray), result);
+        }
+    }
+
+    /**
+     * Compares the objects that start at the current tokens of both tokenizers.
+     *
+     * @param prefix   the path of the object
+     * @param expected tokenizer for the expected JSON
+     * @param actual   tokenizer for the actual JSON
+     * @param result   result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    protected void compareJSON(String prefix, JSONTokenizer expected, JSONTokenizer actual,
+            JSONCompareResult result) throws JSONException {
+        Set<String> expectedKeys = new HashSet<String>();
+        Set<String> actualKeys = new HashSet<String>();
+        Map<String, Object> pendingExpected = new LinkedHashMap<String, Object>();
+        Map<String, Object> pendingActual = new LinkedHashMap<String, Object>();
+        Set<String> unexpected = new TreeSet<String>();
+        // Outcomes are kept only for keys that did not pass, sorted the same way
+        // as JSONCompareUtil.getKeys so failures are reported in the same order
+        Map<String, JSONCompareResult> outcomes = new TreeMap<String, JSONCompareResult>();
+        JSONCompareResult scratch = newResult();
+
+        boolean expectedDone = false;
+        boolean actualDone = false;
+        while (!expectedDone || !actualDone) {
+            String expectedKey = null;
+            String actualKey = null;
+            if (!expectedDone) {
+                expectedKey = nextKey(expected, expectedKeys);
+                expectedDone = expectedKey == null;
+            }
+            if (!actualDone) {
+                actualKey = nextKey(actual, actualKeys);
+                actualDone = actualKey == null;
+            }
+
+            if (expectedKey != null && expectedKey.equals(actualKey)) {
+                compareValues(qualify(prefix, expectedKey), expected, actual, false, scratch);
+                scratch = record(outcomes, expectedKey, scratch);
+                continue;
+            }
+
+            if (expectedKey != null) {
+                if (pendingActual.containsKey(expectedKey)) {
+                    Object actualValue = pendingActual.remove(expectedKey);
+                    comparator.compareValues(qualify(prefix, expectedKey), builder.build(expected), actualValue,
+                            scratch);
+                    scratch = record(outcomes, expectedKey, scratch);
+                } else {
+                    pendingExpected.put(expectedKey, builder.build(expected));
+                }
+            }
+
+            if (actualKey != null) {
+                if (pendingExpected.containsKey(actualKey)) {
+                    Object expectedValue = pendingExpected.remove(actualKey);
+                    comparator.compareValues(qualify(prefix, actualKey), expectedValue, builder.build(actual),
+                            scratch);
+                    scratch = record(outcomes, actualKey, scratch);
+                } else if (expectedDone) {
+                    // Every expected key is known, so this one can never match
+                    actual.skipValue();
+                    unexpected.add(actualKey);
+                } else {
+                    pendingActual.put(actualKey, builder.build(actual));
+                }
+            }
+        }
+
+        for (String key : pendingExpected.keySet()) {
+            outcomes.put(key, MISSING);
+        }
+        unexpected.addAll(pendingActual.keySet());
+
+        for (Map.Entry<String, JSONCompareResult> outcome : outcomes.entrySet()) {
+            if (outcome.getValue() == MISSING) {
+                result.missing(prefix, outcome.getKey());
+            } else {
+                result.merge(outcome.getValue());
+            }
+        }
+        if (!mode.isExtensible()) {
+            for (String key : unexpected) {
+                result.unexpected(prefix, key);
+            }
+        }
+    }
+
+    /**
+     * Compares the arrays that start at the current tokens of both tokenizers
+     * element by element.
+     *
+     * @param prefix   the path of the array
+     * @param expected tokenizer for the expected JSON
+     * @param actual   tokenizer for the actual JSON
+     * @param result   result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    protected void compareJSONArrayWithStrictOrder(String prefix, JSONTokenizer expected, JSONTokenizer actual,
+            JSONCompareResult result) throws JSONException {
+        // Element failures only count if both arrays turn out to be the same length
+        JSONCompareResult elements = newResult();
+        // The DefaultComparator checks the lengths before it compares a null to
+        // another value, so from such a pair on the elements are only compared
+        // once both lengths are known
+        List<Object> deferred = null;
+        int deferredFrom = 0;
+        int expectedLength = 0;
+        int actualLength = 0;
+        boolean expectedDone = false;
+        boolean actualDone = false;
+        while (!expectedDone || !actualDone) {
+            if (!expectedDone) {
+                expectedDone = expected.next() == JSONToken.END_ARRAY;
+            }
+            if (!actualDone) {
+                actualDone = actual.next() == JSONToken.END_ARRAY;
+            }
+            if (!expectedDone && !actualDone) {
+                if (deferred == null && expected.current().isStart() && actual.current().isStart()) {
+                    compareValues(prefix + "[" + expectedLength + "]", expected, actual, true, elements);
+                } else {
+                    Object expectedValue = build(expected, true);
+                    Object actualValue = build(actual, true);
+                    if (deferred == null && (expectedValue == null) == (actualValue == null)) {
+                        comparator.compareValues(prefix + "[" + expectedLength + "]", expectedValue, actualValue,
+                                elements);
+                    } else {
+                        if (deferred == null) {
+                            deferred = new ArrayList<Object>();
+                            deferredFrom = expectedLength;
+                        }
+                        deferred.add(expectedValue);
+                        deferred.add(actualValue);
+                    }
+                }
+                expectedLength++;
+                actualLength++;
+            } else if (!expectedDone) {
+                expected.skipValue();
+                expectedLength++;
+            } else if (!actualDone) {
+                actual.skipValue();
+                actualLength++;
+            }
+        }
+
+        if (expectedLength != actualLength) {
+            result.fail(prefix + "[]: Expected " + expectedLength + " values but got " + actualLength);
+            return;
+        }
+        for (int i = 0; deferred != null && i < deferred.size(); i += 2) {
+            comparator.compareValues(prefix + "[" + (deferredFrom + i / 2) + "]", deferred.get(i),
+                    deferred.get(i + 1), elements);
+        }
+        result.merge(elements);
+    }
+
+    private String nextKey(JSONTokenizer tokenizer, Set<String> seen) {
+        if (tokenizer.next() != JSONToken.KEY) {
+            return null;
+        }
+        String key = tokenizer.getText();
+        if (!seen.add(key)) {
+            throw tokenizer.syntaxError("Duplicate key \"" + key + "\"");
+        }
+        tokenizer.next();
+        return key;
+    }
+
+    private JSONCompareResult record(Map<String, JSONCompareResult> outcomes, String key,
+            JSONCompareResult scratch) {
+        if (scratch.passed()) {
+            return scratch;
+        }
+        outcomes.put(key, scratch);
+        return newResult();
+    }
+
+    private JSONCompareResult newResult() {
+        return maxFailures == Integer.MAX_VALUE ? new JSONCompareResult() : new JSONCompareResult(maxFailures);
+    }
+
+    private Object build(JSONTokenizer tokenizer, boolean inArray) {
+        Object value = builder.build(tokenizer);
+        if (inArray && value == JSONObject.NULL) {
+            // Matches JSONCompareUtil.getObjectOrNull
+            return null;
+        }
+        return value;
+    }
+}
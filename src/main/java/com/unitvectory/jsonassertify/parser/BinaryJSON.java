@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * The values shared by the {@link CBORParser} and {@link MessagePackParser},
+ * which are mapped onto the types {@code org.json} builds for the same JSON
+ * text.
+ */
+final class BinaryJSON {
+
+    private static final BigInteger UNSIGNED_LONG = BigInteger.ONE.shiftLeft(64);
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BinaryJSON() {
+    }
+
+    /**
+     * Gets a signed integer as an Integer when it fits, like
+     * {@link JSONObject#stringToValue(String)}.
+     */
+    static Object integer(long value) {
+        if (value == (int) value) {
+            return Integer.valueOf((int) value);
+        }
+        return Long.valueOf(value);
+    }
+
+    /**
+     * Gets an unsigned 64-bit integer, which is a BigInteger above
+     * {@link Long#MAX_VALUE}.
+     */
+    static Object unsigned(long value) {
+        if (value < 0) {
+            return BigInteger.valueOf(value).add(UNSIGNED_LONG);
+        }
+        return integer(value);
+    }
+
+    /**
+     * Gets a double as the BigDecimal {@code org.json} builds for its shortest
+     * decimal text, so it compares equal to the same number written as JSON text
+     * even where values are matched by {@code equals}. NaN and the infinities have
+     * no JSON text and stay a Double.
+     */
+    static Object decimal(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return Double.valueOf(value);
+        }
+        return new BigDecimal(Double.toString(value));
+    }
+
+    /**
+     * Gets a single precision float through its own shortest decimal text, so a
+     * float written for 0.1 compares equal to 0.1 rather than to the double
+     * nearest to the float.
+     */
+    static Object decimal(float value) {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            return Double.valueOf(value);
+        }
+        return new BigDecimal(Float.toString(value));
+    }
+
+    /**
+     * Gets byte strings, which have no JSON equivalent, as base64url text without
+     * padding like RFC 8949 does.
+     */
+    static String bytes(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets a map key as a JSON key. Integer keys are common in both formats and
+     * become their decimal text, like unquoted keys do in {@code org.json}.
+     */
+    static String key(Object key, int position) {
+        if (key instanceof String) {
+            return (String) key;
+        } else if (key instanceof Integer || key instanceof Long || key instanceof BigInteger) {
+            return key.toString();
+        }
+        throw new JSONException("Map keys must be strings or integers at " + position);
+    }
+
+    static void put(JSONObject object, String key, Object value, int position) {
+        if (object.has(key)) {
+            throw new JSONException("Duplicate key \"" + key + "\" at " + position);
+        }
+        object.put(key, value);
+    }
+
+    static byte[] read(ByteBuffer buffer, long length, int position) {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new JSONException("Unexpected end of input at " + position);
+        }
+        byte[] bytes = new byte[(int) length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    static JSONException endOfInput(ByteBuffer buffer, int start, BufferUnderflowException e) {
+        return new JSONException("Unexpected end of input at " + (buffer.limit() - start), e);
+    }
+}
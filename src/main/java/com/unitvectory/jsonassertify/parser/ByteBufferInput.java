@@ -0,0 +1,176 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads UTF-8 encoded JSON from the remaining bytes of a {@link ByteBuffer}.
+ * The position of the buffer is not changed. A leading byte order mark is
+ * skipped.
+ */
+final class ByteBufferInput extends JSONInput {
+
+    private final ByteBuffer buffer;
+
+    private final byte[] array;
+
+    private final int limit;
+
+    private final int origin;
+
+    private int index;
+
+    /**
+     * Constructs a new ByteBufferInput.
+     * 
+     * @param buffer the UTF-8 encoded JSON
+     */
+    ByteBufferInput(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            // Read the backing array directly, this is the common case for byte[]
+            this.buffer = null;
+            this.array = buffer.array();
+            this.index = buffer.arrayOffset() + buffer.position();
+            this.limit = buffer.arrayOffset() + buffer.limit();
+        } else {
+            this.buffer = buffer;
+            this.array = null;
+            this.index = buffer.position();
+            this.limit = buffer.limit();
+        }
+        if (limit - index >= 3 && byteAt(index) == 0xEF && byteAt(index + 1) == 0xBB && byteAt(index + 2) == 0xBF) {
+            index += 3;
+        }
+        this.origin = index;
+    }
+
+    private ByteBufferInput(ByteBufferInput source, int index) {
+        this.buffer = source.buffer;
+        this.array = source.array;
+        this.limit = source.limit;
+        this.origin = source.origin;
+        this.index = index;
+    }
+
+    @Override
+    public int read() {
+        return index < limit ? byteAt(index++) : -1;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.min(Math.max(n, 0), limit - index);
+        index += skipped;
+        return skipped;
+    }
+
+    @Override
+    public boolean isUtf8() {
+        return true;
+    }
+
+    @Override
+    public boolean isReopenable() {
+        return true;
+    }
+
+    @Override
+    public JSONInput reopen(long position) {
+        return new ByteBufferInput(this, (int) Math.min(origin + position, limit));
+    }
+
+    @Override
+    JSONRawString readRawString(int quote) {
+        boolean ascii = true;
+        int i = index;
+        while (i < limit) {
+            int b = byteAt(i);
+            if (b == quote) {
+                break;
+            } else if (b == '\\' || b == 0 || b == '\n' || b == '\r') {
+                // Escapes are decoded and errors are reported by the tokenizer
+                return null;
+            } else if (b < 0x80) {
+                i++;
+            } else {
+                int n = sequenceLength(i, b);
+                if (n == 0) {
+                    return null;
+                }
+                ascii = false;
+                i += n;
+            }
+        }
+        if (i >= limit) {
+            return null;
+        }
+        int start = index;
+        int length = i - start;
+        index = i + 1;
+        if (array != null) {
+            return new JSONRawString(array, start, length, ascii);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(start);
+        source.get(bytes);
+        return new JSONRawString(bytes, 0, length, ascii);
+    }
+
+    /**
+     * Gets the length of the well-formed UTF-8 sequence that starts at the
+     * provided index. Anything else is left to the tokenizer, which replaces it
+     * the same way it always has.
+     */
+    private int sequenceLength(int i, int lead) {
+        int n;
+        int codePoint;
+        int min;
+        if ((lead & 0xE0) == 0xC0) {
+            n = 2;
+            codePoint = lead & 0x1F;
+            min = 0x80;
+        } else if ((lead & 0xF0) == 0xE0) {
+            n = 3;
+            codePoint = lead & 0x0F;
+            min = 0x800;
+        } else if ((lead & 0xF8) == 0xF0) {
+            n = 4;
+            codePoint = lead & 0x07;
+            min = 0x10000;
+        } else {
+            return 0;
+        }
+        if (i + n > limit) {
+            return 0;
+        }
+        for (int k = 1; k < n; k++) {
+            int c = byteAt(i + k);
+            if ((c & 0xC0) != 0x80) {
+                return 0;
+            }
+            codePoint = (codePoint << 6) | (c & 0x3F);
+        }
+        if (codePoint < min || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            return 0;
+        }
+        return n;
+    }
+
+    private int byteAt(int i) {
+        return (array != null ? array[i] : buffer.get(i)) & 0xFF;
+    }
+}
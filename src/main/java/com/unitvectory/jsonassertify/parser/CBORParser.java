@@ -0,0 +1,271 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * <p>
+ * Decodes CBOR (RFC 8949) directly into {@link JSONObject}, {@link JSONArray}
+ * and simple value instances, so binary payloads can be compared against JSON
+ * text without being converted to text first.
+ * </p>
+ *
+ * <p>
+ * Values are mapped the way RFC 8949 section 6.1 converts CBOR to JSON, onto
+ * the types {@code org.json} builds: integers become an Integer, Long or
+ * BigInteger, floats become the BigDecimal of their shortest decimal text,
+ * byte strings become base64url text and undefined becomes
+ * {@link JSONObject#NULL}. Map keys must be text or integers, which become
+ * their decimal text. Bignums (tags 2 and 3) and decimal fractions (tag 4)
+ * become a BigInteger and BigDecimal; any other tag is ignored and its content
+ * is decoded as usual.
+ * </p>
+ */
+public final class CBORParser {
+
+    private static final int BREAK = 0xFF;
+
+    private final ByteBuffer buffer;
+
+    private final int start;
+
+    private CBORParser(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.start = buffer.position();
+    }
+
+    /**
+     * Decodes the CBOR data item in the remaining bytes of the buffer. The
+     * position of the buffer is not changed.
+     *
+     * @param buffer the CBOR encoded value
+     * @return a JSONObject, JSONArray, String, Boolean, Number or
+     *         {@link JSONObject#NULL}
+     * @throws JSONException if the bytes are not a single well-formed data item,
+     *                       or contain a value that has no JSON equivalent
+     */
+    public static Object parse(ByteBuffer buffer) throws JSONException {
+        CBORParser parser = new CBORParser(buffer.duplicate());
+        try {
+            Object value = parser.value(parser.buffer.get() & 0xFF);
+            if (parser.buffer.hasRemaining()) {
+                throw parser.error("Unexpected data after the CBOR data item");
+            }
+            return value;
+        } catch (BufferUnderflowException e) {
+            throw BinaryJSON.endOfInput(parser.buffer, parser.start, e);
+        }
+    }
+
+    /**
+     * Decodes the CBOR data item in the provided bytes.
+     *
+     * @param bytes the CBOR encoded value
+     * @return a JSONObject, JSONArray, String, Boolean, Number or
+     *         {@link JSONObject#NULL}
+     * @throws JSONException if the bytes are not a single well-formed data item,
+     *                       or contain a value that has no JSON equivalent
+     */
+    public static Object parse(byte[] bytes) throws JSONException {
+        return parse(ByteBuffer.wrap(bytes));
+    }
+
+    private Object value(int initial) {
+        int major = initial >>> 5;
+        int info = initial & 0x1F;
+        switch (major) {
+            case 0:
+                return BinaryJSON.unsigned(argument(info));
+            case 1:
+                long n = argument(info);
+                if (n < 0) {
+                    // -1 - n for n above Long.MAX_VALUE
+                    return BigInteger.valueOf(n).add(BigInteger.ONE.shiftLeft(64)).not();
+                }
+                return BinaryJSON.integer(-1 - n);
+            case 2:
+                return BinaryJSON.bytes(string(major, info));
+            case 3:
+                return BinaryJSON.text(string(major, info));
+            case 4:
+                return array(info);
+            case 5:
+                return map(info);
+            case 6:
+                return tagged(argument(info));
+            default:
+                return simple(info);
+        }
+    }
+
+    private long argument(int info) {
+        if (info < 24) {
+            return info;
+        }
+        switch (info) {
+            case 24:
+                return buffer.get() & 0xFF;
+            case 25:
+                return buffer.getShort() & 0xFFFF;
+            case 26:
+                return buffer.getInt() & 0xFFFFFFFFL;
+            case 27:
+                return buffer.getLong();
+            default:
+                throw error("Unsupported CBOR additional information " + info);
+        }
+    }
+
+    private int length(int info) {
+        long length = argument(info);
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw error("CBOR length is too large");
+        }
+        return (int) length;
+    }
+
+    private byte[] string(int major, int info) {
+        if (info != 31) {
+            return BinaryJSON.read(buffer, length(info), position());
+        }
+        // Indefinite length, the chunks are definite strings of the same type
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int initial = buffer.get() & 0xFF; initial != BREAK; initial = buffer.get() & 0xFF) {
+            if (initial >>> 5 != major || (initial & 0x1F) == 31) {
+                throw error("Invalid chunk in an indefinite length CBOR string");
+            }
+            byte[] chunk = BinaryJSON.read(buffer, length(initial & 0x1F), position());
+            out.write(chunk, 0, chunk.length);
+        }
+        return out.toByteArray();
+    }
+
+    private JSONArray array(int info) {
+        JSONArray array = new JSONArray();
+        if (info == 31) {
+            for (int initial = buffer.get() & 0xFF; initial != BREAK; initial = buffer.get() & 0xFF) {
+                array.put(value(initial));
+            }
+        } else {
+            for (int i = length(info); i > 0; i--) {
+                array.put(value(buffer.get() & 0xFF));
+            }
+        }
+        return array;
+    }
+
+    private JSONObject map(int info) {
+        JSONObject object = new JSONObject();
+        if (info == 31) {
+            for (int initial = buffer.get() & 0xFF; initial != BREAK; initial = buffer.get() & 0xFF) {
+                member(object, initial);
+            }
+        } else {
+            for (int i = length(info); i > 0; i--) {
+                member(object, buffer.get() & 0xFF);
+            }
+        }
+        return object;
+    }
+
+    private void member(JSONObject object, int initial) {
+        int position = position() - 1;
+        String key = BinaryJSON.key(value(initial), position);
+        BinaryJSON.put(object, key, value(buffer.get() & 0xFF), position);
+    }
+
+    private Object tagged(long tag) {
+        int initial = buffer.get() & 0xFF;
+        if (tag == 2 || tag == 3) {
+            if (initial >>> 5 != 2) {
+                throw error("A CBOR bignum must be a byte string");
+            }
+            BigInteger magnitude = new BigInteger(1, string(2, initial & 0x1F));
+            // Tag 3 holds -1 - n, which is the complement of n
+            BigInteger value = tag == 2 ? magnitude : magnitude.not();
+            return value.bitLength() < 64 ? BinaryJSON.integer(value.longValue()) : value;
+        }
+        Object content = value(initial);
+        if (tag == 4) {
+            if (!(content instanceof JSONArray) || ((JSONArray) content).length() != 2) {
+                throw error("A CBOR decimal fraction must be an array of two integers");
+            }
+            JSONArray pair = (JSONArray) content;
+            Object exponent = pair.opt(0);
+            Object mantissa = pair.opt(1);
+            if (!(exponent instanceof Integer) || !isInteger(mantissa)) {
+                throw error("A CBOR decimal fraction must be an array of two integers");
+            }
+            return new BigDecimal(new BigInteger(mantissa.toString()), -(Integer) exponent);
+        }
+        return content;
+    }
+
+    private static boolean isInteger(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof BigInteger;
+    }
+
+    private Object simple(int info) {
+        switch (info) {
+            case 20:
+                return Boolean.FALSE;
+            case 21:
+                return Boolean.TRUE;
+            case 22:
+            case 23:
+                return JSONObject.NULL;
+            case 25:
+                return BinaryJSON.decimal(half(buffer.getShort() & 0xFFFF));
+            case 26:
+                return BinaryJSON.decimal(buffer.getFloat());
+            case 27:
+                return BinaryJSON.decimal(buffer.getDouble());
+            case 31:
+                throw error("Unexpected CBOR break");
+            default:
+                throw error("Unsupported CBOR simple value");
+        }
+    }
+
+    private static float half(int bits) {
+        int exponent = (bits >>> 10) & 0x1F;
+        int mantissa = bits & 0x3FF;
+        float value;
+        if (exponent == 0) {
+            value = Math.scalb((float) mantissa, -24);
+        } else if (exponent != 31) {
+            value = Math.scalb((float) (mantissa + 1024), exponent - 25);
+        } else {
+            value = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+        }
+        return (bits & 0x8000) != 0 ? -value : value;
+    }
+
+    private int position() {
+        return buffer.position() - start;
+    }
+
+    private JSONException error(String message) {
+        return new JSONException(message + " at " + position());
+    }
+}
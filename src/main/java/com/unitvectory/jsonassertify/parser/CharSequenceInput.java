@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+/**
+ * Reads JSON text from a {@link CharSequence}.
+ */
+final class CharSequenceInput extends JSONInput {
+
+    private final CharSequence text;
+
+    private final int length;
+
+    private int index;
+
+    /**
+     * Constructs a new CharSequenceInput.
+     * 
+     * @param text the JSON text
+     */
+    CharSequenceInput(CharSequence text) {
+        this(text, 0);
+    }
+
+    private CharSequenceInput(CharSequence text, int index) {
+        this.text = text;
+        this.length = text.length();
+        this.index = index;
+    }
+
+    @Override
+    public int read() {
+        return index < length ? text.charAt(index++) : -1;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.min(Math.max(n, 0), length - index);
+        index += skipped;
+        return skipped;
+    }
+
+    @Override
+    public boolean isReopenable() {
+        return true;
+    }
+
+    @Override
+    public JSONInput reopen(long position) {
+        return new CharSequenceInput(text, (int) Math.min(position, length));
+    }
+}
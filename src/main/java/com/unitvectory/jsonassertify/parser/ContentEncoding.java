@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * <p>
+ * Decodes compressed JSON as it is read, so gzip compressed fixtures and
+ * responses can be parsed from the stream without inflating them into memory
+ * first.
+ * </p>
+ *
+ * <p>
+ * The codings are named like the HTTP {@code Content-Encoding} header:
+ * {@code gzip} (or {@code x-gzip}), {@code deflate} and {@code identity}. A
+ * comma separated list names the codings in the order they were applied, so
+ * they are decoded in reverse. Data sent as {@code deflate} is accepted both
+ * with and without the zlib wrapper, as servers send either.
+ * </p>
+ */
+public final class ContentEncoding {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ContentEncoding() {
+    }
+
+    /**
+     * Gets a stream that decodes the provided stream. Closing the returned stream
+     * releases the inflaters, but does not close the provided stream.
+     *
+     * @param stream          the encoded data
+     * @param contentEncoding the codings applied to the data, null for none
+     * @return the decoded data
+     * @throws IOException              if the header of a coding cannot be read
+     * @throws IllegalArgumentException if a coding is not supported
+     */
+    public static InputStream decode(InputStream stream, String contentEncoding) throws IOException {
+        InputStream decoded = new FilterInputStream(stream) {
+            @Override
+            public void close() {
+            }
+        };
+        if (contentEncoding == null) {
+            return decoded;
+        }
+        String[] codings = contentEncoding.split(",");
+        for (int i = codings.length - 1; i >= 0; i--) {
+            String coding = codings[i].trim().toLowerCase(Locale.ROOT);
+            switch (coding) {
+                case "gzip":
+                case "x-gzip":
+                    decoded = new GZIPInputStream(decoded, BUFFER_SIZE);
+                    break;
+                case "deflate":
+                    decoded = inflate(decoded);
+                    break;
+                case "identity":
+                case "":
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported content encoding: " + coding);
+            }
+        }
+        return decoded;
+    }
+
+    private static InputStream inflate(InputStream stream) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(stream, 2);
+        int cmf = in.read();
+        int flg = cmf < 0 ? -1 : in.read();
+        if (flg >= 0) {
+            in.unread(flg);
+        }
+        if (cmf >= 0) {
+            in.unread(cmf);
+        }
+        // A zlib header names the deflate method and is a multiple of 31
+        boolean zlib = flg >= 0 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        Inflater inflater = new Inflater(!zlib);
+        return new InflaterInputStream(in, inflater, BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    // Only an inflater the stream created itself is ended on close
+                    inflater.end();
+                }
+            }
+        };
+    }
+}
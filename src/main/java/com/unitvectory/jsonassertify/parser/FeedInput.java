@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reads UTF-8 encoded JSON that is fed in pieces. Bytes are kept from the
+ * {@link #mark()} on, so the token that was being read when the fed bytes ran
+ * out can be read again after {@link #reset()} once more bytes have arrived.
+ * Reading past the fed bytes throws {@link Underflow} until {@link #finish()}
+ * has been called. A leading byte order mark is skipped.
+ */
+final class FeedInput extends JSONInput {
+
+    /**
+     * Thrown by {@link FeedInput#read()} when all fed bytes have been read but
+     * more are still to come.
+     */
+    static final class Underflow extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private Underflow() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final Underflow UNDERFLOW = new Underflow();
+
+    private byte[] buffer = new byte[8192];
+
+    private int mark;
+
+    private int index;
+
+    private int limit;
+
+    private boolean started;
+
+    private boolean finished;
+
+    /**
+     * Constructs a new FeedInput.
+     */
+    FeedInput() {
+    }
+
+    /**
+     * Appends the remaining bytes of the buffer, which are copied so the buffer
+     * can be reused. The position of the buffer is moved to its limit.
+     *
+     * @param bytes the next UTF-8 encoded bytes
+     */
+    void feed(ByteBuffer bytes) {
+        if (mark > 0) {
+            System.arraycopy(buffer, mark, buffer, 0, limit - mark);
+            index -= mark;
+            limit -= mark;
+            mark = 0;
+        }
+        int n = bytes.remaining();
+        if (limit + n > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, limit + n));
+        }
+        bytes.get(buffer, limit, n);
+        limit += n;
+    }
+
+    /**
+     * Marks the end of the input.
+     */
+    void finish() {
+        finished = true;
+    }
+
+    /**
+     * Marks the position that {@link #reset()} returns to.
+     */
+    void mark() {
+        mark = index;
+    }
+
+    /**
+     * Returns to the last {@link #mark()}.
+     */
+    void reset() {
+        index = mark;
+    }
+
+    /**
+     * Gets the number of bytes kept from the mark on.
+     *
+     * @return the number of bytes
+     */
+    int available() {
+        return limit - mark;
+    }
+
+    @Override
+    public int read() {
+        if (!started) {
+            start();
+        }
+        if (index < limit) {
+            return buffer[index++] & 0xFF;
+        } else if (finished) {
+            return -1;
+        }
+        throw UNDERFLOW;
+    }
+
+    @Override
+    public boolean isUtf8() {
+        return true;
+    }
+
+    private void start() {
+        if (limit - index < 3 && !finished) {
+            throw UNDERFLOW;
+        }
+        if (limit - index >= 3 && buffer[index] == (byte) 0xEF && buffer[index + 1] == (byte) 0xBB
+                && buffer[index + 2] == (byte) 0xBF) {
+            index += 3;
+            mark = index;
+        }
+        started = true;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads UTF-8 encoded JSON from an {@link InputStream} through a buffer. A
+ * leading byte order mark is skipped. The stream is not closed.
+ */
+final class InputStreamInput extends JSONInput {
+
+    private final InputStream stream;
+
+    private final byte[] buffer = new byte[8192];
+
+    private int index;
+
+    private int limit;
+
+    private boolean started;
+
+    /**
+     * Constructs a new InputStreamInput.
+     * 
+     * @param stream the UTF-8 encoded JSON
+     */
+    InputStreamInput(InputStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public int read() {
+        if (index == limit) {
+            if (!started) {
+                start();
+            }
+            if (index == limit) {
+                index = 0;
+                limit = 0;
+                if (!fill(0)) {
+                    return -1;
+                }
+            }
+        }
+        return buffer[index++] & 0xFF;
+    }
+
+    @Override
+    public boolean isUtf8() {
+        return true;
+    }
+
+    private void start() {
+        started = true;
+        // Make sure the first three bytes are buffered to check for a byte order mark
+        while (limit < 3 && fill(limit)) {
+        }
+        if (limit >= 3 && (buffer[0] & 0xFF) == 0xEF && (buffer[1] & 0xFF) == 0xBB && (buffer[2] & 0xFF) == 0xBF) {
+            index = 3;
+        }
+    }
+
+    private boolean fill(int offset) {
+        try {
+            int n = stream.read(buffer, offset, buffer.length - offset);
+            if (n > 0) {
+                limit = offset + n;
+            }
+            return n >= 0 && limit > offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
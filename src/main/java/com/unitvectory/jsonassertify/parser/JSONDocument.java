@@ -0,0 +1,459 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * <p>
+ * An immutable, compact representation of a parsed JSON document.
+ * </p>
+ *
+ * <p>
+ * Instead of one {@link JSONObject} with its own {@link java.util.HashMap} per
+ * object and a boxed instance per value, every node of the document is stored
+ * in a set of flat arrays indexed by node number. Object members are kept
+ * sorted by key so they can be found with a binary search, keys and strings
+ * are offsets into a single shared character table, and numbers are stored
+ * unboxed.
+ * </p>
+ *
+ * <p>
+ * The {@link #root()} of the document is exposed as a
+ * {@link JSONDocumentObject} or {@link JSONDocumentArray}, read-only views
+ * that extend {@link JSONObject} and {@link JSONArray} so the existing
+ * comparators can run on them. Views and values are created on demand as the
+ * document is visited.
+ * </p>
+ *
+ * <p>
+ * A document can be {@link #write(OutputStream) written} to a file in a
+ * binary form of its tables and {@link #map(Path) mapped} back into memory, so
+ * expected documents can be parsed once ahead of time and read without parsing
+ * by every test run.
+ * </p>
+ */
+public final class JSONDocument {
+
+    static final byte OBJECT = 1;
+    static final byte ARRAY = 2;
+    static final byte STRING = 3;
+    static final byte LONG = 4;
+    static final byte DOUBLE = 5;
+    static final byte DECIMAL = 6;
+    static final byte BIG_INTEGER = 7;
+    static final byte TRUE = 8;
+    static final byte FALSE = 9;
+    static final byte NULL = 10;
+
+    private static final int MAGIC = 0x434F444A;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+
+    // Per node: the type, and two type specific values. For objects and arrays
+    // these are the first member or element and the count, for strings the
+    // string id, for integers and doubles the slot in numbers, and for decimals
+    // and big integers the id of the text.
+    // The tables are buffers so a document can be read from a mapped file.
+    private final ByteBuffer types;
+    private final IntBuffer values;
+    private final IntBuffer counts;
+
+    private final IntBuffer memberKeys;
+    private final IntBuffer memberValues;
+
+    private final IntBuffer elements;
+
+    private final LongBuffer numbers;
+
+    private final CharBuffer chars;
+    private final IntBuffer stringOffsets;
+
+    // The decimals created so far, by the id of their text
+    private volatile BigDecimal[] decimals;
+
+    JSONDocument(byte[] types, int[] values, int[] counts, int[] memberKeys, int[] memberValues, int[] elements,
+            long[] numbers, char[] chars, int[] stringOffsets) {
+        this(ByteBuffer.wrap(types), IntBuffer.wrap(values), IntBuffer.wrap(counts), IntBuffer.wrap(memberKeys),
+                IntBuffer.wrap(memberValues), IntBuffer.wrap(elements), LongBuffer.wrap(numbers),
+                CharBuffer.wrap(chars), IntBuffer.wrap(stringOffsets));
+    }
+
+    private JSONDocument(ByteBuffer types, IntBuffer values, IntBuffer counts, IntBuffer memberKeys,
+            IntBuffer memberValues, IntBuffer elements, LongBuffer numbers, CharBuffer chars,
+            IntBuffer stringOffsets) {
+        this.types = types;
+        this.values = values;
+        this.counts = counts;
+        this.memberKeys = memberKeys;
+        this.memberValues = memberValues;
+        this.elements = elements;
+        this.numbers = numbers;
+        this.chars = chars;
+        this.stringOffsets = stringOffsets;
+    }
+
+    /**
+     * Parses the provided JSON text into a document.
+     *
+     * @param s the JSON text
+     * @return the document
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONDocument parse(CharSequence s) throws JSONException {
+        return parse(JSONInput.of(s));
+    }
+
+    /**
+     * Parses the provided JSON input into a document.
+     *
+     * @param input the JSON input
+     * @return the document
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONDocument parse(JSONInput input) throws JSONException {
+        JSONTokenizer tokenizer = new JSONTokenizer(input);
+        tokenizer.next();
+        return parse(tokenizer);
+    }
+
+    /**
+     * Parses the value that starts at the current token of the tokenizer into a
+     * document. On return the tokenizer is positioned on the last token of the
+     * value.
+     *
+     * @param tokenizer the tokenizer positioned on the first token of a value
+     * @return the document
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONDocument parse(JSONTokenizer tokenizer) throws JSONException {
+        return parse(tokenizer, JSONProjection.ALL);
+    }
+
+    /**
+     * Parses the projection of the value that starts at the current token of the
+     * tokenizer into a document. Members and elements outside of the projection
+     * are skipped. On return the tokenizer is positioned on the last token of the
+     * value.
+     *
+     * @param tokenizer  the tokenizer positioned on the first token of a value
+     * @param projection the parts of the value to keep
+     * @return the document
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONDocument parse(JSONTokenizer tokenizer, JSONProjection projection) throws JSONException {
+        return new JSONDocumentParser().parse(tokenizer, projection);
+    }
+
+    /**
+     * Maps a document written by {@link #write(OutputStream)} into memory. The
+     * document is read from the mapped file as it is visited, without parsing or
+     * copying it onto the heap, so processes that map the same file share it
+     * through the page cache. The file must not be changed while the document is
+     * in use.
+     *
+     * @param path the document file
+     * @return the document
+     * @throws IOException   if the file cannot be mapped
+     * @throws JSONException if the file is not a document file
+     */
+    public static JSONDocument map(Path path) throws IOException, JSONException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new JSONException("Not a JSON document file: " + path);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new JSONException("Not a JSON document file: " + path);
+            } else if (buffer.getInt(4) != VERSION) {
+                throw new JSONException("Unsupported JSON document version " + buffer.getInt(4) + ": " + path);
+            }
+            int[] sizes = new int[6];
+            for (int i = 0; i < sizes.length; i++) {
+                sizes[i] = buffer.getInt(8 + 4 * i);
+                if (sizes[i] < 0) {
+                    throw new JSONException("Not a JSON document file: " + path);
+                }
+            }
+            long[] lengths = lengths(sizes[0], sizes[1], sizes[2], sizes[3], sizes[4], sizes[5]);
+            long[] offsets = offsets(lengths);
+            if (offsets[lengths.length] != size) {
+                throw new JSONException("Truncated JSON document file: " + path);
+            }
+            return new JSONDocument(section(buffer, offsets[8], lengths[8]),
+                    section(buffer, offsets[1], lengths[1]).asIntBuffer(),
+                    section(buffer, offsets[2], lengths[2]).asIntBuffer(),
+                    section(buffer, offsets[3], lengths[3]).asIntBuffer(),
+                    section(buffer, offsets[4], lengths[4]).asIntBuffer(),
+                    section(buffer, offsets[5], lengths[5]).asIntBuffer(),
+                    section(buffer, offsets[0], lengths[0]).asLongBuffer(),
+                    section(buffer, offsets[7], lengths[7]).asCharBuffer(),
+                    section(buffer, offsets[6], lengths[6]).asIntBuffer());
+        }
+    }
+
+    /**
+     * Writes the document in a compact binary form that can be read back with
+     * {@link #map(Path)}, so a fixture can be parsed once and then read without
+     * parsing. The form holds the tables of the document as they are, in little
+     * endian byte order and aligned for direct access. The stream is not closed.
+     *
+     * @param out the stream to write to
+     * @throws IOException   if the stream cannot be written
+     * @throws JSONException if the document is too large for a document file
+     */
+    public void write(OutputStream out) throws IOException, JSONException {
+        int nodeCount = types.limit();
+        int memberCount = memberKeys.limit();
+        int elementCount = elements.limit();
+        int numberCount = numbers.limit();
+        int charCount = chars.limit();
+        int stringCount = stringOffsets.limit() - 1;
+        long[] lengths = lengths(nodeCount, memberCount, elementCount, numberCount, charCount, stringCount);
+        long[] offsets = offsets(lengths);
+        long size = offsets[lengths.length];
+        if (size > Integer.MAX_VALUE) {
+            throw new JSONException("JSON document is too large to write: " + size + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(nodeCount).putInt(memberCount).putInt(elementCount)
+                .putInt(numberCount).putInt(charCount).putInt(stringCount);
+        section(buffer, offsets[0], lengths[0]).asLongBuffer().put(numbers.duplicate());
+        section(buffer, offsets[1], lengths[1]).asIntBuffer().put(values.duplicate());
+        section(buffer, offsets[2], lengths[2]).asIntBuffer().put(counts.duplicate());
+        section(buffer, offsets[3], lengths[3]).asIntBuffer().put(memberKeys.duplicate());
+        section(buffer, offsets[4], lengths[4]).asIntBuffer().put(memberValues.duplicate());
+        section(buffer, offsets[5], lengths[5]).asIntBuffer().put(elements.duplicate());
+        section(buffer, offsets[6], lengths[6]).asIntBuffer().put(stringOffsets.duplicate());
+        section(buffer, offsets[7], lengths[7]).asCharBuffer().put(chars.duplicate());
+        section(buffer, offsets[8], lengths[8]).put(types.duplicate());
+        out.write(buffer.array());
+    }
+
+    /**
+     * Gets the length in bytes of each section of a document file.
+     */
+    private static long[] lengths(int nodeCount, int memberCount, int elementCount, int numberCount,
+            int charCount, int stringCount) {
+        return new long[] { 8L * numberCount, 4L * nodeCount, 4L * nodeCount, 4L * memberCount, 4L * memberCount,
+                4L * elementCount, 4L * (stringCount + 1), 2L * charCount, nodeCount };
+    }
+
+    /**
+     * Gets the offset of each section of a document file, aligned to eight bytes
+     * for direct access, followed by the size of the file.
+     */
+    private static long[] offsets(long[] lengths) {
+        long[] offsets = new long[lengths.length + 1];
+        offsets[0] = HEADER_SIZE;
+        for (int i = 0; i < lengths.length; i++) {
+            offsets[i + 1] = (offsets[i] + lengths[i] + 7) & ~7L;
+        }
+        return offsets;
+    }
+
+    private static ByteBuffer section(ByteBuffer buffer, long offset, long length) {
+        ByteBuffer section = buffer.duplicate();
+        section.limit((int) (offset + length));
+        section.position((int) offset);
+        return section.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Gets the root value of the document.
+     *
+     * @return a {@link JSONDocumentObject}, {@link JSONDocumentArray} or simple
+     *         value
+     */
+    public Object root() {
+        return value(0);
+    }
+
+    /**
+     * Gets the number of values in the document, including all nested values.
+     *
+     * @return the number of nodes
+     */
+    public int nodeCount() {
+        return types.limit();
+    }
+
+    byte type(int node) {
+        return types.get(node);
+    }
+
+    int count(int node) {
+        return counts.get(node);
+    }
+
+    int memberKey(int node, int index) {
+        return memberKeys.get(values.get(node) + index);
+    }
+
+    int memberValue(int node, int index) {
+        return memberValues.get(values.get(node) + index);
+    }
+
+    int element(int node, int index) {
+        return elements.get(values.get(node) + index);
+    }
+
+    /**
+     * Finds a member of an object node with a binary search over its sorted keys.
+     *
+     * @param node the object node
+     * @param key  the key to find
+     * @return the index of the member, or a negative value if it is not present
+     */
+    int findMember(int node, String key) {
+        int start = values.get(node);
+        int low = 0;
+        int high = counts.get(node) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareString(memberKeys.get(start + mid), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the value of a node, creating a view for objects and arrays and a
+     * value of the same type {@code org.json} would use otherwise.
+     *
+     * @param node the node
+     * @return the value
+     */
+    Object value(int node) {
+        switch (types.get(node)) {
+            case OBJECT:
+                return new JSONDocumentObject(this, node);
+            case ARRAY:
+                return new JSONDocumentArray(this, node);
+            case STRING:
+                return string(values.get(node));
+            case LONG:
+                long l = numbers.get(values.get(node));
+                if (l == (int) l) {
+                    return Integer.valueOf((int) l);
+                }
+                return Long.valueOf(l);
+            case DOUBLE:
+                return Double.valueOf(Double.longBitsToDouble(numbers.get(values.get(node))));
+            case DECIMAL:
+                return decimal(counts.get(node));
+            case BIG_INTEGER:
+                return new BigInteger(string(counts.get(node)));
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            default:
+                return JSONObject.NULL;
+        }
+    }
+
+    /**
+     * Copies a node into plain {@link JSONObject} and {@link JSONArray} instances.
+     *
+     * @param node the node
+     * @return the copied value
+     */
+    Object toJSON(int node) {
+        switch (types.get(node)) {
+            case OBJECT:
+                JSONObject object = new JSONObject();
+                for (int i = 0; i < counts.get(node); i++) {
+                    object.put(string(memberKey(node, i)), toJSON(memberValue(node, i)));
+                }
+                return object;
+            case ARRAY:
+                JSONArray array = new JSONArray();
+                for (int i = 0; i < counts.get(node); i++) {
+                    array.put(toJSON(element(node, i)));
+                }
+                return array;
+            default:
+                return value(node);
+        }
+    }
+
+    /**
+     * Gets the decimal with the provided text, creating it only the first time
+     * it is accessed. Decimals are immutable, so a decimal created by two
+     * threads at once is simply created twice.
+     */
+    private BigDecimal decimal(int id) {
+        BigDecimal[] cache = decimals;
+        if (cache == null) {
+            cache = new BigDecimal[stringOffsets.limit() - 1];
+            decimals = cache;
+        }
+        BigDecimal decimal = cache[id];
+        if (decimal == null) {
+            decimal = new BigDecimal(string(id));
+            cache[id] = decimal;
+        }
+        return decimal;
+    }
+
+    String string(int id) {
+        int start = stringOffsets.get(id);
+        int end = stringOffsets.get(id + 1);
+        if (chars.hasArray()) {
+            return new String(chars.array(), chars.arrayOffset() + start, end - start);
+        }
+        CharBuffer string = chars.duplicate();
+        string.limit(end);
+        string.position(start);
+        return string.toString();
+    }
+
+    private int compareString(int id, String s) {
+        int start = stringOffsets.get(id);
+        int length = stringOffsets.get(id + 1) - start;
+        int limit = Math.min(length, s.length());
+        for (int i = 0; i < limit; i++) {
+            char c1 = chars.get(start + i);
+            char c2 = s.charAt(i);
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return length - s.length();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+/**
+ * A read-only {@link JSONArray} view of an array in a {@link JSONDocument}.
+ * Element values are created when they are accessed. Methods that would
+ * modify the array throw {@link UnsupportedOperationException}.
+ */
+public final class JSONDocumentArray extends JSONArray {
+
+    private final JSONDocument document;
+
+    private final int node;
+
+    /**
+     * Constructs a new JSONDocumentArray.
+     *
+     * @param document the document
+     * @param node     the array node
+     */
+    JSONDocumentArray(JSONDocument document, int node) {
+        super(0);
+        this.document = document;
+        this.node = node;
+    }
+
+    @Override
+    public Object opt(int index) {
+        if (index < 0 || index >= length()) {
+            return null;
+        }
+        return document.value(document.element(node, index));
+    }
+
+    @Override
+    public Object get(int index) throws JSONException {
+        Object value = opt(index);
+        if (value == null) {
+            throw new JSONException("JSONArray[" + index + "] not found.");
+        }
+        return value;
+    }
+
+    @Override
+    public int length() {
+        return document.count(node);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return document.count(node) == 0;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<Object>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < length();
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return opt(index++);
+            }
+        };
+    }
+
+    @Override
+    public List<Object> toList() {
+        return toJSONArray().toList();
+    }
+
+    @Override
+    public String join(String separator) throws JSONException {
+        return toJSONArray().join(separator);
+    }
+
+    @Override
+    public boolean similar(Object other) {
+        return toJSONArray().similar(other);
+    }
+
+    /**
+     * Copies this array into a plain, modifiable {@link JSONArray}.
+     *
+     * @return the copy
+     */
+    public JSONArray toJSONArray() {
+        return (JSONArray) document.toJSON(node);
+    }
+
+    @Override
+    public String toString() {
+        return toJSONArray().toString();
+    }
+
+    @Override
+    public String toString(int indentFactor) throws JSONException {
+        return toJSONArray().toString(indentFactor);
+    }
+
+    @Override
+    public Writer write(Writer writer, int indentFactor, int indent) throws JSONException {
+        return toJSONArray().write(writer, indentFactor, indent);
+    }
+
+    @Override
+    public JSONArray put(Object value) {
+        throw new UnsupportedOperationException("JSONDocumentArray is read-only");
+    }
+
+    @Override
+    public JSONArray put(int index, Object value) throws JSONException {
+        throw new UnsupportedOperationException("JSONDocumentArray is read-only");
+    }
+
+    @Override
+    public JSONArray put(Collection<?> value) {
+        throw new UnsupportedOperationException("JSONDocumentArray is read-only");
+    }
+
+    @Override
+    public Object remove(int index) {
+        throw new UnsupportedOperationException("JSONDocumentArray is read-only");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("JSONDocumentArray is read-only");
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.io.Writer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A read-only {@link JSONObject} view of an object in a {@link JSONDocument}.
+ * Keys are returned in sorted order and member values are created when they
+ * are accessed. Methods that would modify the object throw
+ * {@link UnsupportedOperationException}.
+ */
+public final class JSONDocumentObject extends JSONObject {
+
+    private final JSONDocument document;
+
+    private final int node;
+
+    /**
+     * Constructs a new JSONDocumentObject.
+     *
+     * @param document the document
+     * @param node     the object node
+     */
+    JSONDocumentObject(JSONDocument document, int node) {
+        super(0);
+        this.document = document;
+        this.node = node;
+    }
+
+    @Override
+    public Object opt(String key) {
+        if (key == null) {
+            return null;
+        }
+        int index = document.findMember(node, key);
+        return index < 0 ? null : document.value(document.memberValue(node, index));
+    }
+
+    @Override
+    public Object get(String key) throws JSONException {
+        if (key == null) {
+            throw new JSONException("Null key.");
+        }
+        Object value = opt(key);
+        if (value == null) {
+            throw new JSONException("JSONObject[" + quote(key) + "] not found.");
+        }
+        return value;
+    }
+
+    @Override
+    public boolean has(String key) {
+        return key != null && document.findMember(node, key) >= 0;
+    }
+
+    @Override
+    public int length() {
+        return document.count(node);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return document.count(node) == 0;
+    }
+
+    @Override
+    public Iterator<String> keys() {
+        return keySet().iterator();
+    }
+
+    /**
+     * Gets the keys of the object, in sorted order.
+     *
+     * @return the read-only set of keys
+     */
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new MemberIterator<String>() {
+                    @Override
+                    String member(int index) {
+                        return document.string(document.memberKey(node, index));
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String && has((String) o);
+            }
+
+            @Override
+            public int size() {
+                return length();
+            }
+        };
+    }
+
+    @Override
+    protected Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new MemberIterator<Map.Entry<String, Object>>() {
+                    @Override
+                    Map.Entry<String, Object> member(int index) {
+                        return new AbstractMap.SimpleImmutableEntry<String, Object>(
+                                document.string(document.memberKey(node, index)),
+                                document.value(document.memberValue(node, index)));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return length();
+            }
+        };
+    }
+
+    @Override
+    public JSONArray names() {
+        return isEmpty() ? null : new JSONArray(keySet());
+    }
+
+    @Override
+    public Map<String, Object> toMap() {
+        return toJSONObject().toMap();
+    }
+
+    @Override
+    public boolean similar(Object other) {
+        return toJSONObject().similar(other);
+    }
+
+    /**
+     * Copies this object into a plain, modifiable {@link JSONObject}.
+     *
+     * @return the copy
+     */
+    public JSONObject toJSONObject() {
+        return (JSONObject) document.toJSON(node);
+    }
+
+    @Override
+    public String toString() {
+        return toJSONObject().toString();
+    }
+
+    @Override
+    public String toString(int indentFactor) throws JSONException {
+        return toJSONObject().toString(indentFactor);
+    }
+
+    @Override
+    public Writer write(Writer writer, int indentFactor, int indent) throws JSONException {
+        return toJSONObject().write(writer, indentFactor, indent);
+    }
+
+    @Override
+    public JSONObject put(String key, Object value) throws JSONException {
+        throw new UnsupportedOperationException("JSONDocumentObject is read-only");
+    }
+
+    @Override
+    public JSONObject accumulate(String key, Object value) throws JSONException {
+        throw new UnsupportedOperationException("JSONDocumentObject is read-only");
+    }
+
+    @Override
+    public JSONObject append(String key, Object value) throws JSONException {
+        throw new UnsupportedOperationException("JSONDocumentObject is read-only");
+    }
+
+    @Override
+    public JSONObject increment(String key) throws JSONException {
+        throw new UnsupportedOperationException("JSONDocumentObject is read-only");
+    }
+
+    @Override
+    public Object remove(String key) {
+        throw new UnsupportedOperationException("JSONDocumentObject is read-only");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("JSONDocumentObject is read-only");
+    }
+
+    private abstract class MemberIterator<T> implements Iterator<T> {
+
+        private int index;
+
+        abstract T member(int index);
+
+        @Override
+        public boolean hasNext() {
+            return index < length();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return member(index++);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Fills the flat arrays of a {@link JSONDocument} directly from the tokens of
+ * a {@link JSONTokenizer}.
+ */
+final class JSONDocumentParser {
+
+    private byte[] types = new byte[64];
+    private int[] values = new int[64];
+    private int[] counts = new int[64];
+    private int nodeCount;
+
+    private int[] memberKeys = new int[16];
+    private int[] memberValues = new int[16];
+    private int memberCount;
+
+    private int[] elements = new int[16];
+    private int elementCount;
+
+    private long[] numbers = new long[16];
+    private int numberCount;
+
+    private char[] chars = new char[256];
+    private int charCount;
+    private int[] stringOffsets = new int[64];
+    private int stringCount;
+
+    private final Map<String, Integer> keyIds = new HashMap<String, Integer>();
+
+    // Members and elements of the containers that are still open, members are
+    // stored as pairs of key id and node
+    private int[] scratch = new int[64];
+    private int scratchSize;
+
+    JSONDocumentParser() {
+    }
+
+    JSONDocument parse(JSONTokenizer tokenizer, JSONProjection projection) throws JSONException {
+        parseValue(tokenizer, projection);
+        return new JSONDocument(Arrays.copyOf(types, nodeCount), Arrays.copyOf(values, nodeCount),
+                Arrays.copyOf(counts, nodeCount), Arrays.copyOf(memberKeys, memberCount),
+                Arrays.copyOf(memberValues, memberCount), Arrays.copyOf(elements, elementCount),
+                Arrays.copyOf(numbers, numberCount), Arrays.copyOf(chars, charCount),
+                Arrays.copyOf(stringOffsets, stringCount + 1));
+    }
+
+    private int parseValue(JSONTokenizer tokenizer, JSONProjection projection) {
+        switch (tokenizer.current()) {
+            case START_OBJECT:
+                return parseObject(tokenizer, projection);
+            case START_ARRAY:
+                return parseArray(tokenizer, projection);
+            case STRING:
+                return addNode(JSONDocument.STRING, addString(tokenizer.getText()), 0);
+            case LITERAL:
+                return addLiteral(tokenizer.getText());
+            default:
+                throw tokenizer.syntaxError("Missing value");
+        }
+    }
+
+    private int parseObject(JSONTokenizer tokenizer, JSONProjection projection) {
+        int node = addNode(JSONDocument.OBJECT, 0, 0);
+        int base = scratchSize;
+        // Skipped members are not in the scratch, so all keys are checked here
+        Set<String> keys = projection.isAll() ? null : new HashSet<String>();
+        while (tokenizer.next() == JSONToken.KEY) {
+            String text = tokenizer.getText();
+            if (keys != null && !keys.add(text)) {
+                throw tokenizer.syntaxError("Duplicate key \"" + text + "\"");
+            }
+            tokenizer.next();
+            JSONProjection member = projection.member(text);
+            if (member == null) {
+                tokenizer.skipValue();
+                continue;
+            }
+            int key = addKey(text);
+            int value = parseValue(tokenizer, member);
+            push(key);
+            push(value);
+        }
+        int count = (scratchSize - base) / 2;
+        sortMembers(base, count);
+        for (int i = 1; i < count; i++) {
+            if (scratch[base + 2 * i] == scratch[base + 2 * (i - 1)]) {
+                throw tokenizer.syntaxError("Duplicate key \"" + string(scratch[base + 2 * i]) + "\"");
+            }
+        }
+        ensureMembers(count);
+        for (int i = 0; i < count; i++) {
+            memberKeys[memberCount + i] = scratch[base + 2 * i];
+            memberValues[memberCount + i] = scratch[base + 2 * i + 1];
+        }
+        values[node] = memberCount;
+        counts[node] = count;
+        memberCount += count;
+        scratchSize = base;
+        return node;
+    }
+
+    private int parseArray(JSONTokenizer tokenizer, JSONProjection projection) {
+        int node = addNode(JSONDocument.ARRAY, 0, 0);
+        int base = scratchSize;
+        JSONProjection element = projection.elements();
+        if (element == null) {
+            tokenizer.skipValue();
+        } else {
+            while (tokenizer.next() != JSONToken.END_ARRAY) {
+                push(parseValue(tokenizer, element));
+            }
+        }
+        int count = scratchSize - base;
+        if (elementCount + count > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(elements.length * 2, elementCount + count));
+        }
+        System.arraycopy(scratch, base, elements, elementCount, count);
+        values[node] = elementCount;
+        counts[node] = count;
+        elementCount += count;
+        scratchSize = base;
+        return node;
+    }
+
+    private int addLiteral(String text) {
+        Object value = NumberParser.toValue(text, true);
+        if (value instanceof Integer || value instanceof Long) {
+            return addNode(JSONDocument.LONG, addNumber(((Number) value).longValue()), 0);
+        } else if (value instanceof JSONNumber || value instanceof BigDecimal) {
+            // The decimal is created from the text when it is first accessed
+            return addNode(JSONDocument.DECIMAL, 0, addString(text));
+        } else if (value instanceof Double) {
+            return addNode(JSONDocument.DOUBLE, addNumber(Double.doubleToRawLongBits((Double) value)), 0);
+        } else if (value instanceof BigInteger) {
+            return addNode(JSONDocument.BIG_INTEGER, 0, addString(text));
+        } else if (value == Boolean.TRUE) {
+            return addNode(JSONDocument.TRUE, 0, 0);
+        } else if (value == Boolean.FALSE) {
+            return addNode(JSONDocument.FALSE, 0, 0);
+        } else if (value == JSONObject.NULL) {
+            return addNode(JSONDocument.NULL, 0, 0);
+        }
+        return addNode(JSONDocument.STRING, addString(text), 0);
+    }
+
+    private int addNode(byte type, int value, int count) {
+        if (nodeCount == types.length) {
+            int capacity = nodeCount * 2;
+            types = Arrays.copyOf(types, capacity);
+            values = Arrays.copyOf(values, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        types[nodeCount] = type;
+        values[nodeCount] = value;
+        counts[nodeCount] = count;
+        return nodeCount++;
+    }
+
+    private int addNumber(long bits) {
+        if (numberCount == numbers.length) {
+            numbers = Arrays.copyOf(numbers, numberCount * 2);
+        }
+        numbers[numberCount] = bits;
+        return numberCount++;
+    }
+
+    private int addKey(String key) {
+        Integer id = keyIds.get(key);
+        if (id == null) {
+            id = addString(key);
+            keyIds.put(key, id);
+        }
+        return id;
+    }
+
+    private int addString(String s) {
+        int length = s.length();
+        if (charCount + length > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, charCount + length));
+        }
+        s.getChars(0, length, chars, charCount);
+        if (stringCount + 2 > stringOffsets.length) {
+            stringOffsets = Arrays.copyOf(stringOffsets, stringOffsets.length * 2);
+        }
+        stringOffsets[stringCount] = charCount;
+        charCount += length;
+        stringOffsets[stringCount + 1] = charCount;
+        return stringCount++;
+    }
+
+    private String string(int id) {
+        return new String(chars, stringOffsets[id], stringOffsets[id + 1] - stringOffsets[id]);
+    }
+
+    private int compareStrings(int id1, int id2) {
+        if (id1 == id2) {
+            return 0;
+        }
+        int start1 = stringOffsets[id1];
+        int length1 = stringOffsets[id1 + 1] - start1;
+        int start2 = stringOffsets[id2];
+        int length2 = stringOffsets[id2 + 1] - start2;
+        int limit = Math.min(length1, length2);
+        for (int i = 0; i < limit; i++) {
+            char c1 = chars[start1 + i];
+            char c2 = chars[start2 + i];
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return length1 - length2;
+    }
+
+    private void sortMembers(int base, int count) {
+        if (count <= 16) {
+            // Insertion sort on the key/value pairs in place, most objects are small
+            for (int i = 1; i < count; i++) {
+                int key = scratch[base + 2 * i];
+                int value = scratch[base + 2 * i + 1];
+                int j = i - 1;
+                while (j >= 0 && compareStrings(scratch[base + 2 * j], key) > 0) {
+                    scratch[base + 2 * j + 2] = scratch[base + 2 * j];
+                    scratch[base + 2 * j + 3] = scratch[base + 2 * j + 1];
+                    j--;
+                }
+                scratch[base + 2 * j + 2] = key;
+                scratch[base + 2 * j + 3] = value;
+            }
+            return;
+        }
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        final int start = base;
+        Arrays.sort(order, (a, b) -> compareStrings(scratch[start + 2 * a], scratch[start + 2 * b]));
+        int[] pairs = Arrays.copyOfRange(scratch, base, base + 2 * count);
+        for (int i = 0; i < count; i++) {
+            scratch[base + 2 * i] = pairs[2 * order[i]];
+            scratch[base + 2 * i + 1] = pairs[2 * order[i] + 1];
+        }
+    }
+
+    private void ensureMembers(int count) {
+        if (memberCount + count > memberKeys.length) {
+            int capacity = Math.max(memberKeys.length * 2, memberCount + count);
+            memberKeys = Arrays.copyOf(memberKeys, capacity);
+            memberValues = Arrays.copyOf(memberValues, capacity);
+        }
+    }
+
+    private void push(int value) {
+        if (scratchSize == scratch.length) {
+            scratch = Arrays.copyOf(scratch, scratchSize * 2);
+        }
+        scratch[scratchSize++] = value;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A source of JSON text consumed one code unit at a time by the
+ * {@link JSONTokenizer}.
+ * <p>
+ * Code units are either UTF-16 chars or, when {@link #isUtf8()} is true, raw
+ * UTF-8 bytes. All of the structural characters of JSON are ASCII so the
+ * tokenizer handles both the same way and only decodes multi-byte sequences
+ * inside strings and unquoted text.
+ * </p>
+ */
+public abstract class JSONInput {
+
+    // Files up to this size are read onto the heap, mapping them costs more
+    private static final long MAP_THRESHOLD = 1 << 20;
+
+    /**
+     * Constructs a new JSONInput.
+     */
+    protected JSONInput() {
+    }
+
+    /**
+     * Reads the next code unit.
+     * 
+     * @return the next char or byte (0-255), or -1 at the end of the input
+     */
+    public abstract int read();
+
+    /**
+     * Skips code units without reading them.
+     * 
+     * @param n the number of code units to skip
+     * @return the number of code units skipped, less than n only at the end of
+     *         the input
+     */
+    public long skip(long n) {
+        long skipped = 0;
+        while (skipped < n && read() != -1) {
+            skipped++;
+        }
+        return skipped;
+    }
+
+    /**
+     * Indicates whether the code units returned by {@link #read()} are UTF-8
+     * bytes.
+     * 
+     * @return true for byte oriented input; false for char oriented input
+     */
+    public boolean isUtf8() {
+        return false;
+    }
+
+    /**
+     * Indicates whether {@link #reopen(long)} is supported, which is the case for
+     * inputs backed by text or bytes that are fully available.
+     * 
+     * @return true if the input can be read again from any position; otherwise
+     *         false
+     */
+    public boolean isReopenable() {
+        return false;
+    }
+
+    /**
+     * Creates a new input that reads the same source, starting at the provided
+     * position. Reading the new input does not affect this input.
+     * 
+     * @param position the number of code units from the start of this input
+     * @return the new input
+     * @throws UnsupportedOperationException if the input can only be read once
+     */
+    public JSONInput reopen(long position) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " can only be read once");
+    }
+
+    /**
+     * Reads the rest of a string, up to and including its closing quote, as a
+     * {@link JSONRawString} if the input holds the string as UTF-8 bytes and the
+     * string has no escape sequences. Otherwise nothing is read, so the string
+     * can be decoded as usual.
+     * 
+     * @param quote the quote character that started the string
+     * @return the raw string, or null if nothing was read
+     */
+    JSONRawString readRawString(int quote) {
+        return null;
+    }
+
+    /**
+     * Creates an input that reads the provided characters.
+     * 
+     * @param s the JSON text
+     * @return the input
+     */
+    public static JSONInput of(CharSequence s) {
+        return new CharSequenceInput(s);
+    }
+
+    /**
+     * Creates an input that reads the provided UTF-8 encoded bytes.
+     * 
+     * @param bytes the UTF-8 encoded JSON
+     * @return the input
+     */
+    public static JSONInput of(byte[] bytes) {
+        return new ByteBufferInput(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Creates an input that reads the remaining UTF-8 encoded bytes of the
+     * provided buffer. The position of the buffer is not changed.
+     * 
+     * @param buffer the UTF-8 encoded JSON
+     * @return the input
+     */
+    public static JSONInput of(ByteBuffer buffer) {
+        return new ByteBufferInput(buffer);
+    }
+
+    /**
+     * Creates an input that reads the provided reader. The reader is not closed.
+     * An {@link IOException} thrown by the reader is rethrown as an
+     * {@link java.io.UncheckedIOException}.
+     * 
+     * @param reader the JSON text
+     * @return the input
+     */
+    public static JSONInput of(Reader reader) {
+        return new ReaderInput(reader);
+    }
+
+    /**
+     * Creates an input that reads the provided UTF-8 encoded stream. The stream is
+     * not closed. An {@link IOException} thrown by the stream is rethrown as an
+     * {@link java.io.UncheckedIOException}.
+     * 
+     * @param stream the UTF-8 encoded JSON
+     * @return the input
+     */
+    public static JSONInput of(InputStream stream) {
+        return new InputStreamInput(stream);
+    }
+
+    /**
+     * Creates an input that reads the provided UTF-8 encoded file. Small files are
+     * read into memory, larger files are mapped into memory in segments so files
+     * over 2 GB can be read as well.
+     * 
+     * @param path the UTF-8 encoded JSON file
+     * @return the input
+     * @throws IOException if the file cannot be read
+     */
+    public static JSONInput of(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAP_THRESHOLD) {
+                return new MappedFileInput(channel, MappedFileInput.SEGMENT_SIZE);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            }
+            buffer.flip();
+            return new ByteBufferInput(buffer);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * <p>
+ * Shares identical subtrees between parsed values, also known as
+ * hash-consing.
+ * </p>
+ *
+ * <p>
+ * {@link #intern(Object)} walks a value bottom up and replaces every
+ * {@link JSONObject} and {@link JSONArray} with the first one it has seen with
+ * the same members or elements. Because the children of a container have
+ * already been replaced by then, two containers are identical exactly when
+ * their children are the same instances or equal simple values, so each
+ * container is only hashed and compared once, without descending into it.
+ * Interning the expected and actual values with the same interner lets the
+ * comparators settle identical subtrees by reference.
+ * </p>
+ *
+ * <p>
+ * Simple values are only considered identical if they have the same class and
+ * are equal, so {@code 1} and {@code 1.0} or {@code 1.0} and {@code 1.00} are
+ * never shared. Read-only views such as {@link LazyJSONObject} and
+ * {@link JSONDocumentObject} are left as they are. Interned containers are
+ * shared, so they must not be modified afterwards. An interner is not thread
+ * safe.
+ * </p>
+ */
+public final class JSONInterner {
+
+    private final Map<Node, Object> nodes = new HashMap<Node, Object>();
+
+    // The shared containers, so a subtree that is reached again is not walked
+    private final Map<Object, Boolean> shared = new IdentityHashMap<Object, Boolean>();
+
+    /**
+     * Constructs a new JSONInterner.
+     */
+    public JSONInterner() {
+    }
+
+    /**
+     * Replaces the identical subtrees of the value with shared instances.
+     * Objects and arrays are changed in place.
+     *
+     * @param value a value built by the parser
+     * @return the shared instance of the value, which is the value itself if it
+     *         is the first of its kind
+     */
+    public Object intern(Object value) {
+        if (value == null || shared.containsKey(value)) {
+            return value;
+        } else if (value.getClass() == JSONObject.class) {
+            JSONObject object = (JSONObject) value;
+            int hash = 0;
+            for (String key : object.keySet()) {
+                Object member = object.opt(key);
+                Object shared = intern(member);
+                if (shared != member) {
+                    object.put(key, shared);
+                }
+                // Sum, so the order of the members does not matter
+                hash += key.hashCode() ^ hash(shared);
+            }
+            return share(new Node(object, hash));
+        } else if (value.getClass() == JSONArray.class) {
+            JSONArray array = (JSONArray) value;
+            int hash = 1;
+            for (int i = 0; i < array.length(); i++) {
+                Object element = array.opt(i);
+                Object shared = intern(element);
+                if (shared != element) {
+                    array.put(i, shared);
+                }
+                hash = 31 * hash + hash(shared);
+            }
+            return share(new Node(array, hash));
+        }
+        return value;
+    }
+
+    /**
+     * Gets the number of distinct objects and arrays seen so far.
+     *
+     * @return the number of shared containers
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    private Object share(Node node) {
+        Object value = nodes.get(node);
+        if (value == null) {
+            nodes.put(node, node.value);
+            shared.put(node.value, Boolean.TRUE);
+            return node.value;
+        }
+        return value;
+    }
+
+    private static int hash(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof JSONObject || value instanceof JSONArray) {
+            // Children are already shared, so containers hash by identity
+            return System.identityHashCode(value);
+        }
+        return value.hashCode();
+    }
+
+    private static boolean same(Object a, Object b) {
+        if (a == b) {
+            return true;
+        } else if (a == null || b == null || a instanceof JSONObject || a instanceof JSONArray) {
+            return false;
+        }
+        return a.getClass() == b.getClass() && a.equals(b);
+    }
+
+    /**
+     * A container as a key of the table, compared by its direct children.
+     */
+    private static final class Node {
+
+        private final Object value;
+
+        private final int hash;
+
+        Node(Object value, int hash) {
+            this.value = value;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Node)) {
+                return false;
+            }
+            Node other = (Node) o;
+            if (hash != other.hash || value.getClass() != other.value.getClass()) {
+                return false;
+            }
+            if (value instanceof JSONObject) {
+                JSONObject a = (JSONObject) value;
+                JSONObject b = (JSONObject) other.value;
+                if (a.length() != b.length()) {
+                    return false;
+                }
+                for (String key : a.keySet()) {
+                    if (!same(a.opt(key), b.opt(key))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            JSONArray a = (JSONArray) value;
+            JSONArray b = (JSONArray) other.value;
+            if (a.length() != b.length()) {
+                return false;
+            }
+            for (int i = 0; i < a.length(); i++) {
+                if (!same(a.opt(i), b.opt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.json.JSONException;
+
+/**
+ * <p>
+ * Splits a UTF-8 encoded JSON Lines (NDJSON) file into its lines without
+ * copying them onto the heap.
+ * </p>
+ *
+ * <p>
+ * The file is mapped into memory one segment at a time and each line is
+ * returned as a view of the mapped segment, so the heap used does not depend
+ * on the size of the file. Lines end with {@code \n}, and a {@code \r} before
+ * it is not part of the line. The newline after the last line is optional.
+ * </p>
+ */
+public final class JSONLines implements Closeable {
+
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+
+    private static final long LOW_BITS = 0x0101010101010101L;
+
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private final int segmentSize;
+
+    private ByteBuffer segment;
+
+    private long segmentStart;
+
+    private long position;
+
+    /**
+     * Constructs a new JSONLines.
+     *
+     * @param channel     the file channel, closed by {@link #close()}
+     * @param segmentSize the size of the segments the file is mapped in
+     * @throws IOException if the size of the file cannot be read
+     */
+    JSONLines(FileChannel channel, int segmentSize) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Opens a JSON Lines file.
+     *
+     * @param path the UTF-8 encoded JSON Lines file
+     * @return the lines of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static JSONLines open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new JSONLines(channel, MappedFileInput.SEGMENT_SIZE);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the next line. The returned buffer is a read-only view of the file that
+     * remains valid after this is closed.
+     *
+     * @return the next line without its line terminator, or null if there are no
+     *         more lines
+     * @throws IOException   if the file cannot be mapped
+     * @throws JSONException if a line is longer than 2 GB
+     */
+    public ByteBuffer next() throws IOException, JSONException {
+        if (position >= size) {
+            return null;
+        }
+        for (;;) {
+            if (segment == null) {
+                map(position, segmentSize);
+            }
+            int from = (int) (position - segmentStart);
+            int end = indexOfNewline(segment, from);
+            if (end >= 0) {
+                position = segmentStart + end + 1;
+                return line(from, end > from && segment.get(end - 1) == '\r' ? end - 1 : end);
+            } else if (segmentStart + segment.limit() == size) {
+                position = size;
+                return line(from, segment.limit());
+            }
+            // The line continues past the segment, so map again from its start
+            map(position, Math.max(segmentSize, 2L * (segment.limit() - from)));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void map(long start, long length) throws IOException {
+        length = Math.min(length, size - start);
+        if (length > Integer.MAX_VALUE) {
+            throw new JSONException("Line is too long at " + start);
+        }
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, start, length).asReadOnlyBuffer();
+        segmentStart = start;
+    }
+
+    private ByteBuffer line(int from, int to) {
+        ByteBuffer line = segment.duplicate();
+        line.limit(to);
+        line.position(from);
+        return line.slice();
+    }
+
+    /**
+     * Finds the next newline eight bytes at a time, using the SWAR test for a zero
+     * byte on the bytes xor'ed with newlines.
+     */
+    static int indexOfNewline(ByteBuffer buffer, int from) {
+        int limit = buffer.limit();
+        int i = from;
+        for (; i + 8 <= limit; i += 8) {
+            long word = buffer.getLong(i) ^ NEWLINES;
+            if (((word - LOW_BITS) & ~word & HIGH_BITS) != 0) {
+                break;
+            }
+        }
+        for (; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
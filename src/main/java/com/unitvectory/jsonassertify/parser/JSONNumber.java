@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.math.BigDecimal;
+
+/**
+ * <p>
+ * A decimal JSON number that keeps its text and only parses it when its value
+ * is needed.
+ * </p>
+ *
+ * <p>
+ * {@link #doubleValue()}, which is all the comparators need, uses a fast
+ * correctly rounded parser; two numbers with the same text are known to be
+ * equal without parsing either. Everything else goes through the
+ * {@link BigDecimal} that {@code org.json} would have created for the text, so
+ * {@link #equals(Object)}, {@link #hashCode()} and {@link #toString()} behave
+ * like that {@link BigDecimal}.
+ * </p>
+ */
+public final class JSONNumber extends Number {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String text;
+
+    private transient boolean parsed;
+
+    private transient double value;
+
+    private transient BigDecimal decimal;
+
+    /**
+     * Constructs a new JSONNumber.
+     *
+     * @param text a JSON number with a fraction or exponent
+     */
+    JSONNumber(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Gets the text of the number as it appeared in the JSON.
+     *
+     * @return the text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Checks if this number was written the same way as another, in which case
+     * they are equal without having to parse either of them.
+     *
+     * @param other the other number
+     * @return true if both numbers have the same text; otherwise false
+     */
+    public boolean hasSameText(JSONNumber other) {
+        return text.equals(other.text);
+    }
+
+    /**
+     * Gets the value of the number as the {@link BigDecimal} {@code org.json}
+     * would have created for it.
+     *
+     * @return the decimal
+     */
+    public BigDecimal toBigDecimal() {
+        if (decimal == null) {
+            decimal = new BigDecimal(text);
+        }
+        return decimal;
+    }
+
+    @Override
+    public double doubleValue() {
+        if (!parsed) {
+            value = NumberParser.parseDouble(text);
+            parsed = true;
+        }
+        return value;
+    }
+
+    @Override
+    public float floatValue() {
+        return toBigDecimal().floatValue();
+    }
+
+    @Override
+    public int intValue() {
+        return toBigDecimal().intValue();
+    }
+
+    @Override
+    public long longValue() {
+        return toBigDecimal().longValue();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof JSONNumber)) {
+            return false;
+        }
+        return hasSameText((JSONNumber) other) || toBigDecimal().equals(((JSONNumber) other).toBigDecimal());
+    }
+
+    @Override
+    public int hashCode() {
+        return toBigDecimal().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toString();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONException;
+
+/**
+ * <p>
+ * Finds the value an RFC 6901 JSON Pointer, such as
+ * {@code /data/items/3/price}, refers to by walking a {@link JSONTokenizer}.
+ * </p>
+ *
+ * <p>
+ * Object members and array elements before the referenced value are skipped
+ * with {@link JSONTokenizer#skipValue()}, so none of them are built and their
+ * strings are not decoded. The input after the referenced value is not read at
+ * all, which means that a syntax error after it is not reported.
+ * </p>
+ */
+public final class JSONPointerLocator {
+
+    private final String pointer;
+
+    private final String[] tokens;
+
+    private JSONPointerLocator(String pointer, String[] tokens) {
+        this.pointer = pointer;
+        this.tokens = tokens;
+    }
+
+    /**
+     * Parses a JSON Pointer. The empty pointer refers to the whole document,
+     * any other pointer starts with {@code /}, and {@code ~1} and {@code ~0}
+     * stand for {@code /} and {@code ~} in its reference tokens.
+     *
+     * @param pointer the JSON Pointer
+     * @return the locator
+     * @throws JSONException if the pointer is not a valid JSON Pointer
+     */
+    public static JSONPointerLocator parse(String pointer) throws JSONException {
+        if (!pointer.isEmpty() && pointer.charAt(0) != '/') {
+            throw new JSONException("Invalid JSON Pointer \"" + pointer + "\": must start with /");
+        }
+        List<String> tokens = new ArrayList<String>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 1; i <= pointer.length(); i++) {
+            char c = i < pointer.length() ? pointer.charAt(i) : '/';
+            if (c == '/') {
+                tokens.add(token.toString());
+                token.setLength(0);
+            } else if (c == '~') {
+                char escaped = ++i < pointer.length() ? pointer.charAt(i) : 0;
+                if (escaped != '0' && escaped != '1') {
+                    throw new JSONException("Invalid JSON Pointer \"" + pointer + "\": ~ must be followed by 0 or 1");
+                }
+                token.append(escaped == '0' ? '~' : '/');
+            } else {
+                token.append(c);
+            }
+        }
+        return new JSONPointerLocator(pointer, tokens.toArray(new String[0]));
+    }
+
+    /**
+     * Advances a tokenizer that has not read anything yet to the first token of
+     * the referenced value, so the value can be read or built from there.
+     *
+     * @param tokenizer the tokenizer of the whole document
+     * @return the path of the referenced value in the notation of comparison
+     *         failures, such as {@code data.items[3].price}, or null if the
+     *         document has no such value
+     * @throws JSONException JSON parsing error
+     */
+    public String locate(JSONTokenizer tokenizer) throws JSONException {
+        StringBuilder path = new StringBuilder();
+        tokenizer.next();
+        for (String token : tokens) {
+            JSONToken current = tokenizer.current();
+            if (current == JSONToken.START_OBJECT) {
+                if (!findMember(tokenizer, token)) {
+                    return null;
+                }
+                if (path.length() > 0) {
+                    path.append('.');
+                }
+                path.append(token);
+            } else if (current == JSONToken.START_ARRAY) {
+                long index = parseIndex(token);
+                if (index < 0 || !findElement(tokenizer, index)) {
+                    return null;
+                }
+                path.append('[').append(index).append(']');
+            } else {
+                return null;
+            }
+        }
+        return path.toString();
+    }
+
+    private static boolean findMember(JSONTokenizer tokenizer, String key) {
+        while (tokenizer.next() == JSONToken.KEY) {
+            boolean found = key.equals(tokenizer.getText());
+            tokenizer.next();
+            if (found) {
+                return true;
+            }
+            tokenizer.skipValue();
+        }
+        return false;
+    }
+
+    private static boolean findElement(JSONTokenizer tokenizer, long index) {
+        for (long i = 0; i < index; i++) {
+            if (tokenizer.next() == JSONToken.END_ARRAY) {
+                return false;
+            }
+            tokenizer.skipValue();
+        }
+        return tokenizer.next() != JSONToken.END_ARRAY;
+    }
+
+    /**
+     * Parses an array index, which has no leading zeros and no sign.
+     *
+     * @return the index, or -1 if the token is not an index, like {@code -}
+     */
+    private static long parseIndex(String token) {
+        if (token.isEmpty() || token.length() > 18 || (token.length() > 1 && token.charAt(0) == '0')) {
+            return -1;
+        }
+        long index = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return pointer;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * <p>
+ * The shape of an expected JSON document, used to parse only the parts of an
+ * actual document that a comparison in an extensible
+ * {@link com.unitvectory.jsonassertify.JSONCompareMode} can look at.
+ * </p>
+ *
+ * <p>
+ * A projection built by {@link #of(Object)} keeps the members of an object
+ * whose keys appear in the expected object, and keeps every element of an
+ * array with the contents projected onto the union of the expected elements.
+ * Wherever the expected document has a simple value the actual value is kept
+ * whole. Everything else is skipped without being built, which leaves empty
+ * objects and arrays where the types differ anyway.
+ * </p>
+ */
+public final class JSONProjection {
+
+    /**
+     * The projection that keeps every value.
+     */
+    public static final JSONProjection ALL = new JSONProjection(true);
+
+    // Keeps the count of array elements, but none of their contents
+    private static final JSONProjection NONE = new JSONProjection(false);
+
+    private final boolean all;
+
+    // Null when the expected document has no object at this place
+    private Map<String, JSONProjection> members;
+
+    // Null when the expected document has no array at this place
+    private JSONProjection elements;
+
+    private JSONProjection(boolean all) {
+        this.all = all;
+    }
+
+    /**
+     * Creates the projection of the provided expected value.
+     *
+     * @param expected the expected JSONObject, JSONArray or simple value
+     * @return the projection
+     */
+    public static JSONProjection of(Object expected) {
+        if (expected instanceof JSONObject) {
+            JSONObject object = (JSONObject) expected;
+            JSONProjection projection = new JSONProjection(false);
+            projection.members = new HashMap<String, JSONProjection>();
+            for (String key : object.keySet()) {
+                projection.members.put(key, of(object.opt(key)));
+            }
+            return projection;
+        } else if (expected instanceof JSONArray) {
+            JSONArray array = (JSONArray) expected;
+            JSONProjection projection = new JSONProjection(false);
+            projection.elements = NONE;
+            for (int i = 0; i < array.length(); i++) {
+                projection.elements = union(projection.elements, of(array.opt(i)));
+            }
+            return projection;
+        }
+        return ALL;
+    }
+
+    private static JSONProjection union(JSONProjection a, JSONProjection b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        } else if (a.all || b.all) {
+            return ALL;
+        }
+        JSONProjection projection = new JSONProjection(false);
+        if (a.members == null || b.members == null) {
+            projection.members = a.members != null ? a.members : b.members;
+        } else {
+            projection.members = new HashMap<String, JSONProjection>(a.members);
+            for (Map.Entry<String, JSONProjection> member : b.members.entrySet()) {
+                projection.members.put(member.getKey(), union(a.members.get(member.getKey()), member.getValue()));
+            }
+        }
+        projection.elements = union(a.elements, b.elements);
+        return projection;
+    }
+
+    /**
+     * Indicates whether every value is kept.
+     *
+     * @return true if nothing is skipped; otherwise false
+     */
+    public boolean isAll() {
+        return all;
+    }
+
+    /**
+     * Gets the projection of a member of an object.
+     *
+     * @param key the key of the member
+     * @return the projection of the member, or null if the member is skipped
+     */
+    public JSONProjection member(String key) {
+        if (all) {
+            return ALL;
+        }
+        return members == null ? null : members.get(key);
+    }
+
+    /**
+     * Gets the projection of the elements of an array.
+     *
+     * @return the projection of the elements, or null if the elements are
+     *         skipped
+     */
+    public JSONProjection elements() {
+        return all ? ALL : elements;
+    }
+}
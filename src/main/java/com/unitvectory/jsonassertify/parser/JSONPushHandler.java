@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import org.json.JSONException;
+
+/**
+ * Receives the top level values of a document from a {@link JSONPushParser} as
+ * soon as each of them is complete.
+ */
+public interface JSONPushHandler {
+
+    /**
+     * Called when the document starts with an object.
+     *
+     * @throws JSONException JSON comparison error
+     */
+    void startObject() throws JSONException;
+
+    /**
+     * Called for each member of the top level object once its value is complete.
+     *
+     * @param key   the key of the member
+     * @param value a JSONObject, JSONArray, String, Boolean, Number or
+     *              {@link org.json.JSONObject#NULL}
+     * @throws JSONException JSON comparison error
+     */
+    void member(String key, Object value) throws JSONException;
+
+    /**
+     * Called when the document starts with an array.
+     *
+     * @throws JSONException JSON comparison error
+     */
+    void startArray() throws JSONException;
+
+    /**
+     * Called for each element of the top level array once it is complete.
+     *
+     * @param value a JSONObject, JSONArray, String, Boolean, Number or
+     *              {@link org.json.JSONObject#NULL}
+     * @throws JSONException JSON comparison error
+     */
+    void element(Object value) throws JSONException;
+
+    /**
+     * Called at the end of the top level object or array.
+     *
+     * @throws JSONException JSON comparison error
+     */
+    void end() throws JSONException;
+
+    /**
+     * Called instead of the other methods when the document is a single string
+     * or literal.
+     *
+     * @param json the JSON text of the value, with strings in canonical form
+     * @throws JSONException JSON comparison error
+     */
+    void value(String json) throws JSONException;
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * <p>
+ * A non-blocking parser for UTF-8 encoded JSON that arrives in pieces, such as
+ * the chunks of a response body read from a channel.
+ * </p>
+ *
+ * <p>
+ * Each {@link #feed(ByteBuffer)} parses as far as the bytes received so far
+ * allow and then returns. Members of a top level object and elements of a top
+ * level array are built the same way as {@link JSONTreeBuilder} builds them and
+ * passed to the {@link JSONPushHandler} as soon as each one is complete, so
+ * the whole document never has to be held in memory. Only the bytes of the
+ * token that was cut off by the end of a piece are kept until the next one.
+ * </p>
+ */
+public final class JSONPushParser {
+
+    private final JSONPushHandler handler;
+
+    private final FeedInput input = new FeedInput();
+
+    private final JSONTokenizer tokenizer = new JSONTokenizer(input);
+
+    // Objects and arrays that are still open below the top level value, and the
+    // keys they will be added to their parents under
+    private final List<Object> open = new ArrayList<Object>();
+
+    private final List<String> openKeys = new ArrayList<String>();
+
+    private Set<String> topKeys;
+
+    private String key;
+
+    private int retryAt;
+
+    private boolean done;
+
+    /**
+     * Constructs a new JSONPushParser.
+     *
+     * @param handler receives the top level values
+     */
+    public JSONPushParser(JSONPushHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Parses the remaining bytes of the buffer as the next piece of the document.
+     * The bytes are consumed, so the position of the buffer is moved to its
+     * limit, and the buffer can be reused as soon as this returns. Bytes after the
+     * end of the top level value are ignored.
+     *
+     * @param buffer the next UTF-8 encoded bytes
+     * @throws JSONException JSON parsing error
+     */
+    public void feed(ByteBuffer buffer) throws JSONException {
+        if (done) {
+            buffer.position(buffer.limit());
+            return;
+        }
+        input.feed(buffer);
+        // A long token cut off by several pieces is only read again once the kept
+        // bytes have doubled, so it is not scanned again for every piece
+        if (input.available() >= retryAt) {
+            parse();
+        }
+    }
+
+    /**
+     * Ends the document.
+     *
+     * @throws JSONException JSON parsing error, including a document that is not
+     *                       complete
+     */
+    public void finish() throws JSONException {
+        input.finish();
+        parse();
+    }
+
+    /**
+     * Checks if the top level value has been read completely.
+     *
+     * @return true if the top level value is complete; otherwise false
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    private void parse() {
+        while (!done) {
+            input.mark();
+            JSONToken token = tokenizer.tryNext();
+            if (token == null) {
+                input.reset();
+                retryAt = 2 * input.available();
+                return;
+            }
+            retryAt = 0;
+            handle(token);
+        }
+    }
+
+    private void handle(JSONToken token) {
+        switch (token) {
+            case START_OBJECT:
+                if (tokenizer.depth() == 1) {
+                    topKeys = new HashSet<String>();
+                    handler.startObject();
+                } else {
+                    start(new JSONObject());
+                }
+                break;
+            case START_ARRAY:
+                if (tokenizer.depth() == 1) {
+                    handler.startArray();
+                } else {
+                    start(new JSONArray());
+                }
+                break;
+            case KEY:
+                key = tokenizer.getText();
+                boolean duplicate = open.isEmpty() ? !topKeys.add(key)
+                        : ((JSONObject) open.get(open.size() - 1)).has(key);
+                if (duplicate) {
+                    throw tokenizer.syntaxError("Duplicate key \"" + key + "\"");
+                }
+                break;
+            case END_OBJECT:
+            case END_ARRAY:
+                if (tokenizer.depth() == 0) {
+                    done = true;
+                    handler.end();
+                } else {
+                    key = openKeys.remove(openKeys.size() - 1);
+                    add(open.remove(open.size() - 1));
+                }
+                break;
+            case STRING:
+            case LITERAL:
+                if (tokenizer.depth() == 0) {
+                    done = true;
+                    handler.value(token == JSONToken.STRING ? JSONObject.quote(tokenizer.getText())
+                            : tokenizer.getText());
+                } else {
+                    add(tokenizer.getValue());
+                }
+                break;
+            default:
+                done = true;
+                break;
+        }
+    }
+
+    private void start(Object container) {
+        open.add(container);
+        openKeys.add(key);
+    }
+
+    private void add(Object value) {
+        if (open.isEmpty()) {
+            if (topKeys != null) {
+                handler.member(key, value);
+            } else {
+                handler.element(value);
+            }
+            return;
+        }
+        Object parent = open.get(open.size() - 1);
+        if (parent instanceof JSONObject) {
+            ((JSONObject) parent).put(key, value);
+        } else {
+            ((JSONArray) parent).put(value);
+        }
+    }
+}
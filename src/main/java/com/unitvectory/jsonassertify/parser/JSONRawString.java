@@ -0,0 +1,157 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>
+ * A JSON string value that is kept as the UTF-8 bytes it was written with and
+ * only decoded when its characters are needed.
+ * </p>
+ *
+ * <p>
+ * Only strings without escape sequences are kept this way, so two strings are
+ * equal exactly when their bytes are, and {@link #equals(Object)} compares the
+ * bytes without decoding either string. {@link #toString()} decodes the string
+ * once and returns the same {@link String} the parser would otherwise have
+ * built. A JSONRawString is never equal to a {@link String}, even one with the
+ * same characters, so code that hashes or counts values that may be either,
+ * like the comparators do for arrays, has to {@link #decode(Object)} them first.
+ * </p>
+ */
+public final class JSONRawString implements CharSequence {
+
+    private final byte[] bytes;
+
+    private final int offset;
+
+    private final int length;
+
+    private final boolean ascii;
+
+    private int hash;
+
+    private String string;
+
+    /**
+     * Constructs a new JSONRawString over a range of bytes that is not changed
+     * afterwards.
+     *
+     * @param bytes  the bytes, which are not copied
+     * @param offset the index of the first byte of the string
+     * @param length the number of bytes in the string
+     * @param ascii  true if all of the bytes are ASCII
+     */
+    JSONRawString(byte[] bytes, int offset, int length, boolean ascii) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        this.ascii = ascii;
+    }
+
+    /**
+     * Gets the number of UTF-8 bytes in the string.
+     *
+     * @return the number of bytes
+     */
+    public int byteLength() {
+        return length;
+    }
+
+    /**
+     * Gets a value as it is expected by code that only knows the types built by
+     * {@code org.json}.
+     *
+     * @param value a value built by the parser
+     * @return the decoded {@link String} if the value is a JSONRawString;
+     *         otherwise the value itself
+     */
+    public static Object decode(Object value) {
+        return value instanceof JSONRawString ? value.toString() : value;
+    }
+
+    @Override
+    public int length() {
+        return ascii ? length : toString().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (ascii) {
+            if (index < 0 || index >= length) {
+                throw new StringIndexOutOfBoundsException(index);
+            }
+            return (char) bytes[offset + index];
+        }
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JSONRawString)) {
+            return false;
+        }
+        JSONRawString other = (JSONRawString) o;
+        if (length != other.length || (hash != 0 && other.hash != 0 && hash != other.hash)) {
+            return false;
+        }
+        byte[] a = bytes;
+        byte[] b = other.bytes;
+        int i = offset;
+        int j = other.offset;
+        int end = offset + length;
+        // Values that differ usually do so at the end, such as ids and timestamps
+        if (length > 0 && a[end - 1] != b[j + length - 1]) {
+            return false;
+        }
+        while (i < end) {
+            if (a[i++] != b[j++]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                h = 31 * h + bytes[i];
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        String s = string;
+        if (s == null) {
+            s = ascii ? new String(bytes, offset, length, StandardCharsets.ISO_8859_1)
+                    : new String(bytes, offset, length, StandardCharsets.UTF_8);
+            string = s;
+        }
+        return s;
+    }
+}
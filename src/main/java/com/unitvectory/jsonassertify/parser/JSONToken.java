@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+/**
+ * The tokens produced by the {@link JSONTokenizer}.
+ */
+public enum JSONToken {
+
+    /**
+     * The start of a JSON object.
+     */
+    START_OBJECT,
+
+    /**
+     * The end of a JSON object.
+     */
+    END_OBJECT,
+
+    /**
+     * The start of a JSON array.
+     */
+    START_ARRAY,
+
+    /**
+     * The end of a JSON array.
+     */
+    END_ARRAY,
+
+    /**
+     * The name of an object member. The member value follows as the next token.
+     */
+    KEY,
+
+    /**
+     * A quoted string value.
+     */
+    STRING,
+
+    /**
+     * An unquoted value such as a number, {@code true}, {@code false} or
+     * {@code null}.
+     */
+    LITERAL,
+
+    /**
+     * The end of the document.
+     */
+    END;
+
+    /**
+     * Is the start of a JSON object or array
+     * 
+     * @return true if the token opens a container; otherwise false
+     */
+    public boolean isStart() {
+        return this == START_OBJECT || this == START_ARRAY;
+    }
+}
@@ -0,0 +1,583 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.util.Arrays;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * <p>
+ * A pull tokenizer for JSON text. Each call to {@link #next()} advances to the
+ * next token without building any {@link JSONObject} or
+ * {@link org.json.JSONArray} instances, so callers can walk arbitrarily large
+ * documents while only holding the current token in memory.
+ * </p>
+ *
+ * <p>
+ * The accepted syntax follows the lenient rules of {@code org.json}: keys and
+ * values may be unquoted, strings may use single quotes, {@code ;} may separate
+ * object members and trailing commas are ignored. Unquoted values are converted
+ * with {@link JSONObject#stringToValue(String)} so numbers, booleans and nulls
+ * have the same types as they would when parsed by {@code org.json}.
+ * </p>
+ */
+public final class JSONTokenizer {
+
+    private static final int ROOT = 0;
+    private static final int OBJECT_START = 1;
+    private static final int OBJECT_KEY = 2;
+    private static final int OBJECT_VALUE = 3;
+    private static final int ARRAY_START = 4;
+    private static final int ARRAY_NEXT = 5;
+    private static final int AFTER_VALUE = 6;
+    private static final int DONE = 7;
+
+    private static final byte IN_OBJECT = 1;
+    private static final byte IN_ARRAY = 2;
+
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private static final String UNQUOTED_DELIMITERS = ",:]}/\\\"[{;=#";
+
+    private final JSONInput input;
+
+    private final boolean utf8;
+
+    private final StructuralIndex index;
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    private byte[] stack = new byte[32];
+
+    private int depth;
+
+    private int state = ROOT;
+
+    private int pushback = -2;
+
+    private long offset;
+
+    private boolean skipping;
+
+    private boolean rawStrings;
+
+    private JSONRawString raw;
+
+    private SymbolTable symbols;
+
+    // The longest string value that is shared through the symbol table
+    private int sharedLength = -1;
+
+    private JSONToken token;
+
+    private String text;
+
+    /**
+     * Constructs a new JSONTokenizer.
+     *
+     * @param input the JSON input
+     */
+    public JSONTokenizer(JSONInput input) {
+        this(input, 0);
+    }
+
+    /**
+     * Constructs a new JSONTokenizer for input that starts part way into a larger
+     * document, so positions are reported relative to the whole document.
+     *
+     * @param input    the JSON input
+     * @param position the position of the first code unit of the input
+     */
+    public JSONTokenizer(JSONInput input, long position) {
+        this(input, position, null);
+    }
+
+    /**
+     * Constructs a new JSONTokenizer that uses a {@link StructuralIndex} of the
+     * input to skip objects and arrays in {@link #skipValue()} without reading
+     * them. Skipped values are then only checked for matching brackets.
+     *
+     * @param input    the JSON input
+     * @param position the position of the first code unit of the input
+     * @param index    the index of the whole document, or null
+     */
+    public JSONTokenizer(JSONInput input, long position, StructuralIndex index) {
+        this.input = input;
+        this.utf8 = input.isUtf8();
+        this.offset = position;
+        this.index = index;
+    }
+
+    /**
+     * Puts the tokenizer inside an array, for input that starts just after the
+     * opening bracket of the array or after the comma that follows one of its
+     * elements. The next token is then the next element or the end of the array.
+     */
+    void resumeArray() {
+        push(IN_ARRAY);
+        state = ARRAY_NEXT;
+    }
+
+    /**
+     * Makes {@link #getValue()} return a {@link JSONRawString} for strings of
+     * UTF-8 input that have no escape sequences, so they are not decoded unless
+     * {@link #getText()} is called.
+     */
+    void readRawStrings() {
+        rawStrings = true;
+    }
+
+    /**
+     * Makes the tokenizer share one {@link String} instance between all keys
+     * with the same text, see {@link SymbolTable}.
+     *
+     * @param values if true, short string values are shared as well
+     */
+    void shareStrings(boolean values) {
+        if (symbols == null) {
+            symbols = new SymbolTable();
+        }
+        sharedLength = values ? SymbolTable.MAX_VALUE_LENGTH : -1;
+    }
+
+    /**
+     * Advances to the next token.
+     *
+     * @return the next token, {@link JSONToken#END} once the root value has been
+     *         read
+     * @throws JSONException JSON parsing error
+     */
+    public JSONToken next() throws JSONException {
+        token = advance();
+        return token;
+    }
+
+    /**
+     * Advances to the next token if the input already holds all of it, for a
+     * {@link FeedInput} that is fed in pieces. Otherwise the tokenizer is left as
+     * it was, so the token can be read again from the same place once the input
+     * has been reset and more of it has arrived.
+     *
+     * @return the next token, or null if more input is needed
+     * @throws JSONException JSON parsing error
+     */
+    JSONToken tryNext() throws JSONException {
+        int savedState = state;
+        int savedDepth = depth;
+        int savedPushback = pushback;
+        long savedOffset = offset;
+        JSONToken savedToken = token;
+        String savedText = text;
+        JSONRawString savedRaw = raw;
+        try {
+            return next();
+        } catch (FeedInput.Underflow e) {
+            state = savedState;
+            depth = savedDepth;
+            pushback = savedPushback;
+            offset = savedOffset;
+            token = savedToken;
+            text = savedText;
+            raw = savedRaw;
+            return null;
+        }
+    }
+
+    /**
+     * Gets the current token.
+     *
+     * @return the current token, or null if {@link #next()} has not been called
+     */
+    public JSONToken current() {
+        return token;
+    }
+
+    /**
+     * Gets the text of the current {@link JSONToken#KEY}, {@link JSONToken#STRING}
+     * or {@link JSONToken#LITERAL} token.
+     *
+     * @return the unescaped text
+     */
+    public String getText() {
+        if (text == null && raw != null) {
+            text = raw.toString();
+        }
+        return text;
+    }
+
+    /**
+     * Gets the value of the current {@link JSONToken#STRING} or
+     * {@link JSONToken#LITERAL} token using the same types as {@code org.json}.
+     *
+     * @return a String, Boolean, Number or {@link JSONObject#NULL}, or a
+     *         {@link JSONRawString} once {@link #readRawStrings()} has been
+     *         called
+     */
+    public Object getValue() {
+        if (token == JSONToken.LITERAL) {
+            return NumberParser.toValue(text, false);
+        } else if (raw != null) {
+            return raw;
+        }
+        return text;
+    }
+
+    /**
+     * Gets the nesting depth of the current token. The depth is incremented by a
+     * start token and decremented by the matching end token.
+     *
+     * @return the current nesting depth
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Gets the number of code units consumed so far.
+     *
+     * @return the position within the input
+     */
+    public long position() {
+        return offset;
+    }
+
+    /**
+     * Skips the value at the current token. When the current token starts an
+     * object or array the tokenizer advances to the matching end token without
+     * decoding any of the strings inside it, or without reading it at all if the
+     * tokenizer has a {@link StructuralIndex}; otherwise this does nothing.
+     *
+     * @throws JSONException JSON parsing error
+     */
+    public void skipValue() throws JSONException {
+        if (token != JSONToken.START_OBJECT && token != JSONToken.START_ARRAY) {
+            return;
+        }
+        if (index != null && pushback == -2) {
+            // The opening bracket was the last code unit read
+            long end = index.skip(offset - 1);
+            if (end > offset) {
+                long n = end - offset;
+                if (input.skip(n) != n) {
+                    throw syntaxError("Unexpected end of input");
+                }
+                offset = end;
+                depth--;
+                valueDone();
+                token = token == JSONToken.START_OBJECT ? JSONToken.END_OBJECT : JSONToken.END_ARRAY;
+                return;
+            }
+        }
+        int target = depth - 1;
+        skipping = true;
+        try {
+            while (depth > target) {
+                next();
+            }
+        } finally {
+            skipping = false;
+        }
+    }
+
+    /**
+     * Creates the exception for a syntax error at the current position.
+     *
+     * @param message the error message
+     * @return the exception
+     */
+    public JSONException syntaxError(String message) {
+        return new JSONException(message + " at " + position());
+    }
+
+    private JSONToken advance() {
+        int c;
+        switch (state) {
+            case ROOT:
+            case OBJECT_VALUE:
+                return startValue(nextClean());
+            case OBJECT_START:
+            case OBJECT_KEY:
+                c = nextClean();
+                if (c == '}') {
+                    return endContainer(JSONToken.END_OBJECT);
+                }
+                return readKey(c);
+            case ARRAY_START:
+            case ARRAY_NEXT:
+                c = nextClean();
+                if (c == ']') {
+                    return endContainer(JSONToken.END_ARRAY);
+                } else if (c == ',') {
+                    back(c);
+                    text = "null";
+                    state = AFTER_VALUE;
+                    return JSONToken.LITERAL;
+                }
+                return startValue(c);
+            case AFTER_VALUE:
+                c = nextClean();
+                if (stack[depth - 1] == IN_OBJECT) {
+                    if (c == ',' || c == ';') {
+                        state = OBJECT_KEY;
+                        return advance();
+                    } else if (c == '}') {
+                        return endContainer(JSONToken.END_OBJECT);
+                    }
+                    throw syntaxError("Expected a ',' or '}'");
+                }
+                if (c == ',') {
+                    state = ARRAY_NEXT;
+                    return advance();
+                } else if (c == ']') {
+                    return endContainer(JSONToken.END_ARRAY);
+                }
+                throw syntaxError("Expected a ',' or ']'");
+            default:
+                return JSONToken.END;
+        }
+    }
+
+    private JSONToken startValue(int c) {
+        switch (c) {
+            case '{':
+                push(IN_OBJECT);
+                state = OBJECT_START;
+                return JSONToken.START_OBJECT;
+            case '[':
+                push(IN_ARRAY);
+                state = ARRAY_START;
+                return JSONToken.START_ARRAY;
+            case '"':
+            case '\'':
+                raw = rawStrings && !skipping ? input.readRawString(c) : null;
+                if (raw != null) {
+                    // The input has consumed the string and its closing quote
+                    offset += raw.byteLength() + 1;
+                    text = null;
+                } else {
+                    text = readString(c, sharedLength);
+                }
+                valueDone();
+                return JSONToken.STRING;
+            default:
+                text = readUnquoted(c);
+                valueDone();
+                return JSONToken.LITERAL;
+        }
+    }
+
+    private JSONToken readKey(int c) {
+        switch (c) {
+            case -1:
+            case 0:
+                throw syntaxError("A JSONObject text must end with '}'");
+            case '{':
+            case '[':
+                throw syntaxError("A JSON Object can not directly nest another JSON Object or JSON Array.");
+            case '"':
+            case '\'':
+                text = readString(c, symbols != null ? Integer.MAX_VALUE : -1);
+                break;
+            default:
+                text = readUnquoted(c);
+                if (!skipping) {
+                    text = JSONObject.stringToValue(text).toString();
+                    if (symbols != null) {
+                        text = symbols.get(text);
+                    }
+                }
+                break;
+        }
+        if (nextClean() != ':') {
+            throw syntaxError("Expected a ':' after a key");
+        }
+        state = OBJECT_VALUE;
+        return JSONToken.KEY;
+    }
+
+    private JSONToken endContainer(JSONToken end) {
+        depth--;
+        valueDone();
+        return end;
+    }
+
+    private void valueDone() {
+        state = depth == 0 ? DONE : AFTER_VALUE;
+    }
+
+    private void push(byte container) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = container;
+    }
+
+    private int read() {
+        int c;
+        if (pushback != -2) {
+            c = pushback;
+            pushback = -2;
+        } else {
+            c = input.read();
+        }
+        offset++;
+        return c;
+    }
+
+    private void back(int c) {
+        pushback = c;
+        offset--;
+    }
+
+    private int nextClean() {
+        for (;;) {
+            int c = read();
+            if (c <= ' ') {
+                if (c == -1 || c == 0) {
+                    return c;
+                }
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private String readString(int quote, int shareLength) {
+        StringBuilder sb = buffer;
+        sb.setLength(0);
+        for (;;) {
+            int c = read();
+            switch (c) {
+                case -1:
+                case 0:
+                case '\n':
+                case '\r':
+                    throw syntaxError("Unterminated string");
+                case '\\':
+                    c = read();
+                    switch (c) {
+                        case 'b':
+                            sb.append('\b');
+                            break;
+                        case 't':
+                            sb.append('\t');
+                            break;
+                        case 'n':
+                            sb.append('\n');
+                            break;
+                        case 'f':
+                            sb.append('\f');
+                            break;
+                        case 'r':
+                            sb.append('\r');
+                            break;
+                        case 'u':
+                            sb.append((char) readHex());
+                            break;
+                        case '"':
+                        case '\'':
+                        case '\\':
+                        case '/':
+                            sb.append((char) c);
+                            break;
+                        default:
+                            throw syntaxError("Illegal escape.");
+                    }
+                    break;
+                default:
+                    if (c == quote) {
+                        if (skipping) {
+                            return null;
+                        }
+                        return sb.length() <= shareLength ? symbols.get(sb) : sb.toString();
+                    }
+                    append(sb, c, !skipping);
+            }
+        }
+    }
+
+    private int readHex() {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int c = read();
+            int digit = Character.digit(c < 0 ? 0 : c, 16);
+            if (digit < 0) {
+                throw syntaxError("Illegal escape.");
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private String readUnquoted(int c) {
+        StringBuilder sb = buffer;
+        sb.setLength(0);
+        while (c >= ' ' && UNQUOTED_DELIMITERS.indexOf(c) < 0) {
+            append(sb, c, true);
+            c = read();
+        }
+        if (c != -1) {
+            back(c);
+        }
+        String value = sb.toString().trim();
+        if (value.isEmpty()) {
+            throw syntaxError("Missing value");
+        }
+        return value;
+    }
+
+    private void append(StringBuilder sb, int c, boolean keep) {
+        if (utf8 && c >= 0x80) {
+            appendUtf8(sb, c, keep);
+        } else if (keep) {
+            sb.append((char) c);
+        }
+    }
+
+    private void appendUtf8(StringBuilder sb, int lead, boolean keep) {
+        int remaining;
+        int codePoint;
+        if ((lead & 0xE0) == 0xC0) {
+            remaining = 1;
+            codePoint = lead & 0x1F;
+        } else if ((lead & 0xF0) == 0xE0) {
+            remaining = 2;
+            codePoint = lead & 0x0F;
+        } else if ((lead & 0xF8) == 0xF0) {
+            remaining = 3;
+            codePoint = lead & 0x07;
+        } else {
+            sb.append(REPLACEMENT);
+            return;
+        }
+        for (int i = 0; i < remaining; i++) {
+            int c = read();
+            if ((c & 0xC0) != 0x80) {
+                back(c);
+                sb.append(REPLACEMENT);
+                return;
+            }
+            codePoint = (codePoint << 6) | (c & 0x3F);
+        }
+        if (keep) {
+            if (codePoint > Character.MAX_CODE_POINT) {
+                sb.append(REPLACEMENT);
+            } else {
+                sb.appendCodePoint(codePoint);
+            }
+        }
+    }
+}
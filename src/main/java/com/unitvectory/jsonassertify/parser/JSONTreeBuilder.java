@@ -0,0 +1,179 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Materializes values read by a {@link JSONTokenizer} into {@link JSONObject},
+ * {@link JSONArray} and simple value instances.
+ */
+public class JSONTreeBuilder {
+
+    private final boolean lazyNumbers;
+
+    private final boolean rawStrings;
+
+    private final boolean sharedKeys;
+
+    private final boolean sharedStrings;
+
+    /**
+     * Constructs a new JSONTreeBuilder.
+     */
+    public JSONTreeBuilder() {
+        this(false);
+    }
+
+    /**
+     * Constructs a new JSONTreeBuilder that can keep decimal numbers as their
+     * text until their value is needed.
+     *
+     * @param lazyNumbers if true, numbers with a fraction or exponent are built as
+     *                    a {@link JSONNumber} instead of a
+     *                    {@link java.math.BigDecimal}
+     */
+    public JSONTreeBuilder(boolean lazyNumbers) {
+        this(lazyNumbers, false);
+    }
+
+    /**
+     * Constructs a new JSONTreeBuilder that can keep decimal numbers as their
+     * text and strings as their bytes until their value is needed.
+     *
+     * @param lazyNumbers if true, numbers with a fraction or exponent are built as
+     *                    a {@link JSONNumber} instead of a
+     *                    {@link java.math.BigDecimal}
+     * @param rawStrings  if true, strings of UTF-8 input without escape sequences
+     *                    are built as a {@link JSONRawString} instead of a
+     *                    {@link String}
+     */
+    public JSONTreeBuilder(boolean lazyNumbers, boolean rawStrings) {
+        this(lazyNumbers, rawStrings, false, false);
+    }
+
+    /**
+     * Constructs a new JSONTreeBuilder that can keep decimal numbers as their
+     * text and strings as their bytes until their value is needed, and that can
+     * share the strings of repeated keys and values between objects.
+     *
+     * @param lazyNumbers   if true, numbers with a fraction or exponent are built
+     *                      as a {@link JSONNumber} instead of a
+     *                      {@link java.math.BigDecimal}
+     * @param rawStrings    if true, strings of UTF-8 input without escape
+     *                      sequences are built as a {@link JSONRawString}
+     *                      instead of a {@link String}
+     * @param sharedKeys    if true, keys with the same text are built as the same
+     *                      {@link String} instance
+     * @param sharedStrings if true, short string values with the same text are
+     *                      built as the same {@link String} instance as well
+     */
+    public JSONTreeBuilder(boolean lazyNumbers, boolean rawStrings, boolean sharedKeys, boolean sharedStrings) {
+        this.lazyNumbers = lazyNumbers;
+        this.rawStrings = rawStrings;
+        this.sharedKeys = sharedKeys || sharedStrings;
+        this.sharedStrings = sharedStrings;
+    }
+
+    /**
+     * Builds the value that starts at the current token of the tokenizer. On
+     * return the tokenizer is positioned on the last token of the value.
+     *
+     * @param tokenizer the tokenizer positioned on the first token of a value
+     * @return a JSONObject, JSONArray, String, Boolean, Number or
+     *         {@link JSONObject#NULL}
+     * @throws JSONException JSON parsing error
+     */
+    public Object build(JSONTokenizer tokenizer) throws JSONException {
+        return build(tokenizer, JSONProjection.ALL);
+    }
+
+    /**
+     * Builds the projection of the value that starts at the current token of the
+     * tokenizer. Members and elements outside of the projection are skipped
+     * without being built. On return the tokenizer is positioned on the last
+     * token of the value.
+     *
+     * @param tokenizer  the tokenizer positioned on the first token of a value
+     * @param projection the parts of the value to build
+     * @return a JSONObject, JSONArray, String, Boolean, Number or
+     *         {@link JSONObject#NULL}
+     * @throws JSONException JSON parsing error
+     */
+    public Object build(JSONTokenizer tokenizer, JSONProjection projection) throws JSONException {
+        if (rawStrings) {
+            tokenizer.readRawStrings();
+        }
+        if (sharedKeys) {
+            tokenizer.shareStrings(sharedStrings);
+        }
+        return buildValue(tokenizer, projection);
+    }
+
+    private Object buildValue(JSONTokenizer tokenizer, JSONProjection projection) {
+        switch (tokenizer.current()) {
+            case START_OBJECT:
+                return buildObject(tokenizer, projection);
+            case START_ARRAY:
+                return buildArray(tokenizer, projection);
+            case STRING:
+                return tokenizer.getValue();
+            case LITERAL:
+                return NumberParser.toValue(tokenizer.getText(), lazyNumbers);
+            default:
+                throw tokenizer.syntaxError("Missing value");
+        }
+    }
+
+    private JSONObject buildObject(JSONTokenizer tokenizer, JSONProjection projection) {
+        JSONObject object = new JSONObject();
+        Set<String> skipped = null;
+        while (tokenizer.next() == JSONToken.KEY) {
+            String key = tokenizer.getText();
+            if (object.has(key) || (skipped != null && skipped.contains(key))) {
+                throw tokenizer.syntaxError("Duplicate key \"" + key + "\"");
+            }
+            tokenizer.next();
+            JSONProjection member = projection.member(key);
+            if (member == null) {
+                if (skipped == null) {
+                    skipped = new HashSet<String>();
+                }
+                skipped.add(key);
+                tokenizer.skipValue();
+            } else {
+                object.put(key, buildValue(tokenizer, member));
+            }
+        }
+        return object;
+    }
+
+    private JSONArray buildArray(JSONTokenizer tokenizer, JSONProjection projection) {
+        JSONArray array = new JSONArray();
+        JSONProjection elements = projection.elements();
+        if (elements == null) {
+            tokenizer.skipValue();
+            return array;
+        }
+        while (tokenizer.next() != JSONToken.END_ARRAY) {
+            array.put(buildValue(tokenizer, elements));
+        }
+        return array;
+    }
+}
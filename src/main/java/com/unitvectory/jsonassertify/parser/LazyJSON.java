@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * <p>
+ * Creates lazy views of JSON objects and arrays.
+ * </p>
+ *
+ * <p>
+ * A lazy view only records where its value starts in the input. The first time
+ * the view is accessed it parses its own members: simple values are read, and
+ * nested objects and arrays are skipped over and become lazy views themselves.
+ * A comparison that only visits a few members of a large document therefore
+ * only pays for a skip-scan of the rest of it.
+ * </p>
+ *
+ * <p>
+ * Because nested values are parsed when they are first accessed, a syntax
+ * error inside of them is reported by the access rather than by
+ * {@link #parse(JSONInput)}.
+ * </p>
+ */
+public final class LazyJSON {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private LazyJSON() {
+    }
+
+    /**
+     * Creates a lazy view of the object or array at the start of the input.
+     *
+     * @param input the JSON input, which must be reopenable
+     * @return a {@link LazyJSONObject} or {@link LazyJSONArray}
+     * @throws JSONException                 if the input does not start with an
+     *                                       object or array
+     * @throws UnsupportedOperationException if the input is not reopenable
+     * @see JSONInput#isReopenable()
+     */
+    public static Object parse(JSONInput input) throws JSONException {
+        return parse(input, null);
+    }
+
+    /**
+     * Creates a lazy view of the object or array at the start of the input, that
+     * uses a {@link StructuralIndex} of the input to skip nested values.
+     *
+     * @param input the JSON input, which must be reopenable
+     * @param index the index of the input, or null
+     * @return a {@link LazyJSONObject} or {@link LazyJSONArray}
+     * @throws JSONException                 if the input does not start with an
+     *                                       object or array
+     * @throws UnsupportedOperationException if the input is not reopenable
+     * @see JSONInput#isReopenable()
+     */
+    public static Object parse(JSONInput input, StructuralIndex index) throws JSONException {
+        if (!input.isReopenable()) {
+            throw new UnsupportedOperationException(input.getClass().getSimpleName() + " can only be read once");
+        }
+        JSONTokenizer tokenizer = new JSONTokenizer(input.reopen(0));
+        switch (tokenizer.next()) {
+            case START_OBJECT:
+                return new LazyJSONObject(input, index, tokenizer.position() - 1);
+            case START_ARRAY:
+                return new LazyJSONArray(input, index, tokenizer.position() - 1);
+            default:
+                throw tokenizer.syntaxError("A JSON text must begin with '{' or '['");
+        }
+    }
+
+    static JSONObject parseObject(JSONInput input, StructuralIndex index, long start) {
+        JSONTokenizer tokenizer = open(input, index, start, JSONToken.START_OBJECT);
+        JSONObject object = new JSONObject();
+        while (tokenizer.next() == JSONToken.KEY) {
+            String key = tokenizer.getText();
+            if (object.has(key)) {
+                throw tokenizer.syntaxError("Duplicate key \"" + key + "\"");
+            }
+            tokenizer.next();
+            object.put(key, member(input, index, tokenizer));
+        }
+        return object;
+    }
+
+    static JSONArray parseArray(JSONInput input, StructuralIndex index, long start) {
+        JSONTokenizer tokenizer = open(input, index, start, JSONToken.START_ARRAY);
+        JSONArray array = new JSONArray();
+        while (tokenizer.next() != JSONToken.END_ARRAY) {
+            array.put(member(input, index, tokenizer));
+        }
+        return array;
+    }
+
+    private static JSONTokenizer open(JSONInput input, StructuralIndex index, long start, JSONToken expected) {
+        JSONTokenizer tokenizer = new JSONTokenizer(input.reopen(start), start, index);
+        if (tokenizer.next() != expected) {
+            throw tokenizer.syntaxError("Expected " + expected);
+        }
+        return tokenizer;
+    }
+
+    private static Object member(JSONInput input, StructuralIndex index, JSONTokenizer tokenizer) {
+        switch (tokenizer.current()) {
+            case START_OBJECT:
+                long objectStart = tokenizer.position() - 1;
+                tokenizer.skipValue();
+                return new LazyJSONObject(input, index, objectStart);
+            case START_ARRAY:
+                long arrayStart = tokenizer.position() - 1;
+                tokenizer.skipValue();
+                return new LazyJSONArray(input, index, arrayStart);
+            case STRING:
+            case LITERAL:
+                return tokenizer.getValue();
+            default:
+                throw tokenizer.syntaxError("Missing value");
+        }
+    }
+
+}
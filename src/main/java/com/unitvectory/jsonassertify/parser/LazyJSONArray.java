@@ -0,0 +1,162 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+/**
+ * A read-only {@link JSONArray} view of an array that is parsed the first time
+ * it is accessed. Nested objects and arrays are {@link LazyJSONObject} and
+ * {@link LazyJSONArray} views in turn. Methods that would modify the array
+ * throw {@link UnsupportedOperationException}.
+ *
+ * @see LazyJSON
+ */
+public final class LazyJSONArray extends JSONArray {
+
+    private final JSONInput input;
+
+    private final StructuralIndex index;
+
+    private final long start;
+
+    private JSONArray elements;
+
+    /**
+     * Constructs a new LazyJSONArray.
+     *
+     * @param input the reopenable input containing the array
+     * @param index the index of the input, or null
+     * @param start the position of the opening bracket within the input
+     */
+    LazyJSONArray(JSONInput input, StructuralIndex index, long start) {
+        super(0);
+        this.input = input;
+        this.index = index;
+        this.start = start;
+    }
+
+    private JSONArray elements() {
+        if (elements == null) {
+            elements = LazyJSON.parseArray(input, index, start);
+        }
+        return elements;
+    }
+
+    /**
+     * Indicates whether the elements of the array have been parsed yet.
+     *
+     * @return true if the array has been accessed; otherwise false
+     */
+    public boolean isParsed() {
+        return elements != null;
+    }
+
+    @Override
+    public Object opt(int index) {
+        return elements().opt(index);
+    }
+
+    @Override
+    public Object get(int index) throws JSONException {
+        return elements().get(index);
+    }
+
+    @Override
+    public int length() {
+        return elements().length();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return elements().isEmpty();
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        final Iterator<Object> iterator = elements().iterator();
+        return new Iterator<Object>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Object next() {
+                return iterator.next();
+            }
+        };
+    }
+
+    @Override
+    public List<Object> toList() {
+        return elements().toList();
+    }
+
+    @Override
+    public String join(String separator) throws JSONException {
+        return elements().join(separator);
+    }
+
+    @Override
+    public boolean similar(Object other) {
+        return elements().similar(other);
+    }
+
+    @Override
+    public String toString() {
+        return elements().toString();
+    }
+
+    @Override
+    public String toString(int indentFactor) throws JSONException {
+        return elements().toString(indentFactor);
+    }
+
+    @Override
+    public Writer write(Writer writer, int indentFactor, int indent) throws JSONException {
+        return elements().write(writer, indentFactor, indent);
+    }
+
+    @Override
+    public JSONArray put(Object value) {
+        throw new UnsupportedOperationException("LazyJSONArray is read-only");
+    }
+
+    @Override
+    public JSONArray put(int index, Object value) throws JSONException {
+        throw new UnsupportedOperationException("LazyJSONArray is read-only");
+    }
+
+    @Override
+    public JSONArray put(Collection<?> value) {
+        throw new UnsupportedOperationException("LazyJSONArray is read-only");
+    }
+
+    @Override
+    public Object remove(int index) {
+        throw new UnsupportedOperationException("LazyJSONArray is read-only");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("LazyJSONArray is read-only");
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A read-only {@link JSONObject} view of an object that is parsed the first
+ * time it is accessed. Nested objects and arrays are {@link LazyJSONObject}
+ * and {@link LazyJSONArray} views in turn. Methods that would modify the object
+ * throw {@link UnsupportedOperationException}.
+ *
+ * @see LazyJSON
+ */
+public final class LazyJSONObject extends JSONObject {
+
+    private final JSONInput input;
+
+    private final StructuralIndex index;
+
+    private final long start;
+
+    private JSONObject members;
+
+    /**
+     * Constructs a new LazyJSONObject.
+     *
+     * @param input the reopenable input containing the object
+     * @param index the index of the input, or null
+     * @param start the position of the opening brace within the input
+     */
+    LazyJSONObject(JSONInput input, StructuralIndex index, long start) {
+        super(0);
+        this.input = input;
+        this.index = index;
+        this.start = start;
+    }
+
+    private JSONObject members() {
+        if (members == null) {
+            members = LazyJSON.parseObject(input, index, start);
+        }
+        return members;
+    }
+
+    /**
+     * Indicates whether the members of the object have been parsed yet.
+     *
+     * @return true if the object has been accessed; otherwise false
+     */
+    public boolean isParsed() {
+        return members != null;
+    }
+
+    @Override
+    public Object opt(String key) {
+        return members().opt(key);
+    }
+
+    @Override
+    public Object get(String key) throws JSONException {
+        return members().get(key);
+    }
+
+    @Override
+    public boolean has(String key) {
+        return members().has(key);
+    }
+
+    @Override
+    public int length() {
+        return members().length();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return members().isEmpty();
+    }
+
+    @Override
+    public Iterator<String> keys() {
+        return keySet().iterator();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(members().keySet());
+    }
+
+    @Override
+    public JSONArray names() {
+        return members().names();
+    }
+
+    @Override
+    public Map<String, Object> toMap() {
+        return members().toMap();
+    }
+
+    @Override
+    public boolean similar(Object other) {
+        return members().similar(other);
+    }
+
+    @Override
+    public String toString() {
+        return members().toString();
+    }
+
+    @Override
+    public String toString(int indentFactor) throws JSONException {
+        return members().toString(indentFactor);
+    }
+
+    @Override
+    public Writer write(Writer writer, int indentFactor, int indent) throws JSONException {
+        return members().write(writer, indentFactor, indent);
+    }
+
+    @Override
+    public JSONObject put(String key, Object value) throws JSONException {
+        throw new UnsupportedOperationException("LazyJSONObject is read-only");
+    }
+
+    @Override
+    public JSONObject accumulate(String key, Object value) throws JSONException {
+        throw new UnsupportedOperationException("LazyJSONObject is read-only");
+    }
+
+    @Override
+    public JSONObject append(String key, Object value) throws JSONException {
+        throw new UnsupportedOperationException("LazyJSONObject is read-only");
+    }
+
+    @Override
+    public JSONObject increment(String key) throws JSONException {
+        throw new UnsupportedOperationException("LazyJSONObject is read-only");
+    }
+
+    @Override
+    public Object remove(String key) {
+        throw new UnsupportedOperationException("LazyJSONObject is read-only");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("LazyJSONObject is read-only");
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads UTF-8 encoded JSON from a file mapped into memory. A single mapping is
+ * limited to 2 GB so the file is mapped as a sequence of segments, which lets
+ * files of any size be read from the page cache without copying them onto the
+ * heap. A leading byte order mark is skipped.
+ */
+final class MappedFileInput extends JSONInput {
+
+    /**
+     * The size of the segments larger files are mapped in.
+     */
+    static final int SEGMENT_SIZE = 1 << 30;
+
+    private final MappedByteBuffer[] segments;
+
+    private final int segmentSize;
+
+    private final long origin;
+
+    private ByteBuffer segment;
+
+    private int next;
+
+    /**
+     * Constructs a new MappedFileInput. The mappings remain valid after the
+     * channel is closed.
+     * 
+     * @param channel     the file channel
+     * @param segmentSize the maximum size of each mapped segment
+     * @throws IOException if the file cannot be mapped
+     */
+    MappedFileInput(FileChannel channel, int segmentSize) throws IOException {
+        long size = channel.size();
+        int count = (int) ((size + segmentSize - 1) / segmentSize);
+        this.segments = new MappedByteBuffer[count];
+        this.segmentSize = segmentSize;
+        for (int i = 0; i < count; i++) {
+            long position = (long) i * segmentSize;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentSize, size - position));
+        }
+        if (count > 0 && segments[0].limit() >= 3 && (segments[0].get(0) & 0xFF) == 0xEF
+                && (segments[0].get(1) & 0xFF) == 0xBB && (segments[0].get(2) & 0xFF) == 0xBF) {
+            this.origin = 3;
+        } else {
+            this.origin = 0;
+        }
+        seek(origin);
+    }
+
+    private MappedFileInput(MappedFileInput source, long position) {
+        this.segments = source.segments;
+        this.segmentSize = source.segmentSize;
+        this.origin = source.origin;
+        seek(origin + position);
+    }
+
+    @Override
+    public int read() {
+        while (!segment.hasRemaining()) {
+            if (next == segments.length) {
+                return -1;
+            }
+            segment = segments[next++].duplicate();
+        }
+        return segment.get() & 0xFF;
+    }
+
+    @Override
+    public long skip(long n) {
+        long remaining = n;
+        while (remaining > 0) {
+            if (!segment.hasRemaining()) {
+                if (next == segments.length) {
+                    break;
+                }
+                segment = segments[next++].duplicate();
+                continue;
+            }
+            int step = (int) Math.min(remaining, segment.remaining());
+            segment.position(segment.position() + step);
+            remaining -= step;
+        }
+        return n - remaining;
+    }
+
+    @Override
+    public boolean isUtf8() {
+        return true;
+    }
+
+    @Override
+    public boolean isReopenable() {
+        return true;
+    }
+
+    @Override
+    public JSONInput reopen(long position) {
+        return new MappedFileInput(this, position);
+    }
+
+    private void seek(long position) {
+        int index = (int) (position / segmentSize);
+        if (index >= segments.length) {
+            segment = ByteBuffer.allocate(0);
+            next = segments.length;
+            return;
+        }
+        // Each reader works on its own duplicate so the mappings can be shared
+        segment = segments[index].duplicate();
+        segment.position((int) Math.min(position - (long) index * segmentSize, segment.limit()));
+        next = index + 1;
+    }
+}
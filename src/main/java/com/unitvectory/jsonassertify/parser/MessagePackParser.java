@@ -0,0 +1,194 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * <p>
+ * Decodes MessagePack directly into {@link JSONObject}, {@link JSONArray} and
+ * simple value instances, so binary payloads can be compared against JSON text
+ * without being converted to text first.
+ * </p>
+ *
+ * <p>
+ * Values are mapped onto the types {@code org.json} builds for the same JSON
+ * text: integers become an Integer, Long or BigInteger, floats become the
+ * BigDecimal of their shortest decimal text and nil becomes
+ * {@link JSONObject#NULL}. Binary values, which have no JSON equivalent,
+ * become base64url text like CBOR byte strings do. Map keys must be strings or
+ * integers, which become their decimal text. Extension types have no JSON
+ * equivalent and are rejected.
+ * </p>
+ */
+public final class MessagePackParser {
+
+    private final ByteBuffer buffer;
+
+    private final int start;
+
+    private MessagePackParser(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.start = buffer.position();
+    }
+
+    /**
+     * Decodes the MessagePack value in the remaining bytes of the buffer. The
+     * position of the buffer is not changed.
+     *
+     * @param buffer the MessagePack encoded value
+     * @return a JSONObject, JSONArray, String, Boolean, Number or
+     *         {@link JSONObject#NULL}
+     * @throws JSONException if the bytes are not a single well-formed value, or
+     *                       contain a value that has no JSON equivalent
+     */
+    public static Object parse(ByteBuffer buffer) throws JSONException {
+        MessagePackParser parser = new MessagePackParser(buffer.duplicate());
+        try {
+            Object value = parser.value();
+            if (parser.buffer.hasRemaining()) {
+                throw parser.error("Unexpected data after the MessagePack value");
+            }
+            return value;
+        } catch (BufferUnderflowException e) {
+            throw BinaryJSON.endOfInput(parser.buffer, parser.start, e);
+        }
+    }
+
+    /**
+     * Decodes the MessagePack value in the provided bytes.
+     *
+     * @param bytes the MessagePack encoded value
+     * @return a JSONObject, JSONArray, String, Boolean, Number or
+     *         {@link JSONObject#NULL}
+     * @throws JSONException if the bytes are not a single well-formed value, or
+     *                       contain a value that has no JSON equivalent
+     */
+    public static Object parse(byte[] bytes) throws JSONException {
+        return parse(ByteBuffer.wrap(bytes));
+    }
+
+    private Object value() {
+        int b = buffer.get() & 0xFF;
+        if (b <= 0x7F) {
+            return Integer.valueOf(b);
+        } else if (b <= 0x8F) {
+            return map(b & 0x0F);
+        } else if (b <= 0x9F) {
+            return array(b & 0x0F);
+        } else if (b <= 0xBF) {
+            return string(b & 0x1F);
+        } else if (b >= 0xE0) {
+            return Integer.valueOf((byte) b);
+        }
+        switch (b) {
+            case 0xC0:
+                return JSONObject.NULL;
+            case 0xC2:
+                return Boolean.FALSE;
+            case 0xC3:
+                return Boolean.TRUE;
+            case 0xC4:
+                return bytes(buffer.get() & 0xFF);
+            case 0xC5:
+                return bytes(buffer.getShort() & 0xFFFF);
+            case 0xC6:
+                return bytes(buffer.getInt() & 0xFFFFFFFFL);
+            case 0xCA:
+                return BinaryJSON.decimal(buffer.getFloat());
+            case 0xCB:
+                return BinaryJSON.decimal(buffer.getDouble());
+            case 0xCC:
+                return Integer.valueOf(buffer.get() & 0xFF);
+            case 0xCD:
+                return Integer.valueOf(buffer.getShort() & 0xFFFF);
+            case 0xCE:
+                return BinaryJSON.integer(buffer.getInt() & 0xFFFFFFFFL);
+            case 0xCF:
+                return BinaryJSON.unsigned(buffer.getLong());
+            case 0xD0:
+                return Integer.valueOf(buffer.get());
+            case 0xD1:
+                return Integer.valueOf(buffer.getShort());
+            case 0xD2:
+                return Integer.valueOf(buffer.getInt());
+            case 0xD3:
+                return BinaryJSON.integer(buffer.getLong());
+            case 0xD9:
+                return string(buffer.get() & 0xFF);
+            case 0xDA:
+                return string(buffer.getShort() & 0xFFFF);
+            case 0xDB:
+                return string(buffer.getInt() & 0xFFFFFFFFL);
+            case 0xDC:
+                return array(buffer.getShort() & 0xFFFF);
+            case 0xDD:
+                return array(buffer.getInt() & 0xFFFFFFFFL);
+            case 0xDE:
+                return map(buffer.getShort() & 0xFFFF);
+            case 0xDF:
+                return map(buffer.getInt() & 0xFFFFFFFFL);
+            case 0xC7:
+            case 0xC8:
+            case 0xC9:
+            case 0xD4:
+            case 0xD5:
+            case 0xD6:
+            case 0xD7:
+            case 0xD8:
+                throw error("Unsupported MessagePack extension type");
+            default:
+                throw error("Invalid MessagePack type 0x" + Integer.toHexString(b));
+        }
+    }
+
+    private String string(long length) {
+        return BinaryJSON.text(BinaryJSON.read(buffer, length, position()));
+    }
+
+    private String bytes(long length) {
+        return BinaryJSON.bytes(BinaryJSON.read(buffer, length, position()));
+    }
+
+    private JSONArray array(long length) {
+        JSONArray array = new JSONArray();
+        for (long i = 0; i < length; i++) {
+            array.put(value());
+        }
+        return array;
+    }
+
+    private JSONObject map(long length) {
+        JSONObject object = new JSONObject();
+        for (long i = 0; i < length; i++) {
+            int position = position();
+            String key = BinaryJSON.key(value(), position);
+            BinaryJSON.put(object, key, value(), position);
+        }
+        return object;
+    }
+
+    private int position() {
+        return buffer.position() - start;
+    }
+
+    private JSONException error(String message) {
+        return new JSONException(message + " at " + position());
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.math.BigInteger;
+
+import org.json.JSONObject;
+
+/**
+ * <p>
+ * Fast paths for turning literal text into the values {@code org.json} would
+ * create for it.
+ * </p>
+ *
+ * <p>
+ * Integers of up to 18 digits are parsed directly into an {@link Integer} or
+ * {@link Long}, where {@link JSONObject#stringToValue(String)} goes through a
+ * {@link BigInteger} for every one. Decimal numbers can instead be kept as a
+ * {@link JSONNumber} that only parses its text when it is needed. Their
+ * {@code double} value is computed with the Clinger fast path for short
+ * mantissas and small exponents, then with the Eisel-Lemire algorithm, falling
+ * back to {@link Double#parseDouble(String)} in the rare cases neither can
+ * decide the correctly rounded result.
+ * </p>
+ */
+final class NumberParser {
+
+    private static final int MIN_EXP10 = -342;
+
+    private static final int MAX_EXP10 = 308;
+
+    private static final double[] EXACT_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    // The 128 bit mantissas of the powers of five from 5^MIN_EXP10 to
+    // 5^MAX_EXP10, high and low halves interleaved, computed the same way as
+    // the table of the fast_float library: negative powers are rounded up and
+    // positive powers are truncated
+    private static final long[] POWERS_OF_FIVE = powersOfFive();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private NumberParser() {
+    }
+
+    /**
+     * Gets the value of a literal.
+     *
+     * @param text         the literal text
+     * @param lazyDecimals true to keep decimal numbers as a {@link JSONNumber}
+     * @return the same value as {@link JSONObject#stringToValue(String)}, except
+     *         that decimal numbers are a {@link JSONNumber} if requested
+     */
+    static Object toValue(String text, boolean lazyDecimals) {
+        int length = text.length();
+        int start = length > 0 && text.charAt(0) == '-' ? 1 : 0;
+        int digits = length - start;
+        if (digits > 0 && digits <= 18 && (digits == 1 || text.charAt(start) != '0') && start + digits == length
+                && (start == 0 || text.charAt(start) != '0') && isDigits(text, start, length)) {
+            long value = 0;
+            for (int i = start; i < length; i++) {
+                value = value * 10 + (text.charAt(i) - '0');
+            }
+            if (start == 1) {
+                value = -value;
+            }
+            if (value == (int) value) {
+                return Integer.valueOf((int) value);
+            }
+            return Long.valueOf(value);
+        }
+        if (lazyDecimals && isDecimal(text)) {
+            return new JSONNumber(text);
+        }
+        return JSONObject.stringToValue(text);
+    }
+
+    /**
+     * Checks if the text is a JSON number with a fraction or exponent, other than
+     * a negative zero which {@code org.json} turns into a {@link Double}.
+     */
+    private static boolean isDecimal(String text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = i < length && text.charAt(i) == '-';
+        if (negative) {
+            i++;
+        }
+        int intStart = i;
+        while (i < length && isDigit(text.charAt(i))) {
+            i++;
+        }
+        int intLength = i - intStart;
+        if (intLength == 0 || (intLength > 1 && text.charAt(intStart) == '0')) {
+            return false;
+        }
+        boolean nonZero = !isZeros(text, intStart, i);
+        boolean decimal = false;
+        if (i < length && text.charAt(i) == '.') {
+            int fracStart = ++i;
+            while (i < length && isDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == fracStart) {
+                return false;
+            }
+            nonZero |= !isZeros(text, fracStart, i);
+            decimal = true;
+        }
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+                i++;
+            }
+            int expStart = i;
+            while (i < length && isDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == expStart) {
+                return false;
+            }
+            decimal = true;
+        }
+        return decimal && i == length && (!negative || nonZero);
+    }
+
+    /**
+     * Parses a JSON number into the nearest double, the same result as
+     * {@link Double#parseDouble(String)}.
+     *
+     * @param text the JSON number
+     * @return the double
+     */
+    static double parseDouble(String text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = text.charAt(0) == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int exp10 = 0;
+        boolean fraction = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                fraction = true;
+                continue;
+            } else if (!isDigit(c)) {
+                break;
+            }
+            if (mantissa == 0 && c == '0') {
+                // Leading zeros are not significant
+                if (fraction) {
+                    exp10--;
+                }
+                continue;
+            }
+            if (significant == 19) {
+                // Too many digits to be exact in a long
+                return Double.parseDouble(text);
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            significant++;
+            if (fraction) {
+                exp10--;
+            }
+        }
+        if (i < length) {
+            i++;
+            boolean negativeExp = false;
+            if (text.charAt(i) == '+' || text.charAt(i) == '-') {
+                negativeExp = text.charAt(i) == '-';
+                i++;
+            }
+            long exp = 0;
+            for (; i < length; i++) {
+                exp = exp * 10 + (text.charAt(i) - '0');
+                if (exp > 100000) {
+                    return Double.parseDouble(text);
+                }
+            }
+            exp10 += negativeExp ? -exp : exp;
+        }
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        if (mantissa >= 0 && mantissa <= (1L << 53) && exp10 >= -22 && exp10 <= 22) {
+            // Both are exact doubles, so a single rounding gives the right result
+            double d = mantissa;
+            d = exp10 < 0 ? d / EXACT_POWERS_OF_TEN[-exp10] : d * EXACT_POWERS_OF_TEN[exp10];
+            return negative ? -d : d;
+        }
+        long bits = eiselLemire(mantissa, exp10);
+        if (bits < 0) {
+            return Double.parseDouble(text);
+        }
+        double d = Double.longBitsToDouble(bits);
+        return negative ? -d : d;
+    }
+
+    /**
+     * Computes the bits of the double nearest to mantissa * 10^exp10.
+     *
+     * @return the bits of the positive double, or -1 if the result can not be
+     *         decided this way
+     */
+    private static long eiselLemire(long mantissa, int exp10) {
+        if (exp10 < MIN_EXP10 || exp10 > MAX_EXP10) {
+            return -1;
+        }
+        int clz = Long.numberOfLeadingZeros(mantissa);
+        long man = mantissa << clz;
+        long exp2 = ((217706L * exp10) >> 16) + 64 + 1023 - clz;
+
+        int index = 2 * (exp10 - MIN_EXP10);
+        long powerHi = POWERS_OF_FIVE[index];
+        long powerLo = POWERS_OF_FIVE[index + 1];
+        long xHi = multiplyHigh(man, powerHi);
+        long xLo = man * powerHi;
+        if ((xHi & 0x1FF) == 0x1FF && Long.compareUnsigned(xLo + man, man) < 0) {
+            // The truncated product may be off by one, look at more bits
+            long yHi = multiplyHigh(man, powerLo);
+            long yLo = man * powerLo;
+            long mergedHi = xHi;
+            long mergedLo = xLo + yHi;
+            if (Long.compareUnsigned(mergedLo, xLo) < 0) {
+                mergedHi++;
+            }
+            if ((mergedHi & 0x1FF) == 0x1FF && mergedLo + 1 == 0 && Long.compareUnsigned(yLo + man, man) < 0) {
+                return -1;
+            }
+            xHi = mergedHi;
+            xLo = mergedLo;
+        }
+
+        long msb = xHi >>> 63;
+        long bits = xHi >>> (msb + 9);
+        exp2 -= 1 ^ msb;
+        if (xLo == 0 && (xHi & 0x1FF) == 0 && (bits & 3) == 1) {
+            // Exactly half way between two doubles
+            return -1;
+        }
+        bits += bits & 1;
+        bits >>>= 1;
+        if ((bits >>> 53) > 0) {
+            bits >>>= 1;
+            exp2++;
+        }
+        if (exp2 <= 0 || exp2 >= 0x7FF) {
+            // Subnormal or out of range
+            return -1;
+        }
+        return (exp2 << 52) | (bits & 0x000FFFFFFFFFFFFFL);
+    }
+
+    private static long multiplyHigh(long x, long y) {
+        long x0 = x & 0xFFFFFFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+        long p11 = x1 * y1;
+        long p01 = x0 * y1;
+        long p10 = x1 * y0;
+        long p00 = x0 * y0;
+        long middle = p10 + (p00 >>> 32) + (p01 & 0xFFFFFFFFL);
+        return p11 + (middle >>> 32) + (p01 >>> 32);
+    }
+
+    private static long[] powersOfFive() {
+        long[] table = new long[2 * (MAX_EXP10 - MIN_EXP10 + 1)];
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int q = MIN_EXP10; q <= MAX_EXP10; q++) {
+            BigInteger c;
+            if (q < 0) {
+                BigInteger power = BigInteger.valueOf(5).pow(-q);
+                int z = power.bitLength();
+                if (q >= -27) {
+                    c = BigInteger.ONE.shiftLeft(z + 127).divide(power).add(BigInteger.ONE);
+                } else {
+                    c = BigInteger.ONE.shiftLeft(2 * z + 128).divide(power).add(BigInteger.ONE);
+                    c = c.shiftRight(Math.max(0, c.bitLength() - 128));
+                }
+            } else {
+                c = BigInteger.valueOf(5).pow(q);
+                c = c.bitLength() > 128 ? c.shiftRight(c.bitLength() - 128) : c.shiftLeft(128 - c.bitLength());
+            }
+            int index = 2 * (q - MIN_EXP10);
+            table[index] = c.shiftRight(64).longValue();
+            table[index + 1] = c.and(mask).longValue();
+        }
+        return table;
+    }
+
+    private static boolean isDigits(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZeros(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+/**
+ * <p>
+ * Parses a large array on several threads.
+ * </p>
+ *
+ * <p>
+ * The calling thread finds the commas between the elements of the array and
+ * cuts it into chunks of about one megabyte. With a {@link StructuralIndex}
+ * the commas are taken from the index, stepping over nested values without
+ * reading them; otherwise the array is scanned, which only requires tracking
+ * strings and brackets. Each chunk is parsed into {@link JSONArray} elements
+ * by a task on a {@link ForkJoinPool} as soon as its end is found, and the
+ * chunks are then joined in order into one array.
+ * </p>
+ *
+ * <p>
+ * The result is the same as the result of {@link JSONTreeBuilder}. Malformed
+ * input can make the scan cut the array in the wrong places, so if any chunk
+ * fails the array is parsed again on the calling thread to report the same
+ * error a sequential parse would.
+ * </p>
+ */
+public final class ParallelArrayParser {
+
+    private static final long CHUNK_SIZE = 1 << 20;
+
+    private final ForkJoinPool pool;
+
+    private final long chunkSize;
+
+    private final JSONTreeBuilder builder;
+
+    /**
+     * Constructs a new ParallelArrayParser.
+     *
+     * @param pool      the pool that parses the chunks
+     * @param chunkSize the minimum number of code units in a chunk
+     * @param builder   builds the elements, shared by all chunks
+     */
+    ParallelArrayParser(ForkJoinPool pool, long chunkSize, JSONTreeBuilder builder) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.builder = builder;
+    }
+
+    /**
+     * Parses the array that starts at a position of the input, using the common
+     * {@link ForkJoinPool}.
+     *
+     * @param input      the JSON input, which must be reopenable
+     * @param index      the index of the input, or null
+     * @param start      the position of the opening bracket of the array
+     * @param projection the parts of the array to build
+     * @return the array
+     * @throws JSONException                 JSON parsing error
+     * @throws UnsupportedOperationException if the input is not reopenable
+     * @see JSONInput#isReopenable()
+     */
+    public static JSONArray parse(JSONInput input, StructuralIndex index, long start, JSONProjection projection)
+            throws JSONException {
+        return parse(input, index, start, projection, new JSONTreeBuilder());
+    }
+
+    /**
+     * Parses the array that starts at a position of the input with the provided
+     * builder, using the common {@link ForkJoinPool}.
+     *
+     * @param input      the JSON input, which must be reopenable
+     * @param index      the index of the input, or null
+     * @param start      the position of the opening bracket of the array
+     * @param projection the parts of the array to build
+     * @param builder    builds the elements, from several threads at once
+     * @return the array
+     * @throws JSONException                 JSON parsing error
+     * @throws UnsupportedOperationException if the input is not reopenable
+     * @see JSONInput#isReopenable()
+     */
+    public static JSONArray parse(JSONInput input, StructuralIndex index, long start, JSONProjection projection,
+            JSONTreeBuilder builder) throws JSONException {
+        return new ParallelArrayParser(ForkJoinPool.commonPool(), CHUNK_SIZE, builder).parseArray(input, index,
+                start, projection);
+    }
+
+    JSONArray parseArray(JSONInput input, StructuralIndex index, long start, JSONProjection projection) {
+        if (!input.isReopenable()) {
+            throw new UnsupportedOperationException(input.getClass().getSimpleName() + " can only be read once");
+        }
+        JSONProjection elements = projection.elements();
+        if (elements != null) {
+            try {
+                return parseChunks(input, index, start, elements);
+            } catch (JSONException e) {
+                // Fall through to the sequential parse for the error
+            }
+        }
+        JSONTokenizer tokenizer = new JSONTokenizer(input.reopen(start), start, index);
+        tokenizer.next();
+        return (JSONArray) builder.build(tokenizer, projection);
+    }
+
+    private JSONArray parseChunks(JSONInput input, StructuralIndex index, long start, JSONProjection elements) {
+        Chunks chunks = new Chunks(input, index, start + 1, elements);
+        try {
+            long end = index == null ? scan(input, start, chunks) : scan(index, start, chunks);
+            return chunks.join(end);
+        } finally {
+            chunks.cancel();
+        }
+    }
+
+    /**
+     * Finds the commas between the elements by reading the array.
+     *
+     * @return the position just after the closing bracket
+     */
+    private static long scan(JSONInput input, long start, Chunks chunks) {
+        JSONInput scan = input.reopen(start + 1);
+        long position = start + 1;
+        int depth = 1;
+        int quote = 0;
+        boolean valueStart = true;
+        for (;;) {
+            int c = scan.read();
+            position++;
+            if (c == -1) {
+                throw new JSONException("Expected a ',' or ']' at " + position);
+            } else if (quote != 0) {
+                if (c == '\\') {
+                    scan.read();
+                    position++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"':
+                case '\'':
+                    // An apostrophe inside of unquoted text does not start a string
+                    if (valueStart) {
+                        quote = c;
+                    }
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    depth--;
+                    break;
+                case ',':
+                    if (depth == 1) {
+                        chunks.comma(position - 1);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (depth == 0) {
+                return position;
+            }
+            if (c > ' ') {
+                valueStart = c == '[' || c == '{' || c == ',' || c == ':' || c == ';';
+            }
+        }
+    }
+
+    /**
+     * Finds the commas between the elements in the index, stepping over each
+     * nested value and string from its opening to its closing character.
+     *
+     * @return the position just after the closing bracket
+     */
+    private static long scan(StructuralIndex index, long start, Chunks chunks) {
+        int open = index.find(start);
+        int close = open < 0 ? -1 : index.match(open);
+        if (close < open) {
+            throw new JSONException("Expected a ',' or ']' after " + start);
+        }
+        for (int i = open + 1; i < close; i++) {
+            char c = index.character(i);
+            if (c == ',') {
+                chunks.comma(index.position(i));
+            } else if (c != ':' && c != ';') {
+                int match = index.match(i);
+                if (match < i) {
+                    throw new JSONException("Unbalanced '" + c + "' at " + index.position(i));
+                }
+                i = match;
+            }
+        }
+        return index.position(close) + 1L;
+    }
+
+    /**
+     * Parses the elements of one chunk.
+     *
+     * @param input    the JSON input
+     * @param index    the index of the input, or null
+     * @param from     the position just after the bracket or comma before the
+     *                 first element
+     * @param count    the number of elements, or -1 for the last chunk
+     * @param end      the position of the comma after the last element, or just
+     *                 after the closing bracket for the last chunk
+     * @param elements the projection of the elements
+     * @return the elements
+     */
+    private JSONArray parseChunk(JSONInput input, StructuralIndex index, long from, int count, long end,
+            JSONProjection elements) {
+        JSONTokenizer tokenizer = new JSONTokenizer(input.reopen(from), from, index);
+        tokenizer.resumeArray();
+        JSONArray array = new JSONArray();
+        if (count < 0) {
+            while (tokenizer.next() != JSONToken.END_ARRAY) {
+                array.put(builder.build(tokenizer, elements));
+            }
+            if (tokenizer.position() != end) {
+                throw tokenizer.syntaxError("Misplaced ']'");
+            }
+            return array;
+        }
+        for (int i = 0; i < count; i++) {
+            if (tokenizer.next() == JSONToken.END_ARRAY) {
+                throw tokenizer.syntaxError("Misplaced ']'");
+            }
+            array.put(builder.build(tokenizer, elements));
+        }
+        // Only whitespace may be left before the comma
+        JSONInput rest = input.reopen(tokenizer.position());
+        for (long p = tokenizer.position(); p < end; p++) {
+            if (rest.read() > ' ') {
+                throw tokenizer.syntaxError("Expected a ',' or ']'");
+            }
+        }
+        return array;
+    }
+
+    /**
+     * The chunks of an array, each of which is parsed as soon as the comma at
+     * its end is found.
+     */
+    private final class Chunks {
+
+        private final List<ForkJoinTask<JSONArray>> tasks = new ArrayList<ForkJoinTask<JSONArray>>();
+
+        private final JSONInput input;
+
+        private final StructuralIndex index;
+
+        private final JSONProjection elements;
+
+        private long chunkStart;
+
+        private int count = 1;
+
+        Chunks(JSONInput input, StructuralIndex index, long from, JSONProjection elements) {
+            this.input = input;
+            this.index = index;
+            this.chunkStart = from;
+            this.elements = elements;
+        }
+
+        /**
+         * Ends the current chunk at a comma between elements if it is large
+         * enough.
+         *
+         * @param position the position of the comma
+         */
+        void comma(long position) {
+            if (position + 1 - chunkStart > chunkSize) {
+                final long from = chunkStart;
+                final int n = count;
+                tasks.add(pool.submit(() -> parseChunk(input, index, from, n, position, elements)));
+                chunkStart = position + 1;
+                count = 1;
+            } else {
+                count++;
+            }
+        }
+
+        /**
+         * Parses the last chunk and joins all of the chunks in order.
+         *
+         * @param end the position just after the closing bracket
+         * @return the array
+         */
+        JSONArray join(long end) {
+            JSONArray last = parseChunk(input, index, chunkStart, -1, end, elements);
+            JSONArray array = new JSONArray();
+            for (ForkJoinTask<JSONArray> task : tasks) {
+                array.putAll(task.join());
+            }
+            return array.putAll(last);
+        }
+
+        void cancel() {
+            for (ForkJoinTask<JSONArray> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+}
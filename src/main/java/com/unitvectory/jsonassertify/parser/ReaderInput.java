@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads JSON from a {@link Reader} through a buffer. The reader is not closed.
+ */
+final class ReaderInput extends JSONInput {
+
+    private final Reader reader;
+
+    private final char[] buffer = new char[8192];
+
+    private int index;
+
+    private int limit;
+
+    /**
+     * Constructs a new ReaderInput.
+     * 
+     * @param reader the reader
+     */
+    ReaderInput(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public int read() {
+        if (index == limit && !fill()) {
+            return -1;
+        }
+        return buffer[index++];
+    }
+
+    private boolean fill() {
+        try {
+            int n;
+            do {
+                n = reader.read(buffer, 0, buffer.length);
+            } while (n == 0);
+            index = 0;
+            limit = Math.max(n, 0);
+            return n > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
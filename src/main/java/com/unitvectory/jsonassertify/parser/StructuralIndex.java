@@ -0,0 +1,311 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * An index of the structural characters of UTF-8 encoded JSON: the quotes that
+ * start and end strings, and the brackets, braces, colons and commas outside
+ * of strings. Each opening bracket or quote is linked to the matching closing
+ * one, so the end of any object, array or string can be found without reading
+ * its contents.
+ * </p>
+ *
+ * <p>
+ * The index is built in a single pass that reads the input eight bytes at a
+ * time and finds the interesting bytes of each 64-bit word with SWAR (SIMD
+ * within a register) arithmetic. Only the bytes that are found are looked at
+ * individually, so long strings and numbers are passed over a word at a time.
+ * </p>
+ *
+ * <p>
+ * Positions are byte offsets from the start of the input, after a byte order
+ * mark if there is one, the same as the positions of a {@link JSONTokenizer}
+ * reading {@link JSONInput#of(ByteBuffer)}. Brackets that do not match have no
+ * matching position; the index does not validate anything else.
+ * </p>
+ */
+public final class StructuralIndex {
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOWS = 0x7F7F7F7F7F7F7F7FL;
+
+    private static final long DOUBLE_QUOTES = '"' * ONES;
+    private static final long SINGLE_QUOTES = '\'' * ONES;
+    private static final long OPEN_BRACES = '{' * ONES;
+    private static final long CLOSE_BRACES = '}' * ONES;
+    private static final long OPEN_BRACKETS = '[' * ONES;
+    private static final long CLOSE_BRACKETS = ']' * ONES;
+    private static final long COLONS = ':' * ONES;
+    private static final long COMMAS = ',' * ONES;
+    private static final long SEMICOLONS = ';' * ONES;
+
+    private final int[] positions;
+
+    private final byte[] characters;
+
+    private final int[] matches;
+
+    private StructuralIndex(int[] positions, byte[] characters, int[] matches) {
+        this.positions = positions;
+        this.characters = characters;
+        this.matches = matches;
+    }
+
+    /**
+     * Builds the index of the provided UTF-8 encoded bytes.
+     *
+     * @param bytes the UTF-8 encoded JSON
+     * @return the index
+     */
+    public static StructuralIndex of(byte[] bytes) {
+        return of(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Builds the index of the remaining UTF-8 encoded bytes of the provided
+     * buffer. The position of the buffer is not changed.
+     *
+     * @param buffer the UTF-8 encoded JSON
+     * @return the index
+     */
+    public static StructuralIndex of(ByteBuffer buffer) {
+        return new Builder(buffer).build();
+    }
+
+    /**
+     * Gets the number of structural characters in the index.
+     *
+     * @return the number of structural characters
+     */
+    public int size() {
+        return positions.length;
+    }
+
+    /**
+     * Gets the position of a structural character.
+     *
+     * @param i the number of the structural character
+     * @return the position of the character in the input
+     */
+    public int position(int i) {
+        return positions[i];
+    }
+
+    /**
+     * Gets a structural character.
+     *
+     * @param i the number of the structural character
+     * @return the character
+     */
+    public char character(int i) {
+        return (char) characters[i];
+    }
+
+    /**
+     * Gets the structural character that matches an opening or closing bracket,
+     * brace or quote.
+     *
+     * @param i the number of the structural character
+     * @return the number of the matching character, or -1 if there is none
+     */
+    public int match(int i) {
+        return matches[i];
+    }
+
+    /**
+     * Finds the structural character at a position.
+     *
+     * @param position the position in the input
+     * @return the number of the structural character, or -1 if the character at
+     *         the position is not structural
+     */
+    public int find(long position) {
+        if (position < 0 || position > Integer.MAX_VALUE) {
+            return -1;
+        }
+        int i = Arrays.binarySearch(positions, (int) position);
+        return i < 0 ? -1 : i;
+    }
+
+    /**
+     * Gets the position just past the end of the object, array or string that
+     * starts at a position.
+     *
+     * @param position the position of an opening bracket, brace or quote
+     * @return the position after the matching closing character, or -1 if the
+     *         value does not start at the position or is not closed
+     */
+    public long skip(long position) {
+        int i = find(position);
+        if (i < 0 || matches[i] < i) {
+            return -1;
+        }
+        return positions[matches[i]] + 1L;
+    }
+
+    private static final class Builder {
+
+        private final ByteBuffer buffer;
+
+        private final int start;
+
+        private final int limit;
+
+        private int[] positions = new int[256];
+        private byte[] characters = new byte[256];
+        private int[] matches = new int[256];
+        private int size;
+
+        private int[] open = new int[32];
+        private int depth;
+
+        private boolean inString;
+
+        private byte quote;
+
+        Builder(ByteBuffer buffer) {
+            this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            int index = buffer.position();
+            this.limit = buffer.limit();
+            if (limit - index >= 3 && buffer.get(index) == (byte) 0xEF && buffer.get(index + 1) == (byte) 0xBB
+                    && buffer.get(index + 2) == (byte) 0xBF) {
+                index += 3;
+            }
+            this.start = index;
+        }
+
+        StructuralIndex build() {
+            int i = start;
+            for (; i + 8 <= limit; i += 8) {
+                long word = buffer.getLong(i);
+                long quotes = equalBytes(word, DOUBLE_QUOTES) | equalBytes(word, SINGLE_QUOTES);
+                if (inString && quotes == 0) {
+                    // The common case inside of long strings
+                    continue;
+                }
+                long found = quotes | equalBytes(word, OPEN_BRACES) | equalBytes(word, CLOSE_BRACES)
+                        | equalBytes(word, OPEN_BRACKETS) | equalBytes(word, CLOSE_BRACKETS) | equalBytes(word, COLONS)
+                        | equalBytes(word, COMMAS) | equalBytes(word, SEMICOLONS);
+                while (found != 0) {
+                    int p = i + (Long.numberOfTrailingZeros(found) >>> 3);
+                    found &= found - 1;
+                    visit(p, buffer.get(p));
+                }
+            }
+            for (; i < limit; i++) {
+                visit(i, buffer.get(i));
+            }
+            return new StructuralIndex(Arrays.copyOf(positions, size), Arrays.copyOf(characters, size),
+                    Arrays.copyOf(matches, size));
+        }
+
+        /**
+         * Sets the high bit of every byte of the word that equals the byte repeated
+         * in the pattern, without carries between the bytes.
+         */
+        private static long equalBytes(long word, long pattern) {
+            long x = word ^ pattern;
+            return ~(((x & LOWS) + LOWS) | x | LOWS);
+        }
+
+        private void visit(int p, byte c) {
+            if (inString) {
+                if (c == quote && !isEscaped(p)) {
+                    inString = false;
+                    int close = add(p, c);
+                    matches[close] = close - 1;
+                    matches[close - 1] = close;
+                }
+                return;
+            }
+            switch (c) {
+                case '"':
+                    startString(p, c);
+                    break;
+                case '\'':
+                    // An apostrophe within unquoted text does not start a string
+                    if (isValueStart(p)) {
+                        startString(p, c);
+                    }
+                    break;
+                case '{':
+                case '[':
+                    if (depth == open.length) {
+                        open = Arrays.copyOf(open, depth * 2);
+                    }
+                    open[depth++] = add(p, c);
+                    break;
+                case '}':
+                case ']':
+                    int close = add(p, c);
+                    if (depth > 0 && characters[open[depth - 1]] == (c == '}' ? '{' : '[')) {
+                        int o = open[--depth];
+                        matches[o] = close;
+                        matches[close] = o;
+                    }
+                    break;
+                case ':':
+                case ',':
+                case ';':
+                    add(p, c);
+                    break;
+                default:
+                    // The bytes after the last whole word are all visited
+                    break;
+            }
+        }
+
+        private void startString(int p, byte c) {
+            inString = true;
+            quote = c;
+            add(p, c);
+        }
+
+        private boolean isEscaped(int p) {
+            int backslashes = 0;
+            for (int i = p - 1; i >= start && buffer.get(i) == '\\'; i--) {
+                backslashes++;
+            }
+            return (backslashes & 1) == 1;
+        }
+
+        private boolean isValueStart(int p) {
+            for (int i = p - 1; i >= start; i--) {
+                int b = buffer.get(i) & 0xFF;
+                if (b > ' ') {
+                    return b == '{' || b == '[' || b == ':' || b == ',' || b == ';';
+                }
+            }
+            return true;
+        }
+
+        private int add(int p, byte c) {
+            if (size == positions.length) {
+                int capacity = size * 2;
+                positions = Arrays.copyOf(positions, capacity);
+                characters = Arrays.copyOf(characters, capacity);
+                matches = Arrays.copyOf(matches, capacity);
+            }
+            positions[size] = p - start;
+            characters[size] = c;
+            matches[size] = -1;
+            return size++;
+        }
+    }
+}
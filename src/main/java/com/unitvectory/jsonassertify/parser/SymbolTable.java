@@ -0,0 +1,119 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+/**
+ * <p>
+ * Canonicalizes the keys, and optionally the short string values, read by a
+ * {@link JSONTokenizer} so that every occurrence of the same text shares one
+ * {@link String} instance.
+ * </p>
+ *
+ * <p>
+ * Large arrays of records repeat the same few keys, so instead of every
+ * {@link org.json.JSONObject} holding its own copies the tokenizer looks the
+ * text up directly in its buffer and only creates a {@link String} the first
+ * time it is seen. The table stops growing once it is full, so documents with
+ * many distinct keys still parse correctly but without sharing them.
+ * </p>
+ *
+ * <p>
+ * A table belongs to a single tokenizer and is not thread safe.
+ * </p>
+ */
+final class SymbolTable {
+
+    // String values longer than this are rarely repeated
+    static final int MAX_VALUE_LENGTH = 32;
+
+    private static final int MAX_SIZE = 1 << 14;
+
+    private String[] symbols = new String[64];
+
+    private int size;
+
+    SymbolTable() {
+    }
+
+    /**
+     * Gets the shared instance of the provided text.
+     *
+     * @param chars the text
+     * @return a {@link String} equal to the text, which is the same instance for
+     *         all equal text while the table has room
+     */
+    String get(CharSequence chars) {
+        int length = chars.length();
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars.charAt(i);
+        }
+        int mask = symbols.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String symbol;
+        while ((symbol = symbols[slot]) != null) {
+            // String caches its hash, so most mismatches are rejected right away
+            if (symbol.hashCode() == hash && matches(symbol, chars, length)) {
+                return symbol;
+            }
+            slot = (slot + 1) & mask;
+        }
+        symbol = chars.toString();
+        if (size < MAX_SIZE) {
+            symbols[slot] = symbol;
+            if (++size * 2 > symbols.length) {
+                grow();
+            }
+        }
+        return symbol;
+    }
+
+    /**
+     * Gets the number of strings in the table.
+     *
+     * @return the number of shared strings
+     */
+    int size() {
+        return size;
+    }
+
+    private static boolean matches(String symbol, CharSequence chars, int length) {
+        if (symbol.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (symbol.charAt(i) != chars.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void grow() {
+        String[] old = symbols;
+        String[] table = new String[old.length * 2];
+        int mask = table.length - 1;
+        for (String symbol : old) {
+            if (symbol != null) {
+                int hash = symbol.hashCode();
+                int slot = (hash ^ (hash >>> 16)) & mask;
+                while (table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = symbol;
+            }
+        }
+        symbols = table;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify;
+
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+import org.json.JSONException;
+
+import com.unitvectory.jsonassertify.comparator.IncrementalComparator;
+
+/**
+ * <p>
+ * A {@code java.net.http} {@link BodySubscriber} that compares a response body
+ * to the expected JSON while the body arrives, and completes with the result of
+ * the comparison, for example:
+ * </p>
+ *
+ * <pre>
+ * JSONCompareResult result = client.send(request, JSONBodySubscriber.ofComparison(expected, mode)).body();
+ * </pre>
+ *
+ * <p>
+ * The body is decoded as UTF-8 and each chunk is fed to an
+ * {@link IncrementalComparator}, so the body is never collected into a
+ * {@link String}. A body that is not valid JSON completes the body exceptionally
+ * with a {@link JSONException}, and any other exception of the comparison
+ * completes it exceptionally as well. This class is only available on Java 11
+ * and later.
+ * </p>
+ */
+public final class JSONBodySubscriber implements BodySubscriber<JSONCompareResult> {
+
+    private final IncrementalComparator comparator;
+
+    private final CompletableFuture<JSONCompareResult> result = new CompletableFuture<JSONCompareResult>();
+
+    private Flow.Subscription subscription;
+
+    /**
+     * Constructs a new JSONBodySubscriber.
+     *
+     * @param expectedStr Expected JSON string
+     * @param mode        Defines comparison behavior
+     * @throws JSONException JSON parsing error of the expected JSON
+     */
+    public JSONBodySubscriber(String expectedStr, JSONCompareMode mode) throws JSONException {
+        this.comparator = new IncrementalComparator(JSONCompare.parseExpected(expectedStr, JSONParseOptions.DEFAULT),
+                mode);
+    }
+
+    /**
+     * Gets a {@link BodyHandler} that compares every response body to the
+     * expected JSON.
+     *
+     * @param expectedStr Expected JSON string
+     * @param mode        Defines comparison behavior
+     * @return the body handler
+     */
+    public static BodyHandler<JSONCompareResult> ofComparison(String expectedStr, JSONCompareMode mode) {
+        return responseInfo -> new JSONBodySubscriber(expectedStr, mode);
+    }
+
+    @Override
+    public CompletionStage<JSONCompareResult> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            for (ByteBuffer buffer : item) {
+                comparator.feed(buffer);
+            }
+        } catch (RuntimeException e) {
+            // Including JSONException, the body must complete either way
+            subscription.cancel();
+            result.completeExceptionally(e);
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            result.complete(comparator.finish());
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
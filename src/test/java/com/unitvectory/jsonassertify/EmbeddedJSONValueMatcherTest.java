@@ -0,0 +1,61 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+import com.unitvectory.jsonassertify.comparator.CustomComparator;
+import com.unitvectory.jsonassertify.comparator.DefaultComparator;
+
+/**
+ * Unit tests for EmbeddedJSONValueMatcher
+ */
+public class EmbeddedJSONValueMatcherTest {
+
+	private static final String EVENTS = "{events:[{id:1,payload:\"{\\\"a\\\":1,\\\"b\\\":[1,2]}\"},"
+			+ "{id:2,payload:\"{\\\"b\\\":[2,1],\\\"a\\\":1}\"}]}";
+
+	private JSONCompareResult compare(String expectedJSON, String actualJSON) throws JSONException {
+		Customization customization = new Customization("**.payload",
+				new EmbeddedJSONValueMatcher<Object>(new DefaultComparator(JSONCompareMode.LENIENT)));
+		return JSONCompare.compareJSON(expectedJSON, actualJSON,
+				new CustomComparator(JSONCompareMode.STRICT_ORDER, customization));
+	}
+
+	@Test
+	public void matchesEmbeddedJSONStructurally() throws JSONException {
+		assertTrue(compare("{events:[{payload:\"{\\\"b\\\":[1,2],\\\"a\\\":1}\"},{payload:\"{a:1}\"}]}", EVENTS)
+				.passed());
+		assertTrue(compare("{payload:plain}", "{payload:plain}").passed());
+		assertTrue(compare("{payload:\"{a:1}\"}", "{payload:{a:1}}").passed());
+	}
+
+	@Test
+	public void reportsNestedPaths() throws JSONException {
+		JSONCompareResult result = compare("{events:[{id:1},{payload:\"{\\\"a\\\":2}\"}]}", EVENTS);
+		assertTrue(result.failed());
+		assertEquals(1, result.getFieldFailures().size());
+		assertEquals("events[1].payload.a", result.getFieldFailures().get(0).getField());
+	}
+
+	@Test
+	public void failsOnInvalidEmbeddedJSON() throws JSONException {
+		JSONCompareResult result = compare("{payload:\"{a:1}\"}", "{payload:\"{a:\"}");
+		assertTrue(result.failed());
+		assertTrue(result.getMessage().contains("Actual value is not valid embedded JSON"), result.getMessage());
+	}
+}
@@ -22,6 +22,8 @@ import static com.unitvectory.jsonassertify.JSONCompareMode.NON_EXTENSIBLE;
 import static com.unitvectory.jsonassertify.JSONCompareMode.STRICT;
 import static com.unitvectory.jsonassertify.JSONCompareMode.STRICT_ORDER;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import org.json.JSONArray;
@@ -1071,4 +1073,23 @@ public class JSONAssertTest {
         String json = "{id:1}";
         JSONAssert.assertEquals(json, json, LENIENT);
     }
+
+    @Test
+    public void testAssertEqualsUtf8Bytes() throws JSONException {
+        byte[] expected = "{\"id\": 1, \"name\": \"\u00e9\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] actual = "{\"name\": \"\u00e9\", \"id\": 1}".getBytes(StandardCharsets.UTF_8);
+        JSONAssert.assertEquals(expected, actual, true);
+        JSONAssert.assertEquals(ByteBuffer.wrap(expected), ByteBuffer.wrap(actual), STRICT);
+        JSONAssert.assertNotEquals(expected, "{\"id\": 2}".getBytes(StandardCharsets.UTF_8), LENIENT);
+        AssertionError error = assertThrows(AssertionError.class, () -> JSONAssert.assertEquals("Message",
+                expected, "{\"id\": 1}".getBytes(StandardCharsets.UTF_8), STRICT));
+        assertEquals("Message \nExpected: name\n     but none found\n", error.getMessage());
+    }
+
+    @Test
+    public void testAssertEqualsNullBytes() throws JSONException {
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> JSONAssert.assertEquals((byte[]) null, "{}".getBytes(StandardCharsets.UTF_8), LENIENT));
+        assertEquals("Expected JSON is null.", error.getMessage());
+    }
 }
@@ -124,4 +124,59 @@ public class JSONCompareResultTest {
         assertFalse(failedResult.passed());
         assertTrue(failedResult.failed());
     }
+
+    @Test
+    public void testMergeKeepsOrderOfFailures() throws JSONException {
+        JSONCompareResult first = new JSONCompareResult().fail("a", 1, 2);
+        JSONCompareResult second = new JSONCompareResult().missing("b", "c");
+        JSONCompareResult merged = new JSONCompareResult().merge(first).merge(new JSONCompareResult()).merge(second);
+
+        JSONCompareResult direct = new JSONCompareResult().fail("a", 1, 2).missing("b", "c");
+        assertTrue(merged.failed());
+        assertEquals(direct.getMessage(), merged.getMessage());
+        assertEquals(1, merged.getFieldFailures().size());
+        assertEquals(1, merged.getFieldMissing().size());
+    }
+
+    @Test
+    public void testMergePassed() {
+        JSONCompareResult merged = new JSONCompareResult().merge(new JSONCompareResult());
+        assertTrue(merged.passed());
+        assertEquals("", merged.getMessage());
+    }
+
+    @Test
+    public void testMaxFailures() {
+        JSONCompareResult result = new JSONCompareResult(2).fail("a", 1, 2).missing("b", "c");
+        result.unexpected("d", "e").fail("f");
+        assertTrue(result.failed());
+        assertEquals(4, result.getFailureCount());
+        assertEquals(1, result.getFieldFailures().size());
+        assertEquals(1, result.getFieldMissing().size());
+        assertFalse(result.isUnexpectedOnField());
+        assertEquals(new JSONCompareResult().fail("a", 1, 2).missing("b", "c").getMessage() + " ; and 2 more failures",
+                result.getMessage());
+
+        JSONCompareResult merged = new JSONCompareResult(3).fail("x", 1, 2).merge(result);
+        assertEquals(5, merged.getFailureCount());
+        assertEquals(2, merged.getFieldFailures().size());
+        assertTrue(merged.getMessage().endsWith(" ; and 2 more failures"), merged.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new JSONCompareResult(0));
+    }
+
+    @Test
+    public void testMergeKeepsMaxFailures() {
+        JSONCompareResult other = new JSONCompareResult();
+        for (int i = 0; i < 2; i++) {
+            other.fail("f" + i, 1, 2).missing("m" + i, 1).unexpected("u" + i, 2);
+        }
+        JSONCompareResult merged = new JSONCompareResult(2).fail("a", 1, 2).merge(other);
+        assertEquals(7, merged.getFailureCount());
+        assertEquals(2, merged.getFieldFailures().size());
+        assertFalse(merged.isMissingOnField());
+        assertFalse(merged.isUnexpectedOnField());
+        assertEquals(new JSONCompareResult().fail("a", 1, 2).fail("f0", 1, 2).getMessage() + " ; and 5 more failures",
+                merged.getMessage());
+        assertEquals("f0", merged.getField());
+    }
 }
@@ -17,16 +17,34 @@ import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static com.unitvectory.jsonassertify.JSONCompare.compareJSON;
 import static com.unitvectory.jsonassertify.JSONCompareMode.LENIENT;
 import static com.unitvectory.jsonassertify.JSONCompareMode.NON_EXTENSIBLE;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeMatcher;
 import org.json.JSONException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.unitvectory.jsonassertify.comparator.DefaultComparator;
 
 /**
  * Unit tests for {@code JSONCompare}.
@@ -191,4 +209,251 @@ public class JSONCompareTest {
             "{arr:[[3,4],[1,2]]}",
             LENIENT).passed());
     }
+
+    @Test
+    public void succeedsWithUtf8Bytes() throws JSONException {
+        byte[] expected = "{\"name\": \"Jos\u00e9\", \"tags\": [\"\u4e2d\", 2]}".getBytes(StandardCharsets.UTF_8);
+        byte[] actual = "{tags: [2, \"\u4e2d\"], \"name\": \"Jos\u00e9\"}".getBytes(StandardCharsets.UTF_8);
+        assertTrue(compareJSON(expected, actual, LENIENT).passed());
+    }
+
+    @Test
+    public void reportsMismatchedFieldValuesInUtf8Bytes() throws JSONException {
+        JSONCompareResult result = compareJSON("{\"id\": 3}".getBytes(StandardCharsets.UTF_8),
+                "{\"id\": 5}".getBytes(StandardCharsets.UTF_8), LENIENT);
+        assertThat(result, failsWithMessage(equalTo("id\nExpected: 3\n     got: 5\n")));
+    }
+
+    @Test
+    public void comparesRemainingBytesOfByteBuffers() throws JSONException {
+        ByteBuffer expected = ByteBuffer.wrap("..[1,2]".getBytes(StandardCharsets.UTF_8));
+        expected.position(2);
+        ByteBuffer actual = ByteBuffer.wrap("[1,2]".getBytes(StandardCharsets.UTF_8));
+        assertTrue(compareJSON(expected, actual, NON_EXTENSIBLE).passed());
+        assertEquals(2, expected.position());
+        assertTrue(compareJSON(expected, actual, new DefaultComparator(LENIENT),
+                JSONParseOptions.DEFAULT.withCompactDocument(true)).passed());
+    }
+
+    @Test
+    public void comparesSimpleValuesInUtf8Bytes() throws JSONException {
+        assertTrue(compareJSON("\"caf\u00e9\"".getBytes(StandardCharsets.UTF_8),
+                "\"caf\u00e9\"".getBytes(StandardCharsets.UTF_8), LENIENT).passed());
+        assertTrue(compareJSON("12".getBytes(StandardCharsets.UTF_8), "13".getBytes(StandardCharsets.UTF_8),
+                LENIENT).failed());
+    }
+
+    @Test
+    public void comparesFiles(@TempDir Path tempDir) throws JSONException, IOException {
+        Path expected = tempDir.resolve("expected.json");
+        Path actual = tempDir.resolve("actual.json");
+        Files.write(expected, "{\"id\": 3, \"name\": \"\u00e9\"}".getBytes(StandardCharsets.UTF_8));
+        Files.write(actual, "{\"name\": \"\u00e9\", \"id\": 5}".getBytes(StandardCharsets.UTF_8));
+        assertThat(compareJSON(expected, actual, LENIENT),
+                failsWithMessage(equalTo("id\nExpected: 3\n     got: 5\n")));
+        assertTrue(compareJSON(expected, expected, new DefaultComparator(LENIENT),
+                JSONParseOptions.DEFAULT.withCompactDocument(true)).passed());
+    }
+
+    @Test
+    public void comparesJSONLines(@TempDir Path tempDir) throws JSONException, IOException {
+        Path expected = tempDir.resolve("expected.jsonl");
+        Path actual = tempDir.resolve("actual.jsonl");
+        StringBuilder expectedLines = new StringBuilder();
+        StringBuilder actualLines = new StringBuilder();
+        for (int i = 1; i <= 5000; i++) {
+            expectedLines.append("{\"id\": ").append(i).append(", \"tags\": [1, 2]}\n");
+            actualLines.append("{\"tags\": [").append(i == 2 ? "2, 1" : "1, 2").append("], \"id\": ")
+                    .append(i == 4321 ? 0 : i).append("}\r\n");
+        }
+        Files.write(expected, expectedLines.toString().getBytes(StandardCharsets.UTF_8));
+        Files.write(actual, actualLines.toString().getBytes(StandardCharsets.UTF_8));
+        assertThat(JSONCompare.compareJSONLines(expected, actual, LENIENT),
+                failsWithMessage(equalTo("line 4321.id\nExpected: 4321\n     got: 0\n")));
+        assertThat(JSONCompare.compareJSONLines(expected, actual, JSONCompareMode.STRICT),
+                failsWithMessage(equalTo("line 2.tags[0]\nExpected: 1\n     got: 2\n ; "
+                        + "line 2.tags[1]\nExpected: 2\n     got: 1\n ; "
+                        + "line 4321.id\nExpected: 4321\n     got: 0\n")));
+
+        Files.write(actual, "{\"id\": 1, \"tags\": [1, 2]}\n\"extra\"\n3".getBytes(StandardCharsets.UTF_8));
+        assertThat(JSONCompare.compareJSONLines(actual, expected, LENIENT),
+                failsWithMessage(equalTo("line 2\nExpected: extra\n     got: a JSON object\n ; "
+                        + "line 3\nExpected: 3\n     got: a JSON object\n ; Expected 3 lines but got 5000")));
+        Files.write(actual, "{\"id\": 1, \"tags\": [1, 2]}\n{".getBytes(StandardCharsets.UTF_8));
+        JSONException e = assertThrows(JSONException.class,
+                () -> JSONCompare.compareJSONLines(expected, actual, LENIENT));
+        assertTrue(e.getMessage().startsWith("Invalid record on line 2: "), e.getMessage());
+    }
+
+    @Test
+    public void comparesReadersAndStreams() throws JSONException, IOException {
+        assertTrue(compareJSON(new StringReader("[1, {a: 2}]"), new StringReader("[{a: 2}, 1]"), LENIENT).passed());
+        assertTrue(compareJSON(new ByteArrayInputStream("\"caf\u00e9\"".getBytes(StandardCharsets.UTF_8)),
+                new ByteArrayInputStream(" \"caf\\u00e9\" ".getBytes(StandardCharsets.UTF_8)), LENIENT).passed());
+        assertTrue(compareJSON(new StringReader("1.5"), new StringReader("2"), LENIENT).failed());
+    }
+
+    @Test
+    public void comparesCharSequences() throws JSONException {
+        StringBuilder expected = new StringBuilder("{id: 1, tags: [a, b]}");
+        assertTrue(compareJSON(expected, CharBuffer.wrap("{tags: [b, a], id: 1}"), LENIENT).passed());
+        assertTrue(compareJSON(expected, "{tags: [b, a], id: 1}", JSONCompareMode.STRICT).failed());
+        assertTrue(compareJSON(expected, new StringBuilder("{id: 1, tags: [a, b], x: 2}"), LENIENT,
+                JSONParseOptions.DEFAULT.withProjection(true)).passed());
+        assertTrue(compareJSON(new StringBuilder("1.5"), new StringBuilder("2"), LENIENT).failed());
+    }
+
+    @Test
+    public void comparesWithinMemoryBudget(@TempDir Path tempDir) throws JSONException, IOException {
+        StringBuilder expected = new StringBuilder("{items: [");
+        StringBuilder actual = new StringBuilder("{items: [");
+        for (int i = 0; i < 2000; i++) {
+            expected.append(i == 0 ? "" : ", ").append("{id: ").append(i).append('}');
+            actual.append(i == 0 ? "" : ", ").append("{id: ").append(-i).append('}');
+        }
+        expected.append("], name: a}");
+        actual.append("], name: a}");
+        Path expectedFile = Files.write(tempDir.resolve("expected.json"),
+                expected.toString().getBytes(StandardCharsets.UTF_8));
+        Path actualFile = Files.write(tempDir.resolve("actual.json"),
+                actual.toString().getBytes(StandardCharsets.UTF_8));
+        JSONCompareResult unlimited = compareJSON(expected, actual, JSONCompareMode.STRICT);
+        assertEquals(1999, unlimited.getFieldFailures().size());
+
+        JSONCompare.setMemoryBudget(1024);
+        try {
+            for (JSONCompareResult result : new JSONCompareResult[] {
+                    compareJSON(expected, actual, JSONCompareMode.STRICT),
+                    compareJSON(expectedFile, actualFile, JSONCompareMode.STRICT),
+                    compareJSON(ByteBuffer.wrap(Files.readAllBytes(expectedFile)),
+                            ByteBuffer.wrap(Files.readAllBytes(actualFile)), JSONCompareMode.STRICT),
+                    compareJSON(ByteBuffer.wrap(Files.readAllBytes(expectedFile)),
+                            ByteBuffer.wrap(Files.readAllBytes(actualFile)), JSONCompareMode.STRICT,
+                            JSONParseOptions.DEFAULT.withStructuralIndex(true)) }) {
+                assertEquals(1999, result.getFailureCount());
+                assertEquals(1000, result.getFieldFailures().size());
+                assertEquals(unlimited.getFieldFailures().get(999).getField(),
+                        result.getFieldFailures().get(999).getField());
+                assertTrue(result.getMessage().endsWith(" ; and 999 more failures"));
+            }
+            assertTrue(compareJSON(expected, expected, new DefaultComparator(LENIENT)).passed());
+            assertEquals(1999, compareJSON(expectedFile, actualFile, new DefaultComparator(JSONCompareMode.STRICT))
+                    .getFieldFailures().size());
+            assertTrue(compareJSON("1", "1.0", JSONCompareMode.STRICT).failed());
+        } finally {
+            JSONCompare.setMemoryBudget(0);
+        }
+    }
+
+    @Test
+    public void comparesNullElementsWithinMemoryBudget() throws JSONException {
+        String expected = "{a: [null, true, {}], b: [[null], 1]}";
+        String actual = "{a: [1.5], b: [[1, 2], 1]}";
+        JSONCompareResult unlimited = compareJSON(expected, actual, JSONCompareMode.STRICT);
+        JSONCompare.setMemoryBudget(1);
+        try {
+            JSONCompareResult result = compareJSON(expected, actual, JSONCompareMode.STRICT);
+            assertEquals(2, result.getFailureCount());
+            assertEquals(unlimited.getMessage(), result.getMessage());
+        } finally {
+            JSONCompare.setMemoryBudget(0);
+        }
+    }
+
+    @Test
+    public void parsesActualOnExecutor() throws JSONException {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        AtomicInteger tasks = new AtomicInteger();
+        Executor executor = task -> {
+            tasks.incrementAndGet();
+            pool.execute(task);
+        };
+        try {
+            assertTrue(compareJSON("{id: 1, tags: [a, b]}", "{tags: [b, a], id: 1}", LENIENT, executor).passed());
+            assertTrue(compareJSON("[1, 2]", new StringBuilder("[1, 3]"), new DefaultComparator(LENIENT),
+                    JSONParseOptions.DEFAULT.withCompactDocument(true), executor).failed());
+            assertTrue(compareJSON("{id: 1}", "{id: 1, x: 2}", LENIENT, JSONParseOptions.DEFAULT.withProjection(true),
+                    executor).passed());
+            assertEquals(2, tasks.get());
+            assertThrows(JSONException.class, () -> compareJSON("{id: 1}", "{id: ", LENIENT, executor));
+            assertThrows(JSONException.class, () -> compareJSON("{id: ", "{id: 1}", LENIENT, executor));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void comparesValueAtPointer(@TempDir Path tempDir) throws JSONException, IOException {
+        String actual = "{data: {skipped: [\"\\u00e9\", {a: 1}], items: [{price: 1}, {price: 2, tax: 0.5}]}} x";
+        assertTrue(JSONCompare.compareJSONAt("{price: 2}", actual, "/data/items/1", LENIENT).passed());
+        assertTrue(JSONCompare.compareJSONAt("2", actual, "/data/items/1/price", LENIENT).passed());
+        JSONCompareResult result = JSONCompare.compareJSONAt("{price: 2}", actual, "/data/items/1",
+                JSONCompareMode.STRICT);
+        assertEquals("data.items[1]", result.getFieldUnexpected().get(0).getField());
+        assertThat(JSONCompare.compareJSONAt("3", actual, "/data/items/0/price", LENIENT),
+                failsWithMessage(equalTo("data.items[0].price\nExpected: 3\n     got: 1\n")));
+        assertThat(JSONCompare.compareJSONAt("3", actual, "/data/items/2", LENIENT),
+                failsWithMessage(equalTo("Expected a value at /data/items/2 but none found")));
+
+        byte[] bytes = actual.getBytes(StandardCharsets.UTF_8);
+        assertTrue(JSONCompare.compareJSONAt("\"\u00e9\"", ByteBuffer.wrap(bytes), "/data/skipped/0", LENIENT)
+                .passed());
+        Path file = Files.write(tempDir.resolve("actual.json"), bytes);
+        assertTrue(JSONCompare.compareJSONAt("[{a: 1}]", file, "/data/skipped/1", LENIENT).failed());
+        JSONAssert.assertEqualsAt("{price: 1}", actual, "/data/items/0", LENIENT);
+        assertThrows(AssertionError.class, () -> JSONAssert.assertEqualsAt("1", actual, "/data", LENIENT));
+        assertThrows(JSONException.class, () -> JSONCompare.compareJSONAt("1", actual, "data", LENIENT));
+    }
+
+    @Test
+    public void rethrowsReadErrors() {
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("broken");
+            }
+        };
+        IOException e = assertThrows(IOException.class,
+                () -> compareJSON(new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)), broken, LENIENT));
+        assertEquals("broken", e.getMessage());
+    }
+
+    @Test
+    public void stopsReadingOnceFailed() throws JSONException, IOException {
+        StringBuilder actual = new StringBuilder("{\"id\": 2, \"items\": [");
+        for (int i = 0; i < 100000; i++) {
+            actual.append(i).append(',');
+        }
+        actual.append("0]}");
+        byte[] bytes = actual.toString().getBytes(StandardCharsets.UTF_8);
+        ByteArrayInputStream stream = new ByteArrayInputStream(bytes);
+
+        JSONCompareResult result = JSONCompare.compareJSONFailFast("{\"id\": 1, \"items\": []}", stream,
+                JSONCompareMode.STRICT);
+        assertTrue(result.failed());
+        assertEquals("id", result.getFieldFailures().get(0).getField());
+        assertTrue(stream.available() > bytes.length / 2);
+
+        result = JSONCompare.compareJSONFailFast("[1, 2, 3]",
+                new ByteArrayInputStream("[1, 2, 4, 5, 6]".getBytes(StandardCharsets.UTF_8)),
+                JSONCompareMode.STRICT_ORDER);
+        assertTrue(result.failed());
+    }
+
+    @Test
+    public void failFastMatchesFullComparison() throws JSONException, IOException {
+        String[][] cases = { { "{a: 1, b: [1, 2]}", "{b: [1, 2], a: 1}" }, { "{a: 1}", "{a: 1, b: 2}" },
+                { "[1, 2]", "[1]" }, { "{a: 1}", "[1]" } };
+        for (String[] c : cases) {
+            for (JSONCompareMode mode : JSONCompareMode.values()) {
+                JSONCompareResult expected = compareJSON(c[0], c[1], mode);
+                JSONCompareResult actual = JSONCompare.compareJSONFailFast(c[0],
+                        new ByteArrayInputStream(c[1].getBytes(StandardCharsets.UTF_8)), mode);
+                assertEquals(expected.passed(), actual.passed(), mode + " " + c[0] + " " + c[1]);
+            }
+        }
+        JSONCompareResult result = JSONCompare.compareJSONFailFast("[null]",
+                new ByteArrayInputStream("[1,2]".getBytes(StandardCharsets.UTF_8)), JSONCompareMode.STRICT);
+        assertEquals(compareJSON("[null]", "[1,2]", JSONCompareMode.STRICT).getMessage(), result.getMessage());
+    }
 }
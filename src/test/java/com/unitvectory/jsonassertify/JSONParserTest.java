@@ -15,6 +15,8 @@ package com.unitvectory.jsonassertify;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.CharBuffer;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -83,7 +85,7 @@ public class JSONParserTest {
     @Test
     public void testParseJSONWhitespaceOnly() {
         // Test whitespace-only input, which is different from empty string 
-        // as it tests the trim() behavior in the parser
+        // as it tests the whitespace handling in the parser
         assertThrows(JSONException.class, () -> 
             JSONParser.parseJSON("   "));
     }
@@ -99,4 +101,16 @@ public class JSONParserTest {
         Object result = JSONParser.parseJSON("{id:1}   ");
         assertTrue(result instanceof JSONObject);
     }
+
+    @Test
+    public void testParseJSONCharSequence() throws JSONException {
+        Object object = JSONParser.parseJSON(new StringBuilder(" {id: [1, 2]} "), JSONParseOptions.DEFAULT);
+        assertEquals(1, ((JSONObject) object).getJSONArray("id").getInt(0));
+        Object array = JSONParser.parseJSON(CharBuffer.wrap("x[1, 2]".toCharArray(), 1, 6), JSONParseOptions.DEFAULT);
+        assertEquals(2, ((JSONArray) array).length());
+        Object number = JSONParser.parseJSON(new StringBuilder(" -1.5e3\n"), JSONParseOptions.DEFAULT);
+        assertEquals(" -1.5e3\n", ((JSONString) number).toJSONString());
+        assertThrows(JSONException.class,
+                () -> JSONParser.parseJSON(new StringBuilder(" 01 "), JSONParseOptions.DEFAULT));
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ParseCache}
+ */
+public class ParseCacheTest {
+
+    @Test
+    public void testReusesParsedValues() {
+        ParseCache cache = new ParseCache(10);
+        Object parsed = cache.parse("{a: [1, 2]}", JSONParseOptions.DEFAULT);
+        assertSame(parsed, cache.parse(new StringBuilder("{a: [1, 2]}").toString(), JSONParseOptions.DEFAULT));
+        assertSame(parsed, cache.parse("{a: [1, 2]}", JSONParseOptions.DEFAULT.withLazy(false)));
+        assertNotSame(parsed, cache.parse("{a: [1, 2]}", JSONParseOptions.DEFAULT.withLazyNumbers(true)));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        ParseCache cache = new ParseCache(2);
+        Object first = cache.parse("[1]", JSONParseOptions.DEFAULT);
+        Object second = cache.parse("[2]", JSONParseOptions.DEFAULT);
+        assertSame(first, cache.parse("[1]", JSONParseOptions.DEFAULT));
+        cache.parse("[3]", JSONParseOptions.DEFAULT);
+        assertEquals(2, cache.size());
+        assertSame(first, cache.parse("[1]", JSONParseOptions.DEFAULT));
+        assertNotSame(second, cache.parse("[2]", JSONParseOptions.DEFAULT));
+    }
+
+    @Test
+    public void testSkipsSharedMutableValues() {
+        ParseCache cache = new ParseCache(10);
+        cache.parse("[1]", JSONParseOptions.DEFAULT.withLazy(true));
+        cache.parse("[1]", JSONParseOptions.DEFAULT.withHashConsing(true));
+        assertEquals(0, cache.size());
+        assertThrows(JSONException.class, () -> cache.parse("{", JSONParseOptions.DEFAULT));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpectedCacheSkipsHashConsing() {
+        JSONCompare.setExpectedCacheSize(10);
+        try {
+            JSONParseOptions options = JSONParseOptions.DEFAULT.withHashConsing(true);
+            assertNotSame(JSONCompare.parseExpected("{a: [1]}", options),
+                    JSONCompare.parseExpected("{a: [1]}", options));
+            assertTrue(JSONCompare.compareJSON("{a: [1], b: [1]}", "{b: [1], a: [1]}", JSONCompareMode.STRICT,
+                    options).passed());
+            assertTrue(JSONCompare.compareJSON("{a: [1], b: [1]}", "{b: [2], a: [1]}", JSONCompareMode.STRICT,
+                    options).failed());
+        } finally {
+            JSONCompare.setExpectedCacheSize(0);
+        }
+    }
+
+    @Test
+    public void testExpectedCache() throws Exception {
+        JSONCompare.setExpectedCacheSize(100);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 200; i++) {
+                final int n = i % 10;
+                results.add(executor.submit(() -> {
+                    String expected = "{id: " + n + ", tags: [a, b]}";
+                    boolean passed = JSONCompare.compareJSON(expected, "{id: " + n + ", tags: [b, a]}",
+                            JSONCompareMode.LENIENT).passed();
+                    boolean failed = JSONCompare.compareJSON(expected, "{id: -1, tags: [b, a]}",
+                            JSONCompareMode.LENIENT).failed();
+                    return passed && failed;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+            JSONAssert.assertEquals("{id: 1}", "{id: 1}", true);
+        } finally {
+            executor.shutdown();
+            JSONCompare.setExpectedCacheSize(0);
+        }
+    }
+}
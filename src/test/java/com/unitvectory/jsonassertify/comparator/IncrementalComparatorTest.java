@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.comparator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+
+import com.unitvectory.jsonassertify.FieldComparisonFailure;
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+import com.unitvectory.jsonassertify.JSONCompareResult;
+import com.unitvectory.jsonassertify.JSONParser;
+
+/**
+ * Unit tests for {@link IncrementalComparator}
+ */
+public class IncrementalComparatorTest {
+
+    private static final String[][] CASES = {
+            { "{}", "{}" },
+            { "{id:1}", "{id:2}" },
+            { "{id:1,name:\"Joe\"}", "{name:\"Joe\",id:1}" },
+            { "{id:1,name:\"Joe\"}", "{id:1}" },
+            { "{id:1}", "{id:1,name:\"Joe\"}" },
+            { "{b:1,a:2,c:3}", "{c:4,z:1,a:2,y:5,b:7}" },
+            { "{a:{b:{c:1,d:[1,2,3]}}}", "{a:{b:{d:[1,2,4],c:2}}}" },
+            { "{a:null}", "{a:{}}" },
+            { "{a:1}", "{a:1.0}" },
+            { "[1,2,3]", "[3,2,1]" },
+            { "[1,2,3]", "[1,2]" },
+            { "[1,2]", "[1,2,3]" },
+            { "[[1,2],[3]]", "[[1,2],[4]]" },
+            { "[{id:1,v:2},{id:2,v:3}]", "[{id:2,v:3},{id:1,v:4}]" },
+            { "[null,1]", "[null,1]" },
+            { "[null]", "[1,2]" },
+            { "[1,null,2]", "[1,{a:1}]" },
+            { "[[null],{}]", "[[1,2],{}]" },
+            { "{}", "[]" },
+            { "[]", "{}" },
+    };
+
+    private static JSONCompareResult compare(String expected, String actual, JSONCompareMode mode, int pieceSize) {
+        IncrementalComparator comparator = new IncrementalComparator(JSONParser.parseJSON(expected), mode);
+        byte[] bytes = actual.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += pieceSize) {
+            comparator.feed(ByteBuffer.wrap(bytes, i, Math.min(pieceSize, bytes.length - i)));
+        }
+        return comparator.finish();
+    }
+
+    @Test
+    public void testSameResultAsDefaultComparator() {
+        for (JSONCompareMode mode : JSONCompareMode.values()) {
+            for (String[] c : CASES) {
+                JSONCompareResult expected = JSONCompare.compareJSON(c[0], c[1], mode);
+                for (int pieceSize : new int[] { 1, 4, 1000 }) {
+                    JSONCompareResult actual = compare(c[0], c[1], mode, pieceSize);
+                    String description = mode + " " + c[0] + " " + c[1] + " " + pieceSize;
+                    assertEquals(expected.passed(), actual.passed(), description);
+                    assertEquals(expected.getMessage(), actual.getMessage(), description);
+                    assertSameFailures(expected.getFieldFailures(), actual.getFieldFailures(), description);
+                    assertSameFailures(expected.getFieldMissing(), actual.getFieldMissing(), description);
+                    assertSameFailures(expected.getFieldUnexpected(), actual.getFieldUnexpected(), description);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTopLevelValues() {
+        assertTrue(compare("\"a\"", "\"a\"", JSONCompareMode.STRICT, 1).passed());
+        assertTrue(compare("1", "2", JSONCompareMode.STRICT, 1).failed());
+        assertTrue(compare("[1]", "\"a\"", JSONCompareMode.STRICT, 1).failed());
+    }
+
+    @Test
+    public void testIncompleteDocument() {
+        IncrementalComparator comparator = new IncrementalComparator(JSONParser.parseJSON("{a:1}"),
+                JSONCompareMode.STRICT);
+        comparator.feed(ByteBuffer.wrap("{\"a\": 1".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(JSONException.class, () -> comparator.finish());
+    }
+
+    @Test
+    public void testEmptyDocument() {
+        IncrementalComparator comparator = new IncrementalComparator(JSONParser.parseJSON("{a:1}"),
+                JSONCompareMode.STRICT);
+        assertThrows(JSONException.class, () -> comparator.finish());
+    }
+
+    @Test
+    public void testDuplicateKey() {
+        assertThrows(JSONException.class, () -> compare("{a:1}", "{b:1,a:1,a:2}", JSONCompareMode.LENIENT, 2));
+        assertTrue(compare("{a:1}", "{b:1,a:1}", JSONCompareMode.LENIENT, 2).passed());
+    }
+
+    private static void assertSameFailures(List<FieldComparisonFailure> expected,
+            List<FieldComparisonFailure> actual, String description) {
+        assertEquals(expected.size(), actual.size(), description);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getField(), actual.get(i).getField(), description);
+            assertEquals(String.valueOf(expected.get(i).getExpected()), String.valueOf(actual.get(i).getExpected()),
+                    description);
+            assertEquals(String.valueOf(expected.get(i).getActual()), String.valueOf(actual.get(i).getActual()),
+                    description);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.comparator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+
+import com.unitvectory.jsonassertify.FieldComparisonFailure;
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+import com.unitvectory.jsonassertify.JSONCompareResult;
+import com.unitvectory.jsonassertify.parser.JSONInput;
+import com.unitvectory.jsonassertify.parser.JSONTokenizer;
+
+/**
+ * Unit tests for {@link StreamingComparator}
+ */
+public class StreamingComparatorTest {
+
+    private static final String[][] CASES = {
+            { "{}", "{}" },
+            { "{id:1}", "{id:1}" },
+            { "{id:1}", "{id:2}" },
+            { "{id:1,name:\"Joe\"}", "{name:\"Joe\",id:1}" },
+            { "{id:1,name:\"Joe\"}", "{id:1}" },
+            { "{id:1}", "{id:1,name:\"Joe\"}" },
+            { "{b:1,a:2,c:3}", "{c:4,z:1,a:2,y:5,b:7}" },
+            { "{a:{b:{c:1,d:[1,2,3]}}}", "{a:{b:{d:[1,2,4],c:2}}}" },
+            { "{a:{b:1}}", "{a:[1]}" },
+            { "{a:[1]}", "{a:{b:1}}" },
+            { "{a:null}", "{a:{}}" },
+            { "{a:1}", "{a:1.0}" },
+            { "{a:\"1\"}", "{a:1}" },
+            { "[1,2,3]", "[3,2,1]" },
+            { "[1,2,3]", "[1,2]" },
+            { "[1,2]", "[1,2,3]" },
+            { "[[1,2],[3]]", "[[1,2],[4]]" },
+            { "[{id:1,v:2},{id:2,v:3}]", "[{id:2,v:3},{id:1,v:4}]" },
+            { "[null,1]", "[null,1]" },
+            { "[null,true,{}]", "[1.5]" },
+            { "[1,{a:1}]", "[1,null,2]" },
+            { "{a:[[null],2]}", "{a:[[1,2],3]}" },
+            { "{a:[{b:1,c:[true,false]}],d:'x'}", "{d:'y',a:[{c:[false,true],b:1,e:2}]}" },
+            { "{}", "[]" },
+            { "[]", "{}" },
+            { "{a:[]}", "{a:[1]}" },
+            { "{a:[1,{b:2}]}", "{a:[1,{b:3}],c:{d:[{e:1}]}}" },
+    };
+
+    @Test
+    public void testSameResultAsDefaultComparator() {
+        for (JSONCompareMode mode : JSONCompareMode.values()) {
+            for (String[] c : CASES) {
+                JSONCompareResult expected = JSONCompare.compareJSON(c[0], c[1], mode);
+                JSONCompareResult actual = JSONCompare.compareJSONStreaming(c[0], c[1], mode);
+                String description = mode + " " + c[0] + " " + c[1];
+                assertEquals(expected.passed(), actual.passed(), description);
+                assertEquals(expected.getMessage(), actual.getMessage(), description);
+                assertSameFailures(expected.getFieldFailures(), actual.getFieldFailures(), description);
+                assertSameFailures(expected.getFieldMissing(), actual.getFieldMissing(), description);
+                assertSameFailures(expected.getFieldUnexpected(), actual.getFieldUnexpected(), description);
+            }
+        }
+    }
+
+    @Test
+    public void testMaxFailures() {
+        String expected = "{a:{b:[1,2,3],c:{d:1,e:2}},f:[{g:1},{g:2}],h:1}";
+        String actual = "{a:{b:[4,5,6],c:{d:3,x:4}},f:[{g:3},{g:4}],y:1}";
+        JSONCompareResult all = JSONCompare.compareJSON(expected, actual, JSONCompareMode.STRICT);
+        JSONCompareResult result = new StreamingComparator(JSONCompareMode.STRICT, 3).compareJSON(
+                new JSONTokenizer(JSONInput.of(expected)), new JSONTokenizer(JSONInput.of(actual)));
+        assertEquals(all.getFailureCount(), result.getFailureCount());
+        assertEquals(3, result.getFieldFailures().size() + result.getFieldMissing().size()
+                + result.getFieldUnexpected().size());
+        String[] messages = all.getMessage().split(" ; ");
+        assertEquals(String.join(" ; ", Arrays.copyOf(messages, 3)) + " ; and " + (messages.length - 3)
+                + " more failures", result.getMessage());
+    }
+
+    @Test
+    public void testTopLevelStrings() {
+        assertEquals(true, JSONCompare.compareJSONStreaming("\"a\"", "\"a\"", JSONCompareMode.STRICT).passed());
+        assertEquals(true, JSONCompare.compareJSONStreaming("1", "2", JSONCompareMode.STRICT).failed());
+    }
+
+    @Test
+    public void testDuplicateKey() {
+        assertThrows(JSONException.class,
+                () -> JSONCompare.compareJSONStreaming("{a:1}", "{b:1,a:1,a:2}", JSONCompareMode.LENIENT));
+    }
+
+    private static void assertSameFailures(List<FieldComparisonFailure> expected,
+            List<FieldComparisonFailure> actual, String description) {
+        assertEquals(expected.size(), actual.size(), description);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getField(), actual.get(i).getField(), description);
+            assertEquals(String.valueOf(expected.get(i).getExpected()), String.valueOf(actual.get(i).getExpected()),
+                    description);
+            assertEquals(String.valueOf(expected.get(i).getActual()), String.valueOf(actual.get(i).getActual()),
+                    description);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+
+/**
+ * Unit tests for {@link CBORParser}, using the examples of RFC 8949 appendix A
+ */
+public class CBORParserTest {
+
+    static byte[] hex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+
+    private static Object parse(String hex) {
+        return CBORParser.parse(hex(hex));
+    }
+
+    @Test
+    public void testIntegers() {
+        assertEquals(0, parse("00"));
+        assertEquals(23, parse("17"));
+        assertEquals(24, parse("1818"));
+        assertEquals(1000, parse("1903e8"));
+        assertEquals(1000000000000L, parse("1b000000e8d4a51000"));
+        assertEquals(new BigInteger("18446744073709551615"), parse("1bffffffffffffffff"));
+        assertEquals(new BigInteger("18446744073709551616"), parse("c249010000000000000000"));
+        assertEquals(new BigInteger("-18446744073709551616"), parse("3bffffffffffffffff"));
+        assertEquals(new BigInteger("-18446744073709551617"), parse("c349010000000000000000"));
+        assertEquals(-1, parse("20"));
+        assertEquals(-1000, parse("3903e7"));
+        assertEquals(100, parse("c24164"));
+        assertEquals(1363896240, parse("c11a514b67b0"));
+    }
+
+    @Test
+    public void testFloats() {
+        assertEquals(new BigDecimal("1.0"), parse("f93c00"));
+        assertEquals(new BigDecimal("1.5"), parse("f93e00"));
+        assertEquals(new BigDecimal("65504.0"), parse("f97bff"));
+        assertEquals(new BigDecimal("-4.0"), parse("f9c400"));
+        assertEquals(Double.POSITIVE_INFINITY, parse("f97c00"));
+        assertEquals(new BigDecimal("100000.0"), parse("fa47c35000"));
+        assertEquals(new BigDecimal("0.1"), parse("fa3dcccccd"));
+        assertEquals(new BigDecimal("1.1"), parse("fb3ff199999999999a"));
+        assertEquals(new BigDecimal("273.15"), parse("c48221196ab3"));
+    }
+
+    @Test
+    public void testSimpleValuesAndStrings() {
+        assertEquals(Boolean.FALSE, parse("f4"));
+        assertEquals(Boolean.TRUE, parse("f5"));
+        assertEquals(JSONObject.NULL, parse("f6"));
+        assertEquals(JSONObject.NULL, parse("f7"));
+        assertEquals("", parse("60"));
+        assertEquals("IETF", parse("6449455446"));
+        assertEquals("\"\\", parse("62225c"));
+        assertEquals("ü", parse("62c3bc"));
+        assertEquals("AQIDBA", parse("4401020304"));
+        assertEquals("AQIDBAU", parse("5f42010243030405ff"));
+        assertEquals("streaming", parse("7f657374726561646d696e67ff"));
+    }
+
+    @Test
+    public void testContainers() {
+        assertEquals("[1,2,3]", parse("83010203").toString());
+        assertEquals("[1,[2,3],[4,5]]", parse("8301820203820405").toString());
+        assertEquals("[1,[2,3],[4,5]]", parse("9f018202039f0405ffff").toString());
+        assertEquals("[]", parse("9fff").toString());
+        assertTrue(((JSONObject) parse("a201020304")).similar(new JSONObject("{\"1\": 2, \"3\": 4}")));
+        assertTrue(((JSONObject) parse("a26161016162820203")).similar(new JSONObject("{a: 1, b: [2, 3]}")));
+        assertTrue(((JSONObject) parse("bf61610161629f0203ffff")).similar(new JSONObject("{a: 1, b: [2, 3]}")));
+        assertTrue(parse("80") instanceof JSONArray);
+    }
+
+    @Test
+    public void testMalformed() {
+        String[] malformed = { "", "1903", "0000", "ff", "a2616101616102", "a18001", "1c", "5f01ff", "c2f5", "820102ff",
+                "f818" };
+        for (String hex : malformed) {
+            assertThrows(JSONException.class, () -> parse(hex), hex);
+        }
+        JSONException e = assertThrows(JSONException.class, () -> parse("a2616101616102"));
+        assertEquals("Duplicate key \"a\" at 4", e.getMessage());
+    }
+
+    @Test
+    public void testPositionIsNotChanged() {
+        ByteBuffer buffer = ByteBuffer.wrap(hex("0083010203"));
+        buffer.position(1);
+        assertEquals("[1,2,3]", CBORParser.parse(buffer).toString());
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    public void testCompareCBOR() {
+        byte[] cbor = hex("a3616101616282f93e00fa3dcccccd6163f6");
+        String same = "{a: 1, b: [1.5, 0.1], c: null}";
+        String different = "{a: 1, b: [1.5, 0.2], d: null}";
+        for (JSONCompareMode mode : JSONCompareMode.values()) {
+            assertTrue(JSONCompare.compareCBOR(same, cbor, mode).passed(), mode.toString());
+            assertEquals(JSONCompare.compareJSON(different, same, mode).getMessage(),
+                    JSONCompare.compareCBOR(different, cbor, mode).getMessage(), mode.toString());
+        }
+        assertTrue(JSONCompare.compareCBOR("\"IETF\"", hex("6449455446"), JSONCompareMode.STRICT).passed());
+        assertFalse(JSONCompare.compareCBOR("[1]", hex("a0"), JSONCompareMode.STRICT).passed());
+    }
+}
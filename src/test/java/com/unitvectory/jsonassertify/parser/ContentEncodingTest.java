@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.unitvectory.jsonassertify.JSONAssert;
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+
+/**
+ * Unit tests for {@link ContentEncoding}
+ */
+public class ContentEncodingTest {
+
+    private static final String JSON = "{\"id\": 1, \"name\": \"café\", \"tags\": [\"a\", \"b\"]}";
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data, boolean nowrap) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap);
+        try (OutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+            deflate.write(data);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static String decode(byte[] data, String contentEncoding) throws IOException {
+        try (InputStream in = ContentEncoding.decode(new ByteArrayInputStream(data), contentEncoding)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[256];
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                out.write(buffer, 0, n);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testDecode() throws IOException {
+        byte[] json = JSON.getBytes(StandardCharsets.UTF_8);
+        assertEquals(JSON, decode(json, null));
+        assertEquals(JSON, decode(json, "identity"));
+        assertEquals(JSON, decode(gzip(json), "gzip"));
+        assertEquals(JSON, decode(gzip(json), "X-GZIP"));
+        assertEquals(JSON, decode(deflate(json, false), "deflate"));
+        assertEquals(JSON, decode(deflate(json, true), "deflate"));
+        assertEquals(JSON, decode(gzip(deflate(json, false)), "deflate, gzip"));
+        assertThrows(IllegalArgumentException.class, () -> decode(json, "br"));
+    }
+
+    @Test
+    public void testSourceIsNotClosed() throws IOException {
+        boolean[] closed = { false };
+        InputStream source = new ByteArrayInputStream(gzip(new byte[0])) {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        ContentEncoding.decode(source, "gzip").close();
+        assertFalse(closed[0]);
+    }
+
+    @Test
+    public void testCompareCompressed() throws IOException {
+        byte[] compressed = gzip(JSON.getBytes(StandardCharsets.UTF_8));
+        String different = "{\"id\": 2, \"name\": \"café\", \"tags\": [\"b\", \"a\"]}";
+        for (JSONCompareMode mode : JSONCompareMode.values()) {
+            assertTrue(JSONCompare.compareJSON(JSON, new ByteArrayInputStream(compressed), "gzip", mode).passed(),
+                    mode.toString());
+            assertEquals(JSONCompare.compareJSON(different, JSON, mode).getMessage(),
+                    JSONCompare.compareJSON(different, new ByteArrayInputStream(compressed), "gzip", mode)
+                            .getMessage(),
+                    mode.toString());
+        }
+        JSONAssert.assertEquals(JSON, new ByteArrayInputStream(compressed), "gzip", JSONCompareMode.STRICT);
+        JSONAssert.assertNotEquals(different, new ByteArrayInputStream(compressed), "gzip", JSONCompareMode.LENIENT);
+        assertThrows(AssertionError.class, () -> JSONAssert.assertEquals(different,
+                new ByteArrayInputStream(compressed), "gzip", JSONCompareMode.LENIENT));
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        byte[] compressed = gzip(JSON.getBytes(StandardCharsets.UTF_8));
+        InputStream truncated = new ByteArrayInputStream(compressed, 0, compressed.length / 2);
+        assertThrows(IOException.class,
+                () -> JSONCompare.compareJSON(JSON, truncated, "gzip", JSONCompareMode.STRICT));
+    }
+}
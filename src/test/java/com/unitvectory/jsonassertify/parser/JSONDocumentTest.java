@@ -0,0 +1,200 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.unitvectory.jsonassertify.Customization;
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+import com.unitvectory.jsonassertify.JSONCompareResult;
+import com.unitvectory.jsonassertify.JSONParseOptions;
+import com.unitvectory.jsonassertify.comparator.CustomComparator;
+
+/**
+ * Unit tests for {@link JSONDocument}
+ */
+public class JSONDocumentTest {
+
+    private static final JSONParseOptions COMPACT = JSONParseOptions.DEFAULT.withCompactDocument(true);
+
+    @Test
+    public void testObjectView() {
+        JSONDocument document = JSONDocument.parse("{c:3, a:'x', b:[1, 2.5, null], d:{e:true}}");
+        JSONObject root = (JSONObject) document.root();
+        assertTrue(root instanceof JSONDocumentObject);
+        assertEquals(4, root.length());
+        assertEquals(Arrays.asList("a", "b", "c", "d"), new ArrayList<String>(root.keySet()));
+        assertEquals("x", root.get("a"));
+        assertEquals(3, root.get("c"));
+        assertTrue(root.has("d"));
+        assertFalse(root.has("z"));
+        assertNull(root.opt("z"));
+        assertThrows(JSONException.class, () -> root.get("z"));
+        assertEquals(true, root.getJSONObject("d").getBoolean("e"));
+
+        JSONArray array = root.getJSONArray("b");
+        assertTrue(array instanceof JSONDocumentArray);
+        assertEquals(3, array.length());
+        assertTrue(array.isNull(2));
+        assertEquals(2.5, array.getDouble(1));
+        assertEquals(9, document.nodeCount());
+    }
+
+    @Test
+    public void testSameValuesAsOrgJson() {
+        String json = "{\"a\":1,\"b\":12345678901,\"c\":123456789012345678901234,\"d\":1.10,\"e\":1e2,"
+                + "\"f\":-0,\"g\":\"007\",\"h\":007,\"i\":[true,false,null],\"j\":\"\\u00e9\"}";
+        JSONObject expected = new JSONObject(json);
+        JSONDocumentObject actual = (JSONDocumentObject) JSONDocument.parse(json).root();
+        for (String key : expected.keySet()) {
+            assertTrue(expected.get(key).getClass().isInstance(actual.get(key)), key);
+            assertEquals(expected.get(key).toString(), actual.get(key).toString(), key);
+        }
+        assertTrue(expected.similar(actual.toJSONObject()));
+        assertTrue(actual.similar(expected));
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void testDecimalIsCreatedOnce() {
+        JSONArray array = (JSONArray) JSONDocument.parse("[0.1, 1.5e300, 0.1]").root();
+        assertEquals(new BigDecimal("0.1"), array.get(0));
+        assertSame(array.get(0), array.get(0));
+        assertEquals(1.5e300, array.getDouble(1));
+        assertEquals(0.1, array.getDouble(2));
+    }
+
+    @Test
+    public void testReadOnly() {
+        JSONObject root = (JSONObject) JSONDocument.parse("{a:[1]}").root();
+        assertThrows(UnsupportedOperationException.class, () -> root.put("b", 1));
+        assertThrows(UnsupportedOperationException.class, () -> root.getJSONArray("a").put(2));
+    }
+
+    @Test
+    public void testDuplicateKey() {
+        assertThrows(JSONException.class, () -> JSONDocument.parse("{a:1,b:2,a:3}"));
+    }
+
+    @Test
+    public void testLargeObjectIsSorted() {
+        StringBuilder sb = new StringBuilder("{");
+        List<String> keys = new ArrayList<String>();
+        for (int i = 99; i >= 0; i--) {
+            sb.append(i == 99 ? "" : ",").append("k").append(i).append(':').append(i);
+            keys.add("k" + i);
+        }
+        JSONObject root = (JSONObject) JSONDocument.parse(sb.append('}')).root();
+        keys.sort(null);
+        assertEquals(keys, new ArrayList<String>(root.keySet()));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, root.getInt("k" + i));
+        }
+    }
+
+    @Test
+    public void testSameResultAsOrgJson() {
+        String[][] cases = {
+                { "{id:1,name:\"Joe\"}", "{name:\"Joe\",id:1}" },
+                { "{b:1,a:2,c:3}", "{c:4,z:1,a:2,y:5,b:7}" },
+                { "{a:{b:{c:1,d:[1,2,3]}}}", "{a:{b:{d:[1,2,4],c:2}}}" },
+                { "{a:{b:1}}", "{a:[1]}" },
+                { "{a:1}", "{a:1.0}" },
+                { "[1,2,3]", "[3,2,1]" },
+                { "[[1,2],[3]]", "[[1,2],[4]]" },
+                { "[{id:1,v:2},{id:2,v:3}]", "[{id:2,v:3},{id:1,v:4}]" },
+                { "[{a:1},{a:2},[3]]", "[[3],{a:2},{a:1}]" },
+                { "{}", "[]" },
+        };
+        for (JSONCompareMode mode : JSONCompareMode.values()) {
+            for (String[] c : cases) {
+                JSONCompareResult expected = JSONCompare.compareJSON(c[0], c[1], mode);
+                JSONCompareResult actual = JSONCompare.compareJSON(c[0], c[1], mode, COMPACT);
+                assertEquals(expected.getMessage(), actual.getMessage(), mode + " " + c[0] + " " + c[1]);
+            }
+        }
+    }
+
+    @Test
+    public void testCustomComparator() {
+        CustomComparator comparator = new CustomComparator(JSONCompareMode.STRICT,
+                new Customization("a.b", (o1, o2) -> true));
+        assertTrue(JSONCompare.compareJSON("{a:{b:1,c:2}}", "{a:{b:5,c:2}}", comparator, COMPACT).passed());
+        assertTrue(JSONCompare.compareJSON("{a:{b:1,c:2}}", "{a:{b:5,c:3}}", comparator, COMPACT).failed());
+    }
+
+    @Test
+    public void testWriteAndMap(@TempDir Path tempDir) throws IOException {
+        String json = "{\"caf\u00e9\": [\"\u4e2d\u6587\", 1, 12345678901, 1.5e300, 0.1, 123456789012345678901234567890,"
+                + " true, false, null, {}, []], b: {c: {d: \"\"}}, e: -7}";
+        JSONDocument document = JSONDocument.parse(json);
+        Path path = tempDir.resolve("fixture.jdoc");
+        try (OutputStream out = Files.newOutputStream(path)) {
+            document.write(out);
+        }
+        assertEquals(0, Files.size(path) % 8);
+        JSONDocument mapped = JSONDocument.map(path);
+        assertEquals(document.nodeCount(), mapped.nodeCount());
+        assertTrue(new JSONObject(json).similar(((JSONDocumentObject) mapped.root()).toJSONObject()));
+        for (JSONCompareMode mode : JSONCompareMode.values()) {
+            assertTrue(JSONCompare.compareJSON(mapped, json, mode).passed(), mode.toString());
+            assertEquals(JSONCompare.compareJSON(json, "{e: -7}", mode).getMessage(),
+                    JSONCompare.compareJSON(mapped, "{e: -7}", mode).getMessage(), mode.toString());
+        }
+        String reordered = "{e: -7, b: {c: {d: ''}}, caf\u00e9: [\u4e2d\u6587, 1, 12345678901, 1.5e300, 0.1,"
+                + " 123456789012345678901234567890, true, false, null, {}, []]}";
+        assertTrue(JSONCompare.compareJSON(mapped, reordered, JSONCompareMode.STRICT).passed());
+
+        ByteArrayOutputStream scalar = new ByteArrayOutputStream();
+        JSONDocument.parse("\"text\"").write(scalar);
+        Files.write(path, scalar.toByteArray());
+        assertEquals("text", JSONDocument.map(path).root());
+        assertTrue(JSONCompare.compareJSON(JSONDocument.map(path), "\"text\"", JSONCompareMode.STRICT).passed());
+    }
+
+    @Test
+    public void testMapRejectsOtherFiles(@TempDir Path tempDir) throws IOException {
+        Path path = tempDir.resolve("fixture.jdoc");
+        Files.write(path,
+                "{\"a\": 1, \"padding\": \"longer than a header\"}".getBytes(StandardCharsets.UTF_8));
+        assertThrows(JSONException.class, () -> JSONDocument.map(path));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JSONDocument.parse("[1, 2, 3]").write(out);
+        Files.write(path, Arrays.copyOf(out.toByteArray(), out.size() - 8));
+        assertThrows(JSONException.class, () -> JSONDocument.map(path));
+    }
+}
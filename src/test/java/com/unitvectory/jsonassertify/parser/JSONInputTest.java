@@ -0,0 +1,138 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the {@link JSONInput} implementations
+ */
+public class JSONInputTest {
+
+    private static final String JSON = "{\"café\": [\"中文\", \"😀\", 1.5, null], b: {c: true}}";
+
+    @TempDir
+    Path tempDir;
+
+    private static String readAll(JSONInput input) {
+        StringBuilder sb = new StringBuilder();
+        for (int c = input.read(); c != -1; c = input.read()) {
+            sb.append((char) c);
+        }
+        return sb.toString();
+    }
+
+    private static Object build(JSONInput input) {
+        JSONTokenizer tokenizer = new JSONTokenizer(input);
+        tokenizer.next();
+        return new JSONTreeBuilder().build(tokenizer);
+    }
+
+    @Test
+    public void testReader() {
+        assertEquals(JSON, readAll(JSONInput.of(new StringReader(JSON))));
+        assertTrue(new JSONObject(JSON).similar(build(JSONInput.of(new StringReader(JSON)))));
+    }
+
+    @Test
+    public void testInputStreamWithShortReadsAndBom() {
+        byte[] bytes = ("\ufeff" + JSON).getBytes(StandardCharsets.UTF_8);
+        InputStream stream = new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        assertTrue(new JSONObject(JSON).similar(build(JSONInput.of(stream))));
+    }
+
+    @Test
+    public void testReadErrorsAreUnchecked() {
+        Reader reader = new Reader() {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("broken");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        JSONInput input = JSONInput.of(reader);
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> input.read());
+        assertEquals("broken", e.getCause().getMessage());
+    }
+
+    @Test
+    public void testPath() throws IOException {
+        Path file = tempDir.resolve("small.json");
+        Files.write(file, JSON.getBytes(StandardCharsets.UTF_8));
+        assertTrue(new JSONObject(JSON).similar(build(JSONInput.of(file))));
+    }
+
+    @Test
+    public void testMappedSegments() throws IOException {
+        Path file = tempDir.resolve("mapped.json");
+        byte[] bytes = ("\ufeff" + JSON).getBytes(StandardCharsets.UTF_8);
+        Files.write(file, bytes);
+        // Segments of 5 bytes split the multi-byte characters across mappings
+        JSONInput input;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            input = new MappedFileInput(channel, 5);
+        }
+        assertTrue(new JSONObject(JSON).similar(build(input)));
+    }
+
+    @Test
+    public void testMappedLargeFile() throws IOException {
+        Path file = tempDir.resolve("large.json");
+        StringBuilder sb = new StringBuilder("[");
+        while (sb.length() < 2 << 20) {
+            sb.append("{\"id\": ").append(sb.length()).append(", \"name\": \"élément\"},");
+        }
+        sb.append("true]");
+        Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+        JSONInput input = JSONInput.of(file);
+        assertTrue(input instanceof MappedFileInput);
+        assertTrue(new org.json.JSONArray(sb.toString()).similar(build(input)));
+    }
+
+    @Test
+    public void testEmptyMappedFile() throws IOException {
+        Path file = tempDir.resolve("empty.json");
+        Files.write(file, new byte[0]);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(-1, new MappedFileInput(channel, 5).read());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+import com.unitvectory.jsonassertify.JSONParseOptions;
+import com.unitvectory.jsonassertify.JSONParser;
+
+/**
+ * Unit tests for {@link JSONInterner}
+ */
+public class JSONInternerTest {
+
+    private static final JSONParseOptions HASH_CONSING = JSONParseOptions.DEFAULT.withHashConsing(true);
+
+    @Test
+    public void testIdenticalSubtreesAreShared() {
+        JSONArray array = (JSONArray) JSONParser.parseJSON(
+                "[{\"address\": {\"city\": \"Oslo\", \"zip\": [1, 2]}, \"id\": 1},"
+                        + " {\"id\": 2, \"address\": {\"zip\": [1, 2], \"city\": \"Oslo\"}},"
+                        + " {\"id\": 3, \"address\": {\"city\": \"Bergen\", \"zip\": [1, 2]}}, [], []]",
+                HASH_CONSING);
+        JSONObject first = array.getJSONObject(0).getJSONObject("address");
+        JSONObject second = array.getJSONObject(1).getJSONObject("address");
+        JSONObject third = array.getJSONObject(2).getJSONObject("address");
+        assertSame(first, second);
+        assertNotSame(first, third);
+        assertSame(first.get("zip"), third.get("zip"));
+        assertNotSame(array.get(0), array.get(1));
+        assertSame(array.get(3), array.get(4));
+    }
+
+    @Test
+    public void testSimpleValuesMustHaveTheSameType() {
+        JSONArray array = (JSONArray) JSONParser.parseJSON(
+                "[{a: 1}, {a: 1.0}, {a: 1.00}, {a: \"1\"}, {a: 1.0}, {a: null}, {a: null}]", HASH_CONSING);
+        assertNotSame(array.get(0), array.get(1));
+        assertNotSame(array.get(1), array.get(2));
+        assertNotSame(array.get(0), array.get(3));
+        assertSame(array.get(1), array.get(4));
+        assertSame(array.get(5), array.get(6));
+    }
+
+    @Test
+    public void testSharedAcrossDocuments() {
+        JSONInterner interner = new JSONInterner();
+        JSONObject expected = (JSONObject) interner.intern(new JSONObject("{a: {b: [1, {c: 2}]}, d: 1}"));
+        JSONObject actual = (JSONObject) interner.intern(new JSONObject("{d: 2, a: {b: [1, {c: 2}]}}"));
+        assertSame(expected.get("a"), actual.get("a"));
+        assertNotSame(expected, actual);
+        assertEquals(5, interner.size());
+        assertSame(actual, interner.intern(actual));
+        assertEquals(5, interner.size());
+    }
+
+    @Test
+    public void testViewsAreLeftAsTheyAre() {
+        JSONObject view = (JSONObject) JSONParser.parseJSON("{a: [1], b: [1]}",
+                JSONParseOptions.DEFAULT.withCompactDocument(true));
+        JSONInterner interner = new JSONInterner();
+        assertSame(view, interner.intern(view));
+        assertEquals(0, interner.size());
+    }
+
+    @Test
+    public void testCompareWithHashConsing() {
+        String[][] cases = { { "{a: {x: 1}, b: {x: 1}}", "{b: {x: 1}, a: {x: 1}}" },
+                { "{a: {x: 1}, b: {x: 1}}", "{a: {x: 1}, b: {x: 2}}" },
+                { "[{id: 1, v: [1, 2]}, {id: 2, v: [1, 2]}]", "[{id: 2, v: [2, 1]}, {id: 1, v: [1, 2]}]" },
+                { "[[1], [1], [2]]", "[[2], [1], [1]]" }, { "[[1], [1], [2]]", "[[2], [2], [1]]" },
+                { "{a: [1, 2]}", "{a: [1, 2], b: [1, 2]}" } };
+        for (String[] c : cases) {
+            for (JSONCompareMode mode : JSONCompareMode.values()) {
+                assertEquals(JSONCompare.compareJSON(c[0], c[1], mode).getMessage(),
+                        JSONCompare.compareJSON(c[0], c[1], mode, HASH_CONSING).getMessage(), mode + " " + c[0]);
+            }
+        }
+    }
+}
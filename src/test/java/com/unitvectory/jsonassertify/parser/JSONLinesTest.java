@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for {@link JSONLines}
+ */
+public class JSONLinesTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<String> lines(String content, int segmentSize) throws IOException {
+        Path path = tempDir.resolve("lines.jsonl");
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        List<String> lines = new ArrayList<String>();
+        try (JSONLines reader = new JSONLines(FileChannel.open(path, StandardOpenOption.READ), segmentSize)) {
+            for (ByteBuffer line = reader.next(); line != null; line = reader.next()) {
+                lines.add(StandardCharsets.UTF_8.decode(line).toString());
+            }
+            assertNull(reader.next());
+        }
+        return lines;
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        String content = "{\"a\": 1}\n[\"中文\"]\r\n\n\"a long line that spans several segments\"\n2";
+        List<String> expected = Arrays.asList("{\"a\": 1}", "[\"中文\"]", "", "\"a long line that spans several segments\"",
+                "2");
+        for (int segmentSize : new int[] { 1, 3, 7, 16, 1 << 20 }) {
+            assertEquals(expected, lines(content, segmentSize), "segment size " + segmentSize);
+        }
+    }
+
+    @Test
+    public void testTrailingNewline() throws IOException {
+        assertEquals(Arrays.asList("1", "2"), lines("1\n2\n", 4));
+        assertEquals(Arrays.asList(), lines("", 4));
+        assertEquals(Arrays.asList(""), lines("\n", 4));
+    }
+
+    @Test
+    public void testIndexOfNewline() {
+        byte[] bytes = new byte[40];
+        Arrays.fill(bytes, (byte) 'x');
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        assertEquals(-1, JSONLines.indexOfNewline(buffer, 0));
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = '\n';
+            assertEquals(i, JSONLines.indexOfNewline(buffer, 0));
+            assertEquals(i, JSONLines.indexOfNewline(buffer, i));
+            assertEquals(-1, JSONLines.indexOfNewline(buffer, i + 1));
+            bytes[i] = (byte) 0x8A;
+            assertEquals(-1, JSONLines.indexOfNewline(buffer, 0));
+            bytes[i] = 'x';
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link JSONPointerLocator}
+ */
+public class JSONPointerLocatorTest {
+
+    private static final String DOCUMENT = "{\"skip\": {\"deep\": [1, \"x\\u0041\", {}]}, \"a/b\": 1, \"m~n\": 2,"
+            + " \"\": 3, \"data\": {\"items\": [10, [20], {\"price\": 12.5}, null]}}";
+
+    private static Object valueAt(String json, String pointer) {
+        JSONTokenizer tokenizer = new JSONTokenizer(JSONInput.of(json));
+        String path = JSONPointerLocator.parse(pointer).locate(tokenizer);
+        return path == null ? null : path + "=" + new JSONTreeBuilder().build(tokenizer);
+    }
+
+    @Test
+    public void testLocate() {
+        assertEquals("data.items[2].price=12.5", valueAt(DOCUMENT, "/data/items/2/price"));
+        assertEquals("data.items[1]=[20]", valueAt(DOCUMENT, "/data/items/1"));
+        assertEquals("data.items[3]=null", valueAt(DOCUMENT, "/data/items/3"));
+        assertEquals("a/b=1", valueAt(DOCUMENT, "/a~1b"));
+        assertEquals("m~n=2", valueAt(DOCUMENT, "/m~0n"));
+        assertEquals("=3", valueAt(DOCUMENT, "/"));
+        assertEquals("=[1,2]", valueAt("[1, 2]", ""));
+    }
+
+    @Test
+    public void testMissing() {
+        assertNull(valueAt(DOCUMENT, "/data/items/4"));
+        assertNull(valueAt(DOCUMENT, "/data/items/-"));
+        assertNull(valueAt(DOCUMENT, "/data/items/01"));
+        assertNull(valueAt(DOCUMENT, "/data/missing"));
+        assertNull(valueAt(DOCUMENT, "/a~1b/c"));
+    }
+
+    @Test
+    public void testInvalidPointer() {
+        assertThrows(JSONException.class, () -> JSONPointerLocator.parse("data"));
+        assertThrows(JSONException.class, () -> JSONPointerLocator.parse("/a~2"));
+        assertThrows(JSONException.class, () -> JSONPointerLocator.parse("/a~"));
+        assertEquals("/a~1b", JSONPointerLocator.parse("/a~1b").toString());
+    }
+}
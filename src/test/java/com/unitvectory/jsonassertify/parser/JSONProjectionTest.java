@@ -0,0 +1,109 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+import com.unitvectory.jsonassertify.JSONCompareResult;
+import com.unitvectory.jsonassertify.JSONParseOptions;
+import com.unitvectory.jsonassertify.JSONParser;
+
+/**
+ * Unit tests for {@link JSONProjection}
+ */
+public class JSONProjectionTest {
+
+    private static final JSONParseOptions PROJECTION = JSONParseOptions.DEFAULT.withProjection(true);
+
+    private static final String[][] CASES = {
+            { "{id:1}", "{id:1,name:\"Joe\",big:{a:[1,2,{b:3}]}}" },
+            { "{id:1}", "{id:2,name:\"Joe\"}" },
+            { "{a:{b:1}}", "{a:{b:1,c:{d:2}},e:[1,2]}" },
+            { "{a:{b:1}}", "{a:[1]}" },
+            { "{a:[1]}", "{a:{b:1}}" },
+            { "{a:null}", "{a:{x:1}}" },
+            { "{a:1}", "{a:{x:1}}" },
+            { "{a:[]}", "{a:[{x:1},[2],3]}" },
+            { "[{id:1,v:2},{id:2,v:3}]", "[{id:2,v:3,w:4},{id:1,v:4,w:5}]" },
+            { "[{id:1},{v:3}]", "[{v:3,id:7},{id:1,v:0}]" },
+            { "[[1,{a:1}],[3]]", "[[3],[{a:1,b:2},1]]" },
+            { "[1,{a:1}]", "[{a:1,b:2},1]" },
+            { "{a:[{b:1,c:[true,false]}],d:'x'}", "{d:'y',a:[{c:[false,true],b:1,e:2}],f:{g:1}}" },
+            { "{}", "[]" },
+            // Only one of the element projections has elements of its own
+            { "[[\"1\"],[{},[{\"id\":null}],\"x\"],{}]", "[[\"1\"],[{},[{\"id\":null}],\"x\"],{}]" },
+            { "[[{}],[[1]]]", "[[[1]],[{a:1}]]" },
+    };
+
+    @Test
+    public void testSameResultWithProjection() {
+        for (JSONCompareMode mode : JSONCompareMode.values()) {
+            for (String[] c : CASES) {
+                JSONCompareResult expected = JSONCompare.compareJSON(c[0], c[1], mode);
+                String description = mode + " " + c[0] + " " + c[1];
+                JSONCompareResult actual = JSONCompare.compareJSON(c[0], c[1], mode, PROJECTION);
+                assertEquals(expected.passed(), actual.passed(), description);
+                assertEquals(expected.getMessage(), actual.getMessage(), description);
+                actual = JSONCompare.compareJSON(c[0], c[1], mode, PROJECTION.withCompactDocument(true));
+                assertEquals(expected.getMessage(), actual.getMessage(), description);
+            }
+        }
+    }
+
+    @Test
+    public void testSkipsMembersOutsideOfProjection() {
+        JSONProjection projection = JSONProjection.of(new JSONObject("{a:{b:1}, c:[{d:1}, {e:2}], f:[]}"));
+        String actual = "{a:{b:{x:1},z:[1]}, c:[{d:1,e:2,g:3},[4],5], f:[{h:1},[2],3], y:{}}";
+        JSONObject object = (JSONObject) JSONParser.parseJSON(actual, JSONParseOptions.DEFAULT, projection);
+        assertTrue(new JSONObject("{a:{b:{x:1}}, c:[{d:1,e:2},[],5], f:[{},[],3]}").similar(object));
+        byte[] bytes = actual.getBytes(StandardCharsets.UTF_8);
+        Object compact = JSONParser.parseJSON(ByteBuffer.wrap(bytes),
+                JSONParseOptions.DEFAULT.withCompactDocument(true), projection);
+        assertTrue(object.similar(((JSONDocumentObject) compact).toJSONObject()));
+    }
+
+    @Test
+    public void testProjectionOf() {
+        JSONProjection projection = JSONProjection.of(new JSONArray("[{a:1}, {b:{c:1}}, 2]"));
+        assertTrue(JSONProjection.of(1).isAll());
+        assertTrue(projection.elements().isAll());
+        projection = JSONProjection.of(new JSONArray("[{a:1}, {b:{c:1}}]"));
+        assertTrue(projection.elements().member("a").isAll());
+        assertNull(projection.elements().member("b").member("d"));
+        assertNull(projection.elements().member("x"));
+        assertNull(projection.elements().elements());
+    }
+
+    @Test
+    public void testDuplicateKeysStillDetected() {
+        JSONProjection projection = JSONProjection.of(new JSONObject("{a:1}"));
+        assertThrows(JSONException.class,
+                () -> JSONParser.parseJSON("{b:1, a:1, b:2}", JSONParseOptions.DEFAULT, projection));
+        assertThrows(JSONException.class, () -> JSONParser.parseJSON("{b:1, a:1, b:2}",
+                JSONParseOptions.DEFAULT.withCompactDocument(true), projection));
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link JSONPushParser}
+ */
+public class JSONPushParserTest {
+
+    private static final String[] DOCUMENTS = {
+            "{}",
+            "[]",
+            "{\"a\": 1, \"b\": [true, null, 2.5e3], \"c\": {\"d\": \"x\\\"\\u00e9y\"}}",
+            "[1, \"café 😀\", {a: b, 'c': [{}]}, [[]], -12345678901234567890]",
+            "﻿{\"bom\": \"\\\\\"}",
+            "[,1,]",
+            "  {a:1;b:2}  trailing",
+    };
+
+    /**
+     * Records the calls to the handler as text.
+     */
+    private static class Recorder implements JSONPushHandler {
+
+        private final List<String> calls = new ArrayList<String>();
+
+        @Override
+        public void startObject() {
+            calls.add("{");
+        }
+
+        @Override
+        public void member(String key, Object value) {
+            calls.add(key + "=" + value);
+        }
+
+        @Override
+        public void startArray() {
+            calls.add("[");
+        }
+
+        @Override
+        public void element(Object value) {
+            calls.add(String.valueOf(value));
+        }
+
+        @Override
+        public void end() {
+            calls.add("end");
+        }
+
+        @Override
+        public void value(String json) {
+            calls.add("value " + json);
+        }
+    }
+
+    private static List<String> push(byte[] bytes, int pieceSize) {
+        Recorder recorder = new Recorder();
+        JSONPushParser parser = new JSONPushParser(recorder);
+        ByteBuffer piece = ByteBuffer.allocate(pieceSize);
+        for (int i = 0; i < bytes.length; i += pieceSize) {
+            piece.clear();
+            piece.put(bytes, i, Math.min(pieceSize, bytes.length - i));
+            piece.flip();
+            parser.feed(piece);
+            assertFalse(piece.hasRemaining());
+        }
+        parser.finish();
+        assertTrue(parser.isDone());
+        return recorder.calls;
+    }
+
+    private static List<String> expectedCalls(String json) {
+        JSONTokenizer tokenizer = new JSONTokenizer(JSONInput.of(json));
+        tokenizer.next();
+        Object value = new JSONTreeBuilder().build(tokenizer);
+        List<String> calls = new ArrayList<String>();
+        if (value instanceof JSONObject) {
+            calls.add("{");
+            for (String key : ((JSONObject) value).keySet()) {
+                calls.add(key + "=" + ((JSONObject) value).get(key));
+            }
+        } else {
+            calls.add("[");
+            for (Object element : (JSONArray) value) {
+                calls.add(String.valueOf(element));
+            }
+        }
+        calls.add("end");
+        return calls;
+    }
+
+    @Test
+    public void testAnyPieceSize() {
+        for (String document : DOCUMENTS) {
+            byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+            List<String> expected = expectedCalls(document.replace("\uFEFF", ""));
+            for (int pieceSize = 1; pieceSize <= bytes.length; pieceSize++) {
+                List<String> actual = push(bytes, pieceSize);
+                if (expected.get(0).equals("{")) {
+                    // Member order is the order of the document rather than of a map
+                    assertEquals(new java.util.TreeSet<String>(expected), new java.util.TreeSet<String>(actual),
+                            document);
+                } else {
+                    assertEquals(expected, actual, document + " in pieces of " + pieceSize);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMembersArriveAsTheyComplete() {
+        Recorder recorder = new Recorder();
+        JSONPushParser parser = new JSONPushParser(recorder);
+        parser.feed(ByteBuffer.wrap("{\"a\": {\"b\": [1, 2]}, \"c\": \"long".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(2, recorder.calls.size());
+        assertEquals("a={\"b\":[1,2]}", recorder.calls.get(1));
+        parser.feed(ByteBuffer.wrap(" text\"}".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("c=long text", recorder.calls.get(2));
+        assertEquals("end", recorder.calls.get(3));
+        assertTrue(parser.isDone());
+    }
+
+    @Test
+    public void testTopLevelValues() {
+        assertEquals("[value \"a\\\"b\"]", push("\"a\\\"b\"".getBytes(StandardCharsets.UTF_8), 2).toString());
+        assertEquals("[value 12.50]", push("12.50".getBytes(StandardCharsets.UTF_8), 1).toString());
+    }
+
+    @Test
+    public void testSameErrorsAsTreeBuilder() {
+        for (String document : new String[] { "{\"a\": 1, \"a\": 2}", "[1, {\"b\": [2, {\"c\": 1, \"c\": 1}]}]",
+                "{\"a\": [1, 2}", "[1, 2", "{\"a\" 1}", "[\"open" }) {
+            JSONTokenizer tokenizer = new JSONTokenizer(JSONInput.of(document));
+            tokenizer.next();
+            String message = assertThrows(JSONException.class, () -> new JSONTreeBuilder().build(tokenizer))
+                    .getMessage();
+            JSONException e = assertThrows(JSONException.class,
+                    () -> push(document.getBytes(StandardCharsets.UTF_8), 3), document);
+            assertEquals(message, e.getMessage(), document);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import com.unitvectory.jsonassertify.Customization;
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+import com.unitvectory.jsonassertify.JSONCompareResult;
+import com.unitvectory.jsonassertify.JSONParseOptions;
+import com.unitvectory.jsonassertify.JSONParser;
+import com.unitvectory.jsonassertify.comparator.CustomComparator;
+
+/**
+ * Unit tests for {@link JSONRawString}
+ */
+public class JSONRawStringTest {
+
+    private static final JSONParseOptions RAW = JSONParseOptions.DEFAULT.withRawStrings(true);
+
+    private static ByteBuffer utf8(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testOnlyEscapeFreeStringsAreRaw() {
+        JSONObject object = (JSONObject) JSONParser.parseJSON(
+                utf8("{\"a\": \"hello\", \"b\": \"caf\u00e9 \ud83d\ude00\", \"c\": \"x\\ny\", 'd': 'it\"s', e: 1}"),
+                RAW);
+        assertTrue(object.get("a") instanceof JSONRawString);
+        assertTrue(object.get("b") instanceof JSONRawString);
+        assertEquals("x\ny", object.get("c"));
+        assertTrue(object.get("d") instanceof JSONRawString);
+        assertEquals(1, object.get("e"));
+
+        assertEquals("hello", object.get("a").toString());
+        assertEquals("caf\u00e9 \ud83d\ude00", object.get("b").toString());
+        assertEquals("it\"s", object.get("d").toString());
+        assertEquals(5, ((CharSequence) object.get("a")).length());
+        assertEquals('l', ((CharSequence) object.get("a")).charAt(2));
+        assertEquals(7, ((CharSequence) object.get("b")).length());
+    }
+
+    @Test
+    public void testTextInputIsNotRaw() {
+        JSONArray array = (JSONArray) JSONParser.parseJSON("[\"a\"]", RAW);
+        assertEquals("a", array.get(0));
+    }
+
+    @Test
+    public void testMalformedBytesAreDecoded() {
+        byte[] bytes = { '[', '"', 'a', (byte) 0xFF, '"', ',', '"', (byte) 0xC0, (byte) 0x80, '"', ']' };
+        JSONArray raw = (JSONArray) JSONParser.parseJSON(ByteBuffer.wrap(bytes), RAW);
+        JSONArray decoded = (JSONArray) JSONParser.parseJSON(ByteBuffer.wrap(bytes), JSONParseOptions.DEFAULT
+                .withLazyNumbers(true));
+        assertEquals(decoded.get(0), raw.get(0));
+        assertEquals(decoded.get(1), raw.get(1));
+    }
+
+    @Test
+    public void testEqualsComparesBytes() {
+        JSONArray array = (JSONArray) JSONParser.parseJSON(utf8("[\"abc\", \"abc\", \"abd\", \"ab\", \"\", \"\"]"),
+                RAW);
+        assertEquals(array.get(0), array.get(1));
+        assertEquals(array.get(0).hashCode(), array.get(1).hashCode());
+        assertNotEquals(array.get(0), array.get(2));
+        assertNotEquals(array.get(0), array.get(3));
+        assertEquals(array.get(4), array.get(5));
+        assertFalse(array.get(0).equals("abc"));
+    }
+
+    @Test
+    public void testDirectBuffer() {
+        byte[] bytes = "{\"a\": [\"x\", \"y\u00e9\"]}".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        JSONObject object = (JSONObject) JSONParser.parseJSON(direct, RAW);
+        JSONArray array = object.getJSONArray("a");
+        assertTrue(array.get(1) instanceof JSONRawString);
+        assertEquals("y\u00e9", array.get(1).toString());
+        assertEquals(0, direct.position());
+    }
+
+    @Test
+    public void testCompareWithRawStrings() {
+        String[][] cases = { { "{a: \"x\", b: [\"p\", \"q\"]}", "{b: [\"q\", \"p\"], a: \"x\"}" },
+                { "{a: \"x\"}", "{a: \"y\"}" }, { "{a: \"\\u0078\"}", "{a: \"x\"}" },
+                { "{a: \"x\"}", "{a: \"\\u0079\"}" }, { "[\"a\", \"b\", \"a\"]", "[\"b\", \"a\", \"a\"]" },
+                { "[\"a\", \"b\", \"a\"]", "[\"b\", \"b\", \"a\"]" }, { "{a: \"1\"}", "{a: 1}" },
+                { "[{id: \"1\", v: \"x\"}, {id: \"2\", v: \"y\"}]", "[{id: \"2\", v: \"y\"}, {id: \"1\", v: \"z\"}]" },
+                { "{a: \"\u00e9\"}", "{a: \"\u00e8\"}" } };
+        for (String[] c : cases) {
+            for (JSONCompareMode mode : JSONCompareMode.values()) {
+                assertEquals(JSONCompare.compareJSON(c[0], c[1], mode).getMessage(),
+                        JSONCompare.compareJSON(utf8(c[0]), utf8(c[1]), mode, RAW).getMessage(), mode + " " + c[0]);
+            }
+        }
+    }
+
+    @Test
+    public void testEscapedAndRawStringsInLenientArrays() {
+        String[][] cases = { { "{\"a\": [\"caf\\u00e9\", \"x\"]}", "{\"a\": [\"x\", \"caf\u00e9\"]}" },
+                { "[{\"id\": \"a\\/b\", \"v\": 1}]", "[{\"id\": \"a/b\", \"v\": 1}]" },
+                { "[[\"a\\/b\"], [\"c\"]]", "[[\"c\"], [\"a/b\"]]" } };
+        for (String[] c : cases) {
+            JSONCompareResult result = JSONCompare.compareJSON(utf8(c[0]), utf8(c[1]), JSONCompareMode.LENIENT, RAW);
+            assertTrue(result.passed(), c[0] + " " + result.getMessage());
+            result = JSONCompare.compareJSON(utf8(c[1]), utf8(c[0]), JSONCompareMode.LENIENT, RAW);
+            assertTrue(result.passed(), c[1] + " " + result.getMessage());
+        }
+    }
+
+    @Test
+    public void testMatchersSeeStrings() {
+        Customization customization = new Customization("a", (actual, expected) -> actual instanceof String
+                && expected instanceof String && ((String) actual).startsWith((String) expected));
+        CustomComparator comparator = new CustomComparator(JSONCompareMode.LENIENT, customization);
+        JSONCompareResult result = JSONCompare.compareJSON(utf8("{a: \"ab\"}"), utf8("{a: \"abc\"}"), comparator,
+                RAW);
+        assertTrue(result.passed(), result.getMessage());
+    }
+}
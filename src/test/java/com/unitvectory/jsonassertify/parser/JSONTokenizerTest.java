@@ -0,0 +1,135 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link JSONTokenizer}
+ */
+public class JSONTokenizerTest {
+
+    private static JSONTokenizer tokenizer(String json) {
+        return new JSONTokenizer(JSONInput.of(json));
+    }
+
+    private static Object build(String json) {
+        JSONTokenizer tokenizer = tokenizer(json);
+        tokenizer.next();
+        return new JSONTreeBuilder().build(tokenizer);
+    }
+
+    @Test
+    public void testTokens() {
+        JSONTokenizer tokenizer = tokenizer("{\"a\": [1, \"two\", null], \"b\": {}}");
+        assertEquals(JSONToken.START_OBJECT, tokenizer.next());
+        assertEquals(JSONToken.KEY, tokenizer.next());
+        assertEquals("a", tokenizer.getText());
+        assertEquals(JSONToken.START_ARRAY, tokenizer.next());
+        assertEquals(JSONToken.LITERAL, tokenizer.next());
+        assertEquals(1, tokenizer.getValue());
+        assertEquals(JSONToken.STRING, tokenizer.next());
+        assertEquals("two", tokenizer.getValue());
+        assertEquals(JSONToken.LITERAL, tokenizer.next());
+        assertEquals(JSONObject.NULL, tokenizer.getValue());
+        assertEquals(JSONToken.END_ARRAY, tokenizer.next());
+        assertEquals(JSONToken.KEY, tokenizer.next());
+        assertEquals("b", tokenizer.getText());
+        assertEquals(JSONToken.START_OBJECT, tokenizer.next());
+        assertEquals(2, tokenizer.depth());
+        assertEquals(JSONToken.END_OBJECT, tokenizer.next());
+        assertEquals(JSONToken.END_OBJECT, tokenizer.next());
+        assertEquals(0, tokenizer.depth());
+        assertEquals(JSONToken.END, tokenizer.next());
+    }
+
+    @Test
+    public void testSkipValue() {
+        JSONTokenizer tokenizer = tokenizer("[{\"a\": [1, {\"b\": \"]}\"}]}, 2]");
+        tokenizer.next();
+        assertEquals(JSONToken.START_OBJECT, tokenizer.next());
+        tokenizer.skipValue();
+        assertEquals(JSONToken.END_OBJECT, tokenizer.current());
+        assertEquals(JSONToken.LITERAL, tokenizer.next());
+        assertEquals(2, tokenizer.getValue());
+    }
+
+    @Test
+    public void testMatchesOrgJson() {
+        String[] objects = { "{a:1}", "{'a':'b'}", "{a:1;b:2}", "{a:hello world}", "{a:1,}",
+                "{\"a\":1.0, \"b\":1e2, \"c\":-0, \"d\":12345678901, \"e\":123456789012345678901234}",
+                "{\"a\":0x10, \"b\":007, \"c\":.5, \"d\":NaN}", "{\"a\":\"\\u0041\\/\\t\"}", "{b:'x\\'y'}",
+                "{\"a\":[true, False, null], \"b\":{\"c\":[[]]}}", "{1:2}" };
+        for (String json : objects) {
+            assertTrue(new JSONObject(json).similar(build(json)), json);
+        }
+        String[] arrays = { "[1,2,]", "[,1]", "[]", "[\"\\\"\", 'a']" };
+        for (String json : arrays) {
+            assertTrue(new JSONArray(json).similar(build(json)), json);
+        }
+    }
+
+    @Test
+    public void testSyntaxErrors() {
+        String[] invalid = { "{a=1}", "[1;2]", "{\"a\":\"x\ny\"}", "{a:1,a:2}", "{\"a\":1", "{\"a\":\"\\q\"}",
+                "{{}}" };
+        for (String json : invalid) {
+            assertThrows(JSONException.class, () -> build(json), json);
+        }
+    }
+
+    @Test
+    public void testUtf8Bytes() {
+        String json = "{\"caf\u00e9\": \"\u4e2d\u6587 \ud83d\ude00\", unquoted: \u00e9t\u00e9, \"n\": [1.5, null]}";
+        Object expected = build(json);
+        JSONTokenizer tokenizer = new JSONTokenizer(JSONInput.of(json.getBytes(StandardCharsets.UTF_8)));
+        tokenizer.next();
+        assertTrue(((JSONObject) expected).similar(new JSONTreeBuilder().build(tokenizer)));
+    }
+
+    @Test
+    public void testUtf8ByteBufferPositionAndBom() {
+        byte[] bytes = "xx\ufeff[\"\u00e9\"]yy".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.position(2);
+        buffer.limit(bytes.length - 2);
+        JSONTokenizer tokenizer = new JSONTokenizer(JSONInput.of(buffer));
+        assertEquals(JSONToken.START_ARRAY, tokenizer.next());
+        assertEquals(JSONToken.STRING, tokenizer.next());
+        assertEquals("\u00e9", tokenizer.getText());
+        assertEquals(JSONToken.END_ARRAY, tokenizer.next());
+        assertEquals(JSONToken.END, tokenizer.next());
+        assertEquals(2, buffer.position());
+    }
+
+    @Test
+    public void testMalformedUtf8IsReplaced() {
+        byte[] bytes = { '[', '"', 'a', (byte) 0xC3, '"', ']' };
+        JSONTokenizer tokenizer = new JSONTokenizer(JSONInput.of(bytes));
+        tokenizer.next();
+        tokenizer.next();
+        assertEquals("a\ufffd", tokenizer.getText());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+import com.unitvectory.jsonassertify.JSONCompareResult;
+import com.unitvectory.jsonassertify.JSONParseOptions;
+import com.unitvectory.jsonassertify.comparator.DefaultComparator;
+
+/**
+ * Unit tests for {@link LazyJSON}
+ */
+public class LazyJSONTest {
+
+    private static final JSONParseOptions LAZY = JSONParseOptions.DEFAULT.withLazy(true);
+
+    private static final String[][] CASES = {
+            { "{id:1}", "{id:2}" },
+            { "{id:1,name:\"Joe\"}", "{name:\"Joe\",id:1}" },
+            { "{id:1}", "{id:1,name:\"Joe\",big:{a:[1,2,{b:3}]}}" },
+            { "{a:{b:{c:1,d:[1,2,3]}}}", "{a:{b:{d:[1,2,4],c:2}}}" },
+            { "{a:{b:1}}", "{a:[1]}" },
+            { "{a:null}", "{a:{}}" },
+            { "[1,2,3]", "[3,2,1]" },
+            { "[[1,2],[3]]", "[[1,2],[4]]" },
+            { "[{id:1,v:2},{id:2,v:3}]", "[{id:2,v:3},{id:1,v:4}]" },
+            { "[null,1]", "[null,1]" },
+            { "{a:[{b:1,c:[true,false]}],d:'x'}", "{d:'y',a:[{c:[false,true],b:1,e:2}]}" },
+            { "{}", "[]" },
+    };
+
+    @Test
+    public void testSameResultAsEagerParsing() {
+        for (JSONCompareMode mode : JSONCompareMode.values()) {
+            for (String[] c : CASES) {
+                JSONCompareResult expected = JSONCompare.compareJSON(c[0], c[1], mode);
+                JSONCompareResult actual = JSONCompare.compareJSON(c[0], c[1], mode, LAZY);
+                String description = mode + " " + c[0] + " " + c[1];
+                assertEquals(expected.passed(), actual.passed(), description);
+                assertEquals(expected.getMessage(), actual.getMessage(), description);
+            }
+        }
+    }
+
+    @Test
+    public void testUntouchedSubtreesAreNotParsed() {
+        String json = "{id:1, big:{a:[1,2,{b:3}]}, list:[{c:1}]}";
+        LazyJSONObject actual = (LazyJSONObject) LazyJSON.parse(JSONInput.of(json));
+        assertFalse(actual.isParsed());
+        JSONCompareResult result = new DefaultComparator(JSONCompareMode.LENIENT)
+                .compareJSON(new JSONObject("{id:1}"), actual);
+        assertTrue(result.passed());
+        assertTrue(actual.isParsed());
+        assertFalse(((LazyJSONObject) actual.get("big")).isParsed());
+        assertFalse(((LazyJSONArray) actual.get("list")).isParsed());
+    }
+
+    @Test
+    public void testNestedValues() {
+        byte[] bytes = "[{\"é\": [1, 2.5, \"x\"]}, true, null, {}]".getBytes(StandardCharsets.UTF_8);
+        LazyJSONArray array = (LazyJSONArray) LazyJSON.parse(JSONInput.of(bytes));
+        assertEquals(4, array.length());
+        JSONArray nested = ((JSONObject) array.get(0)).getJSONArray("é");
+        assertTrue(nested instanceof LazyJSONArray);
+        assertEquals(2.5, nested.getDouble(1));
+        assertEquals(JSONObject.NULL, array.get(2));
+        assertTrue(array.similar(new JSONArray("[{\"é\": [1, 2.5, \"x\"]}, true, null, {}]")));
+        assertEquals("[{\"é\":[1,2.5,\"x\"]},true,null,{}]", array.toString());
+    }
+
+    @Test
+    public void testSyntaxErrorInSkippedSubtree() {
+        LazyJSONObject object = (LazyJSONObject) LazyJSON.parse(JSONInput.of("{a:1, b:{c:[1,}}"));
+        JSONException e = assertThrows(JSONException.class, () -> object.opt("a"));
+        assertEquals("Missing value at 14", e.getMessage());
+        // Positions of errors in nested values are reported within the whole input
+        String json = "{a:1, b:{c:1, c:2}}";
+        JSONTokenizer tokenizer = new JSONTokenizer(JSONInput.of(json));
+        tokenizer.next();
+        JSONException eager = assertThrows(JSONException.class, () -> new JSONTreeBuilder().build(tokenizer));
+        JSONObject b = ((LazyJSONObject) LazyJSON.parse(JSONInput.of(json))).getJSONObject("b");
+        e = assertThrows(JSONException.class, () -> b.opt("c"));
+        assertEquals(eager.getMessage(), e.getMessage());
+    }
+
+    @Test
+    public void testDuplicateKey() {
+        LazyJSONObject object = (LazyJSONObject) LazyJSON.parse(JSONInput.of("{a:{b:1, b:2}}"));
+        JSONObject nested = object.getJSONObject("a");
+        assertThrows(JSONException.class, () -> nested.length());
+    }
+
+    @Test
+    public void testReadOnly() {
+        JSONObject object = (JSONObject) LazyJSON.parse(JSONInput.of("{a:[1]}"));
+        assertThrows(UnsupportedOperationException.class, () -> object.put("b", 1));
+        assertThrows(UnsupportedOperationException.class, () -> object.getJSONArray("a").put(2));
+        assertThrows(UnsupportedOperationException.class, () -> object.keySet().clear());
+    }
+
+    @Test
+    public void testRequiresReopenableInput() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> LazyJSON.parse(JSONInput.of(new StringReader("{}"))));
+        assertThrows(JSONException.class, () -> LazyJSON.parse(JSONInput.of("1")));
+    }
+}
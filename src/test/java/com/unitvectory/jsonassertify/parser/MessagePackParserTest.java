@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static com.unitvectory.jsonassertify.parser.CBORParserTest.hex;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+
+/**
+ * Unit tests for {@link MessagePackParser}
+ */
+public class MessagePackParserTest {
+
+    private static Object parse(String hex) {
+        return MessagePackParser.parse(hex(hex));
+    }
+
+    @Test
+    public void testNumbers() {
+        assertEquals(0, parse("00"));
+        assertEquals(127, parse("7f"));
+        assertEquals(-1, parse("ff"));
+        assertEquals(-32, parse("e0"));
+        assertEquals(255, parse("ccff"));
+        assertEquals(65535, parse("cdffff"));
+        assertEquals(4294967295L, parse("ceffffffff"));
+        assertEquals(new BigInteger("18446744073709551615"), parse("cfffffffffffffffff"));
+        assertEquals(1, parse("cf0000000000000001"));
+        assertEquals(-128, parse("d080"));
+        assertEquals(-32768, parse("d18000"));
+        assertEquals(Integer.MIN_VALUE, parse("d280000000"));
+        assertEquals(Long.MIN_VALUE, parse("d38000000000000000"));
+        assertEquals(new BigDecimal("0.1"), parse("ca3dcccccd"));
+        assertEquals(new BigDecimal("1.5"), parse("cb3ff8000000000000"));
+        assertEquals(Double.NaN, parse("cb7ff8000000000000"));
+    }
+
+    @Test
+    public void testSimpleValuesAndStrings() {
+        assertEquals(JSONObject.NULL, parse("c0"));
+        assertEquals(Boolean.FALSE, parse("c2"));
+        assertEquals(Boolean.TRUE, parse("c3"));
+        assertEquals("", parse("a0"));
+        assertEquals("abc", parse("a3616263"));
+        assertEquals("abc", parse("d903616263"));
+        assertEquals("ü", parse("da0002c3bc"));
+        assertEquals("AQI", parse("c4020102"));
+    }
+
+    @Test
+    public void testContainers() {
+        assertEquals("[1,2]", parse("920102").toString());
+        assertEquals("[1,2]", parse("dc00020102").toString());
+        assertEquals("[]", parse("90").toString());
+        assertTrue(((JSONObject) parse("82a16101a162920203")).similar(new JSONObject("{a: 1, b: [2, 3]}")));
+        assertTrue(((JSONObject) parse("de0001a16101")).similar(new JSONObject("{a: 1}")));
+        assertTrue(((JSONObject) parse("810102")).similar(new JSONObject("{\"1\": 2}")));
+    }
+
+    @Test
+    public void testMalformed() {
+        String[] malformed = { "", "c1", "d40100", "c70100", "9201", "0101", "81c302", "82a16101a16102", "a3616",
+                "db7fffffff" };
+        for (String hex : malformed) {
+            assertThrows(JSONException.class, () -> parse(hex), hex);
+        }
+    }
+
+    @Test
+    public void testCompareMessagePack() {
+        byte[] msgpack = hex("83a16101a16292cb3ff8000000000000ca3dcccccda163c0");
+        String same = "{a: 1, b: [1.5, 0.1], c: null}";
+        String different = "{a: 2, b: [1.5], c: null}";
+        for (JSONCompareMode mode : JSONCompareMode.values()) {
+            assertTrue(JSONCompare.compareMessagePack(same, msgpack, mode).passed(), mode.toString());
+            assertEquals(JSONCompare.compareJSON(different, same, mode).getMessage(),
+                    JSONCompare.compareMessagePack(different, msgpack, mode).getMessage(), mode.toString());
+        }
+        assertTrue(JSONCompare.compareMessagePack("-1", hex("ff"), JSONCompareMode.STRICT).passed());
+    }
+}
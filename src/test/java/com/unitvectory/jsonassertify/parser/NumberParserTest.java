@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+import com.unitvectory.jsonassertify.JSONParseOptions;
+import com.unitvectory.jsonassertify.JSONParser;
+
+/**
+ * Unit tests for {@link NumberParser} and {@link JSONNumber}
+ */
+public class NumberParserTest {
+
+    private static final String[] LITERALS = { "0", "-0", "007", "-", "123", "-123", "2147483647", "2147483648",
+            "-2147483648", "-2147483649", "999999999999999999", "9223372036854775807", "9223372036854775808",
+            "1.5", "1e3", "1E3", "-0.0", "-0e5", "0x1F", "+1", ".5", "1.", "00", "-01", "1.50", "1e400", "012.5",
+            "1.5e+03", "1e", "1.5e-", "true", "false", "null", "abc", "" };
+
+    @Test
+    public void testSameValuesAsOrgJson() {
+        for (String literal : LITERALS) {
+            Object expected = JSONObject.stringToValue(literal);
+            Object actual = NumberParser.toValue(literal, false);
+            assertEquals(expected.getClass(), actual.getClass(), literal);
+            assertEquals(expected, actual, literal);
+        }
+    }
+
+    @Test
+    public void testLazyDecimals() {
+        for (String literal : LITERALS) {
+            Object expected = JSONObject.stringToValue(literal);
+            Object actual = NumberParser.toValue(literal, true);
+            if (actual instanceof JSONNumber) {
+                assertTrue(expected instanceof BigDecimal, literal);
+                assertEquals(expected, ((JSONNumber) actual).toBigDecimal(), literal);
+                assertEquals(expected.toString(), actual.toString(), literal);
+                assertEquals(expected.hashCode(), actual.hashCode(), literal);
+                assertEquals(((BigDecimal) expected).doubleValue(), ((JSONNumber) actual).doubleValue(), literal);
+            } else {
+                assertEquals(expected, actual, literal);
+            }
+        }
+        assertEquals(NumberParser.toValue("1.50", true), NumberParser.toValue("1.50", true));
+        assertNotEquals(NumberParser.toValue("1.5", true), NumberParser.toValue("1.50", true));
+        assertFalse(NumberParser.toValue("-0.0", true) instanceof JSONNumber);
+    }
+
+    @Test
+    public void testParseDouble() {
+        String[] hard = { "1e23", "9007199254740993", "2.2250738585072011e-308", "4.9e-324", "5e-324",
+                "2.4703282292062328e-324", "1.7976931348623157e308", "1.7976931348623159e308", "0.1",
+                "123456789012345678901234567890e-10", "9999999999999999999", "9.999999999999999999e22",
+                "7.3177701707893310e+15", "1e-400", "-2.5e-3", "0.000", "1e100000" };
+        for (String s : hard) {
+            assertEquals(Double.doubleToLongBits(Double.parseDouble(s)),
+                    Double.doubleToLongBits(NumberParser.parseDouble(s)), s);
+        }
+        Random random = new Random(12345);
+        for (int i = 0; i < 100000; i++) {
+            String s;
+            if (i % 2 == 0) {
+                double d = Double.longBitsToDouble(random.nextLong() & 0x7FEFFFFFFFFFFFFFL);
+                s = Double.toString(d);
+            } else {
+                s = (1 + random.nextInt(9)) + "." + Math.abs(random.nextLong()) + "e" + (random.nextInt(640) - 330);
+            }
+            assertEquals(Double.doubleToLongBits(Double.parseDouble(s)),
+                    Double.doubleToLongBits(NumberParser.parseDouble(s)), s);
+        }
+    }
+
+    @Test
+    public void testCompareWithLazyNumbers() {
+        JSONParseOptions options = JSONParseOptions.DEFAULT.withLazyNumbers(true);
+        String[][] cases = { { "{a: 1.5, b: [2.25e2, 3]}", "{b: [225, 3], a: 1.50}" },
+                { "{a: 1.5}", "{a: 1.6}" }, { "[0.1, 0.2, 0.3]", "[0.3, 0.1, 0.2]" }, { "[1.5, 1.5]", "[1.50, 1.5]" },
+                { "{a: 1e400}", "{a: 2e400}" } };
+        for (String[] c : cases) {
+            for (JSONCompareMode mode : JSONCompareMode.values()) {
+                assertEquals(JSONCompare.compareJSON(c[0], c[1], mode).getMessage(),
+                        JSONCompare.compareJSON(c[0], c[1], mode, options).getMessage(), mode + " " + c[0]);
+            }
+        }
+        JSONArray array = (JSONArray) JSONParser.parseJSON("[1.5, 2, -0.0]", options);
+        assertTrue(array.get(0) instanceof JSONNumber);
+        assertTrue(array.get(1) instanceof Integer);
+        assertTrue(array.get(2) instanceof Double);
+    }
+}
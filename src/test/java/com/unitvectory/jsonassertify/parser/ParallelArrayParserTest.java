@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.unitvectory.jsonassertify.JSONParseOptions;
+import com.unitvectory.jsonassertify.JSONParser;
+
+/**
+ * Unit tests for {@link ParallelArrayParser}
+ */
+public class ParallelArrayParserTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    public static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    public static void stopPool() {
+        pool.shutdown();
+    }
+
+    private static String records(int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(i % 3 == 0 ? " ,\n" : ",");
+            }
+            switch (i % 5) {
+                case 0:
+                    sb.append("{\"id\": ").append(i).append(", \"name\": \"a, [b] \\\" {c}\", \"tags\": [1, 2.5, null]}");
+                    break;
+                case 1:
+                    sb.append("{id: ").append(i).append(", note: don't, 'q': 'x,]'}");
+                    break;
+                case 2:
+                    sb.append("[\"\\\\\", [], {}, \"é😀\"]");
+                    break;
+                case 3:
+                    sb.append("\"plain, string\"");
+                    break;
+                default:
+                    sb.append(i * 1.5);
+                    break;
+            }
+        }
+        return sb.append("]").toString();
+    }
+
+    private static Object parse(String json, long chunkSize, JSONProjection projection) {
+        return parse(json, false, chunkSize, projection);
+    }
+
+    private static Object parse(String json, boolean indexed, long chunkSize, JSONProjection projection) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        JSONInput input = JSONInput.of(bytes);
+        StructuralIndex index = indexed ? StructuralIndex.of(bytes) : null;
+        JSONTokenizer tokenizer = new JSONTokenizer(input, 0, index);
+        tokenizer.next();
+        ParallelArrayParser parser = new ParallelArrayParser(pool, chunkSize, new JSONTreeBuilder());
+        return parser.parseArray(input, index, tokenizer.position() - 1, projection);
+    }
+
+    private static Object parseSequential(String json, JSONProjection projection) {
+        JSONTokenizer tokenizer = new JSONTokenizer(JSONInput.of(json));
+        tokenizer.next();
+        return new JSONTreeBuilder().build(tokenizer, projection);
+    }
+
+    @Test
+    public void testSameAsSequential() {
+        String json = records(500);
+        JSONArray expected = new JSONArray(json);
+        for (long chunkSize : new long[] { 0, 1, 50, 1000, Long.MAX_VALUE }) {
+            for (boolean indexed : new boolean[] { false, true }) {
+                JSONArray actual = (JSONArray) parse(json, indexed, chunkSize, JSONProjection.ALL);
+                assertEquals(500, actual.length());
+                assertTrue(actual.similar(expected), "chunk size " + chunkSize + " indexed " + indexed);
+            }
+        }
+    }
+
+    @Test
+    public void testElisionsAndTrailingComma() {
+        for (String json : new String[] { "[]", "[ ]", "[,1]", "[1,,2]", "[1,2,]", "[,]", "[[1,],{}, ]", "[1 2, 3 4]" }) {
+            JSONArray actual = (JSONArray) parse(json, 0, JSONProjection.ALL);
+            assertTrue(actual.similar(parseSequential(json, JSONProjection.ALL)), json);
+            actual = (JSONArray) parse(json, true, 0, JSONProjection.ALL);
+            assertTrue(actual.similar(parseSequential(json, JSONProjection.ALL)), json);
+        }
+    }
+
+    @Test
+    public void testProjection() {
+        String json = records(100);
+        JSONProjection projection = JSONProjection.of(new JSONArray("[{\"id\": 1}]"));
+        JSONArray actual = (JSONArray) parse(json, 10, projection);
+        assertTrue(actual.similar(parseSequential(json, projection)));
+        assertEquals(1, actual.getJSONObject(0).length());
+    }
+
+    @Test
+    public void testSameErrorAsSequential() {
+        for (String json : new String[] { "[1, \"a\" \"b\", 2]", "[1, {a: 1}}, 2]", "[1, {\"a\": 1, \"a\": 2}, 3]",
+                "[1, 2, \"open", "[1, 2, 3", "[1, [2, 3}, 4]", "[1, 'a\\'b, 2]" }) {
+            String message = assertThrows(JSONException.class, () -> parseSequential(json, JSONProjection.ALL))
+                    .getMessage();
+            JSONException e = assertThrows(JSONException.class, () -> parse(json, 0, JSONProjection.ALL), json);
+            assertEquals(message, e.getMessage(), json);
+            e = assertThrows(JSONException.class, () -> parse(json, true, 0, JSONProjection.ALL), json);
+            assertEquals(message, e.getMessage(), json);
+        }
+    }
+
+    @Test
+    public void testRequiresReopenableInput() {
+        JSONInput input = JSONInput.of(new java.io.StringReader("[1]"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> ParallelArrayParser.parse(input, null, 0, JSONProjection.ALL));
+    }
+
+    @Test
+    public void testParseOptions() {
+        String json = records(50);
+        JSONParseOptions options = JSONParseOptions.DEFAULT.withParallel(true);
+        Object fromString = JSONParser.parseJSON(json, options);
+        Object fromBytes = JSONParser.parseJSON(java.nio.ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)),
+                options.withStructuralIndex(true));
+        assertTrue(new JSONArray(json).similar(fromString));
+        assertTrue(new JSONArray(json).similar(fromBytes));
+        assertTrue(JSONParser.parseJSON("{\"a\": [1]}", options) instanceof JSONObject);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+import com.unitvectory.jsonassertify.JSONCompareResult;
+import com.unitvectory.jsonassertify.JSONParseOptions;
+
+/**
+ * Unit tests for {@link StructuralIndex}
+ */
+public class StructuralIndexTest {
+
+    private static final String[] DOCUMENTS = {
+            "{}",
+            "[1,2,3]",
+            "{\"a\": [1, {\"b\": \"x}]\"}], \"c\": {\"d\": \"quote \\\" and \\\\\", \"e\": [[], {}]}}",
+            "{a: don't, b: ['it s', \"[{\"], c: {'k': 'v'}}",
+            "[\"a long string that spans several words of eight bytes, with } and ] inside\", {}]",
+            "{\"café\": \"中文 😀 [\", \"n\": [1.5e10, -2, true, false, null]}",
+            "﻿{\"bom\": [{\"x\": \"\\\\\"}, 2]}",
+            "[\"\\\\\\\"]\", [\"\\\\\"], {}]",
+            "{a:1;b:[2,3];c:{d:'e'}}",
+    };
+
+    @Test
+    public void testSkipMatchesTokenizer() {
+        for (String document : DOCUMENTS) {
+            byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+            StructuralIndex index = StructuralIndex.of(bytes);
+            JSONTokenizer tokenizer = new JSONTokenizer(JSONInput.of(bytes));
+            int containers = 0;
+            for (JSONToken token = tokenizer.next(); token != JSONToken.END; token = tokenizer.next()) {
+                if (!token.isStart()) {
+                    continue;
+                }
+                long start = tokenizer.position() - 1;
+                JSONTokenizer skipper = new JSONTokenizer(JSONInput.of(bytes).reopen(start), start);
+                skipper.next();
+                skipper.skipValue();
+                assertEquals(skipper.position(), index.skip(start), document + " at " + start);
+                containers++;
+            }
+            assertTrue(containers > 0);
+        }
+    }
+
+    @Test
+    public void testStructuralCharacters() {
+        StructuralIndex index = StructuralIndex.of("{\"a\":[1, \"b,c\"]}".getBytes(StandardCharsets.UTF_8));
+        StringBuilder characters = new StringBuilder();
+        for (int i = 0; i < index.size(); i++) {
+            characters.append(index.character(i));
+        }
+        assertEquals("{\"\":[,\"\"]}", characters.toString());
+        assertEquals(9, index.position(6));
+        assertEquals(7, index.match(6));
+        assertEquals(9, index.match(0));
+        assertEquals(-1, index.find(2));
+        assertEquals(-1, index.skip(6));
+        assertEquals(4, index.skip(1));
+        assertEquals(15, index.skip(5));
+
+        // The last bytes are not a whole word
+        index = StructuralIndex.of("[12345, 6789]".getBytes(StandardCharsets.UTF_8));
+        assertEquals(3, index.size());
+        assertEquals(',', index.character(1));
+        assertEquals(12, index.position(2));
+    }
+
+    @Test
+    public void testUnmatchedBrackets() {
+        StructuralIndex index = StructuralIndex.of("[{]".getBytes(StandardCharsets.UTF_8));
+        assertEquals(-1, index.skip(0));
+        assertEquals(-1, index.skip(1));
+    }
+
+    @Test
+    public void testTokenizerSkipsWithIndex() {
+        byte[] bytes = DOCUMENTS[2].getBytes(StandardCharsets.UTF_8);
+        JSONTokenizer tokenizer = new JSONTokenizer(JSONInput.of(bytes), 0, StructuralIndex.of(bytes));
+        assertEquals(JSONToken.START_OBJECT, tokenizer.next());
+        assertEquals(JSONToken.KEY, tokenizer.next());
+        assertEquals(JSONToken.START_ARRAY, tokenizer.next());
+        tokenizer.skipValue();
+        assertEquals(JSONToken.END_ARRAY, tokenizer.current());
+        assertEquals(1, tokenizer.depth());
+        assertEquals(JSONToken.KEY, tokenizer.next());
+        assertEquals("c", tokenizer.getText());
+    }
+
+    @Test
+    public void testSameResultWithIndex() {
+        JSONParseOptions options = JSONParseOptions.DEFAULT.withStructuralIndex(true);
+        String expected = "{\"c\": {\"e\": [{}, []]}, \"a\": [1, {\"b\": \"x}]\"}]}";
+        for (String document : DOCUMENTS) {
+            ByteBuffer actual = ByteBuffer.wrap(document.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer expectedBytes = ByteBuffer.wrap(expected.getBytes(StandardCharsets.UTF_8));
+            for (JSONParseOptions o : new JSONParseOptions[] { options, options.withLazy(true),
+                    options.withProjection(true), options.withProjection(true).withCompactDocument(true) }) {
+                JSONCompareResult plain = JSONCompare.compareJSON(expectedBytes, actual, JSONCompareMode.LENIENT,
+                        JSONParseOptions.DEFAULT);
+                JSONCompareResult indexed = JSONCompare.compareJSON(expectedBytes, actual, JSONCompareMode.LENIENT, o);
+                assertEquals(plain.getMessage(), indexed.getMessage(), document);
+            }
+        }
+        JSONObject lazy = (JSONObject) LazyJSON.parse(JSONInput.of(DOCUMENTS[2].getBytes(StandardCharsets.UTF_8)),
+                StructuralIndex.of(DOCUMENTS[2].getBytes(StandardCharsets.UTF_8)));
+        assertTrue(lazy.similar(new JSONObject(DOCUMENTS[2])));
+    }
+}
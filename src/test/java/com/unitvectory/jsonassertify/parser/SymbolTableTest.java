@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Iterator;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import com.unitvectory.jsonassertify.JSONCompare;
+import com.unitvectory.jsonassertify.JSONCompareMode;
+import com.unitvectory.jsonassertify.JSONParseOptions;
+import com.unitvectory.jsonassertify.JSONParser;
+
+/**
+ * Unit tests for {@link SymbolTable}
+ */
+public class SymbolTableTest {
+
+    private static final String RECORDS = "[{\"id\": 1, \"status\": \"ACTIVE\", \"note\": "
+            + "\"a note that is longer than thirty-two characters\"}, {id: 2, 'status': 'ACTIVE', "
+            + "\"note\": \"a note that is longer than thirty-two characters\"}]";
+
+    private static String key(JSONObject object, String key) {
+        Iterator<String> keys = object.keys();
+        while (keys.hasNext()) {
+            String k = keys.next();
+            if (k.equals(key)) {
+                return k;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testGetSharesEqualText() {
+        SymbolTable table = new SymbolTable();
+        String a = table.get(new StringBuilder("key"));
+        assertEquals("key", a);
+        assertSame(a, table.get(new StringBuilder("key")));
+        assertSame(a, table.get("key"));
+        assertEquals("", table.get(new StringBuilder()));
+        // Same hash, different text
+        assertEquals("FB", table.get("FB"));
+        assertEquals("Ea", table.get("Ea"));
+        assertSame(table.get("FB"), table.get(new StringBuilder("FB")));
+        assertEquals(4, table.size());
+    }
+
+    @Test
+    public void testTableGrowsAndStopsWhenFull() {
+        SymbolTable table = new SymbolTable();
+        for (int i = 0; i < 100000; i++) {
+            assertEquals("k" + i, table.get("k" + i));
+        }
+        assertEquals(1 << 14, table.size());
+        String first = table.get("k0");
+        assertSame(first, table.get(new StringBuilder("k0")));
+        assertNotSame(table.get(new StringBuilder("k99999")), table.get(new StringBuilder("k99999")));
+    }
+
+    @Test
+    public void testSharedKeys() {
+        JSONArray array = (JSONArray) JSONParser.parseJSON(RECORDS,
+                JSONParseOptions.DEFAULT.withSharedKeys(true));
+        JSONObject first = array.getJSONObject(0);
+        JSONObject second = array.getJSONObject(1);
+        assertSame(key(first, "id"), key(second, "id"));
+        assertSame(key(first, "status"), key(second, "status"));
+        assertNotSame(first.get("status"), second.get("status"));
+    }
+
+    @Test
+    public void testSharedStrings() {
+        JSONArray array = (JSONArray) JSONParser.parseJSON(RECORDS,
+                JSONParseOptions.DEFAULT.withSharedStrings(true));
+        JSONObject first = array.getJSONObject(0);
+        JSONObject second = array.getJSONObject(1);
+        assertSame(key(first, "note"), key(second, "note"));
+        assertSame(first.get("status"), second.get("status"));
+        assertNotSame(first.get("note"), second.get("note"));
+        assertEquals(first.get("note"), second.get("note"));
+    }
+
+    @Test
+    public void testCompareWithSharedStrings() {
+        JSONParseOptions options = JSONParseOptions.DEFAULT.withSharedStrings(true).withParallel(true);
+        String[][] cases = { { RECORDS, RECORDS }, { "{a: \"x\", b: [\"x\", \"y\"]}", "{b: [\"y\", \"x\"], a: \"y\"}" },
+                { "[{id: 1, v: \"a\"}, {id: 2, v: \"b\"}]", "[{id: 2, v: \"b\"}, {id: 1, w: \"a\"}]" } };
+        for (String[] c : cases) {
+            for (JSONCompareMode mode : JSONCompareMode.values()) {
+                assertEquals(JSONCompare.compareJSON(c[0], c[1], mode).getMessage(),
+                        JSONCompare.compareJSON(c[0], c[1], mode, options).getMessage(), mode + " " + c[0]);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.unitvectory.jsonassertify;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.json.JSONException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Unit tests for {@link JSONBodySubscriber}
+ */
+public class JSONBodySubscriberTest {
+
+    private static HttpServer server;
+
+    private static HttpClient client;
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            byte[] body = (query == null ? "" : query).replace("%20", " ").getBytes(StandardCharsets.UTF_8);
+            // Chunked, and flushed in small pieces so the body arrives in several parts
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < body.length; i += 3) {
+                    out.write(body, i, Math.min(3, body.length - i));
+                    out.flush();
+                }
+            }
+        });
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    private static JSONCompareResult get(String expected, String body, JSONCompareMode mode) throws Exception {
+        URI uri = new URI("http", null, "127.0.0.1", server.getAddress().getPort(), "/", body, null);
+        return client.send(HttpRequest.newBuilder(uri).build(), JSONBodySubscriber.ofComparison(expected, mode))
+                .body();
+    }
+
+    @Test
+    public void testComparesBody() throws Exception {
+        assertTrue(get("{a:1,b:[1,2]}", "{\"b\":[1,2],\"a\":1}", JSONCompareMode.STRICT).passed());
+        JSONCompareResult result = get("{a:1,b:[1,2]}", "{\"b\":[2,1],\"a\":1,\"c\":true}", JSONCompareMode.STRICT);
+        assertEquals(JSONCompare.compareJSON("{a:1,b:[1,2]}", "{\"b\":[2,1],\"a\":1,\"c\":true}",
+                JSONCompareMode.STRICT).getMessage(), result.getMessage());
+        assertTrue(get("[1,2,3]", "[3,2,1]", JSONCompareMode.LENIENT).passed());
+    }
+
+    @Test
+    public void testInvalidBody() {
+        Exception e = assertThrows(Exception.class, () -> get("{a:1}", "{\"a\":1", JSONCompareMode.STRICT));
+        Throwable cause = e;
+        while (cause != null && !(cause instanceof JSONException)) {
+            cause = cause.getCause();
+        }
+        assertTrue(cause instanceof JSONException, String.valueOf(e));
+    }
+
+    @Test
+    public void testComparisonExceptionCompletesBody() {
+        // The DefaultComparator cannot describe a null element compared to another value
+        JSONBodySubscriber subscriber = new JSONBodySubscriber("[null]", JSONCompareMode.STRICT);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+        subscriber.onNext(List.of(ByteBuffer.wrap("[1]".getBytes(StandardCharsets.UTF_8))));
+        subscriber.onComplete();
+        CompletableFuture<JSONCompareResult> body = subscriber.getBody().toCompletableFuture();
+        assertTrue(body.isCompletedExceptionally());
+        assertTrue(cancelled.get());
+        assertThrows(ExecutionException.class, () -> body.get());
+    }
+}